@@ -1,6 +1,7 @@
 module univalle.tedesoft.uno {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
 
     opens univalle.tedesoft.uno to javafx.fxml;
     opens univalle.tedesoft.uno.controller to javafx.fxml;
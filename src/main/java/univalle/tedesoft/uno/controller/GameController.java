@@ -8,15 +8,20 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
+import univalle.tedesoft.uno.diagnostics.EngineMetrics;
 import univalle.tedesoft.uno.exceptions.EmptyDeckException;
 import univalle.tedesoft.uno.exceptions.InvalidPlayException;
 import univalle.tedesoft.uno.model.Cards.Card;
 import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
 import univalle.tedesoft.uno.model.Players.HumanPlayer;
 import univalle.tedesoft.uno.model.Players.MachinePlayer;
 import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.Rng.IRandomSource;
+import univalle.tedesoft.uno.model.Rng.Xoshiro256Random;
 import univalle.tedesoft.uno.model.State.GameState;
 import univalle.tedesoft.uno.model.State.IGameState;
+import univalle.tedesoft.uno.threads.GameTimer;
 import univalle.tedesoft.uno.threads.HumanUnoTimerRunnable;
 import univalle.tedesoft.uno.threads.MachineDeclareUnoRunnable;
 import univalle.tedesoft.uno.threads.MachinePlayerRunnable;
@@ -25,7 +30,6 @@ import univalle.tedesoft.uno.view.InstructionsView;
 
 import java.io.IOException;
 import java.util.Optional;
-import java.util.Random;
 /**
  * Clase encargada de controlar la pantalla principal donde se desarrolla el juego
  * y donde se da la conexion entre los modelos y la capa de vistas.
@@ -94,6 +98,10 @@ public class GameController {
     private Thread humanUnoTimerThread;
     /** Hilo para el temporizador que simula el tiempo de reacción de la máquina para declarar "¡UNO!". */
     private Thread machineDeclareUnoThread;
+    /** Plazo del temporizador de UNO del jugador humano en el reloj monotónico, o 0 si no hay. */
+    private long humanUnoDeadline;
+    /** Plazo del temporizador de UNO de la máquina en el reloj monotónico, o 0 si no hay. */
+    private long machineUnoDeadline;
 
     // --- Constantes para controlar las ventanas de tiempo para declarar UNO ---
     /** Tiempo mínimo (en milisegundos) que el jugador humano tiene para declarar UNO o castigar a la máquina. */
@@ -102,6 +110,12 @@ public class GameController {
     private static final int CATCH_MAX_DELAY_MS = 4000; // 4 segundos
     /** Retraso (en milisegundos) que simula el "pensamiento" de la máquina antes de realizar su jugada. */
     private static final long MACHINE_TURN_THINK_DELAY_MS = 1500;
+    /** Propiedad del sistema con una semilla fija para repetir las partidas (barajado, máquina y retrasos). */
+    private static final String SEED_PROPERTY = "uno.seed";
+    /** Fuente aleatoria de los retrasos de UNO; se siembra al empezar cada partida. */
+    private final IRandomSource random = new Xoshiro256Random();
+    /** Semilla de la partida actual. */
+    private long gameSeed;
 
     /**
      * Inicializacion de JavaFX después de cargar el FXML.
@@ -145,18 +159,24 @@ public class GameController {
     private void startNewGame() {
         // Detener tareas de hilos anteriores si existen
         this.cancelAllTimers();
-        // Interrumpir el hilo del turno de la máquina si está activo
-        if (this.machineTurnThread != null && this.machineTurnThread.isAlive()) {
-            this.machineTurnThread.interrupt();
-        }
+        // Detener el hilo del turno de la máquina antes de tocar las manos y el estado
+        this.stopMachineTurnThread();
 
         // Asegurarnos de que el HumanPlayer mantenga su nombre
         if (this.playerName != null && !this.playerName.isEmpty()) {
             this.humanPlayer.setName(this.playerName);
         }
 
-        // Crear nuevo estado de juego e inicializarlo
-        this.gameState = new GameState(this.humanPlayer, this.machinePlayer);
+        // Reiniciar el estado en su lugar, recogiendo las cartas de la partida anterior;
+        // el hilo de la máquina ya terminó, así que nadie más lo está leyendo
+        if (this.gameState == null) {
+            this.gameState = new GameState(this.humanPlayer, this.machinePlayer);
+        }
+        // Una semilla por partida reparte fuentes independientes al mazo y a la máquina
+        this.gameSeed = Long.getLong(SEED_PROPERTY, Xoshiro256Random.newSeed());
+        this.random.setSeed(this.gameSeed);
+        this.gameState.getDeck().setRandom(this.random.split());
+        this.machinePlayer.setRandom(this.random.split());
         try {
             this.gameState.onGameStart();
         } catch (IllegalStateException e) {
@@ -209,6 +229,16 @@ public class GameController {
         });
     }
 
+    /**
+     * Establece el nivel de dificultad de la máquina.
+     * @param difficulty El nivel elegido en la pantalla de bienvenida.
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        if (difficulty != null) {
+            this.machinePlayer.setDifficulty(difficulty);
+        }
+    }
+
     // --- EventHandlers FXML ---
 
     /**
@@ -217,6 +247,19 @@ public class GameController {
      */
     @FXML
     public void handlePlayCardClick(MouseEvent mouseEvent) {
+        long turnStart = System.nanoTime();
+        try {
+            this.playHumanCard(mouseEvent);
+        } finally {
+            EngineMetrics.turnHandled(turnStart);
+        }
+    }
+
+    /**
+     * Juega la carta en la que hizo clic el jugador, si es su turno y la jugada es válida.
+     * @param mouseEvent El evento del mouse.
+     */
+    private void playHumanCard(MouseEvent mouseEvent) {
         if (this.gameState.isGameOver()) {
             this.gameView.displayMessage("El juego ha terminado.");
             return;
@@ -299,6 +342,18 @@ public class GameController {
      */
     @FXML
     public void handleDeckClick() {
+        long turnStart = System.nanoTime();
+        try {
+            this.drawHumanCard();
+        } finally {
+            EngineMetrics.turnHandled(turnStart);
+        }
+    }
+
+    /**
+     * Roba una carta para el jugador, si es su turno, y avanza el turno.
+     */
+    private void drawHumanCard() {
         if (this.gameState.isGameOver()) {
             this.gameView.displayMessage("El juego ha terminado.");
             return;
@@ -350,6 +405,12 @@ public class GameController {
         if (this.gameState.isGameOver() || this.currentPlayer != this.humanPlayer || this.isChoosingColor) {
             return;
         }
+        // El plazo manda aunque la tarea del temporizador siga en la cola de JavaFX:
+        // esa tarea aplicará la penalización en cuanto se ejecute
+        if (GameTimer.hasExpired(this.humanUnoDeadline)) {
+            this.gameView.displayMessage("Demasiado tarde para declarar UNO.");
+            return;
+        }
         // Evaluar si es candidato para declarar UNO
         if (this.humanPlayer.isUnoCandidate() || (this.humanPlayer.getNumeroCartas() == 1 && !this.humanPlayer.hasDeclaredUnoThisTurn())) {
             this.gameState.playerDeclaresUno(this.humanPlayer);
@@ -404,6 +465,12 @@ public class GameController {
             this.gameView.displayMessage("No es el momento de castigar a la máquina.");
             return;
         }
+        // Vencido el plazo, la máquina ya cantó UNO aunque su tarea siga en la cola de
+        // JavaFX; esa tarea cierra la ventana de castigo
+        if (GameTimer.hasExpired(this.machineUnoDeadline)) {
+            this.gameView.displayMessage("Tarde: la máquina ya había dicho UNO.");
+            return;
+        }
         try {
             if (this.shouldPenalizeMachineForUno()) {
                 this.gameView.displayMessage("¡Atrapaste a la Máquina! Roba " + GameState.PENALTY_CARDS_FOR_UNO + " cartas.");
@@ -522,22 +589,32 @@ public class GameController {
     }
 
     /**
-     * Programa la ejecución del turno de la máquina con un retraso.
+     * Interrumpe el hilo del turno de la máquina y espera a que termine. La decisión de la
+     * máquina recorre su mano y el estado en ese hilo; las estrategias cortan su búsqueda
+     * al ser interrumpidas, así que la espera dura poco y, al volver, ningún otro hilo
+     * los está leyendo.
      */
-    public void scheduleMachineTurn() {
-        if (this.currentPlayer != this.machinePlayer || this.gameState.isGameOver()) {
-            return;
-        }
-        this.gameView.displayMessage("Máquina pensando...");
-        // Interrumpir el hilo anterior si existiera y estuviera vivo (por si acaso)
+    private void stopMachineTurnThread() {
         if (this.machineTurnThread != null && this.machineTurnThread.isAlive()) {
             this.machineTurnThread.interrupt();
             try {
-                this.machineTurnThread.join(100); // 100 ms de delay
+                this.machineTurnThread.join();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
         }
+    }
+
+    /**
+     * Programa la ejecución del turno de la máquina con un retraso.
+     */
+    public void scheduleMachineTurn() {
+        if (this.currentPlayer != this.machinePlayer || this.gameState.isGameOver()) {
+            return;
+        }
+        this.gameView.displayMessage("Máquina pensando...");
+        // Detener el hilo anterior si existiera y estuviera vivo (por si acaso)
+        this.stopMachineTurnThread();
         MachinePlayerRunnable machineRunnable = new MachinePlayerRunnable(this, MACHINE_TURN_THINK_DELAY_MS);
         this.machineTurnThread = new Thread(machineRunnable);
         this.machineTurnThread.setName("MachinePlayerTurnThread-" + System.currentTimeMillis());
@@ -582,11 +659,36 @@ public class GameController {
      * Ejecuta la lógica del turno de la máquina.
      */
     public void executeMachineTurnLogic() {
+        this.executeMachineTurnLogic(null);
+    }
+
+    /**
+     * Ejecuta la lógica del turno de la máquina usando una decisión calculada previamente.
+     * Si la decisión ya no es válida (o no existe), la máquina vuelve a decidir.
+     * @param decidedCard La carta elegida fuera del hilo de JavaFX, o null.
+     */
+    public void executeMachineTurnLogic(Card decidedCard) {
+        long turnStart = System.nanoTime();
+        try {
+            this.playMachineTurn(decidedCard);
+        } finally {
+            EngineMetrics.turnHandled(turnStart);
+        }
+    }
+
+    /**
+     * Juega el turno de la máquina en el hilo de JavaFX.
+     * @param decidedCard La carta elegida fuera del hilo de JavaFX, o null.
+     */
+    private void playMachineTurn(Card decidedCard) {
         if (this.gameState.isGameOver() || this.currentPlayer != this.machinePlayer) {
             return;
         }
         // 1. La máquina elige qué jugar
-        Card cardToPlay = this.machinePlayer.chooseCardToPlay(this.gameState);
+        Card cardToPlay = decidedCard;
+        if (cardToPlay == null || !this.machinePlayer.getCards().contains(cardToPlay) || !this.gameState.isValidPlay(cardToPlay)) {
+            cardToPlay = this.machinePlayer.chooseCardToPlay(this.gameState);
+        }
         if (cardToPlay != null) {
             // Jugar la carta elegida
             try {
@@ -660,11 +762,11 @@ public class GameController {
         this.cancelMachineDeclareUnoTimer(); // Ahora interrumpe el Thread
 
         // Retraso aleatorio para declarar UNO
-        Random randomGenerator = new Random();
-        long delay = 2000 + randomGenerator.nextInt(2000); // entre 2 a 4 segundos
+        long delay = 2000 + this.random.nextInt(2000); // entre 2 a 4 segundos
 
         // Crear y empezar el nuevo Thread
         MachineDeclareUnoRunnable runnable = new MachineDeclareUnoRunnable(this, delay);
+        this.machineUnoDeadline = runnable.getDeadline();
         this.machineDeclareUnoThread = new Thread(runnable);
         this.machineDeclareUnoThread.setName("MachineDeclareUnoThread-" + System.currentTimeMillis());
         this.machineDeclareUnoThread.setDaemon(true);
@@ -697,6 +799,7 @@ public class GameController {
      * @param playedCard La carta que jugó el humano.
      */
     private void updateViewAfterHumanPlay(Card playedCard) {
+        long start = EngineMetrics.FX_UPDATE.start(0);
         this.gameView.updatePlayerHand(this.humanPlayer.getCards(), this);
         this.gameView.updateDiscardPile(
                 this.gameState.getTopDiscardCard(),
@@ -706,12 +809,14 @@ public class GameController {
         this.gameView.updateMachineHand(this.machinePlayer.getNumeroCartas());
         String playedCardDescription = this.gameState.getCardDescription(playedCard);
         this.gameView.displayCardPlayedMessage(playedCard, playedCardDescription);
+        EngineMetrics.FX_UPDATE.stop(start);
     }
 
     /**
      * Actualiza los componentes de la vista después de que la máquina juega una carta o roba.
      */
     private void updateViewAfterMachinePlay() {
+        long start = EngineMetrics.FX_UPDATE.start(0);
         // Actualizar contador visual de la máquina
         this.gameView.updateMachineHand(this.machinePlayer.getNumeroCartas());
         // Actualizar la pila de descarte con la carta jugada (si la hubo) y el color efectivo
@@ -721,6 +826,7 @@ public class GameController {
         );
         // Si el humano fue forzado a robar, actualizar su mano
         this.gameView.updatePlayerHand(this.humanPlayer.getCards(), this);
+        EngineMetrics.FX_UPDATE.stop(start);
     }
 
     /**
@@ -792,6 +898,7 @@ public class GameController {
      * @see #humanUnoTimerThread
      */
     private void cancelHumanUnoTimer() {
+        this.humanUnoDeadline = 0;
         // Interrumpir el Thread si está vivo
         if (this.humanUnoTimerThread != null && this.humanUnoTimerThread.isAlive()) {
             this.humanUnoTimerThread.interrupt();
@@ -807,6 +914,7 @@ public class GameController {
      * Cancela el temporizador activo que está programado para que la máquina declare "UNO".
      */
     private void cancelMachineDeclareUnoTimer() {
+        this.machineUnoDeadline = 0;
         // Interrumpir el Thread si está vivo
         if (this.machineDeclareUnoThread != null && this.machineDeclareUnoThread.isAlive()) {
             this.machineDeclareUnoThread.interrupt();
@@ -833,11 +941,11 @@ public class GameController {
         this.cancelHumanUnoTimer(); // Ahora interrumpe el Thread
         this.updateUnoVisualsForHuman(); // Mostrar botón y timer
 
-        Random randomGenerator = new Random();
-        long delayTime = CATCH_MIN_DELAY_MS + (randomGenerator.nextInt(CATCH_MAX_DELAY_MS - CATCH_MIN_DELAY_MS + 1));
+        long delayTime = CATCH_MIN_DELAY_MS + (this.random.nextInt(CATCH_MAX_DELAY_MS - CATCH_MIN_DELAY_MS + 1));
 
         // Crear y empezar el nuevo Thread
         HumanUnoTimerRunnable runnable = new HumanUnoTimerRunnable(this, delayTime);
+        this.humanUnoDeadline = runnable.getDeadline();
         this.humanUnoTimerThread = new Thread(runnable);
         this.humanUnoTimerThread.setName("HumanUnoTimerThread-" + System.currentTimeMillis());
         this.humanUnoTimerThread.setDaemon(true);
@@ -854,6 +962,15 @@ public class GameController {
         return this.gameState;
     }
 
+    /**
+     * Devuelve la semilla de la partida actual; con la propiedad del sistema uno.seed
+     * se puede repetir el mismo barajado y las mismas decisiones de la máquina.
+     * @return la semilla.
+     */
+    public long getGameSeed() {
+        return this.gameSeed;
+    }
+
     /**
      * Devuelve el jugador actual.
      * Necesario para que MachinePlayerRunnable pueda verificar condiciones.
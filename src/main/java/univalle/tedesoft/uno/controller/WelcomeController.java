@@ -3,9 +3,11 @@ package univalle.tedesoft.uno.controller;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
 import univalle.tedesoft.uno.view.GameView;
 import univalle.tedesoft.uno.view.WelcomeView;
 import univalle.tedesoft.uno.view.InstructionsView;
@@ -29,6 +31,8 @@ public class WelcomeController {
     @FXML private Button instructionsButton;
     /** Campo de texto donde el usuario ingresa su nombre o nick. */
     @FXML private TextField nameTextField;
+    /** Selector del nivel de dificultad de la máquina. */
+    @FXML private ComboBox<Difficulty> difficultyComboBox;
 
     /** Referencia a la vista de bienvenida (WelcomeView) que este controlador maneja. */
     private WelcomeView welcomeView;
@@ -41,6 +45,10 @@ public class WelcomeController {
         // Inicialmente deshabilitar el botón de ingresar
         enterNameButton.setDisable(true);
 
+        // Niveles de dificultad disponibles, "Normal" por defecto
+        difficultyComboBox.getItems().setAll(Difficulty.values());
+        difficultyComboBox.setValue(Difficulty.HEURISTIC);
+
         // Agregar listener al TextField para habilitar/deshabilitar el botón
         nameTextField.textProperty().addListener((observable, oldValue, newValue) -> {
             enterNameButton.setDisable(newValue.trim().isEmpty());
@@ -87,6 +95,7 @@ public class WelcomeController {
                 // Obtener el controlador y configurar el nombre del jugador
                 GameController gameController = gameView.getGameController();
                 gameController.setPlayerName(playerName);
+                gameController.setDifficulty(difficultyComboBox.getValue());
                 // Mostrar la vista del juego
                 gameView.show();
                 // Cerrar la vista de bienvenida
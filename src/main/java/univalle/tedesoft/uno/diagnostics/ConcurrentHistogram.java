@@ -0,0 +1,79 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import univalle.tedesoft.uno.server.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias que varios hilos pueden registrar a la vez sin cerrojos.
+ * Usa las mismas cubetas log-lineales que {@link LatencyHistogram}, repartidas en franjas
+ * para que hilos distintos no compitan por la misma línea de caché; cada hilo escribe en
+ * la franja que le toca por su id. Las lecturas combinan las franjas en una copia.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class ConcurrentHistogram {
+    /** Máximo de franjas, aunque haya más núcleos. */
+    private static final int MAX_STRIPES = 8;
+
+    /** Conteos por franja y cubeta. */
+    private final AtomicLongArray[] stripes;
+    /** Máscara para elegir la franja de un hilo. */
+    private final int stripeMask;
+    /** Mayor valor registrado. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructor del histograma, con una franja por núcleo hasta {@link #MAX_STRIPES}.
+     */
+    public ConcurrentHistogram() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int count = Integer.highestOneBit(Math.min(MAX_STRIPES, Math.max(1, cores)));
+        this.stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new AtomicLongArray(LatencyHistogram.bucketCount());
+        }
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * Registra un valor.
+     * @param nanos la latencia en nanosegundos.
+     */
+    public void record(long nanos) {
+        int stripe = (int) Thread.currentThread().getId() & this.stripeMask;
+        this.stripes[stripe].getAndIncrement(LatencyHistogram.bucketOf(nanos));
+        // Leer antes de escribir: casi nunca hay un máximo nuevo
+        if (nanos > this.max.get()) {
+            this.max.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Copia los valores registrados y, si se pide, los descuenta.
+     * Los valores que llegan durante la copia quedan en la copia o en el histograma,
+     * nunca en ambos ni en ninguno.
+     * @param reset true para empezar una nueva ventana de medición.
+     * @return copia del histograma.
+     */
+    public LatencyHistogram snapshot(boolean reset) {
+        long[] counts = new long[LatencyHistogram.bucketCount()];
+        for (AtomicLongArray stripe : this.stripes) {
+            for (int i = 0; i < counts.length; i++) {
+                long value = stripe.get(i);
+                if (value != 0) {
+                    counts[i] += value;
+                    if (reset) {
+                        stripe.getAndAdd(i, -value);
+                    }
+                }
+            }
+        }
+        long maxValue = reset ? this.max.getAndSet(0) : this.max.get();
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(counts, maxValue);
+        return copy;
+    }
+}
@@ -0,0 +1,28 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de JFR de un reciclaje de la pila de descarte: cuántas cartas volvieron al
+ * mazo y cuánto tardó barajarlas y avisar a los observadores.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+@Name("univalle.tedesoft.uno.DeckRecycle")
+@Label("Reciclaje del mazo")
+@Category({"UNO", "Motor"})
+@Description("La pila de descarte vuelve al mazo")
+public class DeckRecycleEvent extends Event {
+    /** Cartas de la pila que volvieron al mazo. */
+    @Label("Cartas recicladas")
+    public int pileSize;
+
+    /** Cartas en el mazo después del reciclaje. */
+    @Label("Cartas en el mazo")
+    public int deckSize;
+}
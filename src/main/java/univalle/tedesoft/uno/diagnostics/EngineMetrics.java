@@ -0,0 +1,104 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentos del juego en el registro global: operaciones del motor, decisiones de
+ * la máquina, actualizaciones de la interfaz y puntualidad de los temporizadores.
+ * Las operaciones del motor duran cientos de nanosegundos, por eso se cronometra y se
+ * cuenta una de cada {@link #ENGINE_SAMPLE_EVERY} (sus contadores son estimaciones);
+ * las de la interfaz y los temporizadores son pocas y se miden todas.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class EngineMetrics {
+    /** Se cronometra una de cada tantas operaciones del motor. */
+    public static final int ENGINE_SAMPLE_EVERY = 64;
+
+    /** Jugadas aplicadas por GameState.playCard. */
+    public static final SampledTimer PLAY_CARD = MetricsRegistry.global().timer("engine.playCard", ENGINE_SAMPLE_EVERY);
+    /** Robos forzados (+2, +4, castigo de UNO). */
+    public static final SampledTimer FORCE_DRAW = MetricsRegistry.global().timer("engine.forceDraw", ENGINE_SAMPLE_EVERY);
+    /** Reciclajes de la pila de descarte. */
+    public static final SampledTimer RECYCLE_DECK = MetricsRegistry.global().timer("engine.recyclingDeck", 1);
+    /** Decisiones de la máquina, de principio a fin de la estrategia. */
+    public static final SampledTimer MACHINE_DECISION =
+            MetricsRegistry.global().timer("machine.decision", ENGINE_SAMPLE_EVERY);
+    /** Actualizaciones de la vista tras una jugada, en el hilo de JavaFX. */
+    public static final SampledTimer FX_UPDATE = MetricsRegistry.global().timer("fx.update", 1);
+
+    /** Turnos recientes que se muestran en el panel de diagnóstico. */
+    public static final int RECENT_TURNS = 10;
+    /** Hilos del juego vivos (turno de la máquina y temporizadores de UNO). */
+    public static final AtomicLong GAME_THREADS = MetricsRegistry.global().gauge("game.threads");
+    /** Tiempo que el hilo de JavaFX dedica a procesar cada jugada, del evento a la vista actualizada. */
+    private static final ConcurrentHistogram FX_TURN = MetricsRegistry.global().histogram("fx.turn");
+    /** Últimas duraciones de {@link #FX_TURN}. */
+    public static final RecentValues RECENT_FX_TURNS = MetricsRegistry.global().recent("fx.turn", RECENT_TURNS);
+    /** Veces que vence un temporizador del juego. */
+    private static final LongAdder TIMER_FIRES = MetricsRegistry.global().counter("timer.jitter");
+    /** Retraso de cada temporizador respecto a su instante previsto. */
+    private static final ConcurrentHistogram TIMER_JITTER = MetricsRegistry.global().histogram("timer.jitter");
+    /** Acciones de temporizadores aplicadas en el hilo de JavaFX. */
+    private static final LongAdder TIMER_ACTIONS = MetricsRegistry.global().counter("timer.effective");
+    /** Retraso con que la acción de un temporizador se aplica, contando la cola de JavaFX. */
+    private static final ConcurrentHistogram TIMER_EFFECTIVE = MetricsRegistry.global().histogram("timer.effective");
+    /** Tareas enviadas con Platform.runLater. */
+    private static final LongAdder FX_DISPATCHES = MetricsRegistry.global().counter("fx.dispatch");
+    /** Espera de cada tarea en la cola de JavaFX hasta ejecutarse. */
+    private static final ConcurrentHistogram FX_DISPATCH_DELAY = MetricsRegistry.global().histogram("fx.dispatch");
+
+    /**
+     * Clase de constantes, no se instancia.
+     */
+    private EngineMetrics() {
+    }
+
+    /**
+     * Registra que un temporizador venció.
+     * @param scheduledAt instante previsto, en la escala de System.nanoTime().
+     */
+    public static void timerFired(long scheduledAt) {
+        if (MetricsRegistry.global().isEnabled()) {
+            TIMER_FIRES.increment();
+            TIMER_JITTER.record(Math.max(0, System.nanoTime() - scheduledAt));
+        }
+    }
+
+    /**
+     * Registra que la acción de un temporizador se aplicó en el hilo de JavaFX. Con
+     * {@link #timerFired} separa el retraso del despertar del de la cola de JavaFX.
+     * @param scheduledAt instante previsto, en la escala de System.nanoTime().
+     */
+    public static void timerApplied(long scheduledAt) {
+        if (MetricsRegistry.global().isEnabled()) {
+            TIMER_ACTIONS.increment();
+            TIMER_EFFECTIVE.record(Math.max(0, System.nanoTime() - scheduledAt));
+        }
+    }
+
+    /**
+     * Registra que el hilo de JavaFX terminó de procesar una jugada.
+     * @param start instante en que empezó, en la escala de System.nanoTime().
+     */
+    public static void turnHandled(long start) {
+        if (MetricsRegistry.global().isEnabled()) {
+            long elapsed = System.nanoTime() - start;
+            FX_TURN.record(elapsed);
+            RECENT_FX_TURNS.record(elapsed);
+        }
+    }
+
+    /**
+     * Registra que una tarea enviada al hilo de JavaFX empezó a ejecutarse.
+     * @param postedAt instante en que se envió, en la escala de System.nanoTime().
+     */
+    public static void fxDispatched(long postedAt) {
+        if (MetricsRegistry.global().isEnabled()) {
+            FX_DISPATCHES.increment();
+            FX_DISPATCH_DELAY.record(System.nanoTime() - postedAt);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vigilante del hilo de JavaFX. Un hilo aparte envía cada {@code heartbeatMillis} una
+ * sonda con {@link Platform#runLater} y mide cuánto espera en la cola; si una sonda lleva
+ * más de {@code stallMillis} sin ejecutarse, el hilo de JavaFX está bloqueado y se
+ * registra su pila en System.err, una vez por bloqueo. Además, un {@link AnimationTimer}
+ * mide el intervalo entre pulsos de dibujo.
+ * Las mediciones van al {@link MetricsRegistry}: "fx.pulse", "fx.heartbeat" y "fx.stalls".
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class FxWatchdog {
+    /** Espera de una sonda a partir de la cual el hilo se considera bloqueado. */
+    public static final long DEFAULT_STALL_MILLIS = 250;
+    /** Intervalo entre sondas. */
+    public static final long DEFAULT_HEARTBEAT_MILLIS = 50;
+    /** Marcos de la pila que se registran por bloqueo. */
+    private static final int MAX_LOGGED_FRAMES = 25;
+
+    /** Vigilante del hilo de JavaFX de la aplicación, o null si no se instaló. */
+    private static FxWatchdog installed;
+
+    /** Ejecuta tareas en el hilo vigilado. */
+    private final Executor uiExecutor;
+    /** Hilo vigilado. */
+    private final Thread uiThread;
+    /** Umbral de bloqueo en nanosegundos. */
+    private final long stallNanos;
+    /** Intervalo entre sondas en milisegundos. */
+    private final long heartbeatMillis;
+    /** Intervalos entre pulsos de dibujo. */
+    private final ConcurrentHistogram pulseIntervals;
+    /** Espera de las sondas en la cola del hilo vigilado. */
+    private final ConcurrentHistogram heartbeatLatencies;
+    /** Bloqueos detectados. */
+    private final LongAdder stalls;
+    /** Envía las sondas y revisa si hay bloqueos. */
+    private ScheduledExecutorService scheduler;
+    /** Mide los pulsos de dibujo, o null si no se mide. */
+    private AnimationTimer pulseTimer;
+    /** Instante en que se envió la sonda pendiente, o 0 si no hay. */
+    private volatile long probePostedAt;
+    /** true si el bloqueo en curso ya se registró. Solo lo usa el hilo del vigilante. */
+    private boolean stallReported;
+    /** Último intervalo entre pulsos, en nanosegundos. */
+    private volatile long lastPulseInterval;
+    /** Última espera de una sonda, en nanosegundos. */
+    private volatile long lastHeartbeatLatency;
+    /** Pila del último bloqueo detectado, o null. */
+    private volatile StackTraceElement[] lastStallTrace;
+
+    /**
+     * Constructor del vigilante.
+     * @param uiExecutor ejecuta tareas en el hilo vigilado (Platform::runLater en la aplicación).
+     * @param uiThread el hilo vigilado.
+     * @param stallMillis espera a partir de la cual el hilo se considera bloqueado.
+     * @param heartbeatMillis intervalo entre sondas.
+     * @param registry registro donde se publican las mediciones.
+     */
+    public FxWatchdog(Executor uiExecutor, Thread uiThread, long stallMillis, long heartbeatMillis,
+                      MetricsRegistry registry) {
+        this.uiExecutor = uiExecutor;
+        this.uiThread = uiThread;
+        this.stallNanos = TimeUnit.MILLISECONDS.toNanos(stallMillis);
+        this.heartbeatMillis = heartbeatMillis;
+        this.pulseIntervals = registry.histogram("fx.pulse");
+        this.heartbeatLatencies = registry.histogram("fx.heartbeat");
+        this.stalls = registry.counter("fx.stalls");
+    }
+
+    /**
+     * Instala el vigilante del hilo de JavaFX con los valores por defecto, una sola vez.
+     * Debe llamarse desde el hilo de JavaFX.
+     * @return el vigilante instalado.
+     */
+    public static FxWatchdog install() {
+        if (installed == null) {
+            installed = new FxWatchdog(Platform::runLater, Thread.currentThread(),
+                    DEFAULT_STALL_MILLIS, DEFAULT_HEARTBEAT_MILLIS, MetricsRegistry.global());
+            installed.start();
+            installed.startPulseMonitor();
+        }
+        return installed;
+    }
+
+    /**
+     * Devuelve el vigilante del hilo de JavaFX.
+     * @return el vigilante, o null si no se instaló.
+     */
+    public static FxWatchdog getInstalled() {
+        return installed;
+    }
+
+    /**
+     * Empieza a enviar sondas desde un hilo propio.
+     */
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "FxWatchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(this::check, 0, this.heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Empieza a medir los pulsos de dibujo. Debe llamarse desde el hilo de JavaFX.
+     */
+    public void startPulseMonitor() {
+        this.pulseTimer = new AnimationTimer() {
+            /** Instante del pulso anterior, o 0 antes del primero. */
+            private long last;
+
+            @Override
+            public void handle(long now) {
+                if (this.last != 0) {
+                    FxWatchdog.this.recordPulse(now - this.last);
+                }
+                this.last = now;
+            }
+        };
+        this.pulseTimer.start();
+    }
+
+    /**
+     * Detiene las sondas y la medición de pulsos.
+     */
+    public void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+        if (this.pulseTimer != null) {
+            this.pulseTimer.stop();
+        }
+    }
+
+    /**
+     * Envía una sonda si no hay una pendiente, o revisa si la pendiente excedió el umbral.
+     * Lo ejecuta el hilo del vigilante.
+     */
+    void check() {
+        long posted = this.probePostedAt;
+        long now = System.nanoTime();
+        if (posted == 0) {
+            this.stallReported = false;
+            this.probePostedAt = now;
+            this.uiExecutor.execute(() -> {
+                long latency = System.nanoTime() - now;
+                this.heartbeatLatencies.record(latency);
+                this.lastHeartbeatLatency = latency;
+                this.probePostedAt = 0;
+            });
+        } else if (!this.stallReported && now - posted > this.stallNanos) {
+            this.stallReported = true;
+            this.stalls.increment();
+            StackTraceElement[] trace = this.uiThread.getStackTrace();
+            this.lastStallTrace = trace;
+            this.logStall((now - posted) / 1_000_000, trace);
+        }
+    }
+
+    /**
+     * Registra un bloqueo en System.err con la pila del hilo vigilado.
+     * @param blockedMillis tiempo que lleva bloqueado.
+     * @param trace pila del hilo.
+     */
+    private void logStall(long blockedMillis, StackTraceElement[] trace) {
+        StringBuilder text = new StringBuilder();
+        text.append("Hilo ").append(this.uiThread.getName()).append(" bloqueado hace ")
+                .append(blockedMillis).append(" ms:\n");
+        for (int i = 0; i < Math.min(trace.length, MAX_LOGGED_FRAMES); i++) {
+            text.append("\tat ").append(trace[i]).append('\n');
+        }
+        System.err.print(text);
+    }
+
+    /**
+     * Registra el intervalo entre dos pulsos.
+     * @param interval nanosegundos entre pulsos.
+     */
+    private void recordPulse(long interval) {
+        this.pulseIntervals.record(interval);
+        this.lastPulseInterval = interval;
+    }
+
+    /**
+     * Devuelve la cantidad de bloqueos detectados.
+     * @return bloqueos.
+     */
+    public long getStallCount() {
+        return this.stalls.sum();
+    }
+
+    /**
+     * Devuelve la pila del hilo vigilado en el último bloqueo.
+     * @return la pila, o null si no hubo bloqueos.
+     */
+    public StackTraceElement[] getLastStallTrace() {
+        return this.lastStallTrace;
+    }
+
+    /**
+     * Devuelve el último intervalo entre pulsos de dibujo.
+     * @return nanosegundos, o 0 si no se midió ninguno.
+     */
+    public long getLastPulseInterval() {
+        return this.lastPulseInterval;
+    }
+
+    /**
+     * Devuelve la espera de la última sonda en la cola del hilo vigilado.
+     * @return nanosegundos, o 0 si no se midió ninguna.
+     */
+    public long getLastHeartbeatLatency() {
+        return this.lastHeartbeatLatency;
+    }
+}
@@ -0,0 +1,28 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de JFR de un redibujado de una mano en la vista: nodos creados y duración en
+ * el hilo de JavaFX. Sirve para relacionar pausas de la interfaz con eventos del juego.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+@Name("univalle.tedesoft.uno.HandRender")
+@Label("Redibujado de mano")
+@Category({"UNO", "Vista"})
+@Description("La vista reconstruye los nodos de una mano")
+public class HandRenderEvent extends Event {
+    /** Mano redibujada: "humano" o "maquina". */
+    @Label("Mano")
+    public String hand;
+
+    /** Nodos hijos del contenedor de la mano después del redibujado. */
+    @Label("Nodos")
+    public int nodeCount;
+}
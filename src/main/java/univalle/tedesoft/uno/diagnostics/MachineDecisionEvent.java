@@ -0,0 +1,33 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de JFR con la duración de una decisión de la máquina y su presupuesto.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+@Name("univalle.tedesoft.uno.MachineDecision")
+@Label("Decisión de la máquina")
+@Category({"UNO", "Máquina"})
+@Description("Una elección de carta de la estrategia de la máquina")
+public class MachineDecisionEvent extends Event {
+    /** Estrategia que tomó la decisión. */
+    @Label("Estrategia")
+    public String strategy;
+
+    /** Carta elegida, o null si decidió robar. */
+    @Label("Carta")
+    public String card;
+
+    /** Presupuesto de tiempo de la decisión. */
+    @Label("Presupuesto")
+    @Timespan(Timespan.NANOSECONDS)
+    public long budget;
+}
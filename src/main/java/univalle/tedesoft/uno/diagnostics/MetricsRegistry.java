@@ -0,0 +1,129 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import univalle.tedesoft.uno.server.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de métricas por nombre: contadores ({@link LongAdder}, que ya reparte las
+ * sumas entre franjas por hilo), histogramas de latencia sin cerrojos, medidores de
+ * valor actual que no se reinician y anillos con los últimos valores.
+ * Los instrumentos se crean una vez y se guardan en campos estáticos; registrar un
+ * valor no busca por nombre ni reserva memoria. Desactivado, cada instrumento cuesta
+ * una lectura volátil.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class MetricsRegistry {
+    /** Registro compartido por el motor, la vista y los hilos del juego. */
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    /** Contadores por nombre. */
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    /** Histogramas por nombre. */
+    private final Map<String, ConcurrentHistogram> histograms = new ConcurrentHashMap<>();
+    /** Medidores por nombre. */
+    private final Map<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+    /** Últimos valores por nombre. */
+    private final Map<String, RecentValues> recents = new ConcurrentHashMap<>();
+    /** false para que los instrumentos no registren nada. */
+    private volatile boolean enabled = true;
+
+    /**
+     * Devuelve el registro compartido.
+     * @return el registro global.
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Devuelve el contador con un nombre, creándolo si no existe.
+     * @param name nombre de la métrica.
+     * @return el contador.
+     */
+    public LongAdder counter(String name) {
+        return this.counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Devuelve el histograma con un nombre, creándolo si no existe.
+     * @param name nombre de la métrica.
+     * @return el histograma.
+     */
+    public ConcurrentHistogram histogram(String name) {
+        return this.histograms.computeIfAbsent(name, key -> new ConcurrentHistogram());
+    }
+
+    /**
+     * Devuelve el medidor con un nombre, creándolo si no existe. Un medidor guarda un
+     * valor actual (por ejemplo, hilos vivos); aparece con los contadores en las copias
+     * pero no se reinicia con ellas.
+     * @param name nombre de la métrica.
+     * @return el medidor.
+     */
+    public AtomicLong gauge(String name) {
+        return this.gauges.computeIfAbsent(name, key -> new AtomicLong());
+    }
+
+    /**
+     * Devuelve el anillo de últimos valores con un nombre, creándolo si no existe.
+     * @param name nombre de la métrica.
+     * @param capacity valores que conserva el anillo si hay que crearlo.
+     * @return el anillo.
+     */
+    public RecentValues recent(String name, int capacity) {
+        return this.recents.computeIfAbsent(name, key -> new RecentValues(capacity));
+    }
+
+    /**
+     * Crea un cronómetro muestreado con un contador y un histograma del mismo nombre.
+     * @param name nombre de la métrica.
+     * @param sampleEvery potencia de dos: se cronometra una de cada tantas llamadas.
+     * @return el cronómetro.
+     */
+    public SampledTimer timer(String name, int sampleEvery) {
+        return new SampledTimer(this, this.counter(name), this.histogram(name), sampleEvery);
+    }
+
+    /**
+     * Indica si los instrumentos registran valores.
+     * @return true si el registro está activo.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Activa o desactiva el registro de valores.
+     * @param enabled true para registrar.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Copia todas las métricas y, si se pide, las reinicia.
+     * @param reset true para empezar una nueva ventana de medición.
+     * @return la copia, ordenada por nombre.
+     */
+    public MetricsSnapshot snapshot(boolean reset) {
+        Map<String, Long> counterValues = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : this.counters.entrySet()) {
+            counterValues.put(entry.getKey(), reset ? entry.getValue().sumThenReset() : entry.getValue().sum());
+        }
+        for (Map.Entry<String, AtomicLong> entry : this.gauges.entrySet()) {
+            counterValues.put(entry.getKey(), entry.getValue().get());
+        }
+        Map<String, LatencyHistogram> histogramValues = new TreeMap<>();
+        for (Map.Entry<String, ConcurrentHistogram> entry : this.histograms.entrySet()) {
+            histogramValues.put(entry.getKey(), entry.getValue().snapshot(reset));
+        }
+        return new MetricsSnapshot(counterValues, histogramValues);
+    }
+}
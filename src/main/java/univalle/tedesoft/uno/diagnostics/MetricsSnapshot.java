@@ -0,0 +1,119 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import univalle.tedesoft.uno.server.LatencyHistogram;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Copia inmutable de las métricas de un {@link MetricsRegistry} en un instante.
+ * Se exporta como texto legible con {@link #toString()} o como CSV con {@link #writeCsv}.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class MetricsSnapshot {
+    /** Cabecera del CSV. */
+    public static final String CSV_HEADER = "metric,count,p50_ns,p90_ns,p99_ns,p999_ns,max_ns";
+
+    /** Valor de cada contador. */
+    private final Map<String, Long> counters;
+    /** Copia de cada histograma. */
+    private final Map<String, LatencyHistogram> histograms;
+
+    /**
+     * Constructor de la copia.
+     * @param counters valor de cada contador, ordenados por nombre.
+     * @param histograms copia de cada histograma, ordenados por nombre.
+     */
+    MetricsSnapshot(Map<String, Long> counters, Map<String, LatencyHistogram> histograms) {
+        this.counters = Collections.unmodifiableMap(counters);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Devuelve el valor de un contador.
+     * @param name nombre de la métrica.
+     * @return su valor, o 0 si no existe.
+     */
+    public long getCounter(String name) {
+        return this.counters.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Devuelve la copia de un histograma.
+     * @param name nombre de la métrica.
+     * @return el histograma, o null si no existe.
+     */
+    public LatencyHistogram getHistogram(String name) {
+        return this.histograms.get(name);
+    }
+
+    /**
+     * Devuelve todos los contadores.
+     * @return vista no modificable, ordenada por nombre.
+     */
+    public Map<String, Long> getCounters() {
+        return this.counters;
+    }
+
+    /**
+     * Devuelve todos los histogramas.
+     * @return vista no modificable, ordenada por nombre.
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return this.histograms;
+    }
+
+    /**
+     * Escribe las métricas como CSV: una fila por contador (solo la cuenta) y una por
+     * histograma (cuenta de muestras y percentiles en nanosegundos).
+     * @param out destino.
+     * @throws IOException si falla la escritura.
+     */
+    public void writeCsv(Appendable out) throws IOException {
+        out.append(CSV_HEADER).append('\n');
+        for (Map.Entry<String, Long> entry : this.counters.entrySet()) {
+            out.append(entry.getKey()).append(',').append(Long.toString(entry.getValue())).append(",,,,,\n");
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : this.histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            out.append(entry.getKey()).append(".latency,")
+                    .append(Long.toString(histogram.getCount())).append(',')
+                    .append(Long.toString(histogram.getPercentile(50))).append(',')
+                    .append(Long.toString(histogram.getPercentile(90))).append(',')
+                    .append(Long.toString(histogram.getPercentile(99))).append(',')
+                    .append(Long.toString(histogram.getPercentile(99.9))).append(',')
+                    .append(Long.toString(histogram.getMax())).append('\n');
+        }
+    }
+
+    /**
+     * Resumen legible: una línea por métrica, con latencias en microsegundos.
+     * @return el texto.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Long> entry : this.counters.entrySet()) {
+            LatencyHistogram histogram = this.histograms.get(entry.getKey());
+            text.append(entry.getKey()).append(": ").append(entry.getValue());
+            if (histogram != null && histogram.getCount() > 0) {
+                text.append(String.format(" (%d muestras, p50=%.1f us p99=%.1f us max=%.1f us)",
+                        histogram.getCount(), histogram.getPercentile(50) / 1e3,
+                        histogram.getPercentile(99) / 1e3, histogram.getMax() / 1e3));
+            }
+            text.append('\n');
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : this.histograms.entrySet()) {
+            if (!this.counters.containsKey(entry.getKey())) {
+                LatencyHistogram histogram = entry.getValue();
+                text.append(String.format("%s: %d muestras, p50=%.1f us p99=%.1f us max=%.1f us%n",
+                        entry.getKey(), histogram.getCount(), histogram.getPercentile(50) / 1e3,
+                        histogram.getPercentile(99) / 1e3, histogram.getMax() / 1e3));
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Últimos valores registrados de una métrica, en un anillo de tamaño fijo.
+ * Complementa a los histogramas cuando interesa la secuencia reciente (por ejemplo,
+ * si los turnos se van volviendo más lentos) y no solo la distribución.
+ * Registrar un valor no reserva memoria ni toma cerrojos; una lectura concurrente con
+ * una escritura puede ver el valor anterior de esa posición.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class RecentValues {
+    /** Valores, indexados por la posición de escritura módulo la capacidad. */
+    private final AtomicLongArray values;
+    /** Cantidad de valores registrados desde la creación. */
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * Constructor del anillo.
+     * @param capacity cantidad de valores que se conservan.
+     */
+    public RecentValues(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacity);
+        }
+        this.values = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Registra un valor, reemplazando el más antiguo si el anillo está lleno.
+     * @param value el valor.
+     */
+    public void record(long value) {
+        long index = this.written.getAndIncrement();
+        this.values.set((int) (index % this.values.length()), value);
+    }
+
+    /**
+     * Copia los valores más recientes, del más nuevo al más viejo.
+     * @param out destino; se copian como mucho tantos valores como su largo.
+     * @return cantidad de valores copiados.
+     */
+    public int copyRecent(long[] out) {
+        long end = this.written.get();
+        int count = (int) Math.min(Math.min(end, this.values.length()), out.length);
+        for (int i = 0; i < count; i++) {
+            out[i] = this.values.get((int) ((end - 1 - i) % this.values.length()));
+        }
+        return count;
+    }
+
+    /**
+     * Devuelve la capacidad del anillo.
+     * @return cantidad de valores que se conservan.
+     */
+    public int capacity() {
+        return this.values.length();
+    }
+}
@@ -0,0 +1,70 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mide una operación del juego cronometrando una de cada {@code sampleEvery} llamadas,
+ * para que leer el reloj y tocar contadores compartidos no pese en operaciones que duran
+ * cientos de nanosegundos. Quien llama lleva su propio contador de muestreo (un campo
+ * de instancia no compartido), así las llamadas no muestreadas solo prueban un bit.
+ * Cada muestra suma {@code sampleEvery} llamadas al contador, que es por tanto una
+ * estimación; con {@code sampleEvery = 1} es exacto.
+ * <pre>
+ *     long start = TIMER.start(this.tick++);
+ *     ...
+ *     TIMER.stop(start);
+ * </pre>
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class SampledTimer {
+    /** Registro al que pertenece, para saber si está activo. */
+    private final MetricsRegistry registry;
+    /** Llamadas, muestreadas o no. */
+    private final LongAdder calls;
+    /** Latencias de las llamadas muestreadas. */
+    private final ConcurrentHistogram latencies;
+    /** Máscara de muestreo: se cronometra cuando {@code tick & mask == 0}. */
+    private final int sampleMask;
+
+    /**
+     * Constructor del cronómetro; lo crea {@link MetricsRegistry#timer}.
+     * @param registry registro al que pertenece.
+     * @param calls contador de llamadas.
+     * @param latencies histograma de latencias.
+     * @param sampleEvery potencia de dos: se cronometra una de cada tantas llamadas.
+     */
+    SampledTimer(MetricsRegistry registry, LongAdder calls, ConcurrentHistogram latencies, int sampleEvery) {
+        if (Integer.bitCount(sampleEvery) != 1) {
+            throw new IllegalArgumentException("El muestreo debe ser una potencia de dos: " + sampleEvery);
+        }
+        this.registry = registry;
+        this.calls = calls;
+        this.latencies = latencies;
+        this.sampleMask = sampleEvery - 1;
+    }
+
+    /**
+     * Si a la llamada le toca muestra, la cuenta y lee el reloj.
+     * @param tick contador de muestreo de quien llama.
+     * @return el instante de inicio, o 0 si la llamada no se cronometra.
+     */
+    public long start(int tick) {
+        if ((tick & this.sampleMask) != 0 || !this.registry.isEnabled()) {
+            return 0;
+        }
+        this.calls.add(this.sampleMask + 1);
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra la duración de una llamada muestreada.
+     * @param start lo que devolvió {@link #start(int)}.
+     */
+    public void stop(long start) {
+        if (start != 0) {
+            this.latencies.record(System.nanoTime() - start);
+        }
+    }
+}
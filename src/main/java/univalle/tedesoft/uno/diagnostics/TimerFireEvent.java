@@ -0,0 +1,52 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de JFR del vencimiento de un temporizador del juego, con el retraso previsto y
+ * cuánto tarde despertó respecto al instante previsto.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+@Name("univalle.tedesoft.uno.TimerFire")
+@Label("Temporizador")
+@Category({"UNO", "Hilos"})
+@Description("Vence un temporizador de UNO o del turno de la máquina")
+public class TimerFireEvent extends Event {
+    /** Nombre del temporizador. */
+    @Label("Temporizador")
+    public String timer;
+
+    /** Retraso con que se programó. */
+    @Label("Retraso previsto")
+    @Timespan(Timespan.MILLISECONDS)
+    public long scheduled;
+
+    /** Diferencia entre el despertar real y el previsto. */
+    @Label("Desfase")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lateness;
+
+    /**
+     * Registra el vencimiento de un temporizador en las métricas y, si JFR lo graba, como evento.
+     * @param timer nombre del temporizador.
+     * @param delayMillis retraso con que se programó.
+     * @param scheduledAt instante previsto, en la escala de System.nanoTime().
+     */
+    public static void fired(String timer, long delayMillis, long scheduledAt) {
+        EngineMetrics.timerFired(scheduledAt);
+        TimerFireEvent event = new TimerFireEvent();
+        if (event.shouldCommit()) {
+            event.timer = timer;
+            event.scheduled = delayMillis;
+            event.lateness = System.nanoTime() - scheduledAt;
+            event.commit();
+        }
+    }
+}
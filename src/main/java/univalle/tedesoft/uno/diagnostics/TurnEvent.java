@@ -0,0 +1,37 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de JFR con la duración de un turno, desde que el jugador lo recibe hasta que la
+ * partida avanza al siguiente; lleva la carta jugada, si la hubo.
+ * Lo emite {@link univalle.tedesoft.uno.model.State.GameState}.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+@Name("univalle.tedesoft.uno.Turn")
+@Label("Turno")
+@Category({"UNO", "Motor"})
+@Description("Un turno de la partida, de principio a fin")
+public class TurnEvent extends Event {
+    /** Asiento del jugador. */
+    @Label("Asiento")
+    public int seat;
+
+    /** Nombre del jugador. */
+    @Label("Jugador")
+    public String player;
+
+    /** Carta jugada en el turno, o null si robó. */
+    @Label("Carta")
+    public String card;
+
+    /** Cartas en la mano del jugador al terminar el turno. */
+    @Label("Cartas en mano")
+    public int handSize;
+}
@@ -0,0 +1,16 @@
+package univalle.tedesoft.uno.lobby;
+
+/**
+ * Recibe las mesas que arma el {@link Lobby}.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public interface ILobbyListener {
+    /**
+     * Se invoca en el hilo del lobby con una mesa lista para jugar. Cuando la partida
+     * termine, la mesa debe devolverse con {@link Lobby#release(LobbyTable)}.
+     * @param table la mesa, con su partida ya iniciada.
+     */
+    void onMatch(LobbyTable table);
+}
@@ -0,0 +1,372 @@
+package univalle.tedesoft.uno.lobby;
+
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lobby local de emparejamiento. Las solicitudes llegan desde cualquier hilo y solo se
+ * encolan; el emparejamiento se hace por rondas ({@link #tick()}), no por llegada:
+ * en cada ronda se vacía la cola de llegadas, cada dificultad se ordena por calificación
+ * una sola vez y se arman mesas con grupos consecutivos cuya diferencia de calificación
+ * cabe en una ventana. La ventana se ensancha con las rondas que lleva esperando el
+ * jugador más antiguo del grupo, y quien espera más de {@link #getMachineFillTicks()}
+ * rondas se sienta con máquinas en los asientos que falten.
+ * <p>
+ * Las mesas se reciclan: al terminar una partida se devuelven con {@link #release(LobbyTable)}
+ * y la siguiente ronda las reutiliza en lugar de crear objetos nuevos.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class Lobby {
+    /** Diferencia de calificación aceptada para jugadores que acaban de llegar. */
+    public static final double BASE_RATING_WINDOW = 100;
+    /** Cuánto se ensancha la ventana por cada ronda de espera. */
+    public static final double WINDOW_GROWTH_PER_TICK = 50;
+    /** Rondas de espera tras las que se completa la mesa con máquinas, por defecto. */
+    public static final int DEFAULT_MACHINE_FILL_TICKS = 20;
+
+    /** Orden de las colas de espera. */
+    private static final Comparator<LobbyTicket> BY_RATING = Comparator.comparingDouble(LobbyTicket::getRating);
+
+    /** Jugadores humanos por mesa. */
+    private final int humansPerTable;
+    /** Asientos de cada mesa, contando las máquinas. */
+    private final int seatsPerTable;
+    /** Mesas libres que se conservan para reutilizar. */
+    private final int maxPooledTables;
+    /** Receptor de las mesas armadas. */
+    private final ILobbyListener listener;
+    /** Solicitudes recién llegadas, de cualquier hilo. */
+    private final Queue<LobbyTicket> arrivals = new ConcurrentLinkedQueue<>();
+    /** Mesas devueltas desde cualquier hilo, pendientes de pasar al grupo de libres. */
+    private final Queue<LobbyTable> released = new ConcurrentLinkedQueue<>();
+    /** Mesas libres; solo la toca el hilo de las rondas. */
+    private final ArrayDeque<LobbyTable> freeTables = new ArrayDeque<>();
+    /** Solicitudes en espera por dificultad; solo las toca el hilo de las rondas. */
+    private final Map<Difficulty, ArrayList<LobbyTicket>> waiting = new EnumMap<>(Difficulty.class);
+    /** Grupo en armado, reutilizado entre mesas. */
+    private final List<LobbyTicket> group = new ArrayList<>();
+    /** Rondas de espera tras las que se completa con máquinas. */
+    private volatile int machineFillTicks = DEFAULT_MACHINE_FILL_TICKS;
+    /** Ronda actual. */
+    private long tickCount;
+    /** Planificador de rondas, si el lobby corre solo. */
+    private ScheduledExecutorService scheduler;
+
+    /** Solicitudes recibidas. */
+    private final LongAdder joins = new LongAdder();
+    /** Solicitudes sentadas en una mesa. */
+    private final LongAdder seated = new LongAdder();
+    /** Suma de las rondas que esperaron las solicitudes sentadas. */
+    private final LongAdder waitedTicks = new LongAdder();
+    /** Mesas armadas. */
+    private final LongAdder matches = new LongAdder();
+    /** Mesas completadas con máquinas por espera. */
+    private final LongAdder machineFilled = new LongAdder();
+    /** Objetos de mesa creados. */
+    private final LongAdder tablesCreated = new LongAdder();
+    /** Mesas armadas sobre un objeto reciclado. */
+    private final LongAdder tablesReused = new LongAdder();
+    /** Solicitudes en espera al cierre de la última ronda. */
+    private final AtomicInteger waitingCount = new AtomicInteger();
+
+    /**
+     * Constructor del lobby.
+     * @param humansPerTable jugadores humanos que se emparejan por mesa.
+     * @param seatsPerTable asientos por mesa; los que sobran los juegan máquinas.
+     * @param maxPooledTables mesas libres que se conservan para reutilizar.
+     * @param listener receptor de las mesas armadas.
+     */
+    public Lobby(int humansPerTable, int seatsPerTable, int maxPooledTables, ILobbyListener listener) {
+        if (humansPerTable < 1 || seatsPerTable < Math.max(2, humansPerTable)) {
+            throw new IllegalArgumentException("Asientos inválidos: " + humansPerTable + " humanos, " + seatsPerTable + " asientos");
+        }
+        this.humansPerTable = humansPerTable;
+        this.seatsPerTable = seatsPerTable;
+        this.maxPooledTables = maxPooledTables;
+        this.listener = listener;
+        for (Difficulty difficulty : Difficulty.values()) {
+            this.waiting.put(difficulty, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Encola una solicitud. Se puede llamar desde cualquier hilo y no empareja nada:
+     * la solicitud se atiende en la siguiente ronda.
+     * @param ticket la solicitud.
+     */
+    public void submit(LobbyTicket ticket) {
+        this.arrivals.add(ticket);
+        this.joins.increment();
+    }
+
+    /**
+     * Devuelve una mesa cuya partida terminó. Se puede llamar desde cualquier hilo.
+     * @param table la mesa.
+     */
+    public void release(LobbyTable table) {
+        this.released.add(table);
+    }
+
+    /**
+     * Ejecuta las rondas en un hilo propio.
+     * @param tickMillis milisegundos entre rondas.
+     */
+    public synchronized void start(long tickMillis) {
+        if (this.scheduler != null) {
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Lobby");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(() -> {
+            try {
+                this.tick();
+            } catch (RuntimeException e) {
+                System.err.println("Error en ronda del lobby: " + e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene el hilo de rondas; las solicitudes en espera se conservan.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (this.scheduler != null) {
+            this.scheduler.shutdown();
+            this.scheduler.awaitTermination(1, TimeUnit.SECONDS);
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Ejecuta una ronda de emparejamiento. Si el lobby se inició con {@link #start(long)},
+     * no debe llamarse desde otro hilo.
+     */
+    public void tick() {
+        long tick = ++this.tickCount;
+        this.drainReleased();
+        for (LobbyTicket ticket; (ticket = this.arrivals.poll()) != null; ) {
+            ticket.enqueuedTick = tick;
+            this.waiting.get(ticket.getDifficulty()).add(ticket);
+        }
+        int stillWaiting = 0;
+        for (Map.Entry<Difficulty, ArrayList<LobbyTicket>> entry : this.waiting.entrySet()) {
+            ArrayList<LobbyTicket> queue = entry.getValue();
+            if (!queue.isEmpty()) {
+                this.pair(entry.getKey(), queue, tick);
+                stillWaiting += queue.size();
+            }
+        }
+        this.waitingCount.set(stillWaiting);
+    }
+
+    /**
+     * Pasa las mesas devueltas al grupo de libres, hasta su capacidad.
+     */
+    private void drainReleased() {
+        for (LobbyTable table; (table = this.released.poll()) != null; ) {
+            table.clear();
+            if (this.freeTables.size() < this.maxPooledTables) {
+                this.freeTables.push(table);
+            }
+        }
+    }
+
+    /**
+     * Arma las mesas de una dificultad y deja en la cola a quienes no entraron.
+     * @param difficulty la dificultad.
+     * @param queue las solicitudes en espera de esa dificultad.
+     * @param tick la ronda actual.
+     */
+    private void pair(Difficulty difficulty, ArrayList<LobbyTicket> queue, long tick) {
+        queue.sort(BY_RATING);
+        int fillTicks = this.machineFillTicks;
+        int kept = 0;
+        int i = 0;
+        int size = queue.size();
+        while (i < size) {
+            int end = i + this.humansPerTable;
+            if (end <= size && this.fitsWindow(queue, i, end, tick)) {
+                this.seat(difficulty, queue, i, end, tick);
+                i = end;
+                continue;
+            }
+            LobbyTicket ticket = queue.get(i);
+            if (tick - ticket.enqueuedTick >= fillTicks) {
+                // Esperó demasiado: se sienta con quienes haya cerca y máquinas en el resto
+                end = i + 1;
+                while (end < size && end - i < this.humansPerTable && this.fitsWindow(queue, i, end + 1, tick)) {
+                    end++;
+                }
+                this.seat(difficulty, queue, i, end, tick);
+                this.machineFilled.increment();
+                i = end;
+                continue;
+            }
+            queue.set(kept++, ticket);
+            i++;
+        }
+        queue.subList(kept, size).clear();
+    }
+
+    /**
+     * Indica si un rango de la cola ordenada cabe en la ventana de calificación.
+     * @param queue la cola ordenada por calificación.
+     * @param from primer índice, incluido.
+     * @param to último índice, excluido.
+     * @param tick la ronda actual.
+     * @return true si la diferencia entre extremos cabe en la ventana del más antiguo.
+     */
+    private boolean fitsWindow(List<LobbyTicket> queue, int from, int to, long tick) {
+        long oldest = tick;
+        for (int k = from; k < to; k++) {
+            oldest = Math.min(oldest, queue.get(k).enqueuedTick);
+        }
+        double window = BASE_RATING_WINDOW + WINDOW_GROWTH_PER_TICK * (tick - oldest);
+        return queue.get(to - 1).getRating() - queue.get(from).getRating() <= window;
+    }
+
+    /**
+     * Sienta un rango de la cola en una mesa y la entrega al receptor.
+     * @param difficulty dificultad de las máquinas.
+     * @param queue la cola.
+     * @param from primer índice, incluido.
+     * @param to último índice, excluido.
+     * @param tick la ronda actual.
+     */
+    private void seat(Difficulty difficulty, List<LobbyTicket> queue, int from, int to, long tick) {
+        this.group.clear();
+        for (int k = from; k < to; k++) {
+            LobbyTicket ticket = queue.get(k);
+            this.group.add(ticket);
+            this.waitedTicks.add(tick - ticket.enqueuedTick);
+        }
+        LobbyTable table = this.freeTables.poll();
+        if (table == null) {
+            // Las mesas pueden devolverse durante la misma ronda, desde onMatch
+            this.drainReleased();
+            table = this.freeTables.poll();
+        }
+        if (table == null) {
+            table = new LobbyTable(this.seatsPerTable);
+            this.tablesCreated.increment();
+        } else {
+            this.tablesReused.increment();
+        }
+        table.begin(this.group, difficulty);
+        this.seated.add(this.group.size());
+        this.matches.increment();
+        this.listener.onMatch(table);
+    }
+
+    /**
+     * Cambia las rondas de espera tras las que se completa una mesa con máquinas.
+     * @param machineFillTicks rondas de espera.
+     */
+    public void setMachineFillTicks(int machineFillTicks) {
+        this.machineFillTicks = machineFillTicks;
+    }
+
+    /**
+     * Devuelve las rondas de espera tras las que se completa una mesa con máquinas.
+     * @return rondas de espera.
+     */
+    public int getMachineFillTicks() {
+        return this.machineFillTicks;
+    }
+
+    /**
+     * Devuelve la cantidad de solicitudes recibidas.
+     * @return solicitudes recibidas.
+     */
+    public long getJoins() {
+        return this.joins.sum();
+    }
+
+    /**
+     * Devuelve la cantidad de solicitudes sentadas en una mesa.
+     * @return solicitudes sentadas.
+     */
+    public long getSeated() {
+        return this.seated.sum();
+    }
+
+    /**
+     * Devuelve las solicitudes en espera al cierre de la última ronda.
+     * @return solicitudes en espera.
+     */
+    public int getWaiting() {
+        return this.waitingCount.get();
+    }
+
+    /**
+     * Devuelve la cantidad de mesas armadas.
+     * @return mesas armadas.
+     */
+    public long getMatches() {
+        return this.matches.sum();
+    }
+
+    /**
+     * Devuelve la cantidad de mesas completadas con máquinas por espera.
+     * @return mesas completadas con máquinas.
+     */
+    public long getMachineFilled() {
+        return this.machineFilled.sum();
+    }
+
+    /**
+     * Devuelve la cantidad de objetos de mesa creados.
+     * @return mesas creadas.
+     */
+    public long getTablesCreated() {
+        return this.tablesCreated.sum();
+    }
+
+    /**
+     * Devuelve la cantidad de mesas armadas sobre un objeto reciclado.
+     * @return mesas reutilizadas.
+     */
+    public long getTablesReused() {
+        return this.tablesReused.sum();
+    }
+
+    /**
+     * Devuelve el promedio de rondas que esperaron las solicitudes sentadas.
+     * @return rondas de espera promedio.
+     */
+    public double getAverageWaitTicks() {
+        long count = this.seated.sum();
+        return count == 0 ? 0 : (double) this.waitedTicks.sum() / count;
+    }
+
+    /**
+     * Resumen legible de las métricas.
+     * @return texto con solicitudes, mesas y reutilización.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d solicitudes, %d sentadas (espera media %.1f rondas), %d en espera; "
+                        + "%d mesas (%d con máquinas por espera), %d creadas, %d reutilizadas",
+                this.getJoins(), this.getSeated(), this.getAverageWaitTicks(), this.getWaiting(),
+                this.getMatches(), this.getMachineFilled(), this.getTablesCreated(), this.getTablesReused());
+    }
+}
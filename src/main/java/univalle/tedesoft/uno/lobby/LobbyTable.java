@@ -0,0 +1,127 @@
+package univalle.tedesoft.uno.lobby;
+
+import univalle.tedesoft.uno.model.Decks.Deck;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.model.Players.HumanPlayer;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.GameState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Mesa armada por el {@link Lobby}. El objeto se recicla entre partidas: conserva sus
+ * jugadores, listas y mazo, y solo crea el {@link GameState} de la partida nueva.
+ * Los primeros asientos son de los jugadores emparejados y el resto los juegan máquinas.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class LobbyTable {
+    /** Jugadores humanos reutilizables, uno por asiento posible. */
+    private final HumanPlayer[] humans;
+    /** Máquinas reutilizables, una por asiento posible. */
+    private final MachinePlayer[] machines;
+    /** Solicitudes sentadas en la mesa, en orden de asiento. */
+    private final List<LobbyTicket> tickets = new ArrayList<>();
+    /** Jugadores de la partida actual, en orden de asiento. */
+    private final List<Player> players = new ArrayList<>();
+    /** Mazo de la mesa; al liberarla recupera todas sus cartas. */
+    private final Deck deck = new Deck();
+    /** Estado de la partida actual. */
+    private GameState gameState;
+    /** Partidas jugadas con este objeto. */
+    private int uses;
+
+    /**
+     * Crea una mesa con capacidad para una cantidad de asientos.
+     * @param seats cantidad de asientos.
+     */
+    LobbyTable(int seats) {
+        this.humans = new HumanPlayer[seats];
+        this.machines = new MachinePlayer[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            this.humans[seat] = new HumanPlayer("Asiento " + seat);
+            this.machines[seat] = new MachinePlayer();
+        }
+    }
+
+    /**
+     * Sienta a un grupo, completa con máquinas y empieza la partida.
+     * @param group las solicitudes emparejadas.
+     * @param difficulty dificultad de las máquinas.
+     */
+    void begin(List<LobbyTicket> group, Difficulty difficulty) {
+        this.tickets.clear();
+        this.players.clear();
+        for (int seat = 0; seat < this.humans.length; seat++) {
+            Player player;
+            if (seat < group.size()) {
+                LobbyTicket ticket = group.get(seat);
+                this.tickets.add(ticket);
+                player = this.humans[seat];
+                player.setName(ticket.getName());
+            } else {
+                MachinePlayer machine = this.machines[seat];
+                if (machine.getDifficulty() != difficulty) {
+                    machine.setDifficulty(difficulty);
+                }
+                player = machine;
+            }
+            this.players.add(player);
+        }
+        this.gameState = new GameState(this.players, this.deck);
+        this.gameState.onGameStart();
+        this.uses++;
+    }
+
+    /**
+     * Libera las referencias de la partida anterior antes de volver al grupo de mesas.
+     */
+    void clear() {
+        if (this.gameState != null) {
+            // El mazo se queda en la mesa con todas sus cartas para la próxima partida
+            this.gameState.reclaimCards();
+        }
+        for (Player player : this.players) {
+            player.resetUnoStatus();
+        }
+        this.tickets.clear();
+        this.players.clear();
+        this.gameState = null;
+    }
+
+    /**
+     * Devuelve las solicitudes sentadas en la mesa.
+     * @return las solicitudes, en orden de asiento.
+     */
+    public List<LobbyTicket> getTickets() {
+        return Collections.unmodifiableList(this.tickets);
+    }
+
+    /**
+     * Devuelve los jugadores de la partida, humanos primero.
+     * @return los jugadores, en orden de asiento.
+     */
+    public List<Player> getPlayers() {
+        return Collections.unmodifiableList(this.players);
+    }
+
+    /**
+     * Devuelve el estado de la partida actual.
+     * @return el estado, o null si la mesa está libre.
+     */
+    public GameState getGameState() {
+        return this.gameState;
+    }
+
+    /**
+     * Devuelve cuántas partidas se jugaron con este objeto.
+     * @return partidas jugadas.
+     */
+    public int getUses() {
+        return this.uses;
+    }
+}
@@ -0,0 +1,70 @@
+package univalle.tedesoft.uno.lobby;
+
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+
+/**
+ * Solicitud de un jugador para entrar a una partida desde el lobby.
+ * Los jugadores se agrupan por la dificultad que eligieron para las máquinas de la mesa
+ * y, dentro de ella, por su calificación.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class LobbyTicket {
+    /** Identificador del jugador. */
+    private final long id;
+    /** Nombre del jugador. */
+    private final String name;
+    /** Dificultad de las máquinas con las que quiere jugar. */
+    private final Difficulty difficulty;
+    /** Calificación del jugador (Elo). */
+    private final double rating;
+    /** Ronda del lobby en la que empezó a esperar; la asigna el lobby. */
+    long enqueuedTick;
+
+    /**
+     * Constructor de la solicitud.
+     * @param id identificador del jugador.
+     * @param name nombre del jugador.
+     * @param difficulty dificultad de las máquinas de la mesa.
+     * @param rating calificación del jugador.
+     */
+    public LobbyTicket(long id, String name, Difficulty difficulty, double rating) {
+        this.id = id;
+        this.name = name;
+        this.difficulty = difficulty;
+        this.rating = rating;
+    }
+
+    /**
+     * Devuelve el identificador del jugador.
+     * @return el identificador.
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Devuelve el nombre del jugador.
+     * @return el nombre.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Devuelve la dificultad elegida.
+     * @return la dificultad.
+     */
+    public Difficulty getDifficulty() {
+        return this.difficulty;
+    }
+
+    /**
+     * Devuelve la calificación del jugador.
+     * @return la calificación.
+     */
+    public double getRating() {
+        return this.rating;
+    }
+}
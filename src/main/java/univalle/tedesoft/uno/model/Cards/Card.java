@@ -1,21 +1,46 @@
 package univalle.tedesoft.uno.model.Cards;
 
+import univalle.tedesoft.uno.model.Enum.CardEffect;
 import univalle.tedesoft.uno.model.Enum.Color;
 import univalle.tedesoft.uno.model.Enum.Value;
 
 /**
  * Clase abstracta que representa una carta generica del juego UNO.
- * Contiene atributos comunes como el color, el valor y un indicador
- * de si la carta ya fue usada o no.
+ * El color y el valor se guardan juntos en un solo byte, el índice de tipo
+ * (color × cantidad de valores + valor), y se recuperan con tablas precalculadas:
+ * así cada carta ocupa solo la cabecera del objeto más un byte.
+ * Las subclases se conservan para construir cartas con nombre propio, pero la lógica
+ * del juego despacha por {@link #getEffect()}.
  * @author David Esteban Valencia
  * @author Santiago David Guerrero
  * @author Juan Pablo Escamilla
  */
 public abstract class Card {
-    /** Color de la carta (puede ser rojo, azul, verde, amarillo o comodin) */
-    public Color color;
-    /** Valor de la carta (numero, accion o comodin) */
-    public Value value;
+    /** Cantidad de valores posibles. */
+    public static final int VALUE_COUNT = Value.values().length;
+    /** Cantidad de índices de tipo posibles (color × valor). */
+    public static final int TYPE_COUNT = Color.values().length * VALUE_COUNT;
+    /** Color de cada índice de tipo. */
+    private static final Color[] COLOR_OF = new Color[TYPE_COUNT];
+    /** Valor de cada índice de tipo. */
+    private static final Value[] VALUE_OF = new Value[TYPE_COUNT];
+    /** Efecto de cada índice de tipo. */
+    private static final CardEffect[] EFFECT_OF = new CardEffect[TYPE_COUNT];
+
+    static {
+        for (Color color : Color.values()) {
+            for (Value value : Value.values()) {
+                int code = color.ordinal() * VALUE_COUNT + value.ordinal();
+                COLOR_OF[code] = color;
+                VALUE_OF[code] = value;
+                EFFECT_OF[code] = CardEffect.of(value);
+            }
+        }
+    }
+
+    /** Índice de tipo de la carta: color × {@link #VALUE_COUNT} + valor. */
+    private final byte code;
+
     /**
      * Constructor de la clase Card.
      *
@@ -23,8 +48,7 @@ public abstract class Card {
      * @param value Valor de la carta
      */
     public Card(Color color, Value value) {
-        this.color = color;
-        this.value = value;
+        this.code = (byte) (color.ordinal() * VALUE_COUNT + value.ordinal());
     }
     /**
      * Devuelve el color de la carta.
@@ -32,7 +56,7 @@ public abstract class Card {
      * @return Color de la carta
      */
     public Color getColor() {
-        return color;
+        return COLOR_OF[this.code];
     }
     /**
      * Devuelve el valor de la carta.
@@ -40,6 +64,23 @@ public abstract class Card {
      * @return Valor de la carta
      */
     public Value getValue() {
-        return value;
+        return VALUE_OF[this.code];
+    }
+    /**
+     * Devuelve el efecto que aplica la carta al jugarse.
+     *
+     * @return Efecto de la carta
+     */
+    public CardEffect getEffect() {
+        return EFFECT_OF[this.code];
+    }
+    /**
+     * Devuelve el índice de tipo de la carta, el mismo que usan el modelo de
+     * inferencia, las características de la política y el protocolo.
+     *
+     * @return color × {@link #VALUE_COUNT} + valor
+     */
+    public int getCode() {
+        return this.code;
     }
 }
@@ -0,0 +1,23 @@
+package univalle.tedesoft.uno.model.Cards;
+
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Value;
+
+/**
+ * Representa una carta de accion tipo Reverse en el juego UNO.
+ * Esta carta invierte el sentido del turno; en una partida de dos jugadores
+ * actúa como un Skip.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class ReverseCard extends ActionCard{
+    /**
+     * Constructor de la clase ReverseCard.
+     *
+     * @param color Color de la carta
+     */
+    public ReverseCard(Color color) {
+        super(color, Value.REVERSE);
+    }
+}
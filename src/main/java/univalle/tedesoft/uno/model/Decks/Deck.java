@@ -1,31 +1,54 @@
 package univalle.tedesoft.uno.model.Decks;
 
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import univalle.tedesoft.uno.exceptions.EmptyDeckException;
 import univalle.tedesoft.uno.model.Cards.*;
 import univalle.tedesoft.uno.model.Enum.Color;
 import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Rng.IRandomSource;
+import univalle.tedesoft.uno.model.Rng.Xoshiro256Random;
 
 /**
  * Clase que representa el mazo principal del juego UNO.
  * Contiene todas las cartas iniciales necesarias para jugar, incluyendo cartas numéricas,
  * de acción (+2, reverse, skip) y comodines (wild, +4).
  * El mazo se inicializa en el constructor, se baraja automáticamente y permite tomar cartas.
+ * Las cartas se guardan en un arreglo con capacidad para el mazo completo: devolverlas
+ * y volver a barajar para otra partida no reserva memoria. La parte superior es el final
+ * del arreglo, así que tomar una carta no desplaza a las demás.
  * @author David Esteban Valencia
  * @author Santiago David Guerrero
  * @author Juan Pablo Escamilla
  */
 public class Deck {
-    /** Lista que contiene las cartas del mazo */
-    private final LinkedList<Card> cards;
+    /** Cantidad de cartas de un mazo completo. */
+    public static final int SIZE = 64;
+    /** Lista que contiene las cartas del mazo; la parte superior es el último índice. */
+    private final ArrayList<Card> cards;
+    /** Fuente aleatoria con la que se baraja. */
+    private IRandomSource random;
+    /** Copia de las cartas ordenadas por código, creada al primer uso. */
+    private Card[] arrangeScratch;
+    /** Próxima carta de cada código en {@link #arrangeScratch}. */
+    private int[] arrangeCursor;
     /**
      * Constructor del mazo. Inicializa el mazo con las cartas estandar de UNO
      * y luego lo baraja aleatoriamente.
      */
     public Deck(){
-        cards = new LinkedList<>();
+        this(new Xoshiro256Random());
+    }
+    /**
+     * Constructor del mazo que baraja con una fuente aleatoria dada, por ejemplo una
+     * sembrada para repetir una partida.
+     * @param random fuente aleatoria del mazo.
+     */
+    public Deck(IRandomSource random){
+        this.random = random;
+        cards = new ArrayList<>(SIZE);
         intializeDeck();
         shuffle();
     }
@@ -43,6 +66,7 @@ public class Deck {
             cards.add(new DrawTwoCard(Color.values()[c]));
             cards.add(new DrawTwoCard(Color.values()[c]));
             cards.add(new SkipCard(Color.values()[c]));
+            cards.add(new ReverseCard(Color.values()[c]));
             // Cartas numéricas 0-9, +2, reverse y skip, 14 cartas por cada color
             for(int v = 0; v < Value.values().length; v++){
                 if(v <= Value.NINE.ordinal()){
@@ -59,28 +83,119 @@ public class Deck {
     /**
      * Retorna la lista de cartas actuales del mazo.
      *
-     * @return LinkedList con las cartas del mazo.
+     * @return lista con las cartas del mazo, de la del fondo a la superior.
      */
-    public LinkedList<Card> getCards() {
+    public List<Card> getCards() {
         return cards;
     }
     /**
-     * Baraja aleatoriamente las cartas del mazo.
+     * Cambia la fuente aleatoria del mazo, por ejemplo al empezar una partida con su
+     * propia semilla.
+     * @param random fuente aleatoria del mazo.
+     */
+    public void setRandom(IRandomSource random) {
+        this.random = random;
+    }
+    /**
+     * Ordena las cartas por código. Barajar desde este orden hace que el resultado dependa
+     * solo de la fuente aleatoria y no de la partida anterior, así una semilla repite la
+     * partida aunque el mazo se reutilice. Tras el primer uso no reserva memoria.
+     */
+    public void sortByCode() {
+        this.bucketByCode();
+        for (int i = 0; i < this.cards.size(); i++) {
+            this.cards.set(i, this.arrangeScratch[i]);
+        }
+    }
+    /**
+     * Pone las cartas del mazo en un orden ya barajado, por ejemplo uno generado en otro
+     * hilo. Reutiliza las mismas cartas y, tras el primer uso, no reserva memoria.
+     * @param order códigos de las cartas ({@link Card#getCode()}), de la del fondo a la superior.
+     * @throws IllegalArgumentException si el orden no usa exactamente las cartas del mazo.
+     */
+    public void arrange(byte[] order) {
+        if (order.length != this.cards.size()) {
+            throw new IllegalArgumentException("El orden tiene " + order.length + " cartas y el mazo "
+                    + this.cards.size() + ".");
+        }
+        this.bucketByCode();
+        for (int i = 0; i < order.length; i++) {
+            int code = order[i];
+            int index = code >= 0 && code < Card.TYPE_COUNT ? this.arrangeCursor[code] : order.length;
+            Card card = index < order.length ? this.arrangeScratch[index] : null;
+            if (card == null || card.getCode() != code) {
+                // Dejar el orden canónico antes de fallar para no perder cartas
+                for (int j = 0; j < order.length; j++) {
+                    this.cards.set(j, this.arrangeScratch[j]);
+                }
+                throw new IllegalArgumentException("El orden pide más cartas de código " + code + " de las que hay.");
+            }
+            this.arrangeCursor[code] = index + 1;
+            this.cards.set(i, card);
+        }
+    }
+    /**
+     * Copia las cartas a {@link #arrangeScratch} ordenadas por código (ordenamiento por
+     * conteo, estable) y deja en {@link #arrangeCursor} la posición de la primera carta
+     * de cada código.
+     */
+    private void bucketByCode() {
+        int size = this.cards.size();
+        if (this.arrangeScratch == null || this.arrangeScratch.length < size) {
+            this.arrangeScratch = new Card[Math.max(size, SIZE)];
+            this.arrangeCursor = new int[Card.TYPE_COUNT];
+        }
+        int[] cursor = this.arrangeCursor;
+        Arrays.fill(cursor, 0);
+        for (int i = 0; i < size; i++) {
+            cursor[this.cards.get(i).getCode()]++;
+        }
+        int start = 0;
+        for (int code = 0; code < cursor.length; code++) {
+            int count = cursor[code];
+            cursor[code] = start;
+            start += count;
+        }
+        for (int i = 0; i < size; i++) {
+            Card card = this.cards.get(i);
+            this.arrangeScratch[cursor[card.getCode()]++] = card;
+        }
+        // Cada cursor quedó al final de su código, que es el inicio del siguiente
+        for (int code = cursor.length - 1; code > 0; code--) {
+            cursor[code] = cursor[code - 1];
+        }
+        cursor[0] = 0;
+    }
+    /**
+     * Baraja aleatoriamente las cartas del mazo (Fisher-Yates, como Collections.shuffle,
+     * pero con la fuente del mazo en lugar del Random compartido por todos los hilos).
      */
     public void shuffle() {
-        Collections.shuffle(cards);
+        for (int i = this.cards.size() - 1; i > 0; i--) {
+            int j = this.random.nextInt(i + 1);
+            this.cards.set(i, this.cards.set(j, this.cards.get(i)));
+        }
     }
     /**
-     * Toma la primera carta del mazo (parte superior).
+     * Toma la carta superior del mazo, la última de la lista, en tiempo constante.
      *
-     * @return La carta retirada del mazo o null si está vacío.
+     * @return La carta retirada del mazo.
      * @throws EmptyDeckException si el mazo está vacío.
      */
     public Card takeCard() throws EmptyDeckException {
         if (this.cards.isEmpty()) {
             throw new EmptyDeckException("No se pueden tomar más cartas, el mazo principal está vacío.");
         }
-        return cards.poll();
+        return this.cards.remove(this.cards.size() - 1);
+    }
+
+    /**
+     * Devuelve una carta al mazo, por ejemplo al recoger las cartas de una partida
+     * terminada para empezar otra. Queda encima; quien la devuelve baraja u ordena después.
+     * @param card la carta.
+     */
+    public void returnCard(Card card) {
+        this.cards.add(card);
     }
 
     /**
@@ -0,0 +1,73 @@
+package univalle.tedesoft.uno.model.Decks;
+
+import java.util.ArrayDeque;
+
+/**
+ * Reserva acotada de mazos completos para reutilizarlos entre partidas. Un servidor que
+ * abre y retira muchas mesas toma de aquí el mazo de cada mesa y lo devuelve al retirarla,
+ * en lugar de crear 64 cartas nuevas por mesa. Se puede usar desde varios hilos.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class DeckPool {
+    /** Mazos libres. */
+    private final ArrayDeque<Deck> free;
+    /** Cantidad máxima de mazos libres que se guardan. */
+    private final int capacity;
+
+    /**
+     * Crea una reserva vacía.
+     * @param capacity cantidad máxima de mazos libres; los que sobran se descartan.
+     * @throws IllegalArgumentException si la capacidad no es positiva.
+     */
+    public DeckPool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacity);
+        }
+        this.capacity = capacity;
+        this.free = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Toma un mazo libre, o crea uno si no queda ninguno.
+     * @return un mazo completo; se baraja al empezar la partida.
+     */
+    public Deck acquire() {
+        Deck deck;
+        synchronized (this.free) {
+            deck = this.free.pollFirst();
+        }
+        return deck != null ? deck : new Deck();
+    }
+
+    /**
+     * Devuelve un mazo a la reserva. Debe tener otra vez todas sus cartas, ver
+     * {@link univalle.tedesoft.uno.model.State.GameState#reclaimCards()}; un mazo
+     * incompleto o que no cabe se descarta.
+     * @param deck el mazo.
+     * @return true si el mazo quedó en la reserva.
+     */
+    public boolean release(Deck deck) {
+        if (deck.getNumeroCartas() != Deck.SIZE) {
+            return false;
+        }
+        synchronized (this.free) {
+            if (this.free.size() >= this.capacity) {
+                return false;
+            }
+            this.free.addFirst(deck);
+            return true;
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de mazos libres.
+     * @return mazos libres.
+     */
+    public int size() {
+        synchronized (this.free) {
+            return this.free.size();
+        }
+    }
+}
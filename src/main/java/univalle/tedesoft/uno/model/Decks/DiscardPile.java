@@ -3,6 +3,7 @@ package univalle.tedesoft.uno.model.Decks;
 import univalle.tedesoft.uno.model.Cards.Card;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Stack;
 
@@ -78,5 +79,30 @@ public class DiscardPile {
         return recyclesCards;
     }
 
+    /**
+     * Devuelve las cartas de la pila, de la más antigua a la superior.
+     * @return vista de solo lectura de la pila.
+     */
+    public List<Card> getCards() {
+        return Collections.unmodifiableList(this.discarded);
+    }
 
+    /**
+     * Devuelve todas las cartas de la pila al mazo y la deja vacía, sin
+     * reservar memoria, para empezar otra partida con las mismas cartas.
+     * @param deck el mazo que recibe las cartas.
+     */
+    public void returnTo(Deck deck) {
+        for (int i = 0; i < this.discarded.size(); i++) {
+            deck.returnCard(this.discarded.get(i));
+        }
+        this.discarded.clear();
+    }
+
+    /**
+     * Vacía la pila, por ejemplo para restaurar una partida guardada.
+     */
+    public void clear() {
+        this.discarded.clear();
+    }
 }
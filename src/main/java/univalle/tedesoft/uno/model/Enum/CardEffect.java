@@ -0,0 +1,41 @@
+package univalle.tedesoft.uno.model.Enum;
+
+/**
+ * Enum que representa el efecto que aplica una carta al jugarse.
+ * Cada carta calcula el suyo a partir de su valor al construirse la tabla de
+ * {@link univalle.tedesoft.uno.model.Cards.Card}, así que el estado del juego
+ * despacha los efectos con un switch en lugar de preguntar por la subclase.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public enum CardEffect {
+    /** Carta numérica, sin efecto. */
+    NONE,
+    /** El siguiente jugador pierde su turno. */
+    SKIP,
+    /** Invierte el sentido; con dos jugadores equivale a saltar al siguiente. */
+    REVERSE,
+    /** El siguiente jugador roba dos cartas y pierde su turno. */
+    DRAW_TWO,
+    /** Quien la juega elige el color. */
+    WILD,
+    /** Quien la juega elige el color; el siguiente roba cuatro cartas y pierde su turno. */
+    WILD_DRAW_FOUR;
+
+    /**
+     * Devuelve el efecto de un valor de carta.
+     * @param value el valor.
+     * @return su efecto.
+     */
+    public static CardEffect of(Value value) {
+        return switch (value) {
+            case SKIP -> SKIP;
+            case REVERSE -> REVERSE;
+            case DRAW_TWO -> DRAW_TWO;
+            case WILD -> WILD;
+            case WILD_DRAW_FOUR -> WILD_DRAW_FOUR;
+            default -> NONE;
+        };
+    }
+}
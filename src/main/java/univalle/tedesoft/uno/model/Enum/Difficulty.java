@@ -0,0 +1,70 @@
+package univalle.tedesoft.uno.model.Enum;
+
+import univalle.tedesoft.uno.model.Strategies.GreedyStrategy;
+import univalle.tedesoft.uno.model.Strategies.HeuristicStrategy;
+import univalle.tedesoft.uno.model.Strategies.IMachineStrategy;
+import univalle.tedesoft.uno.model.Strategies.RandomStrategy;
+import univalle.tedesoft.uno.model.Strategies.SearchStrategy;
+
+/**
+ * Enum que representa los niveles de dificultad de la máquina.
+ * Cada nivel define la estrategia de decisión y el presupuesto de CPU por jugada.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public enum Difficulty {
+    /** Juega cartas válidas al azar. */
+    RANDOM("Aleatorio", 5),
+    /** Juega la carta de mayor puntaje inmediato. */
+    GREEDY("Fácil", 5),
+    /** Usa el modelo de la mano del oponente. */
+    HEURISTIC("Normal", 20),
+    /** Simula partidas completas dentro del presupuesto. */
+    SEARCH("Difícil", 400);
+
+    /** Nombre visible en la interfaz. */
+    private final String displayName;
+    /** Presupuesto de tiempo por jugada, en milisegundos. */
+    private final long budgetMillis;
+
+    /**
+     * Constructor del nivel de dificultad.
+     * @param displayName nombre visible en la interfaz.
+     * @param budgetMillis presupuesto de tiempo por jugada en milisegundos.
+     */
+    Difficulty(String displayName, long budgetMillis) {
+        this.displayName = displayName;
+        this.budgetMillis = budgetMillis;
+    }
+
+    /**
+     * Devuelve el presupuesto de tiempo por jugada.
+     * @return presupuesto en milisegundos.
+     */
+    public long getBudgetMillis() {
+        return this.budgetMillis;
+    }
+
+    /**
+     * Crea una nueva instancia de la estrategia de este nivel.
+     * @return la estrategia correspondiente.
+     */
+    public IMachineStrategy createStrategy() {
+        return switch (this) {
+            case RANDOM -> new RandomStrategy();
+            case GREEDY -> new GreedyStrategy();
+            case HEURISTIC -> new HeuristicStrategy();
+            case SEARCH -> new SearchStrategy();
+        };
+    }
+
+    /**
+     * Devuelve el nombre visible del nivel.
+     * @return el nombre en español.
+     */
+    @Override
+    public String toString() {
+        return this.displayName;
+    }
+}
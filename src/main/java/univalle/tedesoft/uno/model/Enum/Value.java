@@ -30,6 +30,8 @@ public enum Value {
     NINE,
     /** Acción de Saltarse el turno del siguiente jugador. */
     SKIP,
+    /** Acción de invertir el sentido del turno; con dos jugadores equivale a saltar al siguiente. */
+    REVERSE,
     /** Acción de obligar al siguiente jugador a tomar dos cartas. */
     DRAW_TWO,
     /** Acción de Comodín, permite cambiar el color. */
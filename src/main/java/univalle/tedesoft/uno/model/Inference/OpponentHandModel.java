@@ -0,0 +1,517 @@
+package univalle.tedesoft.uno.model.Inference;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Decks.Deck;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.IGameStateListener;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Modelo de inferencia sobre la mano del oponente a partir de la información pública.
+ * Lleva la cuenta del multiconjunto de cartas que el dueño del modelo aún no ha visto
+ * (mazo + mano del oponente), del tamaño de la mano del oponente y de los colores que el
+ * oponente probablemente no tiene. Las reglas permiten robar aun teniendo una carta jugable,
+ * así que un robo voluntario es solo un indicio: sube el peso de "color ausente" del color
+ * activo y de los comodines, y ese peso decae en los turnos siguientes del oponente.
+ * Cada evento se procesa en tiempo constante: el reciclaje no recorre las cartas recicladas,
+ * sino los conteos por tipo de la pila de descarte que el modelo lleva con cada jugada. Con
+ * {@link #copyFrom(OpponentHandModel)} el modelo se copia sin reservar memoria, para
+ * actualizar la copia dentro de simulaciones sin tocar el original.
+ * Las probabilidades asumen que las cartas de la mano se extraen del conjunto no visto
+ * con reemplazo, lo cual es una aproximación suficiente para guiar estrategias.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class OpponentHandModel implements IGameStateListener {
+    /** Cantidad de colores distintos (incluye WILD). */
+    public static final int COLOR_COUNT = Color.values().length;
+    /** Cantidad de valores distintos. */
+    public static final int VALUE_COUNT = Value.values().length;
+    /** Cantidad de tipos de carta posibles (color x valor). */
+    public static final int TYPE_COUNT = COLOR_COUNT * VALUE_COUNT;
+    /** Composición del mazo estándar, indexada por tipo de carta. */
+    private static final int[] DECK_COMPOSITION = computeDeckComposition();
+    /** Peso que aporta un robo voluntario a la hipótesis de que el oponente no tenía el color. */
+    static final double DRAW_EVIDENCE = 0.75;
+    /** Factor por el que se multiplica el peso en cada turno posterior del oponente. */
+    static final double EVIDENCE_DECAY = 0.8;
+    /** Peso por debajo del cual el indicio se descarta. */
+    private static final double MIN_EVIDENCE = 0.05;
+
+    /** Jugador dueño del modelo, cuyas cartas sí son conocidas. */
+    private final Player owner;
+    /** Oponente cuya mano se modela; null para considerar a cualquier otro jugador (mesa de dos). */
+    private Player observed;
+    /** Cantidad de cartas no vistas por tipo. */
+    private final int[] unseen = new int[TYPE_COUNT];
+    /** Cantidad de cartas no vistas por color. */
+    private final int[] unseenPerColor = new int[COLOR_COUNT];
+    /** Total de cartas no vistas. */
+    private int totalUnseen;
+    /** Tamaño actual de la mano del oponente. */
+    private int opponentHandSize;
+    /** Peso (entre 0 y 1) de la hipótesis de que el oponente no tiene cartas de cada color. */
+    private final double[] voidWeight = new double[COLOR_COUNT];
+    /** Cartas robadas después del último indicio de color ausente; podrían ser de ese color. */
+    private final int[] freshCards = new int[COLOR_COUNT];
+    /** Color activo según lo observado en los eventos. */
+    private Color currentColor;
+    /** Cartas de la pila de descarte por tipo, incluida la superior. */
+    private final int[] discarded = new int[TYPE_COUNT];
+    /** Total de cartas de la pila de descarte. */
+    private int discardedTotal;
+    /** Tipo de la carta superior de la pila, o -1 si está vacía. */
+    private int topType;
+    /** Colores con peso de color ausente mayor que cero. */
+    private int weightedColors;
+
+    /**
+     * Constructor del modelo.
+     * @param owner El jugador cuya mano es conocida y que observa al oponente.
+     */
+    public OpponentHandModel(Player owner) {
+        this.owner = owner;
+        this.onNewGame();
+    }
+
+    /**
+     * Calcula el índice de tipo para una combinación de color y valor.
+     * @param color El color de la carta.
+     * @param value El valor de la carta.
+     * @return índice entre 0 y {@link #TYPE_COUNT} - 1.
+     */
+    public static int typeIndex(Color color, Value value) {
+        return color.ordinal() * VALUE_COUNT + value.ordinal();
+    }
+
+    /**
+     * Calcula el índice de tipo de una carta.
+     * @param card La carta.
+     * @return índice entre 0 y {@link #TYPE_COUNT} - 1.
+     */
+    public static int typeIndex(Card card) {
+        return card.getCode();
+    }
+
+    /**
+     * Cuenta las cartas del mazo estándar por tipo, usando un mazo de referencia.
+     * @return arreglo con la cantidad de cartas por tipo.
+     */
+    private static int[] computeDeckComposition() {
+        int[] composition = new int[TYPE_COUNT];
+        for (Card card : new Deck().getCards()) {
+            composition[typeIndex(card)]++;
+        }
+        return composition;
+    }
+
+    /**
+     * Elige qué oponente se modela en mesas de más de dos jugadores. Las cartas de los demás
+     * siguen contándose como no vistas, pero sus robos y jugadas no afectan el tamaño de mano
+     * ni los colores ausentes.
+     * @param observed el oponente a modelar, o null para cualquier otro jugador.
+     */
+    public void setObservedOpponent(Player observed) {
+        this.observed = observed;
+    }
+
+    // --- Eventos ---
+
+    /**
+     * Reinicia el modelo: todas las cartas del mazo estándar pasan a ser no vistas.
+     */
+    @Override
+    public void onNewGame() {
+        System.arraycopy(DECK_COMPOSITION, 0, this.unseen, 0, TYPE_COUNT);
+        this.totalUnseen = 0;
+        for (int c = 0; c < COLOR_COUNT; c++) {
+            this.unseenPerColor[c] = 0;
+            for (int v = 0; v < VALUE_COUNT; v++) {
+                this.unseenPerColor[c] += this.unseen[c * VALUE_COUNT + v];
+            }
+            this.totalUnseen += this.unseenPerColor[c];
+            this.voidWeight[c] = 0.0;
+            this.freshCards[c] = 0;
+        }
+        Arrays.fill(this.discarded, 0);
+        this.discardedTotal = 0;
+        this.topType = -1;
+        this.weightedColors = 0;
+        this.opponentHandSize = 0;
+        this.currentColor = null;
+    }
+
+    /**
+     * Copia el estado de otro modelo sin reservar memoria. El dueño y el oponente observado
+     * no se copian: la copia sirve para simular desde la perspectiva del mismo jugador.
+     * @param other el modelo a copiar.
+     */
+    public void copyFrom(OpponentHandModel other) {
+        System.arraycopy(other.unseen, 0, this.unseen, 0, TYPE_COUNT);
+        System.arraycopy(other.unseenPerColor, 0, this.unseenPerColor, 0, COLOR_COUNT);
+        System.arraycopy(other.voidWeight, 0, this.voidWeight, 0, COLOR_COUNT);
+        System.arraycopy(other.freshCards, 0, this.freshCards, 0, COLOR_COUNT);
+        System.arraycopy(other.discarded, 0, this.discarded, 0, TYPE_COUNT);
+        this.totalUnseen = other.totalUnseen;
+        this.opponentHandSize = other.opponentHandSize;
+        this.currentColor = other.currentColor;
+        this.discardedTotal = other.discardedTotal;
+        this.topType = other.topType;
+        this.weightedColors = other.weightedColors;
+    }
+
+    /**
+     * La carta inicial queda a la vista de todos.
+     * @param card La carta inicial.
+     */
+    @Override
+    public void onStarterCard(Card card) {
+        this.markSeen(card);
+        this.addDiscarded(card);
+        this.currentColor = card.getColor();
+    }
+
+    /**
+     * Si el dueño roba, la carta deja de ser desconocida; si roba el oponente,
+     * solo crece su mano. Un robo voluntario del oponente sugiere, sin probarlo,
+     * que no tenía cartas del color activo ni comodines.
+     * @param player El jugador que recibe la carta.
+     * @param card La carta recibida.
+     * @param turnDraw true si fue un robo voluntario durante el turno.
+     */
+    @Override
+    public void onCardDrawn(Player player, Card card, boolean turnDraw) {
+        if (player == this.owner) {
+            this.markSeen(card);
+            return;
+        }
+        if (this.observed != null && player != this.observed) {
+            return;
+        }
+        this.opponentHandSize++;
+        for (int c = 0; c < COLOR_COUNT && this.weightedColors > 0; c++) {
+            if (this.voidWeight[c] > 0.0) {
+                this.freshCards[c]++;
+            }
+        }
+        if (turnDraw) {
+            this.decayEvidence();
+            if (this.currentColor != null) {
+                // Probablemente no tenía el color activo ni comodines; la carta nueva sí podría serlo
+                this.addVoidEvidence(this.currentColor);
+                this.addVoidEvidence(Color.WILD);
+            }
+        }
+    }
+
+    /**
+     * Una carta jugada por el oponente se vuelve visible y sale de su mano.
+     * Las cartas del dueño ya eran conocidas.
+     * @param player El jugador que jugó.
+     * @param card La carta jugada.
+     */
+    @Override
+    public void onCardPlayed(Player player, Card card) {
+        this.currentColor = card.getColor();
+        this.addDiscarded(card);
+        if (player == this.owner) {
+            return;
+        }
+        this.markSeen(card);
+        if (this.observed != null && player != this.observed) {
+            return;
+        }
+        this.opponentHandSize = Math.max(0, this.opponentHandSize - 1);
+        this.decayEvidence();
+        int color = card.getColor().ordinal();
+        if (this.voidWeight[color] > 0.0) {
+            if (this.freshCards[color] == 0) {
+                // Jugó un color que no podía venir de los robos recientes: el indicio era falso
+                this.clearEvidence(color);
+            } else {
+                this.freshCards[color]--;
+            }
+        }
+        for (int c = 0; c < COLOR_COUNT && this.weightedColors > 0; c++) {
+            if (this.voidWeight[c] > 0.0 && this.freshCards[c] > this.opponentHandSize) {
+                this.freshCards[c] = this.opponentHandSize;
+            }
+        }
+    }
+
+    /**
+     * Actualiza el color activo tras un comodín.
+     * @param color El color elegido.
+     */
+    @Override
+    public void onColorChosen(Color color) {
+        this.currentColor = color;
+    }
+
+    /**
+     * Las cartas recicladas vuelven al mazo y por lo tanto vuelven a ser no vistas. Son toda
+     * la pila salvo la superior, así que se suman los conteos por tipo de la pila en lugar de
+     * recorrer la lista. Si la pila observada no coincide con lo reciclado (el modelo empezó
+     * a mitad de partida), se recorre la lista.
+     * @param recycledCards Las cartas que volvieron al mazo.
+     */
+    @Override
+    public void onDeckRecycled(List<Card> recycledCards) {
+        if (this.topType >= 0 && this.discardedTotal - 1 == recycledCards.size()) {
+            this.discarded[this.topType]--;
+            for (int type = 0; type < TYPE_COUNT; type++) {
+                if (this.discarded[type] > 0) {
+                    this.addUnseen(type, this.discarded[type]);
+                    this.discarded[type] = 0;
+                }
+            }
+        } else {
+            for (int i = 0; i < recycledCards.size(); i++) {
+                this.addUnseen(typeIndex(recycledCards.get(i)), 1);
+            }
+            Arrays.fill(this.discarded, 0);
+        }
+        if (this.topType >= 0) {
+            this.discarded[this.topType] = 1;
+            this.discardedTotal = 1;
+        } else {
+            this.discardedTotal = 0;
+        }
+    }
+
+    /**
+     * Suma cartas de un tipo al conjunto no visto.
+     * @param type tipo de carta.
+     * @param count cantidad de cartas.
+     */
+    private void addUnseen(int type, int count) {
+        this.unseen[type] += count;
+        this.unseenPerColor[type / VALUE_COUNT] += count;
+        this.totalUnseen += count;
+    }
+
+    /**
+     * Registra una carta que llega a la pila de descarte y queda como superior.
+     * @param card la carta.
+     */
+    private void addDiscarded(Card card) {
+        int type = typeIndex(card);
+        this.discarded[type]++;
+        this.discardedTotal++;
+        this.topType = type;
+    }
+
+    /**
+     * Descuenta una carta del conjunto no visto.
+     * @param card La carta observada.
+     */
+    private void markSeen(Card card) {
+        int type = typeIndex(card);
+        if (this.unseen[type] > 0) {
+            this.unseen[type]--;
+            this.unseenPerColor[card.getColor().ordinal()]--;
+            this.totalUnseen--;
+        }
+    }
+
+    /**
+     * Suma un indicio de que el oponente no tiene un color, salvo la última carta robada.
+     * El indicio nuevo se combina con el anterior como dos observaciones independientes.
+     * @param color El color que el oponente no siguió.
+     */
+    private void addVoidEvidence(Color color) {
+        int c = color.ordinal();
+        if (this.voidWeight[c] == 0.0) {
+            this.weightedColors++;
+        }
+        this.voidWeight[c] = 1.0 - (1.0 - this.voidWeight[c]) * (1.0 - DRAW_EVIDENCE);
+        this.freshCards[c] = 1;
+    }
+
+    /**
+     * Debilita los indicios de colores ausentes al pasar un turno del oponente.
+     */
+    private void decayEvidence() {
+        if (this.weightedColors == 0) {
+            return;
+        }
+        for (int c = 0; c < COLOR_COUNT; c++) {
+            if (this.voidWeight[c] > 0.0) {
+                this.voidWeight[c] *= EVIDENCE_DECAY;
+                if (this.voidWeight[c] < MIN_EVIDENCE) {
+                    this.clearEvidence(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Descarta el indicio de color ausente de un color.
+     * @param colorIndex ordinal del color.
+     */
+    private void clearEvidence(int colorIndex) {
+        this.voidWeight[colorIndex] = 0.0;
+        this.freshCards[colorIndex] = 0;
+        this.weightedColors--;
+    }
+
+    // --- Consultas ---
+
+    /**
+     * Cantidad de cartas de la mano del oponente que podrían ser de un color dado
+     * si el indicio de color ausente es cierto.
+     * @param colorIndex ordinal del color.
+     * @return cantidad de cartas candidatas.
+     */
+    private int eligibleCards(int colorIndex) {
+        return this.voidWeight[colorIndex] > 0.0
+                ? Math.min(this.freshCards[colorIndex], this.opponentHandSize)
+                : this.opponentHandSize;
+    }
+
+    /**
+     * Probabilidad de que al menos una carta de la mano sea de un tipo con la tasa de
+     * fallo dada, mezclando la hipótesis de color ausente con su peso y la contraria.
+     * @param colorIndex ordinal del color.
+     * @param missRate probabilidad de que una carta no sea del tipo consultado.
+     * @return probabilidad entre 0 y 1.
+     */
+    private double probabilityOfAny(int colorIndex, double missRate) {
+        double weight = this.voidWeight[colorIndex];
+        double unconstrained = 1.0 - Math.pow(missRate, this.opponentHandSize);
+        if (weight == 0.0) {
+            return unconstrained;
+        }
+        double constrained = 1.0 - Math.pow(missRate, this.eligibleCards(colorIndex));
+        return weight * constrained + (1.0 - weight) * unconstrained;
+    }
+
+    /**
+     * Cantidad esperada de cartas de la mano que podrían ser de un color dado.
+     * @param colorIndex ordinal del color.
+     * @return cantidad esperada de cartas candidatas.
+     */
+    private double expectedEligibleCards(int colorIndex) {
+        double weight = this.voidWeight[colorIndex];
+        return weight * this.eligibleCards(colorIndex) + (1.0 - weight) * this.opponentHandSize;
+    }
+
+    /**
+     * Estima la probabilidad de que el oponente tenga al menos una carta del color dado.
+     * @param color El color consultado (WILD representa los comodines).
+     * @return probabilidad entre 0 y 1.
+     */
+    public double probabilityOfColor(Color color) {
+        int c = color.ordinal();
+        if (this.totalUnseen == 0 || this.unseenPerColor[c] == 0) {
+            return 0.0;
+        }
+        double missRate = 1.0 - (double) this.unseenPerColor[c] / this.totalUnseen;
+        return this.probabilityOfAny(c, missRate);
+    }
+
+    /**
+     * Estima la probabilidad de que el oponente tenga al menos una carta del tipo dado.
+     * @param color El color de la carta.
+     * @param value El valor de la carta.
+     * @return probabilidad entre 0 y 1.
+     */
+    public double probabilityOfCard(Color color, Value value) {
+        int type = typeIndex(color, value);
+        if (this.totalUnseen == 0 || this.unseen[type] == 0) {
+            return 0.0;
+        }
+        double missRate = 1.0 - (double) this.unseen[type] / this.totalUnseen;
+        return this.probabilityOfAny(color.ordinal(), missRate);
+    }
+
+    /**
+     * Estima cuántas cartas del tipo dado tiene el oponente.
+     * @param color El color de la carta.
+     * @param value El valor de la carta.
+     * @return cantidad esperada de cartas.
+     */
+    public double expectedCount(Color color, Value value) {
+        if (this.totalUnseen == 0) {
+            return 0.0;
+        }
+        int type = typeIndex(color, value);
+        return this.expectedEligibleCards(color.ordinal()) * this.unseen[type] / this.totalUnseen;
+    }
+
+    /**
+     * Devuelve cuántas cartas de un tipo no han sido vistas.
+     * @param color El color de la carta.
+     * @param value El valor de la carta.
+     * @return cantidad de cartas no vistas de ese tipo.
+     */
+    public int getUnseenCount(Color color, Value value) {
+        return this.unseen[typeIndex(color, value)];
+    }
+
+    /**
+     * Devuelve cuántas cartas de un color no han sido vistas.
+     * @param color El color consultado.
+     * @return cantidad de cartas no vistas de ese color.
+     */
+    public int getUnseenCount(Color color) {
+        return this.unseenPerColor[color.ordinal()];
+    }
+
+    /**
+     * Copia los conteos de cartas no vistas por tipo en el arreglo dado, sin reservar memoria.
+     * @param destination arreglo de al menos {@link #TYPE_COUNT} posiciones.
+     */
+    public void copyUnseenCounts(int[] destination) {
+        System.arraycopy(this.unseen, 0, destination, 0, TYPE_COUNT);
+    }
+
+    /**
+     * Devuelve cuántas cartas de la mano del oponente podrían ser del color dado
+     * suponiendo cierto el indicio de color ausente (ver {@link #getVoidWeight(Color)}).
+     * @param color El color consultado.
+     * @return cantidad de cartas candidatas.
+     */
+    public int getEligibleCards(Color color) {
+        return this.eligibleCards(color.ordinal());
+    }
+
+    /**
+     * Devuelve el total de cartas no vistas (mazo + mano del oponente).
+     * @return total de cartas no vistas.
+     */
+    public int getTotalUnseen() {
+        return this.totalUnseen;
+    }
+
+    /**
+     * Devuelve el tamaño de la mano del oponente.
+     * @return número de cartas del oponente.
+     */
+    public int getOpponentHandSize() {
+        return this.opponentHandSize;
+    }
+
+    /**
+     * Devuelve el peso del indicio de que el oponente no tiene cartas de un color
+     * (sin contar las robadas después del indicio).
+     * @param color El color consultado.
+     * @return peso entre 0 (sin indicio) y 1; nunca es una certeza.
+     */
+    public double getVoidWeight(Color color) {
+        return this.voidWeight[color.ordinal()];
+    }
+
+    /**
+     * Devuelve el color activo según lo observado.
+     * @return el color activo, o null si la partida no ha empezado.
+     */
+    public Color getCurrentColor() {
+        return this.currentColor;
+    }
+}
@@ -0,0 +1,101 @@
+package univalle.tedesoft.uno.model.Learning;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.IGameState;
+
+import java.util.List;
+
+/**
+ * Disposición fija del vector de características que describe una decisión de juego.
+ * La comparten el exportador de datos de entrenamiento y la inferencia de políticas
+ * aprendidas, de modo que un modelo entrenado con los datos exportados recibe
+ * exactamente las mismas entradas al jugar.
+ * Cada característica ocupa un byte sin signo:
+ * <ul>
+ *     <li>[{@link #HAND_OFFSET}, +{@link #TYPE_COUNT}): cartas propias por tipo (color x valor).</li>
+ *     <li>[{@link #LEGAL_OFFSET}, +{@link #TYPE_COUNT}): 1 si hay una carta jugable de ese tipo.</li>
+ *     <li>{@link #TOP_CARD}: tipo de la carta superior de la pila de descarte.</li>
+ *     <li>{@link #CURRENT_COLOR}: ordinal del color activo.</li>
+ *     <li>{@link #OPPONENT_COUNT}: cartas en la mano del oponente.</li>
+ *     <li>{@link #HAND_SIZE}: cartas en la mano propia.</li>
+ * </ul>
+ * Las acciones se codifican como el tipo de la carta jugada, o {@link #ACTION_DRAW} si se roba.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class PolicyFeatures {
+    /** Cantidad de tipos de carta. */
+    public static final int TYPE_COUNT = OpponentHandModel.TYPE_COUNT;
+    /** Cantidad de colores, incluyendo WILD. */
+    public static final int COLOR_COUNT = OpponentHandModel.COLOR_COUNT;
+    /** Inicio de los conteos de la mano. */
+    public static final int HAND_OFFSET = 0;
+    /** Inicio de la máscara de jugadas legales. */
+    public static final int LEGAL_OFFSET = HAND_OFFSET + TYPE_COUNT;
+    /** Posición del tipo de la carta superior. */
+    public static final int TOP_CARD = LEGAL_OFFSET + TYPE_COUNT;
+    /** Posición del color activo. */
+    public static final int CURRENT_COLOR = TOP_CARD + 1;
+    /** Posición del tamaño de la mano del oponente. */
+    public static final int OPPONENT_COUNT = CURRENT_COLOR + 1;
+    /** Posición del tamaño de la mano propia. */
+    public static final int HAND_SIZE = OPPONENT_COUNT + 1;
+    /** Cantidad total de características. */
+    public static final int FEATURE_COUNT = HAND_SIZE + 1;
+    /** Cantidad de acciones posibles: un tipo de carta o robar. */
+    public static final int ACTION_COUNT = TYPE_COUNT + 1;
+    /** Acción que representa robar sin jugar. */
+    public static final int ACTION_DRAW = TYPE_COUNT;
+    /** Código para "sin color elegido" en la columna de color. */
+    public static final int NO_COLOR = COLOR_COUNT;
+
+    /**
+     * Clase de utilidades, no se instancia.
+     */
+    private PolicyFeatures() {
+    }
+
+    /**
+     * Escribe las características de la decisión actual en un arreglo, sin reservar memoria.
+     * @param gameState estado actual del juego.
+     * @param self jugador que decide.
+     * @param opponentHandSize cartas en la mano del oponente.
+     * @param out arreglo destino.
+     * @param offset posición de inicio dentro del arreglo.
+     * @param stride distancia entre características consecutivas (1 para filas, la capacidad para columnas).
+     */
+    public static void extract(IGameState gameState, Player self, int opponentHandSize,
+                               byte[] out, int offset, int stride) {
+        for (int i = 0; i < LEGAL_OFFSET + TYPE_COUNT; i++) {
+            out[offset + i * stride] = 0;
+        }
+        List<Card> hand = self.getCards();
+        for (int i = 0; i < hand.size(); i++) {
+            Card card = hand.get(i);
+            int type = OpponentHandModel.typeIndex(card);
+            out[offset + (HAND_OFFSET + type) * stride]++;
+            if (gameState.isValidPlay(card)) {
+                out[offset + (LEGAL_OFFSET + type) * stride] = 1;
+            }
+        }
+        Card top = gameState.getTopDiscardCard();
+        Color color = gameState.getCurrentValidColor();
+        out[offset + TOP_CARD * stride] = (byte) (top != null ? OpponentHandModel.typeIndex(top) : TYPE_COUNT);
+        out[offset + CURRENT_COLOR * stride] = (byte) (color != null ? color.ordinal() : NO_COLOR);
+        out[offset + OPPONENT_COUNT * stride] = (byte) Math.min(opponentHandSize, 255);
+        out[offset + HAND_SIZE * stride] = (byte) Math.min(hand.size(), 255);
+    }
+
+    /**
+     * Codifica una acción.
+     * @param card la carta jugada, o null si se robó.
+     * @return el código de la acción.
+     */
+    public static int encodeAction(Card card) {
+        return card == null ? ACTION_DRAW : OpponentHandModel.typeIndex(card);
+    }
+}
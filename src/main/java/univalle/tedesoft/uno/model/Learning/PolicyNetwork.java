@@ -0,0 +1,317 @@
+package univalle.tedesoft.uno.model.Learning;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Red pequeña (lineal o con una capa oculta ReLU) que puntúa las acciones y los colores
+ * a partir del vector de {@link PolicyFeatures}.
+ * Los pesos se leen de un archivo little-endian con cabecera:
+ * magic {@link #MAGIC}, versión (short), entradas (short), neuronas ocultas (short, 0 = lineal),
+ * acciones (short) y colores (short). Siguen los float de cada capa como matrices
+ * [salidas][entradas] seguidas de su sesgo: capa oculta (si existe), cabeza de acciones
+ * y cabeza de colores. Las entradas son los bytes del vector sin normalizar.
+ * Internamente las matrices se guardan traspuestas para recorrer solo las entradas
+ * distintas de cero, que son la mayoría en este vector. Los pesos son inmutables y
+ * pueden compartirse entre hilos; los buffers de trabajo los aporta quien evalúa.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class PolicyNetwork {
+    /** Identificador del formato ("UNOW"). */
+    public static final int MAGIC = 0x574F4E55;
+    /** Versión del formato. */
+    public static final short VERSION = 1;
+    /** Cantidad de colores elegibles tras un comodín. */
+    public static final int CHOOSABLE_COLORS = PolicyFeatures.COLOR_COUNT - 1;
+
+    /** Neuronas ocultas, 0 si la red es lineal. */
+    private final int hidden;
+    /** Pesos de la capa oculta traspuestos: [entrada][oculta]. */
+    private final float[] hiddenWeights;
+    /** Sesgos de la capa oculta. */
+    private final float[] hiddenBias;
+    /** Pesos de la cabeza de acciones traspuestos: [entrada de la cabeza][acción]. */
+    private final float[] actionWeights;
+    /** Sesgos de la cabeza de acciones. */
+    private final float[] actionBias;
+    /** Pesos de la cabeza de colores traspuestos: [entrada de la cabeza][color]. */
+    private final float[] colorWeights;
+    /** Sesgos de la cabeza de colores. */
+    private final float[] colorBias;
+
+    /**
+     * Constructor a partir de pesos ya traspuestos.
+     * @param hidden neuronas ocultas, 0 para una red lineal.
+     * @param hiddenWeights pesos de la capa oculta [entrada][oculta], o arreglo vacío.
+     * @param hiddenBias sesgos de la capa oculta, o arreglo vacío.
+     * @param actionWeights pesos de la cabeza de acciones [entrada][acción].
+     * @param actionBias sesgos de la cabeza de acciones.
+     * @param colorWeights pesos de la cabeza de colores [entrada][color].
+     * @param colorBias sesgos de la cabeza de colores.
+     */
+    private PolicyNetwork(int hidden, float[] hiddenWeights, float[] hiddenBias,
+                          float[] actionWeights, float[] actionBias,
+                          float[] colorWeights, float[] colorBias) {
+        this.hidden = hidden;
+        this.hiddenWeights = hiddenWeights;
+        this.hiddenBias = hiddenBias;
+        this.actionWeights = actionWeights;
+        this.actionBias = actionBias;
+        this.colorWeights = colorWeights;
+        this.colorBias = colorBias;
+    }
+
+    /**
+     * Devuelve la cantidad de neuronas ocultas.
+     * @return neuronas ocultas, 0 si la red es lineal.
+     */
+    public int getHidden() {
+        return this.hidden;
+    }
+
+    /**
+     * Tamaño de la entrada de las cabezas: la capa oculta o el vector de características.
+     * @return cantidad de entradas de las cabezas.
+     */
+    private int headInputs() {
+        return this.hidden > 0 ? this.hidden : PolicyFeatures.FEATURE_COUNT;
+    }
+
+    /**
+     * Evalúa la red sin reservar memoria.
+     * @param features vector de características.
+     * @param hiddenScratch buffer de al menos {@link #getHidden()} posiciones (ignorado si la red es lineal).
+     * @param actionLogits salida con {@link PolicyFeatures#ACTION_COUNT} puntajes de acción.
+     * @param colorLogits salida con {@link #CHOOSABLE_COLORS} puntajes de color.
+     */
+    public void evaluate(byte[] features, float[] hiddenScratch, float[] actionLogits, float[] colorLogits) {
+        System.arraycopy(this.actionBias, 0, actionLogits, 0, PolicyFeatures.ACTION_COUNT);
+        System.arraycopy(this.colorBias, 0, colorLogits, 0, CHOOSABLE_COLORS);
+        if (this.hidden == 0) {
+            for (int i = 0; i < PolicyFeatures.FEATURE_COUNT; i++) {
+                int x = features[i] & 0xFF;
+                if (x != 0) {
+                    this.accumulateHeads(i, x, actionLogits, colorLogits);
+                }
+            }
+            return;
+        }
+        System.arraycopy(this.hiddenBias, 0, hiddenScratch, 0, this.hidden);
+        for (int i = 0; i < PolicyFeatures.FEATURE_COUNT; i++) {
+            int x = features[i] & 0xFF;
+            if (x == 0) {
+                continue;
+            }
+            int row = i * this.hidden;
+            for (int h = 0; h < this.hidden; h++) {
+                hiddenScratch[h] += x * this.hiddenWeights[row + h];
+            }
+        }
+        for (int h = 0; h < this.hidden; h++) {
+            float activation = hiddenScratch[h];
+            if (activation > 0f) {
+                this.accumulateHeads(h, activation, actionLogits, colorLogits);
+            }
+        }
+    }
+
+    /**
+     * Suma el aporte de una entrada de las cabezas a ambos puntajes.
+     * @param input índice de la entrada.
+     * @param value valor de la entrada.
+     * @param actionLogits puntajes de acción.
+     * @param colorLogits puntajes de color.
+     */
+    private void accumulateHeads(int input, float value, float[] actionLogits, float[] colorLogits) {
+        int actionRow = input * PolicyFeatures.ACTION_COUNT;
+        for (int a = 0; a < PolicyFeatures.ACTION_COUNT; a++) {
+            actionLogits[a] += value * this.actionWeights[actionRow + a];
+        }
+        int colorRow = input * CHOOSABLE_COLORS;
+        for (int c = 0; c < CHOOSABLE_COLORS; c++) {
+            colorLogits[c] += value * this.colorWeights[colorRow + c];
+        }
+    }
+
+    // --- Lectura y escritura ---
+
+    /**
+     * Carga una red desde un archivo de pesos.
+     * @param path ruta del archivo.
+     * @return la red cargada.
+     * @throws IOException si el archivo no se puede leer o no tiene el formato esperado.
+     */
+    public static PolicyNetwork load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // leer hasta llenar el buffer
+            }
+            buffer.flip();
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Lee una red desde un buffer little-endian.
+     * @param buffer buffer posicionado al inicio de la cabecera.
+     * @return la red leída.
+     * @throws IOException si el contenido no tiene el formato esperado.
+     */
+    public static PolicyNetwork read(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 14 || buffer.getInt() != MAGIC) {
+            throw new IOException("El archivo no contiene pesos de política.");
+        }
+        short version = buffer.getShort();
+        int inputs = buffer.getShort();
+        int hidden = buffer.getShort();
+        int actions = buffer.getShort();
+        int colors = buffer.getShort();
+        if (version != VERSION || inputs != PolicyFeatures.FEATURE_COUNT
+                || actions != PolicyFeatures.ACTION_COUNT || colors != CHOOSABLE_COLORS || hidden < 0) {
+            throw new IOException("Dimensiones de la red incompatibles: versión " + version + ", entradas " + inputs
+                    + ", acciones " + actions + ", colores " + colors + ".");
+        }
+        int headInputs = hidden > 0 ? hidden : inputs;
+        long floats = (long) hidden * inputs + hidden + (long) actions * headInputs + actions
+                + (long) colors * headInputs + colors;
+        if (buffer.remaining() != floats * Float.BYTES) {
+            throw new IOException("Tamaño de pesos inesperado: " + buffer.remaining() + " bytes, se esperaban "
+                    + floats * Float.BYTES + ".");
+        }
+        float[] hiddenWeights = readTransposed(buffer, hidden, inputs);
+        float[] hiddenBias = readVector(buffer, hidden);
+        float[] actionWeights = readTransposed(buffer, actions, headInputs);
+        float[] actionBias = readVector(buffer, actions);
+        float[] colorWeights = readTransposed(buffer, colors, headInputs);
+        float[] colorBias = readVector(buffer, colors);
+        return new PolicyNetwork(hidden, hiddenWeights, hiddenBias, actionWeights, actionBias, colorWeights, colorBias);
+    }
+
+    /**
+     * Lee una matriz [salidas][entradas] y la devuelve traspuesta.
+     * @param buffer fuente.
+     * @param outputs filas de la matriz.
+     * @param inputs columnas de la matriz.
+     * @return la matriz traspuesta [entradas][salidas].
+     */
+    private static float[] readTransposed(ByteBuffer buffer, int outputs, int inputs) {
+        float[] transposed = new float[outputs * inputs];
+        for (int o = 0; o < outputs; o++) {
+            for (int i = 0; i < inputs; i++) {
+                transposed[i * outputs + o] = buffer.getFloat();
+            }
+        }
+        return transposed;
+    }
+
+    /**
+     * Lee un vector de floats.
+     * @param buffer fuente.
+     * @param length cantidad de elementos.
+     * @return el vector.
+     */
+    private static float[] readVector(ByteBuffer buffer, int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = buffer.getFloat();
+        }
+        return vector;
+    }
+
+    /**
+     * Guarda la red con el mismo formato que lee {@link #load(Path)}.
+     * @param path ruta del archivo; se sobrescribe si existe.
+     * @throws IOException si falla la escritura.
+     */
+    public void save(Path path) throws IOException {
+        int inputs = PolicyFeatures.FEATURE_COUNT;
+        int headInputs = this.headInputs();
+        int floats = this.hiddenWeights.length + this.hiddenBias.length + this.actionWeights.length
+                + this.actionBias.length + this.colorWeights.length + this.colorBias.length;
+        ByteBuffer buffer = ByteBuffer.allocate(14 + floats * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) inputs)
+                .putShort((short) this.hidden)
+                .putShort((short) PolicyFeatures.ACTION_COUNT)
+                .putShort((short) CHOOSABLE_COLORS);
+        writeTransposed(buffer, this.hiddenWeights, this.hidden, inputs);
+        writeVector(buffer, this.hiddenBias);
+        writeTransposed(buffer, this.actionWeights, PolicyFeatures.ACTION_COUNT, headInputs);
+        writeVector(buffer, this.actionBias);
+        writeTransposed(buffer, this.colorWeights, CHOOSABLE_COLORS, headInputs);
+        writeVector(buffer, this.colorBias);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Escribe una matriz traspuesta en el orden [salidas][entradas].
+     * @param buffer destino.
+     * @param transposed matriz [entradas][salidas].
+     * @param outputs cantidad de salidas.
+     * @param inputs cantidad de entradas.
+     */
+    private static void writeTransposed(ByteBuffer buffer, float[] transposed, int outputs, int inputs) {
+        for (int o = 0; o < outputs; o++) {
+            for (int i = 0; i < inputs; i++) {
+                buffer.putFloat(transposed[i * outputs + o]);
+            }
+        }
+    }
+
+    /**
+     * Escribe un vector de floats.
+     * @param buffer destino.
+     * @param vector el vector.
+     */
+    private static void writeVector(ByteBuffer buffer, float[] vector) {
+        for (float value : vector) {
+            buffer.putFloat(value);
+        }
+    }
+
+    /**
+     * Crea una red con pesos aleatorios pequeños, útil para pruebas y mediciones.
+     * @param hidden neuronas ocultas, 0 para una red lineal.
+     * @param seed semilla del generador.
+     * @return la red creada.
+     */
+    public static PolicyNetwork random(int hidden, long seed) {
+        Random random = new Random(seed);
+        int inputs = PolicyFeatures.FEATURE_COUNT;
+        int headInputs = hidden > 0 ? hidden : inputs;
+        return new PolicyNetwork(hidden,
+                randomVector(random, hidden * inputs), randomVector(random, hidden),
+                randomVector(random, PolicyFeatures.ACTION_COUNT * headInputs), randomVector(random, PolicyFeatures.ACTION_COUNT),
+                randomVector(random, CHOOSABLE_COLORS * headInputs), randomVector(random, CHOOSABLE_COLORS));
+    }
+
+    /**
+     * Crea un vector de valores aleatorios en [-0.1, 0.1).
+     * @param random generador.
+     * @param length cantidad de elementos.
+     * @return el vector.
+     */
+    private static float[] randomVector(Random random, int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = (random.nextFloat() - 0.5f) * 0.2f;
+        }
+        return vector;
+    }
+}
@@ -1,53 +1,159 @@
 package univalle.tedesoft.uno.model.Players;
 
+import univalle.tedesoft.uno.diagnostics.EngineMetrics;
+import univalle.tedesoft.uno.diagnostics.MachineDecisionEvent;
 import univalle.tedesoft.uno.model.Cards.Card;
 import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.model.Learning.PolicyNetwork;
+import univalle.tedesoft.uno.model.Rng.IRandomSource;
 import univalle.tedesoft.uno.model.State.IGameState;
+import univalle.tedesoft.uno.model.Strategies.IMachineStrategy;
+import univalle.tedesoft.uno.model.Strategies.LearnedPolicyStrategy;
 
-import java.util.Random;
+import jdk.jfr.EventType;
 
 /**
  * Clase que representa al jugador maquina.
+ * Las decisiones se delegan en una estrategia que depende del nivel de dificultad.
  *
  * @author David Esteban Valencia
  * @author Santiago David Guerrero
  * @author Juan Pablo Escamilla
  */
 public class MachinePlayer extends Player {
-    /** Generador de números aleatorios para la toma de decisiones de la máquina. */
-    private final Random random;
+    /** Tipo del evento de decisión; se consulta antes de crear el evento para no reservar memoria sin JFR. */
+    private static final EventType DECISION_EVENT_TYPE = EventType.getEventType(MachineDecisionEvent.class);
+    /** Modelo que infiere la mano del oponente a partir de la información pública. */
+    private final OpponentHandModel opponentModel;
+    /** Nivel de dificultad actual. */
+    private Difficulty difficulty;
+    /** Estrategia que toma las decisiones de la máquina. */
+    private IMachineStrategy strategy;
+    /** Presupuesto de tiempo por decisión, en nanosegundos. */
+    private long budgetNanos;
+    /** Fuente aleatoria asignada a las estrategias, o null para que usen la suya. */
+    private IRandomSource random;
+    /** Contador de muestreo de las métricas de decisión. */
+    private int metricsTick;
 
     /**
      * Constructor para la clase MachinePlayer.
-     * Inicializa el nombre del jugador a "Machine" y crea una instancia de {@link Random}.
+     * Inicializa el nombre del jugador a "Machine" con la dificultad por defecto.
      */
     public MachinePlayer() {
         this.name = "Machine";
-        this.random = new Random();
+        this.opponentModel = new OpponentHandModel(this);
+        this.setDifficulty(Difficulty.GREEDY);
     }
 
     /**
-     * Simula que la maquina elija aleatoriamente un color.
-     * @return El color elegido aleatoriamente.
+     * Devuelve el modelo de inferencia sobre la mano del oponente,
+     * disponible para las estrategias de la máquina.
+     * @return el modelo de la mano del oponente.
+     */
+    public OpponentHandModel getOpponentModel() {
+        return this.opponentModel;
+    }
+
+    /**
+     * Cambia el nivel de dificultad y crea la estrategia correspondiente.
+     * @param difficulty el nuevo nivel de dificultad.
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+        this.strategy = difficulty.createStrategy();
+        this.applyRandom();
+        this.budgetNanos = difficulty.getBudgetMillis() * 1_000_000L;
+    }
+
+    /**
+     * Reemplaza la estrategia por una personalizada, con su propio presupuesto.
+     * Se usa en simulaciones, donde los presupuestos son mucho menores que en la interfaz.
+     * @param strategy la estrategia a usar.
+     * @param budgetNanos presupuesto por decisión en nanosegundos.
+     */
+    public void setStrategy(IMachineStrategy strategy, long budgetNanos) {
+        this.strategy = strategy;
+        this.budgetNanos = budgetNanos;
+        this.applyRandom();
+    }
+
+    /**
+     * Hace que la máquina juegue con una política aprendida, conservando el presupuesto actual.
+     * @param network la red entrenada.
+     */
+    public void usePolicy(PolicyNetwork network) {
+        this.strategy = new LearnedPolicyStrategy(network);
+        this.applyRandom();
+    }
+
+    /**
+     * Asigna la fuente aleatoria de la máquina, por ejemplo la sembrada de una partida.
+     * La reciben la estrategia actual y las que se asignen después.
+     * @param random la fuente aleatoria.
+     */
+    public void setRandom(IRandomSource random) {
+        this.random = random;
+        this.applyRandom();
+    }
+
+    /**
+     * Pasa la fuente aleatoria asignada, si hay una, a la estrategia actual.
+     */
+    private void applyRandom() {
+        if (this.random != null) {
+            this.strategy.setRandom(this.random);
+        }
+    }
+
+    /**
+     * Devuelve el nivel de dificultad actual.
+     * @return el nivel de dificultad.
+     */
+    public Difficulty getDifficulty() {
+        return this.difficulty;
+    }
+
+    /**
+     * Calcula el instante límite para una decisión según el presupuesto de la dificultad.
+     * @return instante límite en la escala de System.nanoTime().
+     */
+    private long deadline() {
+        return System.nanoTime() + this.budgetNanos;
+    }
+
+    /**
+     * Elige el color a establecer tras jugar un comodín.
+     * @return El color elegido por la estrategia.
      */
     public Color chooseColor() {
-        Color[] possibleColors = {Color.RED, Color.YELLOW, Color.GREEN, Color.BLUE};
-        int index = this.random.nextInt(possibleColors.length);
-        return possibleColors[index];
+        return this.strategy.chooseColor(this, this.opponentModel, this.deadline());
     }
 
     /**
-     * Con un bucle for-each, busca una carta en la mano que sea valida.
+     * Elige una carta válida de la mano según la estrategia, dentro del presupuesto de la dificultad.
      * @param gameState estado actual del juego (decks, players, mano disponible, etc)
-     * @return card viable a jugar.
+     * @return card viable a jugar, o null si no hay jugadas válidas.
      */
     public Card chooseCardToPlay(IGameState gameState) {
-        // encontrar la primera carta jugable
-        for (Card card : this.cards) {
-            if (gameState.isValidPlay(card)) {
-                return card;
-            }
+        long start = EngineMetrics.MACHINE_DECISION.start(this.metricsTick++);
+        MachineDecisionEvent event = DECISION_EVENT_TYPE.isEnabled() ? new MachineDecisionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        Card card = this.strategy.chooseCardToPlay(gameState, this, this.opponentModel, this.deadline());
+        if (event != null) {
+            event.end();
+        }
+        if (event != null && event.shouldCommit()) {
+            event.strategy = this.strategy.getClass().getSimpleName();
+            event.card = card == null ? null : card.getColor() + " " + card.getValue();
+            event.budget = this.budgetNanos;
+            event.commit();
         }
-        return null;
+        EngineMetrics.MACHINE_DECISION.stop(start);
+        return card;
     }
 }
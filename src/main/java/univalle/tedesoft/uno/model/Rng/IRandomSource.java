@@ -0,0 +1,44 @@
+package univalle.tedesoft.uno.model.Rng;
+
+/**
+ * Contrato para las fuentes de números aleatorios del juego (barajado, estrategias y
+ * retrasos de los temporizadores). Una fuente no es segura entre hilos: cada partida o
+ * hilo usa la suya, así que no hay contención, y una semilla por partida la hace
+ * reproducible.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public interface IRandomSource {
+    /**
+     * Devuelve un entero uniforme entre 0 (incluido) y el límite (excluido).
+     * @param bound el límite, positivo.
+     * @return el entero.
+     */
+    int nextInt(int bound);
+
+    /**
+     * Devuelve 64 bits aleatorios.
+     * @return el número.
+     */
+    long nextLong();
+
+    /**
+     * Devuelve un número uniforme entre 0 (incluido) y 1 (excluido).
+     * @return el número.
+     */
+    double nextDouble();
+
+    /**
+     * Reinicia la fuente en su lugar: con la misma semilla repite la misma secuencia.
+     * @param seed la semilla.
+     */
+    void setSeed(long seed);
+
+    /**
+     * Crea una fuente nueva, independiente de esta, sembrada desde esta. Sirve para
+     * repartir una semilla de partida entre el mazo y los jugadores, o entre hilos.
+     * @return la fuente nueva.
+     */
+    IRandomSource split();
+}
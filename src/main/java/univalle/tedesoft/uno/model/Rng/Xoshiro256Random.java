@@ -0,0 +1,124 @@
+package univalle.tedesoft.uno.model.Rng;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generador xoshiro256** (Blackman y Vigna): 256 bits de estado, sin sincronización y
+ * con unas pocas operaciones por número. La semilla se expande con SplitMix64, así que
+ * semillas parecidas (0, 1, 2...) dan secuencias sin relación. No es apto para
+ * criptografía; las fichas del servidor siguen usando SecureRandom.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class Xoshiro256Random implements IRandomSource {
+    /** Incremento de SplitMix64 (parte fraccionaria de la razón áurea). */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Estado del generador; nunca es todo ceros. */
+    private long s0;
+    /** Estado del generador. */
+    private long s1;
+    /** Estado del generador. */
+    private long s2;
+    /** Estado del generador. */
+    private long s3;
+
+    /**
+     * Crea un generador con una semilla nueva, ver {@link #newSeed()}.
+     */
+    public Xoshiro256Random() {
+        this(newSeed());
+    }
+
+    /**
+     * Crea un generador con una semilla fija.
+     * @param seed la semilla.
+     */
+    public Xoshiro256Random(long seed) {
+        this.setSeed(seed);
+    }
+
+    /**
+     * Devuelve una semilla nueva para una partida. Sale del generador del hilo actual,
+     * así que varios hilos piden semillas sin competir entre sí.
+     * @return la semilla.
+     */
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Deriva una semilla de otra y un índice, por ejemplo la de la partida i de un torneo.
+     * @param seed semilla base.
+     * @param index índice.
+     * @return la semilla derivada.
+     */
+    public static long derive(long seed, long index) {
+        return mix(seed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        long x = seed;
+        this.s0 = mix(x += GOLDEN_GAMMA);
+        this.s1 = mix(x += GOLDEN_GAMMA);
+        this.s2 = mix(x += GOLDEN_GAMMA);
+        this.s3 = mix(x + GOLDEN_GAMMA);
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(this.s1 * 5, 7) * 9;
+        long t = this.s1 << 17;
+        this.s2 ^= this.s0;
+        this.s3 ^= this.s1;
+        this.s1 ^= this.s2;
+        this.s0 ^= this.s3;
+        this.s2 ^= t;
+        this.s3 = Long.rotateLeft(this.s3, 45);
+        return result;
+    }
+
+    /**
+     * Usa el método de multiplicación de Lemire: casi nunca necesita una división.
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo: " + bound);
+        }
+        long product = (this.nextLong() >>> 32) * bound;
+        int low = (int) product;
+        if (Integer.compareUnsigned(low, bound) < 0) {
+            // Rechazar el pequeño sesgo de los valores que no caben completos
+            int threshold = Integer.remainderUnsigned(-bound, bound);
+            while (Integer.compareUnsigned(low, threshold) < 0) {
+                product = (this.nextLong() >>> 32) * bound;
+                low = (int) product;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (this.nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public Xoshiro256Random split() {
+        return new Xoshiro256Random(this.nextLong());
+    }
+
+    /**
+     * Función de mezcla de SplitMix64.
+     * @param z el valor.
+     * @return el valor mezclado.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
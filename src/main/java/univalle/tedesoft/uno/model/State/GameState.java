@@ -1,32 +1,55 @@
 package univalle.tedesoft.uno.model.State;
 
+import univalle.tedesoft.uno.diagnostics.DeckRecycleEvent;
+import univalle.tedesoft.uno.diagnostics.EngineMetrics;
+import univalle.tedesoft.uno.diagnostics.TurnEvent;
 import univalle.tedesoft.uno.exceptions.EmptyDeckException;
 import univalle.tedesoft.uno.exceptions.InvalidPlayException;
 import univalle.tedesoft.uno.model.Cards.*;
 import univalle.tedesoft.uno.model.Decks.Deck;
 import univalle.tedesoft.uno.model.Decks.DiscardPile;
+import univalle.tedesoft.uno.model.Enum.CardEffect;
 import univalle.tedesoft.uno.model.Enum.Color;
 import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
 import univalle.tedesoft.uno.model.Players.HumanPlayer;
 import univalle.tedesoft.uno.model.Players.MachinePlayer;
 import univalle.tedesoft.uno.model.Players.Player;
 
+import jdk.jfr.EventType;
+
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Orquesta los turnos, el mazo, los jugadores y la pila de descarte.
+ * Los jugadores (de 2 a 10) se sientan en un anillo indexado por asiento; el turno
+ * avanza sumando la dirección al asiento actual, por lo que calcular el siguiente
+ * jugador es de tiempo constante. La partida interactiva usa dos asientos:
+ * el humano y la máquina.
  *
  * @author David Esteban Valencia
  * @author Santiago David Guerrero
  * @author Juan Pablo Escamilla
  */
 public class GameState implements IGameState {
-    /** El jugador */
+    /** Cantidad mínima de jugadores en una mesa. */
+    public static final int MIN_PLAYERS = 2;
+    /** Cantidad máxima de jugadores en una mesa. */
+    public static final int MAX_PLAYERS = 10;
+    /** Tipo del evento de turno; se consulta antes de crear el evento para no reservar memoria sin JFR. */
+    private static final EventType TURN_EVENT_TYPE = EventType.getEventType(TurnEvent.class);
+    /** Tipo del evento de reciclaje del mazo, consultado igual que el de turno. */
+    private static final EventType RECYCLE_EVENT_TYPE = EventType.getEventType(DeckRecycleEvent.class);
+    /** Jugadores por asiento, en el orden en que avanza el turno con dirección 1. */
+    private final Player[] players;
+    /** El primer jugador humano de la mesa, o null si no hay. */
     private final HumanPlayer humanPlayer;
-    /** Jugador máquina oponente. */
-    private final MachinePlayer machinePlayer;
-    /** El jugador actual del turno */
-    private Player currentPlayer;
+    /** Asiento del jugador actual del turno. */
+    private int currentSeat;
+    /** Sentido del turno: 1 avanza por asientos crecientes, -1 por decrecientes. */
+    private int direction = 1;
     /** El color actualmente válido que se debe igualar para jugar una carta (a menos que sea un comodín). */
     private Color currentValidColor;
     /** El valor actualmente válido que se debe igualar para jugar una carta (a menos que el color coincida o sea un comodín).
@@ -44,16 +67,27 @@ public class GameState implements IGameState {
     /** El jugador que ganó la partida (se quedó sin cartas). Es null si el juego no ha terminado o no hay ganador. */
     private Player winner = null;
     /**
-     * Registro de la cantidad de robos pendientes para el jugador humano.
+     * Registro de la cantidad de robos pendientes para la víctima de la última carta de robo.
      * Esta propiedad se utiliza en situaciones en donde la máquina juega una carta especial que
      * debería quitarle el turno al jugador (WILD, +2, +4) pero se agrega un delay con el proposito de
      * permitir la ventana de castigo.
      */
-    private int pendingDrawsForHuman = 0;
+    private int pendingDraws = 0;
+    /** Jugador que recibirá los robos pendientes. */
+    private Player pendingDrawsVictim = null;
     /** Constante para definir el número de cartas que se penalizarán por no cantar "UNO" a tiempo. */
     public static final int PENALTY_CARDS_FOR_UNO = 2;
     /** Constante para la mano inicial. */
     private static final int INITIAL_HAND_SIZE = 5;
+    /** Observadores que reciben los eventos públicos de la partida. */
+    private final List<IGameStateListener> listeners = new ArrayList<>();
+    /**
+     * Contador de muestreo de las métricas del motor; la partida no se comparte entre hilos.
+     * Empieza en un valor al azar para no muestrear siempre la primera jugada de cada partida.
+     */
+    private int metricsTick = ThreadLocalRandom.current().nextInt();
+    /** Evento de JFR del turno en curso, o null si JFR no lo está grabando. */
+    private TurnEvent turnEvent;
 
     /**
      * Constructor de GameState, recibe los dos jugadores participantes y los inicializa por constructor.
@@ -61,11 +95,87 @@ public class GameState implements IGameState {
      * @param machinePlayer La instancia del jugador maquina.
      */
     public GameState(HumanPlayer humanPlayer, MachinePlayer machinePlayer) {
-        this.humanPlayer = humanPlayer;
-        this.machinePlayer = machinePlayer;
-        //Se crea un Deck y una pila de descarte
-        this.deck = new Deck();
+        this(List.of(humanPlayer, machinePlayer));
+    }
+
+    /**
+     * Constructor de GameState para una mesa de 2 a 10 jugadores.
+     * Los asientos siguen el orden de la lista.
+     * @param players Los jugadores de la mesa.
+     * @throws IllegalArgumentException si la cantidad de jugadores está fuera de rango o hay repetidos.
+     */
+    public GameState(List<? extends Player> players) {
+        this(players, new Deck());
+    }
+
+    /**
+     * Constructor de GameState que reutiliza un mazo completo, por ejemplo uno tomado de
+     * un {@link univalle.tedesoft.uno.model.Decks.DeckPool}.
+     * @param players Los jugadores de la mesa.
+     * @param deck Mazo con todas sus cartas; se baraja al empezar la partida. Los jugadores
+     *             deben llegar sin cartas, porque al empezar sus manos vuelven a este mazo.
+     * @throws IllegalArgumentException si la cantidad de jugadores está fuera de rango o hay repetidos.
+     */
+    public GameState(List<? extends Player> players, Deck deck) {
+        if (players.size() < MIN_PLAYERS || players.size() > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Una mesa necesita entre " + MIN_PLAYERS + " y " + MAX_PLAYERS
+                    + " jugadores, se recibieron " + players.size() + ".");
+        }
+        this.players = players.toArray(new Player[0]);
+        HumanPlayer firstHuman = null;
+        for (int seat = 0; seat < this.players.length; seat++) {
+            Player player = this.players[seat];
+            for (int other = 0; other < seat; other++) {
+                if (this.players[other] == player) {
+                    throw new IllegalArgumentException("Un jugador no puede ocupar dos asientos.");
+                }
+            }
+            if (firstHuman == null && player instanceof HumanPlayer) {
+                firstHuman = (HumanPlayer) player;
+            }
+        }
+        this.humanPlayer = firstHuman;
+        //Se usa el Deck recibido y se crea una pila de descarte
+        this.deck = deck;
         this.discardStack = new DiscardPile();
+        // Cada máquina observa la partida para inferir la mano del jugador que le sigue
+        for (int seat = 0; seat < this.players.length; seat++) {
+            if (this.players[seat] instanceof MachinePlayer) {
+                OpponentHandModel model = ((MachinePlayer) this.players[seat]).getOpponentModel();
+                model.setObservedOpponent(this.players.length > 2 ? this.players[this.seatAfter(seat, 1)] : null);
+                this.addListener(model);
+            }
+        }
+    }
+
+    /**
+     * Registra un observador de los eventos de la partida.
+     * @param listener El observador a registrar.
+     */
+    public void addListener(IGameStateListener listener) {
+        if (listener != null && !this.listeners.contains(listener)) {
+            this.listeners.add(listener);
+        }
+    }
+
+    /**
+     * Elimina un observador previamente registrado.
+     * @param listener El observador a eliminar.
+     */
+    public void removeListener(IGameStateListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Notifica a los observadores que un jugador recibió una carta.
+     * @param player El jugador que recibe la carta.
+     * @param card La carta recibida.
+     * @param turnDraw true si fue un robo voluntario durante el turno.
+     */
+    private void notifyCardDrawn(Player player, Card card, boolean turnDraw) {
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).onCardDrawn(player, card, turnDraw);
+        }
     }
 
     /**
@@ -75,18 +185,54 @@ public class GameState implements IGameState {
      */
     @Override
     public void onGameStart() {
-        // Limpiar el estado anterior
-        this.humanPlayer.clearHand();
-        this.humanPlayer.resetUnoStatus();
-        this.machinePlayer.clearHand();
-        this.machinePlayer.resetUnoStatus();
+        // El humano siempre empieza en la partida interactiva; sin humano empieza el primer asiento
+        this.onGameStart(this.humanPlayer != null ? this.humanPlayer : this.players[0]);
+    }
+
+    /**
+     * Inicializa el estado del juego igual que {@link #onGameStart()}, pero permitiendo
+     * elegir qué jugador tiene el primer turno (útil para alternar en simulaciones).
+     * @param firstPlayer El jugador que empieza la partida.
+     */
+    public void onGameStart(Player firstPlayer) {
+        this.onGameStart(firstPlayer, null);
+    }
+
+    /**
+     * Inicializa el estado del juego como {@link #onGameStart(Player)}, pero con el mazo en
+     * un orden ya barajado, por ejemplo uno generado de antemano en otro hilo.
+     * @param firstPlayer El jugador que empieza la partida.
+     * @param deckOrder códigos de las cartas del mazo, de la superior a la del fondo,
+     *                  o null para barajar aquí.
+     */
+    public void onGameStart(Player firstPlayer, byte[] deckOrder) {
+        int firstSeat = this.seatOf(firstPlayer);
+        if (firstSeat < 0) {
+            throw new IllegalArgumentException("El jugador inicial no está sentado en la mesa.");
+        }
+        // Limpiar el estado anterior: las cartas vuelven al mazo, así se reutiliza el mismo estado
+        this.reclaimCards();
+        for (Player player : this.players) {
+            player.resetUnoStatus();
+        }
 
         this.gameOver = false;
         this.winner = null;
         this.skipNextTurn = false;
+        this.direction = 1;
+        this.pendingDraws = 0;
+        this.pendingDrawsVictim = null;
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).onNewGame();
+        }
 
-        // Preparar nuevo juego, barajar y repartir
-        this.deck.shuffle();
+        // Preparar nuevo juego, barajar desde el orden canónico (o usar el recibido) y repartir
+        if (deckOrder != null) {
+            this.deck.arrange(deckOrder);
+        } else {
+            this.deck.sortByCode();
+            this.deck.shuffle();
+        }
         this.dealInitialCards();
 
         // Sacar una carta y colocarla en la pila de descarte
@@ -99,29 +245,50 @@ public class GameState implements IGameState {
                 throw new IllegalStateException("No se pudo obtener una carta inicial para la pila de descarte", e);
             }
             // Reciclar si el mazo se agota buscando una carta numérica
-            if (firstCardToDiscard instanceof ActionCard && this.deck.getNumeroCartas() == 0) {
+            if (firstCardToDiscard.getEffect() != CardEffect.NONE && this.deck.getNumeroCartas() == 0) {
                 this.recyclingDeck();
             }
-            // Si la carta es de acción, se devuelve al fondo del mazo y se saca otra.
-            if (firstCardToDiscard instanceof ActionCard) {
-                this.deck.getCards().addLast(firstCardToDiscard);
+            // Si la carta es de acción, se devuelve al mazo, se baraja y se saca otra.
+            if (firstCardToDiscard.getEffect() != CardEffect.NONE) {
+                this.deck.returnCard(firstCardToDiscard);
                 this.deck.shuffle();
                 firstCardToDiscard = null;
             }
         } while (firstCardToDiscard == null);
         this.discardStack.discard(firstCardToDiscard);
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).onStarterCard(firstCardToDiscard);
+        }
 
         // Establecer color y valor por defecto iniciales
         this.currentValidColor = firstCardToDiscard.getColor();
         this.currentValidValue = firstCardToDiscard.getValue();
-        // El humano siempre empieza
-        this.currentPlayer = this.humanPlayer;
+        this.currentSeat = firstSeat;
+        this.turnEvent = null;
+        this.beginTurnEvent();
+    }
+
+    /**
+     * Devuelve al mazo las cartas de las manos y de la pila de descarte, sin reservar
+     * memoria. {@link #onGameStart(Player)} lo hace antes de barajar, así que un mismo
+     * estado sirve para partidas sucesivas con las mismas cartas; también sirve para
+     * devolver el mazo completo a un {@link univalle.tedesoft.uno.model.Decks.DeckPool}.
+     */
+    public void reclaimCards() {
+        for (Player player : this.players) {
+            List<Card> hand = player.getCards();
+            for (int i = 0; i < hand.size(); i++) {
+                this.deck.returnCard(hand.get(i));
+            }
+            player.clearHand();
+        }
+        this.discardStack.returnTo(this.deck);
     }
 
     /**
-     * Reparte la mano inicial de cartas a ambos jugadores.
+     * Reparte la mano inicial de cartas a todos los jugadores.
      *  Se invoca al inicio de la partida y distribuye una cantidad fija de cartas
-     *  (5 cartas) a cada jugador.
+     *  (5 cartas) a cada jugador, una por asiento en cada vuelta.
      */
     @Override
     public void dealInitialCards() {
@@ -132,14 +299,15 @@ public class GameState implements IGameState {
             try {
                 // Reparte las cartas restantes
                 for (int i = cardsDealt; i < INITIAL_HAND_SIZE; i++) {
-                    // Carta para el jugador humano
-                    Card humanTakenCard = this.deck.takeCard();
-                    this.humanPlayer.addCard(humanTakenCard);
-
-                    // Carta para la máquina
-                    Card machineTakenCard = this.deck.takeCard();
-                    this.machinePlayer.addCard(machineTakenCard);
-
+                    // Una carta por asiento; solo se completa la vuelta si nadie quedó corto
+                    for (Player player : this.players) {
+                        if (player.getNumeroCartas() > i) {
+                            continue;
+                        }
+                        Card takenCard = this.deck.takeCard();
+                        player.addCard(takenCard);
+                        this.notifyCardDrawn(player, takenCard, false);
+                    }
                     cardsDealt++;
                 }
                 // Si llegamos aquí, todas las cartas fueron repartidas correctamente
@@ -168,6 +336,22 @@ public class GameState implements IGameState {
      */
     @Override
     public boolean playCard(Player player, Card card) throws InvalidPlayException {
+        long start = EngineMetrics.PLAY_CARD.start(this.metricsTick++);
+        try {
+            return this.applyPlay(player, card);
+        } finally {
+            EngineMetrics.PLAY_CARD.stop(start);
+        }
+    }
+
+    /**
+     * Valida y aplica una jugada: la carta pasa a la pila y se aplican sus efectos.
+     * @param player El jugador que realizo la jugada.
+     * @param card   La carta jugada.
+     * @return true si el jugador se quedó sin cartas y ganó.
+     * @throws InvalidPlayException si la carta no se puede jugar sobre la cima.
+     */
+    private boolean applyPlay(Player player, Card card) throws InvalidPlayException {
         if (!this.isValidPlay(card)) {
             String message = "Jugada inválida: La carta '" + getCardDescription(card) +
                     "' no se puede jugar sobre '" + getCardDescription(this.getTopDiscardCard()) + "'.";
@@ -175,13 +359,19 @@ public class GameState implements IGameState {
         }
         player.removeCardOfCards(card);
         this.discardStack.discard(card);
+        if (this.turnEvent != null) {
+            this.turnEvent.card = card.getColor() + " " + card.getValue();
+        }
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).onCardPlayed(player, card);
+        }
         // Resetear el estado UNO del jugador antes de evaluar la nueva situación
         player.resetUnoStatus();
 
         // Evaluar si es candidato a UNO (si tiene 1 carta)
         player.setUnoCandidate(player.getNumeroCartas() == 1);
 
-        if (card instanceof ActionCard) {
+        if (card.getEffect() != CardEffect.NONE) {
             this.applyCardEffect(card, player);
         }
         if (card.getColor() != Color.WILD) {
@@ -195,6 +385,7 @@ public class GameState implements IGameState {
         if (player.getNumeroCartas() == 0) {
             this.gameOver = true;
             this.winner = player;
+            this.finishTurnEvent();
             return true; // juego terminado
         }
         return false;
@@ -202,62 +393,150 @@ public class GameState implements IGameState {
 
     /**
      * Determina y avanza al siguiente jugador, manejando los saltos.
+     * Con dos jugadores, saltar al siguiente devuelve el turno al jugador actual.
      * @see #playCard(Player, Card)
      */
     public void advanceTurn() {
-        Player nextPlayer = this.getOpponent(this.currentPlayer);
-
+        int steps = 1;
         if (this.skipNextTurn) {
-            // sigue siendo el turno del jugador actual dado que el siguiente se saltó
+            // el siguiente jugador pierde su turno
+            steps = 2;
             this.skipNextTurn = false;
+        }
+        this.finishTurnEvent();
+        this.currentSeat = this.seatAfter(this.currentSeat, steps);
+        this.beginTurnEvent();
+    }
+
+    /**
+     * Empieza el evento de JFR del turno del jugador actual, si JFR lo está grabando.
+     */
+    private void beginTurnEvent() {
+        if (TURN_EVENT_TYPE.isEnabled()) {
+            TurnEvent event = new TurnEvent();
+            event.seat = this.currentSeat;
+            event.player = this.players[this.currentSeat].getName();
+            event.begin();
+            this.turnEvent = event;
         } else {
-            this.currentPlayer = nextPlayer;
+            this.turnEvent = null;
+        }
+    }
+
+    /**
+     * Termina y emite el evento de JFR del turno en curso, si hay uno.
+     */
+    private void finishTurnEvent() {
+        TurnEvent event = this.turnEvent;
+        if (event != null) {
+            this.turnEvent = null;
+            event.end();
+            event.handSize = this.players[event.seat].getNumeroCartas();
+            event.commit();
+        }
+    }
+
+    /**
+     * Calcula el asiento que está a cierta distancia en el sentido actual del turno.
+     * @param seat asiento de partida.
+     * @param steps cantidad de asientos a avanzar (1 o 2).
+     * @return el asiento resultante.
+     */
+    private int seatAfter(int seat, int steps) {
+        int next = seat + steps * this.direction;
+        int count = this.players.length;
+        if (next >= count) {
+            next -= count;
+            if (next >= count) {
+                next -= count;
+            }
+        } else if (next < 0) {
+            next += count;
+            if (next < 0) {
+                next += count;
+            }
         }
+        return next;
     }
 
     /**
-     * Getter del oponente en un juego de 2 jugadores
+     * Busca el asiento de un jugador.
+     * @param player el jugador.
+     * @return su asiento, o -1 si no está en la mesa.
+     */
+    private int seatOf(Player player) {
+        if (this.players[this.currentSeat] == player) {
+            return this.currentSeat;
+        }
+        for (int seat = 0; seat < this.players.length; seat++) {
+            if (this.players[seat] == player) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Devuelve el jugador que sigue a otro en el sentido actual del turno.
      * @param player jugador que esta en este momento en turno.
-     * @return player jugador oponente al player que se ingreso.
+     * @return el jugador siguiente (el oponente en un juego de 2 jugadores).
      */
     private Player getOpponent(Player player) {
-        if (player == this.humanPlayer) {
-            return this.machinePlayer;
-        } else {
-            return this.humanPlayer;
-        }
+        return this.players[this.seatAfter(this.seatOf(player), 1)];
     }
 
     /**
-     * Aplica los efectos especiales de las cartas de acción y comodines
+     * Aplica los efectos especiales de las cartas de acción y comodines, despachando
+     * por el efecto precalculado de la carta.
      * @param card La carta jugada.
      * @param playerWhoPlayed El jugador que jugó la carta.
      * @see #playCard
      */
     private void applyCardEffect(Card card, Player playerWhoPlayed) {
         Player opponent = this.getOpponent(playerWhoPlayed);
-        if (card instanceof DrawTwoCard) {
-            if (playerWhoPlayed == this.machinePlayer && playerWhoPlayed.isUnoCandidate()) {
-                this.pendingDrawsForHuman = 2; // Prepara el robo, no lo ejecuta
-            } else {
-                this.forceDraw(opponent, 2); // Aplica inmediatamente si no es máquina en UNO
+        switch (card.getEffect()) {
+            case DRAW_TWO -> {
+                if (playerWhoPlayed instanceof MachinePlayer && playerWhoPlayed.isUnoCandidate()) {
+                    this.setPendingDraws(opponent, 2); // Prepara el robo, no lo ejecuta
+                } else {
+                    this.forceDraw(opponent, 2); // Aplica inmediatamente si no es máquina en UNO
+                }
+                this.skipNextTurn = true;
             }
-            this.skipNextTurn = true;
-        } else if (card instanceof WildDrawFourCard) {
-            if (playerWhoPlayed == this.machinePlayer && playerWhoPlayed.isUnoCandidate()) {
-                this.pendingDrawsForHuman = 4; // Prepara el robo
-            } else {
-                this.forceDraw(opponent, 4);
+            case WILD_DRAW_FOUR -> {
+                if (playerWhoPlayed instanceof MachinePlayer && playerWhoPlayed.isUnoCandidate()) {
+                    this.setPendingDraws(opponent, 4); // Prepara el robo
+                } else {
+                    this.forceDraw(opponent, 4);
+                }
+                this.skipNextTurn = true;
+                this.onMustChooseColor(playerWhoPlayed);
             }
-            this.skipNextTurn = true;
-            this.onMustChooseColor(playerWhoPlayed);
-        } else if (card instanceof SkipCard) {
-            this.skipNextTurn = true;
-        } else if (card instanceof WildCard) {
-            this.onMustChooseColor(playerWhoPlayed);
+            case SKIP -> this.skipNextTurn = true;
+            case REVERSE -> {
+                if (this.players.length == 2) {
+                    // Con dos jugadores invertir el sentido equivale a saltar al oponente
+                    this.skipNextTurn = true;
+                } else {
+                    this.direction = -this.direction;
+                }
+            }
+            case WILD -> this.onMustChooseColor(playerWhoPlayed);
+            default -> { }
         }
     }
 
+
+    /**
+     * Deja preparados robos para aplicarlos después de la ventana de castigo por UNO.
+     * @param victim el jugador que robará.
+     * @param count la cantidad de cartas.
+     */
+    private void setPendingDraws(Player victim, int count) {
+        this.pendingDrawsVictim = victim;
+        this.pendingDraws = count;
+    }
+
     /**
      * Maneja la situación cuando un jugador debe elegir un color después de jugar una carta comodín.
      * Si el jugador es humano, se depende de un control externo para obtener la elección del jugador.
@@ -266,9 +545,9 @@ public class GameState implements IGameState {
      */
     @Override
     public void onMustChooseColor(Player playerWhoPlayed) {
-        if (playerWhoPlayed == this.machinePlayer) {
+        if (playerWhoPlayed instanceof MachinePlayer) {
             // La máquina elige un color automáticamente
-            Color chosenColor = this.machinePlayer.chooseColor();
+            Color chosenColor = ((MachinePlayer) playerWhoPlayed).chooseColor();
             this.onColorChosen(chosenColor);
         }
     }
@@ -282,6 +561,17 @@ public class GameState implements IGameState {
      */
     @Override
     public void forceDraw(Player player, int numberOfCards) {
+        long start = EngineMetrics.FORCE_DRAW.start(this.metricsTick++);
+        this.drawCards(player, numberOfCards);
+        EngineMetrics.FORCE_DRAW.stop(start);
+    }
+
+    /**
+     * Roba cartas para un jugador, reciclando la pila de descarte si el mazo se vacía.
+     * @param player        El jugador que va a tomar cartas.
+     * @param numberOfCards La cantidad de cartas a tomar.
+     */
+    private void drawCards(Player player, int numberOfCards) {
         int cardsDrawn = 0;
         int attempts = 0;
 
@@ -291,6 +581,7 @@ public class GameState implements IGameState {
                 for (int i = cardsDrawn; i < numberOfCards; i++) {
                     Card cardToDraw = this.deck.takeCard();
                     player.addCard(cardToDraw);
+                    this.notifyCardDrawn(player, cardToDraw, false);
                     cardsDrawn++;
                 }
             } catch (EmptyDeckException e) {
@@ -321,6 +612,9 @@ public class GameState implements IGameState {
         this.currentValidColor = color;
         // ya no importa el valor anterior, solo el color importa tras usar WILD
         this.currentValidValue = null;
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).onColorChosen(color);
+        }
     }
 
     /**
@@ -352,12 +646,30 @@ public class GameState implements IGameState {
      */
     @Override
     public void recyclingDeck() {
+        long start = EngineMetrics.RECYCLE_DECK.start(this.metricsTick++);
+        DeckRecycleEvent event = RECYCLE_EVENT_TYPE.isEnabled() ? new DeckRecycleEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         ArrayList<Card> recycledCards = (ArrayList<Card>) this.discardStack.recycleDeck();
         for (Card card : recycledCards) {
             // Añade cada carta al final de la pila
             this.deck.getCards().add(card);
         }
         this.deck.shuffle();
+        // Se avisa ya barajado, para que los observadores puedan registrar el orden nuevo
+        for (int i = 0; i < this.listeners.size(); i++) {
+            this.listeners.get(i).onDeckRecycled(recycledCards);
+        }
+        if (event != null) {
+            event.end();
+        }
+        if (event != null && event.shouldCommit()) {
+            event.pileSize = recycledCards.size();
+            event.deckSize = this.deck.getCards().size();
+            event.commit();
+        }
+        EngineMetrics.RECYCLE_DECK.stop(start);
     }
 
 
@@ -395,7 +707,43 @@ public class GameState implements IGameState {
      */
     @Override
     public Player getCurrentPlayer() {
-        return this.currentPlayer;
+        return this.players[this.currentSeat];
+    }
+
+    /**
+     * Retorna el jugador que tendrá el siguiente turno si no hay saltos.
+     * @return El jugador siguiente.
+     */
+    @Override
+    public Player getNextPlayer() {
+        return this.players[this.seatAfter(this.currentSeat, 1)];
+    }
+
+    /**
+     * Retorna la cantidad de jugadores de la mesa.
+     * @return La cantidad de asientos.
+     */
+    @Override
+    public int getPlayerCount() {
+        return this.players.length;
+    }
+
+    /**
+     * Retorna el jugador sentado en un asiento.
+     * @param seat El asiento, entre 0 y {@link #getPlayerCount()} - 1.
+     * @return El jugador de ese asiento.
+     */
+    @Override
+    public Player getPlayer(int seat) {
+        return this.players[seat];
+    }
+
+    /**
+     * Retorna el sentido actual del turno.
+     * @return 1 si avanza por asientos crecientes, -1 si por decrecientes.
+     */
+    public int getDirection() {
+        return this.direction;
     }
 
     /**
@@ -407,6 +755,71 @@ public class GameState implements IGameState {
         return this.currentValidColor;
     }
 
+    /**
+     * Retorna el valor que está en efecto junto al color válido.
+     * @return El valor válido actual, o null después de un comodín.
+     */
+    public Value getCurrentValidValue() {
+        return this.currentValidValue;
+    }
+
+    /**
+     * Retorna el asiento del jugador en turno.
+     * @return El asiento actual.
+     */
+    public int getCurrentSeat() {
+        return this.currentSeat;
+    }
+
+    /**
+     * Retorna la cantidad de cartas que se robarán al cerrar la ventana de castigo.
+     * @return Los robos pendientes.
+     */
+    public int getPendingDraws() {
+        return this.pendingDraws;
+    }
+
+    /**
+     * Retorna el jugador que robará las cartas pendientes.
+     * @return La víctima de los robos pendientes, o null si no hay.
+     */
+    public Player getPendingDrawsVictim() {
+        return this.pendingDrawsVictim;
+    }
+
+    /**
+     * Retorna la pila de descarte.
+     * @return La pila de descarte.
+     */
+    public DiscardPile getDiscardPile() {
+        return this.discardStack;
+    }
+
+    /**
+     * Restaura los datos del turno de una partida guardada. El mazo, la pila de descarte
+     * y las manos se restauran directamente sobre sus objetos.
+     * @param currentSeat asiento en turno.
+     * @param direction sentido del turno, 1 o -1.
+     * @param color color válido.
+     * @param value valor válido, o null después de un comodín.
+     * @param pendingDraws robos pendientes.
+     * @param pendingDrawsVictim víctima de los robos pendientes, o null.
+     * @param winner ganador, o null si la partida sigue.
+     */
+    public void restoreTurn(int currentSeat, int direction, Color color, Value value,
+                            int pendingDraws, Player pendingDrawsVictim, Player winner) {
+        this.currentSeat = currentSeat;
+        this.direction = direction;
+        this.currentValidColor = color;
+        this.currentValidValue = value;
+        this.pendingDraws = pendingDraws;
+        this.pendingDrawsVictim = pendingDrawsVictim;
+        this.skipNextTurn = false;
+        this.winner = winner;
+        this.gameOver = winner != null;
+        this.beginTurnEvent();
+    }
+
     /**
      * Retorna la instancia del mazo principal de cartas.
      * @return El mazo de cartas.
@@ -491,6 +904,8 @@ public class GameState implements IGameState {
                 return "NUEVE";
             case SKIP:
                 return "SALTO";
+            case REVERSE:
+                return "REVERSA";
             case DRAW_TWO:
                 return "+2";
             case WILD:
@@ -549,20 +964,31 @@ public class GameState implements IGameState {
     public Card drawTurnCard(Player player) throws EmptyDeckException {
         Card drawnCard = this.deck.takeCard(); // Puede lanzar EmptyDeckException
         player.addCard(drawnCard);
+        this.notifyCardDrawn(player, drawnCard, true);
         player.resetUnoStatus(); // Al robar, ya no es candidato inmediato a UNO por la jugada anterior
         return drawnCard;
     }
 
     /**
      * Aplica cualquier robo de cartas pendiente para el jugador humano.
-     * Es llamado después de la ventana de oportunidad de castigo.
+     * En una mesa de dos jugadores la víctima de la máquina siempre es el humano.
+     * @see #applyPendingDraws()
      */
     @Override
     public void applyPendingDrawsToHuman() {
-        if (this.pendingDrawsForHuman > 0) {
-            // Asumimos que el oponente de la máquina es el humano.
-            this.forceDraw(this.humanPlayer, this.pendingDrawsForHuman);
-            this.pendingDrawsForHuman = 0; // Resetear los robos pendientes
+        this.applyPendingDraws();
+    }
+
+    /**
+     * Aplica cualquier robo de cartas pendiente a su víctima.
+     * Es llamado después de la ventana de oportunidad de castigo.
+     */
+    @Override
+    public void applyPendingDraws() {
+        if (this.pendingDraws > 0) {
+            this.forceDraw(this.pendingDrawsVictim, this.pendingDraws);
+            this.pendingDraws = 0; // Resetear los robos pendientes
+            this.pendingDrawsVictim = null;
         }
     }
 
@@ -146,6 +146,27 @@ public interface IGameState {
      */
     void applyPendingDrawsToHuman();
 
+    /**
+     * Aplica cualquier robo pendiente al jugador que lo recibe, sea humano o máquina.
+     */
+    void applyPendingDraws();
+
+    /**
+     * @return El jugador que tendrá el siguiente turno si no hay saltos.
+     */
+    Player getNextPlayer();
+
+    /**
+     * @return La cantidad de jugadores de la mesa.
+     */
+    int getPlayerCount();
+
+    /**
+     * @param seat El asiento, entre 0 y getPlayerCount() - 1.
+     * @return El jugador sentado en ese asiento.
+     */
+    Player getPlayer(int seat);
+
     /**
      * Devuelve el nombre en español de un color específico.
      * @param color El color a traducir.
@@ -0,0 +1,57 @@
+package univalle.tedesoft.uno.model.State;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Players.Player;
+
+import java.util.List;
+
+/**
+ * Observador de los eventos públicos que ocurren dentro de un {@link GameState}.
+ * Todos los métodos tienen una implementación vacía por defecto, de modo que cada
+ * observador solo sobrescribe los eventos que le interesan.
+ * Los eventos se notifican de forma síncrona desde el hilo que modifica el estado.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public interface IGameStateListener {
+    /**
+     * Se llama al inicio de una nueva partida, antes de repartir las cartas.
+     */
+    default void onNewGame() {}
+
+    /**
+     * Se llama cuando se voltea la carta inicial sobre la pila de descarte.
+     * @param card La carta inicial.
+     */
+    default void onStarterCard(Card card) {}
+
+    /**
+     * Se llama cada vez que un jugador recibe una carta del mazo.
+     * @param player El jugador que recibe la carta.
+     * @param card La carta recibida.
+     * @param turnDraw true si el jugador robó por decisión propia durante su turno,
+     *                 false si fue forzado (reparto, +2, +4 o penalización).
+     */
+    default void onCardDrawn(Player player, Card card, boolean turnDraw) {}
+
+    /**
+     * Se llama cuando un jugador juega una carta válida sobre la pila de descarte.
+     * @param player El jugador que jugó.
+     * @param card La carta jugada.
+     */
+    default void onCardPlayed(Player player, Card card) {}
+
+    /**
+     * Se llama cuando se establece un nuevo color tras un comodín.
+     * @param color El color elegido.
+     */
+    default void onColorChosen(Color color) {}
+
+    /**
+     * Se llama cuando las cartas de la pila de descarte regresan al mazo, ya barajado.
+     * @param recycledCards Las cartas que volvieron al mazo.
+     */
+    default void onDeckRecycled(List<Card> recycledCards) {}
+}
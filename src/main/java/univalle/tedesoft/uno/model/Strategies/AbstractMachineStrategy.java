@@ -0,0 +1,87 @@
+package univalle.tedesoft.uno.model.Strategies;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Players.Player;
+
+import java.util.List;
+
+/**
+ * Base para las estrategias de la máquina con utilidades comunes sobre la mano.
+ * Los recorridos usan índices para no reservar iteradores en cada decisión.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public abstract class AbstractMachineStrategy implements IMachineStrategy {
+    /** Colores que se pueden elegir tras un comodín. */
+    protected static final Color[] PLAYABLE_COLORS = {Color.RED, Color.YELLOW, Color.GREEN, Color.BLUE};
+
+    /**
+     * Cuenta las cartas de un color en la mano.
+     * @param hand la mano del jugador.
+     * @param color el color a contar.
+     * @return cantidad de cartas de ese color.
+     */
+    protected static int countColor(List<Card> hand, Color color) {
+        int count = 0;
+        for (int i = 0; i < hand.size(); i++) {
+            if (hand.get(i).getColor() == color) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Devuelve el color (no comodín) más frecuente en la mano; ROJO si no hay ninguno.
+     * @param self el jugador.
+     * @return el color más frecuente.
+     */
+    protected static Color mostCommonColor(Player self) {
+        Color best = Color.RED;
+        int bestCount = -1;
+        for (Color color : PLAYABLE_COLORS) {
+            int count = countColor(self.getCards(), color);
+            if (count > bestCount) {
+                best = color;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Indica si el valor de una carta hace perder el turno al siguiente jugador.
+     * La reversa solo cuenta con dos jugadores, donde equivale a un salto; con más,
+     * solo cambia el sentido del turno.
+     * @param value el valor de la carta.
+     * @param playerCount cantidad de jugadores de la mesa.
+     * @return true para SKIP, +2 y +4, y para REVERSE en mesas de dos.
+     */
+    protected static boolean isAttackValue(Value value, int playerCount) {
+        return value == Value.SKIP || value == Value.DRAW_TWO || value == Value.WILD_DRAW_FOUR
+                || value == Value.REVERSE && playerCount == 2;
+    }
+
+    /**
+     * Puntaje base de una carta: conviene deshacerse primero de las cartas de acción y
+     * de los números altos, y guardar los comodines para el final.
+     * @param card la carta a evaluar.
+     * @return puntaje, mayor es mejor.
+     */
+    protected static int baseScore(Card card) {
+        Value value = card.getValue();
+        if (value == Value.WILD) {
+            return -10;
+        }
+        if (value == Value.WILD_DRAW_FOUR) {
+            return -5;
+        }
+        if (value.ordinal() <= Value.NINE.ordinal()) {
+            return value.ordinal();
+        }
+        return 20;
+    }
+}
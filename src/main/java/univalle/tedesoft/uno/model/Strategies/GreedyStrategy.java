@@ -0,0 +1,44 @@
+package univalle.tedesoft.uno.model.Strategies;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.IGameState;
+
+import java.util.List;
+
+/**
+ * Estrategia voraz: juega la carta válida de mayor puntaje base (acciones y números
+ * altos primero, comodines al final) y elige el color más frecuente de su mano.
+ * No usa el modelo del oponente.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class GreedyStrategy extends AbstractMachineStrategy {
+
+    @Override
+    public Card chooseCardToPlay(IGameState gameState, Player self, OpponentHandModel opponentModel, long deadlineNanos) {
+        List<Card> hand = self.getCards();
+        Card best = null;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < hand.size(); i++) {
+            Card card = hand.get(i);
+            if (!gameState.isValidPlay(card)) {
+                continue;
+            }
+            int score = baseScore(card) * 4 + countColor(hand, card.getColor());
+            if (score > bestScore) {
+                best = card;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Color chooseColor(Player self, OpponentHandModel opponentModel, long deadlineNanos) {
+        return mostCommonColor(self);
+    }
+}
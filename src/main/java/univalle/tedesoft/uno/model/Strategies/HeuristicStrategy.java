@@ -0,0 +1,85 @@
+package univalle.tedesoft.uno.model.Strategies;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.IGameState;
+
+import java.util.List;
+
+/**
+ * Estrategia heurística que combina el puntaje voraz con el modelo del oponente:
+ * prefiere dejar activos colores que el oponente probablemente no tiene, ataca
+ * cuando al oponente le quedan pocas cartas y guarda los comodines.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class HeuristicStrategy extends AbstractMachineStrategy {
+    /** Tamaño de mano del oponente a partir del cual se priorizan los ataques. */
+    private static final int DANGER_HAND_SIZE = 2;
+
+    @Override
+    public Card chooseCardToPlay(IGameState gameState, Player self, OpponentHandModel opponentModel, long deadlineNanos) {
+        List<Card> hand = self.getCards();
+        Card best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < hand.size(); i++) {
+            Card card = hand.get(i);
+            if (gameState.isValidPlay(card)) {
+                double score = this.evaluate(card, self, opponentModel, gameState.getPlayerCount());
+                if (score > bestScore) {
+                    best = card;
+                    bestScore = score;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Evalúa una carta válida.
+     * @param card la carta candidata.
+     * @param self el jugador que decide.
+     * @param opponentModel modelo del oponente, puede ser null.
+     * @param playerCount cantidad de jugadores de la mesa.
+     * @return puntaje, mayor es mejor.
+     */
+    private double evaluate(Card card, Player self, OpponentHandModel opponentModel, int playerCount) {
+        List<Card> hand = self.getCards();
+        double score = baseScore(card);
+        boolean opponentInDanger = opponentModel != null && opponentModel.getOpponentHandSize() <= DANGER_HAND_SIZE;
+        if (card.getColor() != Color.WILD) {
+            // Mantener un color del que se tienen más cartas da flexibilidad en los siguientes turnos
+            score += 2.0 * countColor(hand, card.getColor());
+            if (opponentModel != null) {
+                score += 10.0 * (1.0 - opponentModel.probabilityOfColor(card.getColor()));
+            }
+        } else if (card.getValue() == Value.WILD_DRAW_FOUR && opponentInDanger) {
+            score += 40.0;
+        }
+        if (opponentInDanger && isAttackValue(card.getValue(), playerCount)) {
+            score += 30.0;
+        }
+        return score;
+    }
+
+    @Override
+    public Color chooseColor(Player self, OpponentHandModel opponentModel, long deadlineNanos) {
+        Color best = Color.RED;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (Color color : PLAYABLE_COLORS) {
+            double score = 2.0 * countColor(self.getCards(), color);
+            if (opponentModel != null) {
+                score += 3.0 * (1.0 - opponentModel.probabilityOfColor(color));
+            }
+            if (score > bestScore) {
+                best = color;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,45 @@
+package univalle.tedesoft.uno.model.Strategies;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.Rng.IRandomSource;
+import univalle.tedesoft.uno.model.State.IGameState;
+
+/**
+ * Contrato para las estrategias de decisión de un jugador automático.
+ * Cada decisión recibe un instante límite (según {@link System#nanoTime()}) que la
+ * estrategia debe respetar; las estrategias baratas simplemente terminan antes.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public interface IMachineStrategy {
+    /**
+     * Elige la carta que se va a jugar.
+     * @param gameState estado actual del juego, solo se consulta.
+     * @param self el jugador que decide.
+     * @param opponentModel modelo de la mano del oponente, puede ser null.
+     * @param deadlineNanos instante límite para decidir, en la escala de System.nanoTime().
+     * @return una carta válida de la mano, o null si no hay jugadas válidas.
+     */
+    Card chooseCardToPlay(IGameState gameState, Player self, OpponentHandModel opponentModel, long deadlineNanos);
+
+    /**
+     * Elige el color que se establecerá tras jugar un comodín.
+     * @param self el jugador que decide.
+     * @param opponentModel modelo de la mano del oponente, puede ser null.
+     * @param deadlineNanos instante límite para decidir, en la escala de System.nanoTime().
+     * @return un color distinto de WILD.
+     */
+    Color chooseColor(Player self, OpponentHandModel opponentModel, long deadlineNanos);
+
+    /**
+     * Cambia la fuente aleatoria de la estrategia, por ejemplo la sembrada de una partida.
+     * Las estrategias deterministas la ignoran.
+     * @param random la fuente aleatoria.
+     */
+    default void setRandom(IRandomSource random) {
+    }
+}
@@ -0,0 +1,91 @@
+package univalle.tedesoft.uno.model.Strategies;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.model.Learning.PolicyFeatures;
+import univalle.tedesoft.uno.model.Learning.PolicyNetwork;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.IGameState;
+
+import java.util.List;
+
+/**
+ * Estrategia que juega según una política aprendida fuera de línea.
+ * Extrae las características de la decisión, evalúa la red y juega la carta válida con
+ * mayor puntaje. El color del comodín se decide en la misma evaluación y se guarda para
+ * la llamada a {@link #chooseColor}, que no recibe el estado del juego.
+ * Los buffers de trabajo pertenecen a la instancia, por lo que cada jugador necesita la
+ * suya; la red sí puede compartirse.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class LearnedPolicyStrategy extends AbstractMachineStrategy {
+    /** Red que puntúa acciones y colores. */
+    private final PolicyNetwork network;
+    /** Vector de características de la decisión actual. */
+    private final byte[] features = new byte[PolicyFeatures.FEATURE_COUNT];
+    /** Buffer de la capa oculta. */
+    private final float[] hidden;
+    /** Puntajes de las acciones. */
+    private final float[] actionLogits = new float[PolicyFeatures.ACTION_COUNT];
+    /** Puntajes de los colores. */
+    private final float[] colorLogits = new float[PolicyNetwork.CHOOSABLE_COLORS];
+    /** Color decidido junto con el último comodín elegido, o null. */
+    private Color pendingColor;
+
+    /**
+     * Constructor de la estrategia.
+     * @param network la red entrenada.
+     */
+    public LearnedPolicyStrategy(PolicyNetwork network) {
+        this.network = network;
+        this.hidden = new float[network.getHidden()];
+    }
+
+    @Override
+    public Card chooseCardToPlay(IGameState gameState, Player self, OpponentHandModel opponentModel, long deadlineNanos) {
+        List<Card> hand = self.getCards();
+        int opponentHandSize = opponentModel != null ? opponentModel.getOpponentHandSize() : 0;
+        PolicyFeatures.extract(gameState, self, opponentHandSize, this.features, 0, 1);
+        this.network.evaluate(this.features, this.hidden, this.actionLogits, this.colorLogits);
+
+        Card best = null;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < hand.size(); i++) {
+            Card card = hand.get(i);
+            if (!gameState.isValidPlay(card)) {
+                continue;
+            }
+            float score = this.actionLogits[OpponentHandModel.typeIndex(card)];
+            if (score > bestScore) {
+                best = card;
+                bestScore = score;
+            }
+        }
+        this.pendingColor = best != null && best.getColor() == Color.WILD ? this.bestColor() : null;
+        return best;
+    }
+
+    @Override
+    public Color chooseColor(Player self, OpponentHandModel opponentModel, long deadlineNanos) {
+        Color color = this.pendingColor;
+        this.pendingColor = null;
+        return color != null ? color : mostCommonColor(self);
+    }
+
+    /**
+     * Devuelve el color de mayor puntaje en la última evaluación.
+     * @return el color elegido.
+     */
+    private Color bestColor() {
+        int best = 0;
+        for (int c = 1; c < PolicyNetwork.CHOOSABLE_COLORS; c++) {
+            if (this.colorLogits[c] > this.colorLogits[best]) {
+                best = c;
+            }
+        }
+        return PLAYABLE_COLORS[best];
+    }
+}
@@ -0,0 +1,291 @@
+package univalle.tedesoft.uno.model.Strategies;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.Rng.IRandomSource;
+import univalle.tedesoft.uno.model.State.IGameState;
+
+import java.util.List;
+
+/**
+ * Simulador compacto de partidas de 2 jugadores usado por {@link SearchStrategy}.
+ * Representa las manos como conteos por tipo de carta y el mazo como un arreglo de tipos,
+ * de modo que cada simulación reutiliza los mismos arreglos y no reserva memoria.
+ * La mano del oponente se muestrea del conjunto no visto del {@link OpponentHandModel},
+ * respetando los colores que se infirieron como ausentes.
+ * El jugador 0 es quien decide y el jugador 1 su oponente.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class PlayoutSimulator {
+    /** Cantidad de valores distintos. */
+    private static final int VALUES = OpponentHandModel.VALUE_COUNT;
+    /** Cantidad de tipos de carta. */
+    private static final int TYPES = OpponentHandModel.TYPE_COUNT;
+    /** Ordinal del color comodín. */
+    private static final int WILD_COLOR = Color.WILD.ordinal();
+    /** Cantidad de colores elegibles tras un comodín. */
+    private static final int PLAYABLE_COLORS = 4;
+    /** Efecto sin acción especial. */
+    private static final byte EFFECT_NONE = 0;
+    /** Efecto que hace perder el turno al oponente. */
+    private static final byte EFFECT_SKIP = 1;
+    /** Efecto +2. */
+    private static final byte EFFECT_DRAW_TWO = 2;
+    /** Efecto +4. */
+    private static final byte EFFECT_DRAW_FOUR = 3;
+    /** Efecto de la reversa; se traduce con {@link #reverseEffect} según la mesa real. */
+    private static final byte EFFECT_REVERSE = 4;
+    /** Efecto de cada valor, indexado por ordinal. */
+    private static final byte[] EFFECTS = computeEffects();
+    /** Intentos máximos para respetar un color ausente al muestrear. */
+    private static final int SAMPLE_RETRIES = 8;
+
+    /** Manos de los dos jugadores, como conteos por tipo. */
+    private final int[][] hands = new int[2][TYPES];
+    /** Tamaño de las manos. */
+    private final int[] handSize = new int[2];
+    /** Cartas no vistas; las primeras se reparten al oponente y el resto forman el mazo. */
+    private final int[] pool = new int[256];
+    /** Cantidad de cartas en el arreglo de cartas no vistas. */
+    private int poolSize;
+    /** Siguiente posición del mazo simulado. */
+    private int poolNext;
+    /** Conteos de cartas no vistas copiados del modelo. */
+    private final int[] unseen = new int[TYPES];
+    /** Límite de cartas por color al muestrear la mano del oponente. */
+    private final int[] colorLimit = new int[Color.values().length];
+    /** Color activo en la simulación. */
+    private int topColor;
+    /** Valor activo en la simulación, -1 tras un comodín. */
+    private int topValue;
+    /** Efecto de la reversa: un salto en mesas de dos, ninguno con más jugadores. */
+    private byte reverseEffect = EFFECT_SKIP;
+    /** Generador de números aleatorios de la simulación. */
+    private IRandomSource random;
+
+    /**
+     * Constructor del simulador.
+     * @param random generador de números aleatorios a usar.
+     */
+    PlayoutSimulator(IRandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Cambia el generador de la simulación.
+     * @param random generador de números aleatorios a usar.
+     */
+    void setRandom(IRandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Calcula la tabla de efectos por valor.
+     * @return tabla indexada por ordinal de Value.
+     */
+    private static byte[] computeEffects() {
+        byte[] effects = new byte[VALUES];
+        for (Value value : Value.values()) {
+            effects[value.ordinal()] = switch (value) {
+                case SKIP -> EFFECT_SKIP;
+                case REVERSE -> EFFECT_REVERSE;
+                case DRAW_TWO -> EFFECT_DRAW_TWO;
+                case WILD_DRAW_FOUR -> EFFECT_DRAW_FOUR;
+                default -> EFFECT_NONE;
+            };
+        }
+        return effects;
+    }
+
+    /**
+     * Prepara una determinización del estado actual: copia la mano propia,
+     * muestrea la del oponente y baraja el resto como mazo.
+     * @param gameState estado real del juego.
+     * @param self jugador que decide.
+     * @param model modelo de la mano del oponente.
+     */
+    void setup(IGameState gameState, Player self, OpponentHandModel model) {
+        for (int t = 0; t < TYPES; t++) {
+            this.hands[0][t] = 0;
+            this.hands[1][t] = 0;
+        }
+        List<Card> hand = self.getCards();
+        for (int i = 0; i < hand.size(); i++) {
+            this.hands[0][OpponentHandModel.typeIndex(hand.get(i))]++;
+        }
+        this.handSize[0] = hand.size();
+        this.handSize[1] = 0;
+
+        model.copyUnseenCounts(this.unseen);
+        this.poolSize = 0;
+        for (int t = 0; t < TYPES; t++) {
+            for (int k = 0; k < this.unseen[t] && this.poolSize < this.pool.length; k++) {
+                this.pool[this.poolSize++] = t;
+            }
+        }
+        Color[] colors = Color.values();
+        for (int c = 0; c < colors.length; c++) {
+            // Cada determinización acepta el indicio de color ausente con su peso
+            double weight = model.getVoidWeight(colors[c]);
+            this.colorLimit[c] = weight > 0.0 && this.random.nextDouble() < weight
+                    ? model.getEligibleCards(colors[c]) : Integer.MAX_VALUE;
+        }
+        int opponentCards = Math.min(model.getOpponentHandSize(), this.poolSize);
+        for (int i = 0; i < opponentCards; i++) {
+            int j = i + this.random.nextInt(this.poolSize - i);
+            for (int retry = 0; retry < SAMPLE_RETRIES && this.colorLimit[this.pool[j] / VALUES] <= 0; retry++) {
+                j = i + this.random.nextInt(this.poolSize - i);
+            }
+            int type = this.pool[j];
+            this.pool[j] = this.pool[i];
+            this.pool[i] = type;
+            this.colorLimit[type / VALUES]--;
+            this.hands[1][type]++;
+        }
+        this.handSize[1] = opponentCards;
+        this.poolNext = opponentCards;
+
+        // La simulación enfrenta a dos asientos: la reversa solo salta al otro si la mesa es de dos
+        this.reverseEffect = gameState.getPlayerCount() == 2 ? EFFECT_SKIP : EFFECT_NONE;
+
+        Card top = gameState.getTopDiscardCard();
+        this.topColor = gameState.getCurrentValidColor().ordinal();
+        this.topValue = (top == null || top.getColor() == Color.WILD) ? -1 : top.getValue().ordinal();
+    }
+
+    /**
+     * Simula el resto de la partida tras jugar el tipo de carta dado.
+     * @param firstType tipo de la carta que juega el jugador 0.
+     * @param maxPlies límite de jugadas a simular.
+     * @return 1 si gana el jugador 0, 0 si pierde, o una estimación por tamaño de manos.
+     */
+    double run(int firstType, int maxPlies) {
+        int current = this.play(0, firstType) ? 0 : 1;
+        if (this.handSize[0] == 0) {
+            return 1.0;
+        }
+        for (int ply = 0; ply < maxPlies; ply++) {
+            int type = this.choose(current);
+            if (type < 0) {
+                this.draw(current);
+                current = 1 - current;
+                continue;
+            }
+            boolean playsAgain = this.play(current, type);
+            if (this.handSize[current] == 0) {
+                return current == 0 ? 1.0 : 0.0;
+            }
+            if (!playsAgain) {
+                current = 1 - current;
+            }
+        }
+        int total = this.handSize[0] + this.handSize[1];
+        return 0.5 + 0.5 * (this.handSize[1] - this.handSize[0]) / total;
+    }
+
+    /**
+     * Indica si un tipo de carta se puede jugar sobre el estado simulado.
+     * @param type tipo de carta.
+     * @return true si es una jugada válida.
+     */
+    private boolean isLegal(int type) {
+        int color = type / VALUES;
+        return color == WILD_COLOR || color == this.topColor || (this.topValue >= 0 && type % VALUES == this.topValue);
+    }
+
+    /**
+     * Política de simulación: una carta válida no comodín al azar y, si no hay, un comodín.
+     * @param player jugador en turno.
+     * @return tipo elegido, o -1 si no hay jugadas válidas.
+     */
+    private int choose(int player) {
+        int[] hand = this.hands[player];
+        int offset = this.random.nextInt(TYPES);
+        int wild = -1;
+        for (int k = 0; k < TYPES; k++) {
+            int type = (offset + k) % TYPES;
+            if (hand[type] > 0 && this.isLegal(type)) {
+                if (type / VALUES != WILD_COLOR) {
+                    return type;
+                }
+                wild = type;
+            }
+        }
+        return wild;
+    }
+
+    /**
+     * Juega una carta y aplica su efecto.
+     * @param player jugador que juega.
+     * @param type tipo de carta.
+     * @return true si el mismo jugador vuelve a jugar (el oponente pierde el turno).
+     */
+    private boolean play(int player, int type) {
+        this.hands[player][type]--;
+        this.handSize[player]--;
+        int color = type / VALUES;
+        int value = type % VALUES;
+        if (color == WILD_COLOR) {
+            this.topColor = this.mostCommonColor(player);
+            this.topValue = -1;
+        } else {
+            this.topColor = color;
+            this.topValue = value;
+        }
+        byte effect = EFFECTS[value];
+        if (effect == EFFECT_REVERSE) {
+            effect = this.reverseEffect;
+        }
+        if (effect == EFFECT_DRAW_TWO) {
+            this.draw(1 - player);
+            this.draw(1 - player);
+        } else if (effect == EFFECT_DRAW_FOUR) {
+            for (int i = 0; i < 4; i++) {
+                this.draw(1 - player);
+            }
+        }
+        return effect != EFFECT_NONE;
+    }
+
+    /**
+     * Roba una carta del mazo simulado con barajado perezoso.
+     * @param player jugador que roba.
+     */
+    private void draw(int player) {
+        if (this.poolNext >= this.poolSize) {
+            return;
+        }
+        int j = this.poolNext + this.random.nextInt(this.poolSize - this.poolNext);
+        int type = this.pool[j];
+        this.pool[j] = this.pool[this.poolNext];
+        this.pool[this.poolNext++] = type;
+        this.hands[player][type]++;
+        this.handSize[player]++;
+    }
+
+    /**
+     * Color con más cartas en la mano simulada de un jugador.
+     * @param player el jugador.
+     * @return ordinal del color.
+     */
+    private int mostCommonColor(int player) {
+        int best = 0;
+        int bestCount = -1;
+        for (int c = 0; c < PLAYABLE_COLORS; c++) {
+            int count = 0;
+            for (int v = 0; v < VALUES; v++) {
+                count += this.hands[player][c * VALUES + v];
+            }
+            if (count > bestCount) {
+                best = c;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+}
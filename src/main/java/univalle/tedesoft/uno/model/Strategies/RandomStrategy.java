@@ -0,0 +1,57 @@
+package univalle.tedesoft.uno.model.Strategies;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.Rng.IRandomSource;
+import univalle.tedesoft.uno.model.Rng.Xoshiro256Random;
+import univalle.tedesoft.uno.model.State.IGameState;
+
+import java.util.List;
+
+/**
+ * Estrategia que juega una carta válida al azar y elige colores al azar.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class RandomStrategy extends AbstractMachineStrategy {
+    /** Generador de números aleatorios de la estrategia. */
+    private IRandomSource random = new Xoshiro256Random();
+
+    @Override
+    public void setRandom(IRandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Cuenta las jugadas válidas y elige una de ellas uniformemente.
+     */
+    @Override
+    public Card chooseCardToPlay(IGameState gameState, Player self, OpponentHandModel opponentModel, long deadlineNanos) {
+        List<Card> hand = self.getCards();
+        int legalCount = 0;
+        for (int i = 0; i < hand.size(); i++) {
+            if (gameState.isValidPlay(hand.get(i))) {
+                legalCount++;
+            }
+        }
+        if (legalCount == 0) {
+            return null;
+        }
+        int target = this.random.nextInt(legalCount);
+        for (int i = 0; i < hand.size(); i++) {
+            Card card = hand.get(i);
+            if (gameState.isValidPlay(card) && target-- == 0) {
+                return card;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Color chooseColor(Player self, OpponentHandModel opponentModel, long deadlineNanos) {
+        return PLAYABLE_COLORS[this.random.nextInt(PLAYABLE_COLORS.length)];
+    }
+}
@@ -0,0 +1,113 @@
+package univalle.tedesoft.uno.model.Strategies;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.Rng.IRandomSource;
+import univalle.tedesoft.uno.model.Rng.Xoshiro256Random;
+import univalle.tedesoft.uno.model.State.IGameState;
+
+import java.util.List;
+
+/**
+ * Estrategia de búsqueda Monte Carlo con determinización: para cada tipo de carta
+ * jugable simula partidas completas, muestreando la mano del oponente con el
+ * {@link OpponentHandModel}, hasta agotar el presupuesto de tiempo de la jugada.
+ * Elige la carta con mejor tasa de victorias simulada.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class SearchStrategy extends AbstractMachineStrategy {
+    /** Límite de jugadas por simulación. */
+    private static final int MAX_PLIES = 200;
+    /** Simulador reutilizado entre decisiones. */
+    private final PlayoutSimulator simulator = new PlayoutSimulator(new Xoshiro256Random());
+    /** Estrategia de respaldo cuando no hay tiempo o modelo. */
+    private final HeuristicStrategy fallback = new HeuristicStrategy();
+    /** Carta representativa de cada candidato. */
+    private final Card[] candidates = new Card[OpponentHandModel.TYPE_COUNT];
+    /** Tipo de carta de cada candidato. */
+    private final int[] candidateTypes = new int[OpponentHandModel.TYPE_COUNT];
+    /** Suma de resultados por candidato. */
+    private final double[] totals = new double[OpponentHandModel.TYPE_COUNT];
+    /** Cantidad de simulaciones por candidato. */
+    private final int[] visits = new int[OpponentHandModel.TYPE_COUNT];
+
+    @Override
+    public void setRandom(IRandomSource random) {
+        this.simulator.setRandom(random);
+    }
+
+    @Override
+    public Card chooseCardToPlay(IGameState gameState, Player self, OpponentHandModel opponentModel, long deadlineNanos) {
+        int count = this.collectCandidates(gameState, self);
+        if (count <= 1 || opponentModel == null) {
+            return count == 0 ? null : (count == 1 ? this.candidates[0]
+                    : this.fallback.chooseCardToPlay(gameState, self, opponentModel, deadlineNanos));
+        }
+        boolean outOfTime = false;
+        while (!outOfTime) {
+            for (int i = 0; i < count; i++) {
+                // Una interrupción (partida reiniciada) corta la búsqueda como el plazo
+                if (System.nanoTime() >= deadlineNanos || Thread.currentThread().isInterrupted()) {
+                    outOfTime = true;
+                    break;
+                }
+                this.simulator.setup(gameState, self, opponentModel);
+                this.totals[i] += this.simulator.run(this.candidateTypes[i], MAX_PLIES);
+                this.visits[i]++;
+            }
+        }
+        if (this.visits[count - 1] == 0) {
+            // No alcanzó ni una ronda completa de simulaciones
+            return this.fallback.chooseCardToPlay(gameState, self, opponentModel, deadlineNanos);
+        }
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (this.totals[i] / this.visits[i] > this.totals[best] / this.visits[best]) {
+                best = i;
+            }
+        }
+        return this.candidates[best];
+    }
+
+    /**
+     * Reúne un representante por cada tipo de carta jugable y limpia las estadísticas.
+     * @param gameState estado del juego.
+     * @param self jugador que decide.
+     * @return cantidad de candidatos.
+     */
+    private int collectCandidates(IGameState gameState, Player self) {
+        List<Card> hand = self.getCards();
+        int count = 0;
+        for (int i = 0; i < hand.size(); i++) {
+            Card card = hand.get(i);
+            if (!gameState.isValidPlay(card)) {
+                continue;
+            }
+            int type = OpponentHandModel.typeIndex(card);
+            boolean duplicated = false;
+            for (int k = 0; k < count && !duplicated; k++) {
+                duplicated = this.candidateTypes[k] == type;
+            }
+            if (!duplicated) {
+                this.candidates[count] = card;
+                this.candidateTypes[count] = type;
+                this.totals[count] = 0.0;
+                this.visits[count] = 0;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * La elección de color usa la heurística; el presupuesto se dedica a la elección de carta.
+     */
+    @Override
+    public Color chooseColor(Player self, OpponentHandModel opponentModel, long deadlineNanos) {
+        return this.fallback.chooseColor(self, opponentModel, deadlineNanos);
+    }
+}
@@ -0,0 +1,230 @@
+package univalle.tedesoft.uno.persistence;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Players.HumanPlayer;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.GameState;
+import univalle.tedesoft.uno.protocol.CardCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Instantánea binaria compacta de una partida: jugadores, manos, orden del mazo, pila de
+ * descarte y datos del turno. Las cartas ocupan un byte de {@link CardCodec}, así que una
+ * partida de dos jugadores ocupa unos 100 bytes.
+ * <p>
+ * Formato: versión (u8), asientos (u8); por asiento: tipo (u8, 0 humano, 1 máquina),
+ * dificultad (u8), etiqueta del anfitrión (i64), nombre (u8 + UTF-8), mano (u16 + cartas);
+ * mazo de arriba a abajo (u16 + cartas); descarte de abajo arriba (u16 + cartas) y el turno
+ * de {@link #writeTurn}.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class GameCheckpoint {
+    /** Versión del formato. */
+    static final int VERSION = 1;
+    /** Valor de un byte ausente: sin asiento, sin valor o sin dificultad. */
+    static final int NONE = 0xFF;
+    /** Bandera de asiento: es candidato a UNO. */
+    private static final int FLAG_UNO_CANDIDATE = 1;
+    /** Bandera de asiento: cantó UNO en este turno. */
+    private static final int FLAG_DECLARED_UNO = 2;
+
+    /** Valores por ordinal. */
+    private static final Value[] VALUES = Value.values();
+    /** Dificultades por ordinal. */
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    /**
+     * Clase de utilidades, no se instancia.
+     */
+    private GameCheckpoint() {
+    }
+
+    /**
+     * Escribe la instantánea de una partida.
+     * @param state la partida.
+     * @param seatTags dato del anfitrión por asiento (por ejemplo, fichas de reanudación), o null.
+     * @param out buffer destino.
+     */
+    public static void write(GameState state, long[] seatTags, ByteBuffer out) {
+        int seats = state.getPlayerCount();
+        out.put((byte) VERSION).put((byte) seats);
+        for (int seat = 0; seat < seats; seat++) {
+            Player player = state.getPlayer(seat);
+            boolean machine = player instanceof MachinePlayer;
+            Difficulty difficulty = machine ? ((MachinePlayer) player).getDifficulty() : null;
+            out.put((byte) (machine ? 1 : 0)).put((byte) (difficulty == null ? NONE : difficulty.ordinal()));
+            out.putLong(seatTags == null ? 0 : seatTags[seat]);
+            byte[] name = (player.getName() == null ? "" : player.getName()).getBytes(StandardCharsets.UTF_8);
+            int nameLength = Math.min(name.length, 0xFF);
+            out.put((byte) nameLength).put(name, 0, nameLength);
+            writeCards(player.getCards(), out);
+        }
+        writeCards(state.getDeck().getCards(), out);
+        writeCards(state.getDiscardPile().getCards(), out);
+        writeTurn(state, out);
+    }
+
+    /**
+     * Reconstruye una partida desde su instantánea, con jugadores nuevos.
+     * @param in buffer posicionado en la instantánea.
+     * @param seatTags arreglo donde dejar el dato del anfitrión por asiento, o null.
+     * @return la partida restaurada.
+     * @throws IllegalArgumentException si la instantánea no es válida.
+     */
+    public static GameState read(ByteBuffer in, long[] seatTags) {
+        int version = in.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de instantánea desconocida: " + version);
+        }
+        int seats = in.get() & 0xFF;
+        List<Player> players = new ArrayList<>(seats);
+        List<List<Card>> hands = new ArrayList<>(seats);
+        for (int seat = 0; seat < seats; seat++) {
+            boolean machine = in.get() != 0;
+            int difficulty = in.get() & 0xFF;
+            long tag = in.getLong();
+            if (seatTags != null) {
+                seatTags[seat] = tag;
+            }
+            byte[] name = new byte[in.get() & 0xFF];
+            in.get(name);
+            Player player;
+            if (machine) {
+                MachinePlayer machinePlayer = new MachinePlayer();
+                if (difficulty != NONE) {
+                    machinePlayer.setDifficulty(DIFFICULTIES[difficulty]);
+                }
+                player = machinePlayer;
+            } else {
+                player = new HumanPlayer(null);
+            }
+            player.setName(new String(name, StandardCharsets.UTF_8));
+            players.add(player);
+            hands.add(readCards(in));
+        }
+        GameState state = new GameState(players);
+        for (int seat = 0; seat < seats; seat++) {
+            players.get(seat).getCards().addAll(hands.get(seat));
+        }
+        List<Card> deck = state.getDeck().getCards();
+        deck.clear();
+        deck.addAll(readCards(in));
+        state.getDiscardPile().clear();
+        for (Card card : readCards(in)) {
+            state.getDiscardPile().discard(card);
+        }
+        readTurn(in, state);
+        return state;
+    }
+
+    /**
+     * Escribe los datos del turno: asiento en turno (u8), sentido (i8), color (u8),
+     * valor (u8), robos pendientes (u8), víctima (u8), ganador (u8) y las banderas de UNO
+     * de cada asiento (u8).
+     * @param state la partida.
+     * @param out buffer destino.
+     */
+    static void writeTurn(GameState state, ByteBuffer out) {
+        Value value = state.getCurrentValidValue();
+        out.put((byte) state.getCurrentSeat())
+                .put((byte) state.getDirection())
+                .put((byte) CardCodec.encodeColor(state.getCurrentValidColor()))
+                .put((byte) (value == null ? NONE : value.ordinal()))
+                .put((byte) state.getPendingDraws())
+                .put((byte) seatOf(state, state.getPendingDrawsVictim()))
+                .put((byte) seatOf(state, state.getWinner()));
+        for (int seat = 0; seat < state.getPlayerCount(); seat++) {
+            Player player = state.getPlayer(seat);
+            int flags = (player.isUnoCandidate() ? FLAG_UNO_CANDIDATE : 0)
+                    | (player.hasDeclaredUnoThisTurn() ? FLAG_DECLARED_UNO : 0);
+            out.put((byte) flags);
+        }
+    }
+
+    /**
+     * Restaura los datos del turno escritos por {@link #writeTurn}.
+     * @param in buffer posicionado en los datos.
+     * @param state la partida a restaurar.
+     */
+    static void readTurn(ByteBuffer in, GameState state) {
+        int seat = in.get() & 0xFF;
+        int direction = in.get();
+        int color = in.get() & 0xFF;
+        int value = in.get() & 0xFF;
+        int pendingDraws = in.get() & 0xFF;
+        int victim = in.get() & 0xFF;
+        int winner = in.get() & 0xFF;
+        if (seat >= state.getPlayerCount() || (direction != 1 && direction != -1)) {
+            throw new IllegalArgumentException("Turno inválido: asiento " + seat + ", sentido " + direction);
+        }
+        state.restoreTurn(seat, direction, CardCodec.decodeColor(color), value == NONE ? null : VALUES[value],
+                pendingDraws, playerAt(state, victim), playerAt(state, winner));
+        for (int s = 0; s < state.getPlayerCount(); s++) {
+            int flags = in.get();
+            Player player = state.getPlayer(s);
+            player.setUnoCandidate((flags & FLAG_UNO_CANDIDATE) != 0);
+            player.setHasDeclaredUnoThisTurn((flags & FLAG_DECLARED_UNO) != 0);
+        }
+    }
+
+    /**
+     * Escribe una lista de cartas: cantidad (u16) y un byte por carta.
+     * @param cards las cartas.
+     * @param out buffer destino.
+     */
+    static void writeCards(Collection<Card> cards, ByteBuffer out) {
+        out.putShort((short) cards.size());
+        for (Card card : cards) {
+            out.put((byte) CardCodec.encode(card));
+        }
+    }
+
+    /**
+     * Lee una lista de cartas escrita por {@link #writeCards}.
+     * @param in buffer posicionado en la lista.
+     * @return cartas nuevas, en el mismo orden.
+     */
+    static List<Card> readCards(ByteBuffer in) {
+        int count = in.getShort() & 0xFFFF;
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(CardCodec.decode(in.get() & 0xFF));
+        }
+        return cards;
+    }
+
+    /**
+     * Busca el asiento de un jugador.
+     * @param state la partida.
+     * @param player el jugador, o null.
+     * @return el asiento, o {@link #NONE}.
+     */
+    static int seatOf(GameState state, Player player) {
+        for (int seat = 0; player != null && seat < state.getPlayerCount(); seat++) {
+            if (state.getPlayer(seat) == player) {
+                return seat;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Devuelve el jugador de un asiento codificado.
+     * @param state la partida.
+     * @param seat el asiento, o {@link #NONE}.
+     * @return el jugador, o null.
+     */
+    private static Player playerAt(GameState state, int seat) {
+        return seat == NONE || seat >= state.getPlayerCount() ? null : state.getPlayer(seat);
+    }
+}
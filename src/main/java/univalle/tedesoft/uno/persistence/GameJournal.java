@@ -0,0 +1,220 @@
+package univalle.tedesoft.uno.persistence;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.GameState;
+import univalle.tedesoft.uno.model.State.IGameStateListener;
+import univalle.tedesoft.uno.protocol.CardCodec;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Diario de una partida en el {@link WriteAheadLog}. Observa el {@link GameState} y anota
+ * en memoria cada carta robada o jugada y el orden del mazo cada vez que se recicla; el
+ * anfitrión llama a {@link #commit()} al terminar cada comando y todo lo anotado viaja como
+ * un solo registro, junto con los datos del turno. Así un comando se recupera entero o no se
+ * recupera. Cada tantos comandos, y al empezar cada partida, se escribe una instantánea
+ * completa en su lugar, que es desde donde empieza la recuperación. Las respuestas que
+ * muestran el resultado de un comando se retienen con {@link #whenDurable} hasta que su
+ * registro llega al disco.
+ * <p>
+ * No es seguro para hilos: lo usa solo quien modifica la partida, como el buzón de una mesa.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class GameJournal implements IGameStateListener {
+    /** Comandos entre instantáneas, por defecto. */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 64;
+
+    /** Entrada: un asiento robó una carta (asiento u8, carta u8). */
+    static final byte ENTRY_DRAWN = 1;
+    /** Entrada: un asiento jugó una carta (asiento u8, carta u8). */
+    static final byte ENTRY_PLAYED = 2;
+    /** Entrada: se recicló el descarte; orden nuevo del mazo (u16 + cartas). */
+    static final byte ENTRY_DECK = 3;
+    /** Entrada final de cada comando: los datos del turno. */
+    static final byte ENTRY_TURN = 4;
+
+    /** Registro compartido. */
+    private final WriteAheadLog log;
+    /** Id de la mesa. */
+    private final int tableId;
+    /** Comandos entre instantáneas. */
+    private final int checkpointInterval;
+    /** Entradas del comando en curso. */
+    private ByteBuffer entries = ByteBuffer.allocate(256);
+    /** Buffer de las instantáneas. */
+    private ByteBuffer checkpoint = ByteBuffer.allocate(1024);
+    /** Partida observada. */
+    private GameState state;
+    /** Dato del anfitrión por asiento, guardado en las instantáneas. */
+    private long[] seatTags;
+    /** true si el próximo registro debe ser una instantánea. */
+    private boolean checkpointDue = true;
+    /** Comandos escritos desde la última instantánea. */
+    private int commandsSinceCheckpoint;
+    /** Posición del último registro escrito por este diario. */
+    private long lastPosition;
+
+    /**
+     * Constructor del diario.
+     * @param log registro compartido.
+     * @param tableId id de la mesa.
+     * @param checkpointInterval comandos entre instantáneas.
+     */
+    public GameJournal(WriteAheadLog log, int tableId, int checkpointInterval) {
+        this.log = log;
+        this.tableId = tableId;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+    }
+
+    /**
+     * Empieza a observar una partida, por ejemplo la nueva de una mesa. El próximo
+     * registro será una instantánea.
+     * @param state la partida.
+     */
+    public void attach(GameState state) {
+        if (this.state != null) {
+            this.state.removeListener(this);
+        }
+        this.state = state;
+        if (this.seatTags == null || this.seatTags.length != state.getPlayerCount()) {
+            this.seatTags = new long[state.getPlayerCount()];
+        }
+        state.addListener(this);
+        this.entries.clear();
+        this.checkpointDue = true;
+    }
+
+    /**
+     * Cambia el dato del anfitrión de un asiento; se guarda con la próxima instantánea,
+     * que se adelanta al próximo registro.
+     * @param seat el asiento.
+     * @param tag el dato.
+     */
+    public void setSeatTag(int seat, long tag) {
+        if (this.seatTags[seat] != tag) {
+            this.seatTags[seat] = tag;
+            this.checkpointDue = true;
+        }
+    }
+
+    /**
+     * Escribe lo ocurrido desde el último commit como un registro, o una instantánea si toca.
+     * @return la posición del registro, para {@link WriteAheadLog#awaitDurable}.
+     */
+    public long commit() {
+        if (this.checkpointDue || this.commandsSinceCheckpoint >= this.checkpointInterval) {
+            return this.writeCheckpoint();
+        }
+        this.ensureEntryCapacity(1 + 7 + this.state.getPlayerCount());
+        this.entries.put(ENTRY_TURN);
+        GameCheckpoint.writeTurn(this.state, this.entries);
+        this.entries.flip();
+        long position = this.log.append(this.tableId, WriteAheadLog.COMMAND, this.entries);
+        this.entries.clear();
+        this.commandsSinceCheckpoint++;
+        this.lastPosition = position;
+        return position;
+    }
+
+    /**
+     * Escribe una instantánea completa de la partida.
+     * @return la posición del registro.
+     */
+    private long writeCheckpoint() {
+        while (true) {
+            try {
+                this.checkpoint.clear();
+                GameCheckpoint.write(this.state, this.seatTags, this.checkpoint);
+                break;
+            } catch (java.nio.BufferOverflowException e) {
+                this.checkpoint = ByteBuffer.allocate(this.checkpoint.capacity() * 2);
+            }
+        }
+        this.checkpoint.flip();
+        long position = this.log.append(this.tableId, WriteAheadLog.CHECKPOINT, this.checkpoint);
+        this.entries.clear();
+        this.checkpointDue = false;
+        this.commandsSinceCheckpoint = 0;
+        this.lastPosition = position;
+        return position;
+    }
+
+    /**
+     * Ejecuta una acción cuando todo lo escrito por este diario haya llegado al disco; las
+     * acciones se ejecutan en el orden en que se dejaron (ver {@link WriteAheadLog#whenDurable}).
+     * @param action la acción, breve y sin bloqueos.
+     */
+    public void whenDurable(Runnable action) {
+        this.log.whenDurable(this.lastPosition, action);
+    }
+
+    /**
+     * Marca la mesa como retirada: la recuperación ya no la reconstruye.
+     * @return la posición del registro.
+     */
+    public long end() {
+        if (this.state != null) {
+            this.state.removeListener(this);
+        }
+        return this.log.append(this.tableId, WriteAheadLog.END, ByteBuffer.allocate(0));
+    }
+
+    @Override
+    public void onNewGame() {
+        // El reparto viaja completo en la instantánea del próximo commit
+        this.entries.clear();
+        this.checkpointDue = true;
+    }
+
+    @Override
+    public void onCardDrawn(Player player, Card card, boolean turnDraw) {
+        this.addCardEntry(ENTRY_DRAWN, player, card);
+    }
+
+    @Override
+    public void onCardPlayed(Player player, Card card) {
+        this.addCardEntry(ENTRY_PLAYED, player, card);
+    }
+
+    @Override
+    public void onDeckRecycled(List<Card> recycledCards) {
+        if (this.checkpointDue) {
+            return;
+        }
+        List<Card> deck = this.state.getDeck().getCards();
+        this.ensureEntryCapacity(1 + Short.BYTES + deck.size());
+        this.entries.put(ENTRY_DECK);
+        GameCheckpoint.writeCards(deck, this.entries);
+    }
+
+    /**
+     * Anota un robo o una jugada.
+     * @param kind tipo de entrada.
+     * @param player el jugador.
+     * @param card la carta.
+     */
+    private void addCardEntry(byte kind, Player player, Card card) {
+        if (this.checkpointDue) {
+            return;
+        }
+        this.ensureEntryCapacity(3);
+        this.entries.put(kind).put((byte) GameCheckpoint.seatOf(this.state, player)).put((byte) CardCodec.encode(card));
+    }
+
+    /**
+     * Agranda el buffer de entradas si hace falta.
+     * @param bytes bytes que se van a escribir.
+     */
+    private void ensureEntryCapacity(int bytes) {
+        if (this.entries.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(this.entries.capacity() * 2, this.entries.position() + bytes));
+            this.entries.flip();
+            larger.put(this.entries);
+            this.entries = larger;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package univalle.tedesoft.uno.persistence;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.GameState;
+import univalle.tedesoft.uno.protocol.CardCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconstruye las partidas en curso a partir de un {@link WriteAheadLog}: por cada mesa
+ * toma su última instantánea y le aplica, en orden, los comandos escritos después.
+ * Las mesas retiradas se descartan. Los modelos de inferencia de las máquinas empiezan
+ * de cero, porque no forman parte del estado de la partida.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class GameRecovery {
+
+    /**
+     * Clase de utilidades, no se instancia.
+     */
+    private GameRecovery() {
+    }
+
+    /**
+     * Recupera las partidas de todos los segmentos de un directorio.
+     * @param directory el directorio del registro.
+     * @return las partidas en curso, en el orden en que se crearon.
+     * @throws IOException si no se puede leer un segmento.
+     */
+    public static List<RecoveredGame> recover(Path directory) throws IOException {
+        return recover(WriteAheadLog.listSegments(directory));
+    }
+
+    /**
+     * Recupera las partidas de una lista de segmentos.
+     * @param segments los segmentos, en orden.
+     * @return las partidas en curso, en el orden en que se crearon.
+     * @throws IOException si no se puede leer un segmento.
+     */
+    public static List<RecoveredGame> recover(List<Path> segments) throws IOException {
+        Map<Integer, RecoveredGame> games = new LinkedHashMap<>();
+        WalReader.read(segments, (tableId, type, payload) -> {
+            switch (type) {
+                case WriteAheadLog.CHECKPOINT -> {
+                    long[] tags = new long[GameState.MAX_PLAYERS];
+                    GameState state = GameCheckpoint.read(payload, tags);
+                    long[] seatTags = new long[state.getPlayerCount()];
+                    System.arraycopy(tags, 0, seatTags, 0, seatTags.length);
+                    games.computeIfAbsent(tableId, RecoveredGame::new).reset(state, seatTags);
+                }
+                case WriteAheadLog.COMMAND -> {
+                    RecoveredGame game = games.get(tableId);
+                    if (game != null) {
+                        applyCommand(payload, game.getGameState());
+                        game.commandReplayed();
+                    }
+                }
+                case WriteAheadLog.END -> games.remove(tableId);
+                default -> throw new IllegalArgumentException("Tipo de registro desconocido: " + type);
+            }
+        });
+        return new ArrayList<>(games.values());
+    }
+
+    /**
+     * Aplica a una partida las entradas de un comando escrito por {@link GameJournal}.
+     * @param in buffer con las entradas.
+     * @param state la partida.
+     */
+    static void applyCommand(ByteBuffer in, GameState state) {
+        while (in.hasRemaining()) {
+            byte kind = in.get();
+            switch (kind) {
+                case GameJournal.ENTRY_DRAWN -> {
+                    Player player = state.getPlayer(in.get() & 0xFF);
+                    int code = in.get() & 0xFF;
+                    player.addCard(removeTopmostCard(state.getDeck().getCards(), code));
+                }
+                case GameJournal.ENTRY_PLAYED -> {
+                    Player player = state.getPlayer(in.get() & 0xFF);
+                    int code = in.get() & 0xFF;
+                    state.getDiscardPile().discard(removeCard(player.getCards(), code));
+                }
+                case GameJournal.ENTRY_DECK -> {
+                    // El reciclaje deja solo la carta superior en el descarte
+                    Card top = state.getTopDiscardCard();
+                    state.getDiscardPile().clear();
+                    state.getDiscardPile().discard(top);
+                    List<Card> deck = state.getDeck().getCards();
+                    deck.clear();
+                    deck.addAll(GameCheckpoint.readCards(in));
+                }
+                case GameJournal.ENTRY_TURN -> GameCheckpoint.readTurn(in, state);
+                default -> throw new IllegalArgumentException("Entrada de comando desconocida: " + kind);
+            }
+        }
+    }
+
+    /**
+     * Quita de una lista la primera carta con un código dado.
+     * @param cards la lista.
+     * @param code el código de la carta.
+     * @return la carta quitada.
+     * @throws IllegalStateException si la carta no está, es decir, el registro no corresponde a la partida.
+     */
+    private static Card removeCard(List<Card> cards, int code) {
+        for (int i = 0; i < cards.size(); i++) {
+            if (CardCodec.encode(cards.get(i)) == code) {
+                return cards.remove(i);
+            }
+        }
+        throw new IllegalStateException("La carta " + code + " del registro no está donde se esperaba");
+    }
+
+    /**
+     * Quita del mazo la carta más cercana a la parte superior (el final de la lista) con un
+     * código dado; la carta robada suele ser justo la última.
+     * @param deck las cartas del mazo.
+     * @param code el código de la carta.
+     * @return la carta quitada.
+     * @throws IllegalStateException si la carta no está, es decir, el registro no corresponde a la partida.
+     */
+    private static Card removeTopmostCard(List<Card> deck, int code) {
+        for (int i = deck.size() - 1; i >= 0; i--) {
+            if (CardCodec.encode(deck.get(i)) == code) {
+                return deck.remove(i);
+            }
+        }
+        throw new IllegalStateException("La carta " + code + " del registro no está donde se esperaba");
+    }
+}
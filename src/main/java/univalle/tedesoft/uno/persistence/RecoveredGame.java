@@ -0,0 +1,78 @@
+package univalle.tedesoft.uno.persistence;
+
+import univalle.tedesoft.uno.model.State.GameState;
+
+/**
+ * Partida reconstruida desde el {@link WriteAheadLog} por {@link GameRecovery}.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class RecoveredGame {
+    /** Id de la mesa. */
+    private final int tableId;
+    /** Partida restaurada. */
+    private GameState state;
+    /** Dato del anfitrión por asiento. */
+    private long[] seatTags;
+    /** Comandos aplicados sobre la última instantánea. */
+    private int commandsReplayed;
+
+    /**
+     * Constructor de la partida recuperada.
+     * @param tableId id de la mesa.
+     */
+    RecoveredGame(int tableId) {
+        this.tableId = tableId;
+    }
+
+    /**
+     * Reemplaza la partida por la de una instantánea.
+     * @param state la partida restaurada.
+     * @param seatTags dato del anfitrión por asiento.
+     */
+    void reset(GameState state, long[] seatTags) {
+        this.state = state;
+        this.seatTags = seatTags;
+        this.commandsReplayed = 0;
+    }
+
+    /**
+     * Cuenta un comando aplicado.
+     */
+    void commandReplayed() {
+        this.commandsReplayed++;
+    }
+
+    /**
+     * Devuelve el id de la mesa.
+     * @return el id.
+     */
+    public int getTableId() {
+        return this.tableId;
+    }
+
+    /**
+     * Devuelve la partida restaurada, con jugadores nuevos.
+     * @return la partida.
+     */
+    public GameState getGameState() {
+        return this.state;
+    }
+
+    /**
+     * Devuelve el dato del anfitrión de cada asiento.
+     * @return los datos por asiento.
+     */
+    public long[] getSeatTags() {
+        return this.seatTags;
+    }
+
+    /**
+     * Devuelve cuántos comandos se aplicaron sobre la última instantánea.
+     * @return comandos aplicados.
+     */
+    public int getCommandsReplayed() {
+        return this.commandsReplayed;
+    }
+}
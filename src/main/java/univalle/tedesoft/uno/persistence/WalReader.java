@@ -0,0 +1,109 @@
+package univalle.tedesoft.uno.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Lee los registros de los segmentos de un {@link WriteAheadLog} en el orden en que se
+ * escribieron. La lectura de un segmento se detiene en el primer registro incompleto o con
+ * CRC inválido: es la cola que el proceso no alcanzó a sincronizar antes de caerse. Los
+ * segmentos siguientes, si los hay, los escribió una ejecución posterior y se leen igual.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class WalReader {
+
+    /**
+     * Recibe cada registro leído.
+     */
+    public interface IRecordVisitor {
+        /**
+         * Procesa un registro.
+         * @param tableId id de la mesa.
+         * @param type tipo del registro.
+         * @param payload carga útil; solo es válida durante la llamada.
+         */
+        void onRecord(int tableId, byte type, ByteBuffer payload);
+    }
+
+    /**
+     * Clase de utilidades, no se instancia.
+     */
+    private WalReader() {
+    }
+
+    /**
+     * Lee todos los registros válidos de un directorio.
+     * @param directory el directorio del registro.
+     * @param visitor receptor de los registros.
+     * @return cantidad de registros leídos.
+     * @throws IOException si no se puede leer un segmento.
+     */
+    public static long read(Path directory, IRecordVisitor visitor) throws IOException {
+        return read(WriteAheadLog.listSegments(directory), visitor);
+    }
+
+    /**
+     * Lee todos los registros válidos de una lista de segmentos.
+     * @param segments los segmentos, en orden.
+     * @param visitor receptor de los registros.
+     * @return cantidad de registros leídos.
+     * @throws IOException si no se puede leer un segmento.
+     */
+    public static long read(List<Path> segments, IRecordVisitor visitor) throws IOException {
+        long count = 0;
+        CRC32C crc = new CRC32C();
+        for (Path segment : segments) {
+            count += readSegment(segment, crc, visitor);
+        }
+        return count;
+    }
+
+    /**
+     * Lee los registros válidos de un segmento.
+     * @param segment el segmento.
+     * @param crc calculador de CRC reutilizado.
+     * @param visitor receptor de los registros.
+     * @return cantidad de registros leídos.
+     * @throws IOException si no se puede leer el segmento.
+     */
+    private static long readSegment(Path segment, CRC32C crc, IRecordVisitor visitor) throws IOException {
+        long count = 0;
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            data = ByteBuffer.allocate((int) channel.size());
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+                // leer el segmento completo
+            }
+        }
+        data.flip();
+        while (data.remaining() >= WriteAheadLog.HEADER_BYTES) {
+            int start = data.position();
+            int length = data.getInt(start);
+            if (length < WriteAheadLog.HEADER_BYTES - Integer.BYTES || length > WriteAheadLog.MAX_RECORD_BYTES
+                    || length > data.remaining() - Integer.BYTES) {
+                return count;
+            }
+            int end = start + Integer.BYTES + length;
+            int bodyStart = start + Integer.BYTES * 2;
+            crc.reset();
+            crc.update(data.duplicate().position(bodyStart).limit(end));
+            if ((int) crc.getValue() != data.getInt(start + Integer.BYTES)) {
+                return count;
+            }
+            int tableId = data.getInt(bodyStart);
+            byte type = data.get(bodyStart + Integer.BYTES);
+            ByteBuffer payload = data.duplicate().position(bodyStart + Integer.BYTES + 1).limit(end).slice();
+            visitor.onRecord(tableId, type, payload);
+            count++;
+            data.position(end);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,559 @@
+package univalle.tedesoft.uno.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Registro de escritura anticipada compartido por todas las mesas de un proceso.
+ * Las mesas agregan registros sin esperar al disco: {@link #append} solo copia los bytes a
+ * un buffer en memoria. Un hilo propio escribe de una vez todo lo acumulado y hace un único
+ * {@link FileChannel#force} por lote (commit agrupado): mientras el disco sincroniza un lote,
+ * el siguiente se llena con los registros de todas las mesas. Quien necesite durabilidad
+ * estricta puede esperar su posición con {@link #awaitDurable}, o sin bloquear, dejar una
+ * acción que el hilo de escritura ejecuta cuando la posición llega al disco
+ * ({@link #whenDurable}); así el anfitrión retiene sus respuestas sin ocupar un hilo.
+ * <p>
+ * Cada registro es: longitud del resto (i32), CRC32C del resto (i32), id de mesa (i32),
+ * tipo (u8) y carga útil. El registro se reparte en segmentos {@code wal-NNNNNN.log}; un
+ * segmento se borra cuando todas las mesas vivas escribieron una instantánea
+ * ({@link #CHECKPOINT}) después de él.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class WriteAheadLog implements AutoCloseable {
+    /** Registro con la instantánea completa de una partida. */
+    public static final byte CHECKPOINT = 1;
+    /** Registro con los cambios de un comando de una mesa. */
+    public static final byte COMMAND = 2;
+    /** Registro de una mesa que se retiró; ya no hay que recuperarla. */
+    public static final byte END = 3;
+
+    /** Bytes de la cabecera de cada registro: longitud, CRC, mesa y tipo. */
+    static final int HEADER_BYTES = Integer.BYTES * 3 + 1;
+    /** Tamaño máximo de un registro, para detectar longitudes corruptas. */
+    static final int MAX_RECORD_BYTES = 1 << 20;
+    /** Tamaño por defecto de un segmento antes de pasar al siguiente. */
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    /** Prefijo de los archivos de segmento. */
+    static final String SEGMENT_PREFIX = "wal-";
+    /** Sufijo de los archivos de segmento. */
+    static final String SEGMENT_SUFFIX = ".log";
+
+    /** Directorio de los segmentos. */
+    private final Path directory;
+    /** Tamaño a partir del cual se pasa al siguiente segmento. */
+    private final long segmentBytes;
+    /** Protege los buffers, las posiciones y el registro de instantáneas. */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Avisa al hilo de escritura que hay registros. */
+    private final Condition dataAvailable = this.lock.newCondition();
+    /** Avisa a quienes esperan que un lote llegó al disco. */
+    private final Condition durableAdvanced = this.lock.newCondition();
+    /** Registros agregados y aún no escritos. */
+    private ByteBuffer pending = ByteBuffer.allocateDirect(1 << 16);
+    /** Buffer que escribe el hilo de escritura mientras se llena el otro. */
+    private ByteBuffer writing = ByteBuffer.allocateDirect(1 << 16);
+    /** Calcula los CRC; solo se usa con el cerrojo tomado. */
+    private final CRC32C crc = new CRC32C();
+    /** Bytes agregados desde que se abrió el registro. */
+    private long appendedBytes;
+    /** Bytes que ya llegaron al disco. */
+    private long durableBytes;
+    /** Posición de la última instantánea de cada mesa viva. */
+    private final Map<Integer, Long> checkpoints = new HashMap<>();
+    /** Segmentos cerrados de este proceso, con la posición en la que terminan. */
+    private final ArrayDeque<long[]> closedSegments = new ArrayDeque<>();
+    /** Segmentos de una ejecución anterior, que se conservan hasta {@link #completeRecovery()}. */
+    private final List<Path> previousSegments;
+    /** Número del segmento actual. */
+    private long segment;
+    /** Canal del segmento actual. */
+    private FileChannel channel;
+    /** Hilo que escribe y sincroniza los lotes. */
+    private final Thread writer;
+    /** true cuando se pidió cerrar el registro. */
+    private boolean closing;
+    /** Error de escritura, si ocurrió; el registro deja de aceptar datos. */
+    private IOException failure;
+    /** Acciones que esperan a que su posición llegue al disco, en orden de llegada. */
+    private final ArrayDeque<DurableAction> durableActions = new ArrayDeque<>();
+    /** Acciones que el hilo de escritura sacó de la cola y está ejecutando. */
+    private final ArrayList<DurableAction> runningActions = new ArrayList<>();
+    /** true mientras el hilo de escritura ejecuta acciones fuera del cerrojo. */
+    private boolean runningDurableActions;
+
+    /** Registros agregados. */
+    private long records;
+    /** Lotes sincronizados. */
+    private long batches;
+    /** Tiempo total dentro de {@link FileChannel#force}, en nanosegundos. */
+    private long forceNanos;
+    /** Mayor tiempo de un {@link FileChannel#force}, en nanosegundos. */
+    private long maxForceNanos;
+
+    /**
+     * Abre el registro en un directorio con segmentos del tamaño por defecto.
+     * @param directory el directorio; se crea si no existe.
+     * @throws IOException si no se puede crear el segmento.
+     */
+    public WriteAheadLog(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Abre el registro en un directorio. Los segmentos existentes se conservan para la
+     * recuperación y los registros nuevos van a un segmento nuevo.
+     * @param directory el directorio; se crea si no existe.
+     * @param segmentBytes tamaño a partir del cual se pasa al siguiente segmento.
+     * @throws IOException si no se puede crear el segmento.
+     */
+    public WriteAheadLog(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        this.previousSegments = listSegments(directory);
+        this.segment = this.previousSegments.isEmpty() ? 1
+                : segmentNumber(this.previousSegments.get(this.previousSegments.size() - 1)) + 1;
+        this.channel = this.openSegment(this.segment);
+        this.writer = new Thread(this::writeLoop, "WriteAheadLog");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Agrega un registro. No espera al disco; el registro es durable cuando
+     * {@link #getDurablePosition()} alcanza la posición devuelta.
+     * @param tableId id de la mesa.
+     * @param type tipo del registro.
+     * @param payload carga útil, entre su posición y su límite; no se modifica.
+     * @return la posición del registro en el registro, para {@link #awaitDurable}.
+     * @throws UncheckedIOException si una escritura anterior falló.
+     */
+    public long append(int tableId, byte type, ByteBuffer payload) {
+        int length = payload.remaining();
+        if (length + HEADER_BYTES > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Registro demasiado grande: " + length + " bytes");
+        }
+        this.lock.lock();
+        try {
+            if (this.failure != null) {
+                throw new UncheckedIOException("El registro falló", this.failure);
+            }
+            if (this.closing) {
+                throw new IllegalStateException("El registro está cerrado");
+            }
+            this.ensureCapacity(HEADER_BYTES + length);
+            int start = this.pending.position();
+            this.pending.putInt(0).putInt(0).putInt(tableId).put(type).put(payload.duplicate());
+            int end = this.pending.position();
+            int bodyStart = start + Integer.BYTES * 2;
+            this.crc.reset();
+            this.crc.update(this.pending.duplicate().position(bodyStart).limit(end));
+            this.pending.putInt(start, end - start - Integer.BYTES);
+            this.pending.putInt(start + Integer.BYTES, (int) this.crc.getValue());
+            long position = this.appendedBytes;
+            this.appendedBytes += end - start;
+            this.records++;
+            if (type == CHECKPOINT) {
+                this.checkpoints.put(tableId, position);
+            } else if (type == END) {
+                this.checkpoints.remove(tableId);
+            }
+            if (start == 0) {
+                this.dataAvailable.signal();
+            }
+            return this.appendedBytes;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Agranda el buffer pendiente si el registro no cabe.
+     * @param bytes bytes que se van a escribir.
+     */
+    private void ensureCapacity(int bytes) {
+        if (this.pending.remaining() >= bytes) {
+            return;
+        }
+        int capacity = this.pending.capacity();
+        while (capacity - this.pending.position() < bytes) {
+            capacity *= 2;
+        }
+        ByteBuffer larger = ByteBuffer.allocateDirect(capacity);
+        this.pending.flip();
+        larger.put(this.pending);
+        this.pending = larger;
+    }
+
+    /**
+     * Espera a que un registro llegue al disco.
+     * @param position posición devuelta por {@link #append}.
+     * @param timeoutMillis tiempo máximo de espera.
+     * @return true si el registro es durable.
+     * @throws InterruptedException si se interrumpe la espera.
+     * @throws IOException si la escritura falló.
+     */
+    public boolean awaitDurable(long position, long timeoutMillis) throws InterruptedException, IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.lock.lock();
+        try {
+            while (this.durableBytes < position) {
+                if (this.failure != null) {
+                    throw this.failure;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || this.closing && !this.writer.isAlive()) {
+                    return false;
+                }
+                this.durableAdvanced.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta una acción cuando el registro sea durable hasta una posición. Las acciones se
+     * ejecutan en el orden en que se dejaron: una acción no adelanta a otra anterior aunque
+     * su posición ya esté en el disco. Si la posición ya es durable y no hay acciones
+     * pendientes, se ejecuta enseguida en el hilo que llama; si no, la ejecuta el hilo de
+     * escritura tras sincronizar el lote, por lo que debe ser breve, no bloquear y no lanzar
+     * excepciones. Si una escritura falla, las acciones pendientes se descartan.
+     * @param position posición devuelta por {@link #append}.
+     * @param action la acción.
+     * @throws UncheckedIOException si una escritura anterior falló.
+     */
+    public void whenDurable(long position, Runnable action) {
+        this.lock.lock();
+        try {
+            if (this.failure != null) {
+                throw new UncheckedIOException("El registro falló", this.failure);
+            }
+            if (this.durableBytes < position || this.runningDurableActions || !this.durableActions.isEmpty()) {
+                this.durableActions.add(new DurableAction(position, action));
+                return;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        action.run();
+    }
+
+    /**
+     * Saca de la cola las acciones cuya posición ya es durable. Se llama con el cerrojo tomado.
+     * @return true si hay acciones para ejecutar.
+     */
+    private boolean takeDurableActions() {
+        while (!this.durableActions.isEmpty() && this.durableActions.peekFirst().position <= this.durableBytes) {
+            this.runningActions.add(this.durableActions.pollFirst());
+        }
+        this.runningDurableActions = !this.runningActions.isEmpty();
+        return this.runningDurableActions;
+    }
+
+    /**
+     * Ejecuta, fuera del cerrojo, las acciones que ya se pueden ejecutar, y repite mientras
+     * se dejen otras con posiciones durables. Solo lo llama el hilo de escritura.
+     */
+    private void runDurableActions() {
+        while (true) {
+            for (int i = 0; i < this.runningActions.size(); i++) {
+                this.runningActions.get(i).action.run();
+            }
+            this.runningActions.clear();
+            this.lock.lock();
+            try {
+                if (!this.takeDurableActions()) {
+                    return;
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Bucle del hilo de escritura: toma el lote acumulado, lo escribe y lo sincroniza.
+     */
+    private void writeLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long target;
+            this.lock.lock();
+            try {
+                while (this.pending.position() == 0 && !this.closing) {
+                    this.dataAvailable.awaitUninterruptibly();
+                }
+                if (this.pending.position() == 0) {
+                    return;
+                }
+                batch = this.pending;
+                this.pending = this.writing;
+                this.writing = batch;
+                target = this.appendedBytes;
+            } finally {
+                this.lock.unlock();
+            }
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    this.channel.write(batch);
+                }
+                batch.clear();
+                long start = System.nanoTime();
+                this.channel.force(false);
+                long elapsed = System.nanoTime() - start;
+                this.afterBatch(target, elapsed);
+            } catch (IOException e) {
+                this.lock.lock();
+                try {
+                    this.failure = e;
+                    this.durableActions.clear();
+                    this.durableAdvanced.signalAll();
+                } finally {
+                    this.lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publica la durabilidad de un lote, pasa al siguiente segmento si el actual se llenó
+     * y borra los segmentos que ya no hacen falta.
+     * @param target posición hasta la que llegó el lote.
+     * @param elapsed duración del force, en nanosegundos.
+     * @throws IOException si no se puede crear el segmento nuevo.
+     */
+    private void afterBatch(long target, long elapsed) throws IOException {
+        boolean rotate = this.channel.size() >= this.segmentBytes;
+        if (rotate) {
+            this.channel.close();
+        }
+        List<Path> obsolete = new ArrayList<>();
+        boolean durableActionsReady;
+        this.lock.lock();
+        try {
+            this.durableBytes = target;
+            this.batches++;
+            this.forceNanos += elapsed;
+            this.maxForceNanos = Math.max(this.maxForceNanos, elapsed);
+            this.durableAdvanced.signalAll();
+            durableActionsReady = this.takeDurableActions();
+            if (rotate) {
+                this.closedSegments.add(new long[]{this.segment, target});
+                this.segment++;
+            }
+            long oldestNeeded = this.appendedBytes;
+            for (long position : this.checkpoints.values()) {
+                oldestNeeded = Math.min(oldestNeeded, position);
+            }
+            while (!this.closedSegments.isEmpty() && this.closedSegments.peekFirst()[1] <= oldestNeeded) {
+                obsolete.add(this.segmentPath(this.closedSegments.pollFirst()[0]));
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        if (durableActionsReady) {
+            this.runDurableActions();
+        }
+        if (rotate) {
+            this.channel = this.openSegment(this.segment);
+        }
+        for (Path path : obsolete) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Indica que las mesas recuperadas ya escribieron su instantánea en este registro
+     * y que se pueden borrar los segmentos de la ejecución anterior.
+     * @throws IOException si no se puede borrar un segmento.
+     */
+    public void completeRecovery() throws IOException {
+        for (Path path : this.previousSegments) {
+            Files.deleteIfExists(path);
+        }
+        this.previousSegments.clear();
+    }
+
+    /**
+     * Devuelve los segmentos de la ejecución anterior, los que hay que recuperar.
+     * @return los segmentos en orden.
+     */
+    public List<Path> getPreviousSegments() {
+        return List.copyOf(this.previousSegments);
+    }
+
+    /**
+     * Espera a que todo lo agregado llegue al disco y cierra el registro.
+     * @throws IOException si la escritura falló.
+     */
+    @Override
+    public void close() throws IOException {
+        this.lock.lock();
+        try {
+            this.closing = true;
+            this.dataAvailable.signal();
+        } finally {
+            this.lock.unlock();
+        }
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.channel.close();
+        if (this.failure != null) {
+            throw this.failure;
+        }
+    }
+
+    /**
+     * Devuelve la posición hasta la que el registro es durable.
+     * @return bytes sincronizados con el disco.
+     */
+    public long getDurablePosition() {
+        this.lock.lock();
+        try {
+            return this.durableBytes;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de registros agregados.
+     * @return registros.
+     */
+    public long getRecords() {
+        this.lock.lock();
+        try {
+            return this.records;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de lotes sincronizados, es decir, de llamadas a force.
+     * @return lotes.
+     */
+    public long getBatches() {
+        this.lock.lock();
+        try {
+            return this.batches;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Resumen legible de las métricas.
+     * @return texto con registros, lotes y tiempos de sincronización.
+     */
+    @Override
+    public String toString() {
+        this.lock.lock();
+        try {
+            return String.format("%d registros, %d bytes en %d lotes (%.1f registros por lote), "
+                            + "force medio=%d us max=%d us, segmento %d",
+                    this.records, this.appendedBytes, this.batches,
+                    this.batches == 0 ? 0.0 : (double) this.records / this.batches,
+                    this.batches == 0 ? 0 : this.forceNanos / this.batches / 1000, this.maxForceNanos / 1000,
+                    this.segment);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Abre un segmento nuevo para escribir.
+     * @param number número del segmento.
+     * @return el canal.
+     * @throws IOException si no se puede crear.
+     */
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(this.segmentPath(number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Devuelve la ruta de un segmento.
+     * @param number número del segmento.
+     * @return la ruta.
+     */
+    private Path segmentPath(long number) {
+        return this.directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Lista los segmentos de un directorio en orden.
+     * @param directory el directorio.
+     * @return los segmentos, del más antiguo al más nuevo.
+     * @throws IOException si no se puede leer el directorio.
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .toList());
+            segments.sort((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+            return segments;
+        }
+    }
+
+    /**
+     * Extrae el número de un segmento de su nombre.
+     * @param path la ruta del segmento.
+     * @return el número.
+     */
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Acción que espera a que una posición del registro llegue al disco.
+     */
+    private static final class DurableAction {
+        /** Posición que debe ser durable. */
+        final long position;
+        /** Acción a ejecutar. */
+        final Runnable action;
+
+        /**
+         * Constructor de la acción pendiente.
+         * @param position posición que debe ser durable.
+         * @param action acción a ejecutar.
+         */
+        DurableAction(long position, Runnable action) {
+            this.position = position;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package univalle.tedesoft.uno.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Grupo de buffers directos del mismo tamaño para codificar mensajes sin reservar memoria
+ * en cada envío. Los buffers directos son caros de crear y los libera el recolector
+ * tarde, así que se reutilizan. Es seguro usarlo desde varios hilos; si el grupo está
+ * vacío se crea un buffer nuevo, y al devolverlo se conserva solo si no se superó el
+ * máximo retenido.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class BufferPool {
+    /** Tamaño de cada buffer. */
+    private final int bufferSize;
+    /** Buffers retenidos como máximo. */
+    private final int maxRetained;
+    /** Buffers libres. */
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    /** Cantidad de buffers libres. */
+    private final AtomicInteger freeCount = new AtomicInteger();
+    /** Buffers creados desde el inicio. */
+    private final LongAdder allocations = new LongAdder();
+
+    /**
+     * Constructor del grupo.
+     * @param bufferSize tamaño de cada buffer en bytes.
+     * @param maxRetained cantidad máxima de buffers libres que se conservan.
+     */
+    public BufferPool(int bufferSize, int maxRetained) {
+        this.bufferSize = bufferSize;
+        this.maxRetained = maxRetained;
+    }
+
+    /**
+     * Toma un buffer vacío del grupo, o crea uno si no hay libres.
+     * @return un buffer listo para escribir.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = this.free.poll();
+        if (buffer == null) {
+            this.allocations.increment();
+            return ByteBuffer.allocateDirect(this.bufferSize);
+        }
+        this.freeCount.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Devuelve un buffer al grupo. No debe usarse después de devolverlo.
+     * @param buffer un buffer tomado de este grupo.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() != this.bufferSize || !buffer.isDirect()) {
+            throw new IllegalArgumentException("El buffer no pertenece a este grupo");
+        }
+        if (this.freeCount.incrementAndGet() <= this.maxRetained) {
+            this.free.add(buffer);
+        } else {
+            this.freeCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de buffers creados desde el inicio.
+     * @return buffers creados.
+     */
+    public long getAllocations() {
+        return this.allocations.sum();
+    }
+
+    /**
+     * Devuelve el tamaño de cada buffer.
+     * @return tamaño en bytes.
+     */
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+}
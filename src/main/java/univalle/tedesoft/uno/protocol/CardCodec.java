@@ -0,0 +1,104 @@
+package univalle.tedesoft.uno.protocol;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Cards.DrawTwoCard;
+import univalle.tedesoft.uno.model.Cards.NumberCard;
+import univalle.tedesoft.uno.model.Cards.ReverseCard;
+import univalle.tedesoft.uno.model.Cards.SkipCard;
+import univalle.tedesoft.uno.model.Cards.WildCard;
+import univalle.tedesoft.uno.model.Cards.WildDrawFourCard;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+
+/**
+ * Codificación de cartas y colores en un byte, a partir de los enums {@link Color} y {@link Value}.
+ * Una carta se codifica como su índice de tipo (color × cantidad de valores + valor),
+ * el mismo que usan el modelo de inferencia y las características de la política.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class CardCodec {
+    /** Código de "sin carta". */
+    public static final int NO_CARD = 0xFF;
+    /** Código de "sin color". */
+    public static final int NO_COLOR = 0xFF;
+    /** Colores por ordinal. */
+    private static final Color[] COLORS = Color.values();
+    /** Valores por ordinal. */
+    private static final Value[] VALUES = Value.values();
+
+    /**
+     * Clase de utilidades, no se instancia.
+     */
+    private CardCodec() {
+    }
+
+    /**
+     * Codifica una carta.
+     * @param card la carta, o null.
+     * @return su índice de tipo, o {@link #NO_CARD}.
+     */
+    public static int encode(Card card) {
+        return card == null ? NO_CARD : OpponentHandModel.typeIndex(card);
+    }
+
+    /**
+     * Decodifica una carta creando una instancia de la subclase que corresponde a su valor.
+     * @param code el índice de tipo.
+     * @return la carta, o null si el código es {@link #NO_CARD}.
+     * @throws IllegalArgumentException si el código no corresponde a ninguna carta del mazo.
+     */
+    public static Card decode(int code) {
+        if (code == NO_CARD) {
+            return null;
+        }
+        if (!isValid(code)) {
+            throw new IllegalArgumentException("Código de carta inválido: " + code);
+        }
+        Color color = COLORS[code / OpponentHandModel.VALUE_COUNT];
+        Value value = VALUES[code % OpponentHandModel.VALUE_COUNT];
+        return switch (value) {
+            case SKIP -> new SkipCard(color);
+            case REVERSE -> new ReverseCard(color);
+            case DRAW_TWO -> new DrawTwoCard(color);
+            case WILD -> new WildCard();
+            case WILD_DRAW_FOUR -> new WildDrawFourCard();
+            default -> new NumberCard(color, value);
+        };
+    }
+
+    /**
+     * Indica si un código corresponde a una carta que existe en el mazo: los comodines
+     * son siempre de color comodín y las demás cartas nunca lo son.
+     * @param code el código.
+     * @return true si es una carta válida.
+     */
+    public static boolean isValid(int code) {
+        if (code < 0 || code >= OpponentHandModel.TYPE_COUNT) {
+            return false;
+        }
+        boolean wildColor = COLORS[code / OpponentHandModel.VALUE_COUNT] == Color.WILD;
+        Value value = VALUES[code % OpponentHandModel.VALUE_COUNT];
+        return wildColor == (value == Value.WILD || value == Value.WILD_DRAW_FOUR);
+    }
+
+    /**
+     * Codifica un color.
+     * @param color el color, o null.
+     * @return su ordinal, o {@link #NO_COLOR}.
+     */
+    public static int encodeColor(Color color) {
+        return color == null ? NO_COLOR : color.ordinal();
+    }
+
+    /**
+     * Decodifica un color.
+     * @param code el ordinal.
+     * @return el color, o null si el código no corresponde a ninguno.
+     */
+    public static Color decodeColor(int code) {
+        return code >= 0 && code < COLORS.length ? COLORS[code] : null;
+    }
+}
@@ -0,0 +1,300 @@
+package univalle.tedesoft.uno.protocol;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codificador de cambios de estado de una mesa. En lugar de enviar el estado completo
+ * en cada turno, el servidor envía solo lo que cambió respecto del último {@link TableView}
+ * que recibió el cliente: un byte de máscara seguido de las secciones presentes, en el
+ * orden de sus bits. Una jugada típica (carta superior, color, turno, un tamaño de mano,
+ * una carta menos en la mano propia y un evento) ocupa unos 14 bytes.
+ * <pre>
+ * instantánea (máscara 0): asiento, asientos, turno, sentido, carta superior, color,
+ *                          estado, ganador, tamaño por asiento, n, n cartas, eventos
+ * TOP      carta superior
+ * COLOR    color activo
+ * TURN     asiento en turno, sentido (con signo)
+ * SIZES    n, n pares (asiento, tamaño)
+ * REMOVED  n, n posiciones de la mano anterior, crecientes
+ * ADDED    n, n cartas agregadas al final de la mano
+ * RESULT   estado (bit 0 = partida terminada), asiento ganador
+ * EVENTS   n, n ternas (tipo, asiento, argumento)
+ * </pre>
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class DeltaCodec {
+    /** Cambió la carta superior. */
+    public static final int TOP = 0x01;
+    /** Cambió el color activo. */
+    public static final int COLOR = 0x02;
+    /** Cambió el turno o el sentido. */
+    public static final int TURN = 0x04;
+    /** Cambió el tamaño de alguna mano. */
+    public static final int SIZES = 0x08;
+    /** Salieron cartas de la mano propia. */
+    public static final int REMOVED = 0x10;
+    /** Entraron cartas a la mano propia. */
+    public static final int ADDED = 0x20;
+    /** Cambió el resultado de la partida. */
+    public static final int RESULT = 0x40;
+    /** El mensaje trae eventos. */
+    public static final int EVENTS = 0x80;
+    /** Tamaño máximo de un mensaje codificado. */
+    public static final int MAX_MESSAGE_BYTES = 2 + 9 + TableView.MAX_SEATS * 2 + 2 * (1 + TableView.MAX_HAND)
+            + 2 + 1 + TableView.MAX_EVENTS * 3;
+
+    /**
+     * Clase de utilidades, no se instancia.
+     */
+    private DeltaCodec() {
+    }
+
+    /**
+     * Codifica el cambio de una vista a otra. Si la vista anterior está vacía o es de otro
+     * asiento o mesa, escribe una instantánea completa.
+     * @param previous lo último que recibió el cliente, o null.
+     * @param current el estado actual, con los eventos a enviar.
+     * @param out buffer de salida con al menos {@link #MAX_MESSAGE_BYTES} libres.
+     * @return bytes escritos; 0 si no hay nada que enviar.
+     */
+    public static int encode(TableView previous, TableView current, ByteBuffer out) {
+        int start = out.position();
+        if (previous == null || previous.seatCount == 0
+                || previous.seat != current.seat || previous.seatCount != current.seatCount) {
+            encodeSnapshot(current, out);
+            return out.position() - start;
+        }
+        int mask = 0;
+        out.put((byte) 0);
+        if (previous.topCard != current.topCard) {
+            mask |= TOP;
+            out.put((byte) current.topCard);
+        }
+        if (previous.color != current.color) {
+            mask |= COLOR;
+            out.put((byte) current.color);
+        }
+        if (previous.currentSeat != current.currentSeat || previous.direction != current.direction) {
+            mask |= TURN;
+            out.put((byte) current.currentSeat).put((byte) current.direction);
+        }
+        int changedSizes = 0;
+        for (int seat = 0; seat < current.seatCount; seat++) {
+            if (previous.handSizes[seat] != current.handSizes[seat]) {
+                changedSizes++;
+            }
+        }
+        if (changedSizes > 0) {
+            mask |= SIZES;
+            out.put((byte) changedSizes);
+            for (int seat = 0; seat < current.seatCount; seat++) {
+                if (previous.handSizes[seat] != current.handSizes[seat]) {
+                    out.put((byte) seat).put((byte) current.handSizes[seat]);
+                }
+            }
+        }
+        mask |= encodeHandDiff(previous, current, out);
+        if (previous.gameOver != current.gameOver || previous.winnerSeat != current.winnerSeat) {
+            mask |= RESULT;
+            out.put((byte) (current.gameOver ? 1 : 0)).put((byte) current.winnerSeat);
+        }
+        if (current.eventCount > 0) {
+            mask |= EVENTS;
+            encodeEvents(current, out);
+        }
+        if (mask == 0) {
+            out.position(start);
+            return 0;
+        }
+        out.put(start, (byte) mask);
+        return out.position() - start;
+    }
+
+    /**
+     * Codifica el estado completo de una vista.
+     * @param view la vista.
+     * @param out buffer de salida.
+     */
+    public static void encodeSnapshot(TableView view, ByteBuffer out) {
+        out.put((byte) 0)
+                .put((byte) view.seat)
+                .put((byte) view.seatCount)
+                .put((byte) view.currentSeat)
+                .put((byte) view.direction)
+                .put((byte) view.topCard)
+                .put((byte) view.color)
+                .put((byte) (view.gameOver ? 1 : 0))
+                .put((byte) view.winnerSeat);
+        for (int seat = 0; seat < view.seatCount; seat++) {
+            out.put((byte) view.handSizes[seat]);
+        }
+        out.put((byte) view.handSize).put(view.hand, 0, view.handSize);
+        encodeEvents(view, out);
+    }
+
+    /**
+     * Codifica la diferencia entre las manos propias como cartas quitadas y cartas agregadas
+     * al final. Se recorre la mano anterior emparejando en orden con la actual; lo que no se
+     * empareja se quitó, y lo que sobra de la actual se agregó.
+     * @param previous vista anterior.
+     * @param current vista actual.
+     * @param out buffer de salida.
+     * @return los bits de máscara escritos.
+     */
+    private static int encodeHandDiff(TableView previous, TableView current, ByteBuffer out) {
+        int matched = 0;
+        int removed = 0;
+        for (int i = 0; i < previous.handSize; i++) {
+            if (matched < current.handSize && previous.hand[i] == current.hand[matched]) {
+                matched++;
+            } else {
+                removed++;
+            }
+        }
+        int mask = 0;
+        if (removed > 0) {
+            mask |= REMOVED;
+            out.put((byte) removed);
+            int j = 0;
+            for (int i = 0; i < previous.handSize; i++) {
+                if (j < current.handSize && previous.hand[i] == current.hand[j]) {
+                    j++;
+                } else {
+                    out.put((byte) i);
+                }
+            }
+        }
+        if (matched < current.handSize) {
+            mask |= ADDED;
+            out.put((byte) (current.handSize - matched)).put(current.hand, matched, current.handSize - matched);
+        }
+        return mask;
+    }
+
+    /**
+     * Codifica los eventos de una vista.
+     * @param view la vista.
+     * @param out buffer de salida.
+     */
+    private static void encodeEvents(TableView view, ByteBuffer out) {
+        out.put((byte) view.eventCount).put(view.events, 0, view.eventCount * 3);
+    }
+
+    /**
+     * Aplica un mensaje a la vista del cliente. Los eventos de la vista se reemplazan por
+     * los del mensaje.
+     * @param in buffer posicionado al inicio del mensaje.
+     * @param view la vista a actualizar.
+     * @throws IllegalArgumentException si el mensaje no es coherente con la vista.
+     */
+    public static void decode(ByteBuffer in, TableView view) {
+        view.eventCount = 0;
+        int mask = in.get() & 0xFF;
+        if (mask == 0) {
+            decodeSnapshot(in, view);
+            return;
+        }
+        if (view.seatCount == 0) {
+            throw new IllegalArgumentException("Cambio recibido antes de la instantánea");
+        }
+        if ((mask & TOP) != 0) {
+            view.topCard = in.get() & 0xFF;
+        }
+        if ((mask & COLOR) != 0) {
+            view.color = in.get() & 0xFF;
+        }
+        if ((mask & TURN) != 0) {
+            view.currentSeat = in.get() & 0xFF;
+            view.direction = in.get();
+        }
+        if ((mask & SIZES) != 0) {
+            int count = in.get() & 0xFF;
+            for (int i = 0; i < count; i++) {
+                int seat = in.get() & 0xFF;
+                if (seat >= view.seatCount) {
+                    throw new IllegalArgumentException("Asiento fuera de la mesa: " + seat);
+                }
+                view.handSizes[seat] = in.get() & 0xFF;
+            }
+        }
+        if ((mask & REMOVED) != 0) {
+            decodeRemoved(in, view);
+        }
+        if ((mask & ADDED) != 0) {
+            int count = in.get() & 0xFF;
+            if (view.handSize + count > TableView.MAX_HAND) {
+                throw new IllegalArgumentException("La mano excede " + TableView.MAX_HAND + " cartas");
+            }
+            in.get(view.hand, view.handSize, count);
+            view.handSize += count;
+        }
+        if ((mask & RESULT) != 0) {
+            view.gameOver = (in.get() & 1) != 0;
+            view.winnerSeat = in.get() & 0xFF;
+        }
+        if ((mask & EVENTS) != 0) {
+            decodeEvents(in, view);
+        }
+    }
+
+    /**
+     * Lee una instantánea completa.
+     * @param in buffer posicionado después de la máscara.
+     * @param view la vista a reemplazar.
+     */
+    private static void decodeSnapshot(ByteBuffer in, TableView view) {
+        int seat = in.get() & 0xFF;
+        int seatCount = in.get() & 0xFF;
+        view.reset(seat, seatCount);
+        view.currentSeat = in.get() & 0xFF;
+        view.direction = in.get();
+        view.topCard = in.get() & 0xFF;
+        view.color = in.get() & 0xFF;
+        view.gameOver = (in.get() & 1) != 0;
+        view.winnerSeat = in.get() & 0xFF;
+        for (int s = 0; s < seatCount; s++) {
+            view.handSizes[s] = in.get() & 0xFF;
+        }
+        view.handSize = in.get() & 0xFF;
+        in.get(view.hand, 0, view.handSize);
+        decodeEvents(in, view);
+    }
+
+    /**
+     * Quita de la mano las posiciones indicadas, compactándola en una pasada.
+     * @param in buffer posicionado en la sección.
+     * @param view la vista.
+     */
+    private static void decodeRemoved(ByteBuffer in, TableView view) {
+        int count = in.get() & 0xFF;
+        int write = 0;
+        int read = 0;
+        for (int i = 0; i < count; i++) {
+            int index = in.get() & 0xFF;
+            if (index < read || index >= view.handSize) {
+                throw new IllegalArgumentException("Posición de carta inválida: " + index);
+            }
+            System.arraycopy(view.hand, read, view.hand, write, index - read);
+            write += index - read;
+            read = index + 1;
+        }
+        System.arraycopy(view.hand, read, view.hand, write, view.handSize - read);
+        view.handSize = write + view.handSize - read;
+    }
+
+    /**
+     * Lee los eventos de un mensaje.
+     * @param in buffer posicionado en la sección.
+     * @param view la vista.
+     */
+    private static void decodeEvents(ByteBuffer in, TableView view) {
+        int count = in.get() & 0xFF;
+        if (count > TableView.MAX_EVENTS) {
+            throw new IllegalArgumentException("Demasiados eventos: " + count);
+        }
+        in.get(view.events, 0, count * 3);
+        view.eventCount = count;
+    }
+}
@@ -0,0 +1,360 @@
+package univalle.tedesoft.uno.protocol;
+
+import java.util.Arrays;
+
+/**
+ * Estado de una mesa visto desde un asiento, en la forma compacta que viaja por la red:
+ * cartas y colores como bytes de {@link CardCodec}, tamaños de mano por asiento y la mano
+ * propia. Además guarda los eventos ocurridos desde el último mensaje, que no forman
+ * parte del estado y se vacían en cada codificación o decodificación.
+ * El servidor lo llena a partir del GameState; el cliente lo actualiza con {@link DeltaCodec}.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class TableView {
+    /** Asientos máximos de una mesa. */
+    public static final int MAX_SEATS = 10;
+    /** Cartas máximas de una mano representable. */
+    public static final int MAX_HAND = 255;
+    /** Eventos máximos por mensaje. */
+    public static final int MAX_EVENTS = 64;
+    /** Código de "sin asiento". */
+    public static final int NO_SEAT = 0xFF;
+
+    /** Se jugó una carta; el argumento es la carta. */
+    public static final int EVENT_PLAYED = 1;
+    /** Se robaron cartas; el argumento es la cantidad. */
+    public static final int EVENT_DREW = 2;
+    /** Se eligió color tras un comodín; el argumento es el color. */
+    public static final int EVENT_COLOR_CHOSEN = 3;
+    /** Se cantó UNO; el argumento no se usa. */
+    public static final int EVENT_UNO = 4;
+    /** Se castigó a un jugador por no cantar UNO; el argumento es la cantidad robada. */
+    public static final int EVENT_PENALIZED = 5;
+
+    /** Asiento desde el que se ve la mesa. */
+    int seat;
+    /** Cantidad de asientos, 0 si la vista está vacía. */
+    int seatCount;
+    /** Asiento en turno. */
+    int currentSeat;
+    /** Sentido de la ronda: 1 o -1. */
+    int direction = 1;
+    /** Carta superior del descarte. */
+    int topCard = CardCodec.NO_CARD;
+    /** Color activo. */
+    int color = CardCodec.NO_COLOR;
+    /** true si la partida terminó. */
+    boolean gameOver;
+    /** Asiento ganador, o {@link #NO_SEAT} si no hay. */
+    int winnerSeat = NO_SEAT;
+    /** Cartas en la mano de cada asiento. */
+    final int[] handSizes = new int[MAX_SEATS];
+    /** Mano propia, en el orden del servidor. */
+    final byte[] hand = new byte[MAX_HAND];
+    /** Cartas en la mano propia. */
+    int handSize;
+    /** Eventos como ternas (tipo, asiento, argumento). */
+    final byte[] events = new byte[MAX_EVENTS * 3];
+    /** Cantidad de eventos. */
+    int eventCount;
+
+    /**
+     * Vacía la vista y la prepara para un asiento de una mesa.
+     * @param seat el asiento propio, o {@link #NO_SEAT} para un espectador.
+     * @param seatCount cantidad de asientos.
+     */
+    public void reset(int seat, int seatCount) {
+        if (seatCount < 0 || seatCount > MAX_SEATS || (seatCount > 0 && !isSeat(seat, seatCount))) {
+            throw new IllegalArgumentException("Asientos inválidos: " + seat + "/" + seatCount);
+        }
+        this.seat = seat;
+        this.seatCount = seatCount;
+        this.currentSeat = 0;
+        this.direction = 1;
+        this.topCard = CardCodec.NO_CARD;
+        this.color = CardCodec.NO_COLOR;
+        this.gameOver = false;
+        this.winnerSeat = NO_SEAT;
+        Arrays.fill(this.handSizes, 0);
+        this.handSize = 0;
+        this.eventCount = 0;
+    }
+
+    /**
+     * Cambia el asiento desde el que se ve la mesa sin tocar el resto del estado ni los eventos.
+     * @param seat el asiento propio, o {@link #NO_SEAT} para un espectador.
+     * @param seatCount cantidad de asientos.
+     */
+    public void setSeat(int seat, int seatCount) {
+        if (seatCount < 1 || seatCount > MAX_SEATS || !isSeat(seat, seatCount)) {
+            throw new IllegalArgumentException("Asientos inválidos: " + seat + "/" + seatCount);
+        }
+        this.seat = seat;
+        this.seatCount = seatCount;
+    }
+
+    /**
+     * Verifica que un asiento propio sea válido.
+     * @param seat el asiento.
+     * @param seatCount cantidad de asientos.
+     * @return true si está en la mesa o es el de espectador.
+     */
+    private static boolean isSeat(int seat, int seatCount) {
+        return seat == NO_SEAT || (seat >= 0 && seat < seatCount);
+    }
+
+    /**
+     * Copia el estado de otra vista, sin sus eventos.
+     * @param other la vista de origen.
+     */
+    public void copyFrom(TableView other) {
+        this.seat = other.seat;
+        this.seatCount = other.seatCount;
+        this.currentSeat = other.currentSeat;
+        this.direction = other.direction;
+        this.topCard = other.topCard;
+        this.color = other.color;
+        this.gameOver = other.gameOver;
+        this.winnerSeat = other.winnerSeat;
+        System.arraycopy(other.handSizes, 0, this.handSizes, 0, MAX_SEATS);
+        System.arraycopy(other.hand, 0, this.hand, 0, other.handSize);
+        this.handSize = other.handSize;
+        this.eventCount = 0;
+    }
+
+    /**
+     * Compara el estado con otra vista, sin tener en cuenta los eventos.
+     * @param other la otra vista.
+     * @return true si representan el mismo estado.
+     */
+    public boolean sameStateAs(TableView other) {
+        return this.seat == other.seat
+                && this.seatCount == other.seatCount
+                && this.currentSeat == other.currentSeat
+                && this.direction == other.direction
+                && this.topCard == other.topCard
+                && this.color == other.color
+                && this.gameOver == other.gameOver
+                && this.winnerSeat == other.winnerSeat
+                && Arrays.equals(this.handSizes, 0, this.seatCount, other.handSizes, 0, other.seatCount)
+                && Arrays.equals(this.hand, 0, this.handSize, other.hand, 0, other.handSize);
+    }
+
+    // --- Escritura, usada por el servidor ---
+
+    /**
+     * Establece el turno.
+     * @param currentSeat asiento en turno.
+     * @param direction sentido de la ronda, 1 o -1.
+     */
+    public void setTurn(int currentSeat, int direction) {
+        this.currentSeat = currentSeat;
+        this.direction = direction;
+    }
+
+    /**
+     * Establece la carta superior y el color activo.
+     * @param topCard código de la carta superior.
+     * @param color código del color activo.
+     */
+    public void setTop(int topCard, int color) {
+        this.topCard = topCard;
+        this.color = color;
+    }
+
+    /**
+     * Establece el resultado de la partida.
+     * @param gameOver true si terminó.
+     * @param winnerSeat asiento ganador, o {@link #NO_SEAT}.
+     */
+    public void setResult(boolean gameOver, int winnerSeat) {
+        this.gameOver = gameOver;
+        this.winnerSeat = winnerSeat;
+    }
+
+    /**
+     * Establece el tamaño de la mano de un asiento.
+     * @param seat el asiento.
+     * @param size cantidad de cartas, recortada a {@link #MAX_HAND}.
+     */
+    public void setHandSize(int seat, int size) {
+        this.handSizes[seat] = Math.min(size, MAX_HAND);
+    }
+
+    /**
+     * Vacía la mano propia.
+     */
+    public void clearHand() {
+        this.handSize = 0;
+    }
+
+    /**
+     * Agrega una carta al final de la mano propia, si cabe.
+     * @param card código de la carta.
+     */
+    public void addCard(int card) {
+        if (this.handSize < MAX_HAND) {
+            this.hand[this.handSize++] = (byte) card;
+        }
+    }
+
+    /**
+     * Registra un evento, si cabe.
+     * @param kind tipo de evento.
+     * @param seat asiento que lo produjo.
+     * @param argument argumento del evento.
+     */
+    public void addEvent(int kind, int seat, int argument) {
+        if (this.eventCount < MAX_EVENTS) {
+            int offset = this.eventCount++ * 3;
+            this.events[offset] = (byte) kind;
+            this.events[offset + 1] = (byte) seat;
+            this.events[offset + 2] = (byte) argument;
+        }
+    }
+
+    /**
+     * Reemplaza el argumento de un evento registrado.
+     * @param index posición del evento.
+     * @param argument el nuevo argumento.
+     */
+    public void setEventArgument(int index, int argument) {
+        this.events[index * 3 + 2] = (byte) argument;
+    }
+
+    /**
+     * Descarta los eventos registrados.
+     */
+    public void clearEvents() {
+        this.eventCount = 0;
+    }
+
+    // --- Lectura ---
+
+    /**
+     * Devuelve el asiento propio.
+     * @return el asiento.
+     */
+    public int getSeat() {
+        return this.seat;
+    }
+
+    /**
+     * Devuelve la cantidad de asientos.
+     * @return asientos, 0 si la vista está vacía.
+     */
+    public int getSeatCount() {
+        return this.seatCount;
+    }
+
+    /**
+     * Devuelve el asiento en turno.
+     * @return el asiento.
+     */
+    public int getCurrentSeat() {
+        return this.currentSeat;
+    }
+
+    /**
+     * Devuelve el sentido de la ronda.
+     * @return 1 o -1.
+     */
+    public int getDirection() {
+        return this.direction;
+    }
+
+    /**
+     * Devuelve el código de la carta superior.
+     * @return la carta.
+     */
+    public int getTopCard() {
+        return this.topCard;
+    }
+
+    /**
+     * Devuelve el código del color activo.
+     * @return el color.
+     */
+    public int getColor() {
+        return this.color;
+    }
+
+    /**
+     * Indica si la partida terminó.
+     * @return true si terminó.
+     */
+    public boolean isGameOver() {
+        return this.gameOver;
+    }
+
+    /**
+     * Devuelve el asiento ganador.
+     * @return el asiento, o {@link #NO_SEAT}.
+     */
+    public int getWinnerSeat() {
+        return this.winnerSeat;
+    }
+
+    /**
+     * Devuelve las cartas en la mano de un asiento.
+     * @param seat el asiento.
+     * @return cantidad de cartas.
+     */
+    public int getHandSize(int seat) {
+        return this.handSizes[seat];
+    }
+
+    /**
+     * Devuelve la cantidad de cartas de la mano propia.
+     * @return cartas propias.
+     */
+    public int getOwnHandSize() {
+        return this.handSize;
+    }
+
+    /**
+     * Devuelve una carta de la mano propia.
+     * @param index posición en la mano.
+     * @return código de la carta.
+     */
+    public int getCard(int index) {
+        return this.hand[index] & 0xFF;
+    }
+
+    /**
+     * Devuelve la cantidad de eventos del último mensaje.
+     * @return eventos.
+     */
+    public int getEventCount() {
+        return this.eventCount;
+    }
+
+    /**
+     * Devuelve el tipo de un evento.
+     * @param index posición del evento.
+     * @return el tipo.
+     */
+    public int getEventKind(int index) {
+        return this.events[index * 3] & 0xFF;
+    }
+
+    /**
+     * Devuelve el asiento que produjo un evento.
+     * @param index posición del evento.
+     * @return el asiento.
+     */
+    public int getEventSeat(int index) {
+        return this.events[index * 3 + 1] & 0xFF;
+    }
+
+    /**
+     * Devuelve el argumento de un evento.
+     * @param index posición del evento.
+     * @return el argumento.
+     */
+    public int getEventArgument(int index) {
+        return this.events[index * 3 + 2] & 0xFF;
+    }
+}
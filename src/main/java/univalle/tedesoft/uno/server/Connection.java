@@ -0,0 +1,370 @@
+package univalle.tedesoft.uno.server;
+
+import univalle.tedesoft.uno.protocol.BufferPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Conexión de un cliente, atendida siempre por el mismo {@link EventLoop}.
+ * Separa las tramas recibidas y acumula las respuestas en un buffer de salida
+ * que se vacía cuando el socket lo permite. Las tramas de los espectadores no se copian:
+ * se encolan como vistas de los buffers compartidos del {@link SpectatorHub} y se
+ * escriben con escrituras agrupadas.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class Connection {
+    /** Tamaño inicial de los buffers de entrada y salida. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Bytes de tramas compartidas pendientes a partir de los cuales el espectador se resincroniza. */
+    static final int SHARED_LIMIT_BYTES = 64 * 1024;
+    /** Tramas compartidas por escritura agrupada. */
+    private static final int GATHER_LIMIT = 64;
+
+    /** Servidor que interpreta los comandos. */
+    private final GameServer server;
+    /** Bucle dueño de la conexión. */
+    private final EventLoop loop;
+    /** Canal del cliente. */
+    private final SocketChannel channel;
+    /** Clave de selección del canal. */
+    private final SelectionKey key;
+    /** Bytes recibidos pendientes de procesar. */
+    private final ByteBuffer inbound = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    /** Bytes pendientes de enviar, en modo escritura. */
+    private ByteBuffer outbound = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    /** Ids de las mesas en las que la conexión ocupa un asiento. */
+    private final List<Integer> joinedTables = new ArrayList<>();
+    /** true cuando la conexión se cerró. */
+    private boolean closed;
+    /** Tramas compartidas pendientes de enviar, en orden. */
+    private final ArrayDeque<ByteBuffer> shared = new ArrayDeque<>();
+    /** Bytes sin enviar de las tramas compartidas pendientes. */
+    private int sharedBytes;
+    /** Arreglo reutilizado para las escrituras agrupadas. */
+    private final ByteBuffer[] gather = new ByteBuffer[GATHER_LIMIT];
+    /** Mesas que la conexión observa como espectadora. */
+    private final List<SpectatorHub.Spectator> spectating = new ArrayList<>();
+
+    /**
+     * Constructor de la conexión.
+     * @param server el servidor.
+     * @param loop el bucle dueño.
+     * @param channel el canal aceptado.
+     * @param key la clave de selección.
+     */
+    Connection(GameServer server, EventLoop loop, SocketChannel channel, SelectionKey key) {
+        this.server = server;
+        this.loop = loop;
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+     * Devuelve el bucle dueño de la conexión.
+     * @return el bucle.
+     */
+    EventLoop loop() {
+        return this.loop;
+    }
+
+    /**
+     * Lee lo disponible y procesa cada trama completa.
+     * @throws IOException si falla la lectura o el cliente cerró.
+     */
+    void onReadable() throws IOException {
+        int read = this.channel.read(this.inbound);
+        if (read < 0) {
+            this.close();
+            return;
+        }
+        // Instante monotónico de recepción, compartido por las tramas de esta lectura
+        long receivedAt = System.nanoTime();
+        this.inbound.flip();
+        while (this.inbound.remaining() >= WireProtocol.LENGTH_BYTES) {
+            int start = this.inbound.position();
+            int length = this.inbound.getShort(start) & 0xFFFF;
+            if (length < WireProtocol.HEADER_BYTES || length + WireProtocol.LENGTH_BYTES > WireProtocol.MAX_FRAME) {
+                throw new IOException("Trama inválida de " + length + " bytes");
+            }
+            if (this.inbound.remaining() < WireProtocol.LENGTH_BYTES + length) {
+                break;
+            }
+            int end = start + WireProtocol.LENGTH_BYTES + length;
+            this.inbound.position(start + WireProtocol.LENGTH_BYTES);
+            byte type = this.inbound.get();
+            int tableId = this.inbound.getInt();
+            int limit = this.inbound.limit();
+            this.inbound.limit(end);
+            this.server.dispatch(this, type, tableId, this.inbound, receivedAt);
+            this.inbound.limit(limit);
+            this.inbound.position(end);
+        }
+        this.inbound.compact();
+    }
+
+    /**
+     * Envía una trama ya codificada. Puede llamarse desde cualquier hilo:
+     * si no es el del bucle, se copia y se encola.
+     * @param frame la trama completa, entre su posición y su límite.
+     */
+    void send(ByteBuffer frame) {
+        if (this.loop.inLoop()) {
+            this.write(frame);
+            return;
+        }
+        byte[] copy = new byte[frame.remaining()];
+        frame.get(copy);
+        this.loop.execute(() -> this.write(ByteBuffer.wrap(copy)));
+    }
+
+    /**
+     * Envía una trama codificada en un buffer de un grupo y se queda con el buffer: lo
+     * devuelve al grupo después de escribirlo. Puede llamarse desde cualquier hilo; si no
+     * es el del bucle, el mismo buffer pasa al bucle sin copiarse.
+     * @param frame la trama completa, entre su posición y su límite; el llamador ya no debe usarla.
+     * @param pool el grupo al que pertenece el buffer.
+     */
+    void send(ByteBuffer frame, BufferPool pool) {
+        if (this.loop.inLoop()) {
+            this.write(frame);
+            pool.release(frame);
+            return;
+        }
+        this.loop.execute(() -> {
+            this.write(frame);
+            pool.release(frame);
+        });
+    }
+
+    /**
+     * Empieza a observar una mesa. Se llama en el bucle de la conexión.
+     * @param spectator la suscripción.
+     * @param snapshot instantánea actual de la mesa, o null si aún no empezó.
+     */
+    void startSpectating(SpectatorHub.Spectator spectator, ByteBuffer snapshot) {
+        if (this.closed) {
+            this.server.leave(this, spectator.tableId);
+            return;
+        }
+        this.spectating.add(spectator);
+        this.joinedTables.add(spectator.tableId);
+        if (snapshot != null) {
+            this.offerShared(spectator, snapshot, snapshot);
+        }
+    }
+
+    /**
+     * Deja de observar una mesa. Se llama en el bucle de la conexión.
+     * @param spectator la suscripción.
+     */
+    void stopSpectating(SpectatorHub.Spectator spectator) {
+        this.spectating.remove(spectator);
+    }
+
+    /**
+     * Encola un cambio compartido de una mesa observada. Se llama en el bucle de la conexión.
+     * Si la suscripción necesita resincronizarse se envía la instantánea en su lugar; si la
+     * cola ya supera {@link #SHARED_LIMIT_BYTES}, el cliente no da abasto: se descarta lo
+     * pendiente y se encola la última instantánea de cada mesa observada.
+     * @param spectator la suscripción.
+     * @param delta el cambio, compartido y de solo lectura.
+     * @param snapshot la instantánea del estado tras el cambio.
+     */
+    void offerShared(SpectatorHub.Spectator spectator, ByteBuffer delta, ByteBuffer snapshot) {
+        if (this.closed) {
+            return;
+        }
+        spectator.lastSnapshot = snapshot;
+        ByteBuffer frame = spectator.needsSnapshot ? snapshot : delta;
+        spectator.needsSnapshot = false;
+        if (this.sharedBytes + frame.remaining() > SHARED_LIMIT_BYTES) {
+            this.resynchronize();
+        } else {
+            this.enqueueShared(frame);
+        }
+        try {
+            this.flush();
+        } catch (IOException e) {
+            this.close();
+        }
+    }
+
+    /**
+     * Descarta las tramas compartidas que aún no empezaron a enviarse y encola la última
+     * instantánea de cada mesa observada.
+     */
+    private void resynchronize() {
+        ByteBuffer started = this.shared.peekFirst();
+        if (started != null && started.position() == 0) {
+            started = null;
+        }
+        this.shared.clear();
+        this.sharedBytes = 0;
+        if (started != null) {
+            // Una trama a medio enviar debe terminarse para no romper el flujo
+            this.enqueueShared(started);
+        }
+        for (SpectatorHub.Spectator spectator : this.spectating) {
+            if (spectator.lastSnapshot != null) {
+                this.enqueueShared(spectator.lastSnapshot);
+            } else {
+                spectator.needsSnapshot = true;
+            }
+        }
+        this.server.recordSpectatorResync();
+    }
+
+    /**
+     * Encola una vista propia de una trama compartida.
+     * @param frame la trama compartida.
+     */
+    private void enqueueShared(ByteBuffer frame) {
+        ByteBuffer view = frame.position() == 0 ? frame.duplicate() : frame;
+        this.shared.addLast(view);
+        this.sharedBytes += view.remaining();
+    }
+
+    /**
+     * Agrega la trama al buffer de salida y trata de enviarla.
+     * @param frame la trama completa.
+     */
+    private void write(ByteBuffer frame) {
+        if (this.closed) {
+            return;
+        }
+        if (this.outbound.remaining() < frame.remaining()) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(this.outbound.capacity() * 2,
+                    this.outbound.position() + frame.remaining()));
+            this.outbound.flip();
+            larger.put(this.outbound);
+            this.outbound = larger;
+        }
+        this.outbound.put(frame);
+        try {
+            this.flush();
+        } catch (IOException e) {
+            this.close();
+        }
+    }
+
+    /**
+     * El socket admite más datos: continúa el envío pendiente.
+     * @throws IOException si falla la escritura.
+     */
+    void onWritable() throws IOException {
+        this.flush();
+    }
+
+    /**
+     * Escribe lo posible y ajusta el interés en escritura. Las tramas propias y las
+     * compartidas salen por separado, pero una trama empezada siempre se termina antes
+     * de pasar a la otra fuente.
+     * @throws IOException si falla la escritura.
+     */
+    private void flush() throws IOException {
+        ByteBuffer head = this.shared.peekFirst();
+        boolean pending;
+        if (head != null && head.position() > 0) {
+            pending = !this.writeShared() || !this.writeOutbound();
+        } else {
+            pending = !this.writeOutbound() || !this.writeShared();
+        }
+        int ops = pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (this.key.isValid() && this.key.interestOps() != ops) {
+            this.key.interestOps(ops);
+        }
+    }
+
+    /**
+     * Escribe lo posible del buffer de salida.
+     * @return true si quedó vacío.
+     * @throws IOException si falla la escritura.
+     */
+    private boolean writeOutbound() throws IOException {
+        if (this.outbound.position() == 0) {
+            return true;
+        }
+        this.outbound.flip();
+        this.channel.write(this.outbound);
+        boolean done = !this.outbound.hasRemaining();
+        this.outbound.compact();
+        return done;
+    }
+
+    /**
+     * Escribe lo posible de las tramas compartidas, varias por llamada al sistema.
+     * @return true si no quedó ninguna pendiente.
+     * @throws IOException si falla la escritura.
+     */
+    private boolean writeShared() throws IOException {
+        while (!this.shared.isEmpty()) {
+            int count = 0;
+            for (ByteBuffer frame : this.shared) {
+                this.gather[count++] = frame;
+                if (count == GATHER_LIMIT) {
+                    break;
+                }
+            }
+            long written = this.channel.write(this.gather, 0, count);
+            this.sharedBytes -= (int) written;
+            Arrays.fill(this.gather, 0, count, null);
+            while (!this.shared.isEmpty() && !this.shared.peekFirst().hasRemaining()) {
+                this.shared.pollFirst();
+            }
+            if (!this.shared.isEmpty() && this.shared.peekFirst().position() > 0) {
+                return false;
+            }
+            if (written == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recuerda que la conexión ocupa un asiento en una mesa. Si ya se cerró, libera el asiento.
+     * @param tableId id de la mesa.
+     */
+    void joined(int tableId) {
+        if (!this.loop.inLoop()) {
+            this.loop.execute(() -> this.joined(tableId));
+            return;
+        }
+        if (this.closed) {
+            this.server.leave(this, tableId);
+            return;
+        }
+        this.joinedTables.add(tableId);
+    }
+
+    /**
+     * Cierra la conexión y libera sus asientos.
+     */
+    void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.key.cancel();
+        try {
+            this.channel.close();
+        } catch (IOException ignored) {
+            // ya está cerrada
+        }
+        for (int tableId : this.joinedTables) {
+            this.server.leave(this, tableId);
+        }
+        this.joinedTables.clear();
+        this.spectating.clear();
+        this.shared.clear();
+    }
+}
@@ -0,0 +1,189 @@
+package univalle.tedesoft.uno.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bucle de eventos de un solo hilo que atiende conexiones con un {@link Selector}.
+ * Cada bucle es dueño de sus conexiones: lee y escribe sus sockets y separa las tramas;
+ * las mesas se ejecutan aparte, en el {@link TableExecutor}. Otros hilos le envían
+ * trabajo con {@link #execute(Runnable)}.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class EventLoop implements Runnable {
+    /** Servidor al que pertenece el bucle. */
+    private final GameServer server;
+    /** Selector de las conexiones del bucle. */
+    private final Selector selector;
+    /** Tareas enviadas desde otros hilos. */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    /** Evita despertar el selector más de una vez por ronda. */
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    /** Buffer de trabajo para codificar tramas en el hilo del bucle. */
+    private final ByteBuffer scratch = ByteBuffer.allocateDirect(WireProtocol.MAX_FRAME);
+    /** Hilo del bucle, asignado al arrancar. */
+    private volatile Thread thread;
+    /** false cuando el servidor se detiene. */
+    private volatile boolean running = true;
+
+    /**
+     * Constructor del bucle.
+     * @param server el servidor dueño.
+     * @throws IOException si no se puede abrir el selector.
+     */
+    EventLoop(GameServer server) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Encola una tarea para ejecutarla en el hilo del bucle.
+     * @param task la tarea.
+     */
+    void execute(Runnable task) {
+        this.tasks.add(task);
+        if (Thread.currentThread() != this.thread && this.wakeupPending.compareAndSet(false, true)) {
+            this.selector.wakeup();
+        }
+    }
+
+    /**
+     * Indica si el hilo actual es el del bucle.
+     * @return true si se está ejecutando en el bucle.
+     */
+    boolean inLoop() {
+        return Thread.currentThread() == this.thread;
+    }
+
+    /**
+     * Registra una conexión aceptada en este bucle. Debe llamarse desde el hilo del bucle.
+     * @param channel el canal aceptado.
+     * @return la conexión creada.
+     * @throws IOException si no se puede configurar el canal.
+     */
+    Connection register(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+        Connection connection = new Connection(this.server, this, channel, key);
+        key.attach(connection);
+        return connection;
+    }
+
+    /**
+     * Devuelve el selector del bucle.
+     * @return el selector.
+     */
+    Selector selector() {
+        return this.selector;
+    }
+
+    /**
+     * Devuelve el buffer de trabajo del bucle, vacío. Solo se usa desde el hilo del bucle.
+     * @return el buffer listo para escribir.
+     */
+    ByteBuffer scratch() {
+        this.scratch.clear();
+        return this.scratch;
+    }
+
+    /**
+     * Detiene el bucle y cierra su selector.
+     */
+    void shutdown() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+    /**
+     * Atiende eventos de red y tareas hasta que el servidor se detiene.
+     */
+    @Override
+    public void run() {
+        this.thread = Thread.currentThread();
+        try {
+            while (this.running) {
+                this.selector.select();
+                this.wakeupPending.set(false);
+                this.runTasks();
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    this.handle(key);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (this.running) {
+                System.err.println("Bucle de eventos detenido por error: " + e.getMessage());
+            }
+        } finally {
+            this.closeAll();
+        }
+    }
+
+    /**
+     * Ejecuta las tareas pendientes.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error en tarea del servidor: " + e);
+            }
+        }
+    }
+
+    /**
+     * Despacha un evento de selección.
+     * @param key la clave seleccionada.
+     */
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.attachment() instanceof Connection) {
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    connection.onReadable();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.onWritable();
+                }
+            } catch (IOException e) {
+                connection.close();
+            }
+        } else {
+            this.server.onAcceptable();
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones y el selector al terminar.
+     */
+    private void closeAll() {
+        for (SelectionKey key : this.selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                ((Connection) key.attachment()).close();
+            }
+        }
+        try {
+            this.selector.close();
+        } catch (IOException ignored) {
+            // el bucle ya terminó
+        }
+    }
+}
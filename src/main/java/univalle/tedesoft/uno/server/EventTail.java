@@ -0,0 +1,60 @@
+package univalle.tedesoft.uno.server;
+
+import univalle.tedesoft.uno.protocol.TableView;
+
+/**
+ * Cola acotada con los últimos eventos publicados por una mesa, numerados desde el
+ * inicio de la mesa. Al reanudar, un asiento recibe la instantánea de la mesa más los
+ * eventos que se perdió, tomados de aquí, en lugar de repetir la partida completa.
+ * Ocupa {@link #CAPACITY} eventos de tres bytes por mesa, sin importar cuánto dure.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class EventTail {
+    /** Eventos que se conservan; coincide con lo que cabe en un mensaje. */
+    static final int CAPACITY = TableView.MAX_EVENTS;
+
+    /** Eventos en anillo: tipo, asiento y argumento de cada uno. */
+    private final byte[] events = new byte[CAPACITY * 3];
+    /** Eventos publicados desde que se creó la mesa. */
+    private long total;
+
+    /**
+     * Agrega los eventos de una vista a la cola.
+     * @param view la vista con los eventos recién publicados.
+     */
+    void append(TableView view) {
+        for (int i = 0; i < view.getEventCount(); i++) {
+            int slot = (int) (this.total % CAPACITY) * 3;
+            this.events[slot] = (byte) view.getEventKind(i);
+            this.events[slot + 1] = (byte) view.getEventSeat(i);
+            this.events[slot + 2] = (byte) view.getEventArgument(i);
+            this.total++;
+        }
+    }
+
+    /**
+     * Devuelve cuántos eventos se publicaron desde que se creó la mesa.
+     * @return el número del próximo evento.
+     */
+    long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * Copia a una vista los eventos publicados desde un número dado. Si ya no se
+     * conservan todos, copia los más recientes.
+     * @param from número del primer evento que falta.
+     * @param view vista destino, sin eventos.
+     * @return cantidad de eventos que ya no se conservaban y quedaron fuera.
+     */
+    long copySince(long from, TableView view) {
+        long first = Math.max(Math.max(0, from), this.total - CAPACITY);
+        for (long n = first; n < this.total; n++) {
+            int slot = (int) (n % CAPACITY) * 3;
+            view.addEvent(this.events[slot] & 0xFF, this.events[slot + 1] & 0xFF, this.events[slot + 2] & 0xFF);
+        }
+        return Math.max(0, first - Math.max(0, from));
+    }
+}
@@ -0,0 +1,479 @@
+package univalle.tedesoft.uno.server;
+
+import univalle.tedesoft.uno.persistence.GameJournal;
+import univalle.tedesoft.uno.persistence.GameRecovery;
+import univalle.tedesoft.uno.persistence.RecoveredGame;
+import univalle.tedesoft.uno.persistence.WriteAheadLog;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor de partidas que aloja muchas mesas en una sola JVM.
+ * Usa un {@link EventLoop} por núcleo para la red; las conexiones se reparten entre los
+ * bucles. Los comandos se interpretan en el bucle de la conexión y se envían al buzón de
+ * su mesa en el {@link TableExecutor}, de modo que las jugadas de cada mesa se procesan
+ * en orden y sin cerrojos, como un actor, mientras las mesas se reparten entre los
+ * trabajadores. No hay un hilo por conexión.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class GameServer {
+    /** Puerto por defecto. */
+    public static final int DEFAULT_PORT = 7777;
+    /** Tiempo por defecto que se reserva el asiento de un cliente desconectado. */
+    public static final long DEFAULT_RESUME_GRACE_MILLIS = 30_000;
+
+    /** Bucles de eventos; el primero también acepta conexiones. */
+    private final EventLoop[] loops;
+    /** Hilos de los bucles. */
+    private final Thread[] threads;
+    /** Canal que acepta conexiones. */
+    private ServerSocketChannel acceptor;
+    /** Siguiente bucle para una conexión aceptada. */
+    private int nextLoop;
+    /** Mesas abiertas por id. */
+    private final Map<Integer, ServerTable> tables = new ConcurrentHashMap<>();
+    /** Ejecutor de los comandos de las mesas. */
+    private final TableExecutor executor;
+    /** Veces que un espectador lento se resincronizó con una instantánea. */
+    private final LongAdder spectatorResyncs = new LongAdder();
+    /** Latencia del arbitraje de UNO, desde la recepción de la acción hasta su fallo. Protegida por sí misma. */
+    private final LatencyHistogram unoArbitration = new LatencyHistogram();
+    /** Tiempo que se reserva el asiento de un cliente desconectado, para mesas nuevas. */
+    private volatile long resumeGraceMillis = DEFAULT_RESUME_GRACE_MILLIS;
+    /** Registro de escritura anticipada de las partidas; null sin persistencia. */
+    private WriteAheadLog log;
+    /** Comandos entre instantáneas de cada mesa en el registro. */
+    private int checkpointInterval = GameJournal.DEFAULT_CHECKPOINT_INTERVAL;
+    /** Retira las mesas cuyos asientos reservados expiraron. */
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "TableReaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructor del servidor con tantos trabajadores de mesas como bucles.
+     * @param loopCount cantidad de bucles de eventos (normalmente uno por núcleo).
+     * @throws IOException si no se pueden abrir los selectores.
+     */
+    public GameServer(int loopCount) throws IOException {
+        this(loopCount, loopCount);
+    }
+
+    /**
+     * Constructor del servidor.
+     * @param loopCount cantidad de bucles de eventos.
+     * @param workerCount cantidad de trabajadores que ejecutan las mesas.
+     * @throws IOException si no se pueden abrir los selectores.
+     */
+    public GameServer(int loopCount, int workerCount) throws IOException {
+        this.executor = new TableExecutor(workerCount);
+        this.loops = new EventLoop[Math.max(1, loopCount)];
+        this.threads = new Thread[this.loops.length];
+        for (int i = 0; i < this.loops.length; i++) {
+            this.loops[i] = new EventLoop(this);
+        }
+    }
+
+    /**
+     * Abre el puerto y arranca los bucles.
+     * @param port puerto local, 0 para uno libre.
+     * @return el puerto en el que escucha el servidor.
+     * @throws IOException si no se puede abrir el puerto.
+     */
+    public int start(int port) throws IOException {
+        this.acceptor = ServerSocketChannel.open();
+        this.acceptor.bind(new InetSocketAddress(port), 4096);
+        this.acceptor.configureBlocking(false);
+        this.acceptor.register(this.loops[0].selector(), SelectionKey.OP_ACCEPT);
+        for (int i = 0; i < this.loops.length; i++) {
+            this.threads[i] = new Thread(this.loops[i], "GameServerLoop-" + i);
+            this.threads[i].setDaemon(true);
+            this.threads[i].start();
+        }
+        return ((InetSocketAddress) this.acceptor.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Detiene el servidor y espera a que terminen sus bucles.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void stop() throws InterruptedException {
+        try {
+            this.acceptor.close();
+        } catch (IOException ignored) {
+            // se está cerrando de todas formas
+        }
+        for (EventLoop loop : this.loops) {
+            loop.shutdown();
+        }
+        for (Thread thread : this.threads) {
+            if (thread != null) {
+                thread.join();
+            }
+        }
+        this.reaper.shutdownNow();
+        this.executor.shutdown(1000);
+        if (this.log != null) {
+            try {
+                this.log.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el registro de partidas: " + e);
+            }
+        }
+    }
+
+    /**
+     * Activa la persistencia de las partidas en un directorio y recupera las que estaban en
+     * curso cuando el proceso anterior terminó. Las mesas recuperadas reservan sus asientos
+     * remotos para que los clientes los reanuden con su ficha. Debe llamarse antes de
+     * {@link #start(int)}.
+     * @param directory directorio del registro.
+     * @param checkpointInterval comandos entre instantáneas de cada mesa.
+     * @return cantidad de mesas recuperadas.
+     * @throws IOException si no se puede leer o escribir el registro.
+     * @throws InterruptedException si se interrumpe la espera de las instantáneas.
+     */
+    public int enablePersistence(Path directory, int checkpointInterval) throws IOException, InterruptedException {
+        this.checkpointInterval = checkpointInterval;
+        this.log = new WriteAheadLog(directory);
+        List<RecoveredGame> recovered = GameRecovery.recover(this.log.getPreviousSegments());
+        long lastPosition = 0;
+        for (RecoveredGame game : recovered) {
+            int tableId = game.getTableId();
+            ServerTable table = new ServerTable(this.executor.newMailbox(), game, this.unoArbitration,
+                    this.resumeGraceMillis, new GameJournal(this.log, tableId, checkpointInterval));
+            // La instantánea en el registro nuevo reemplaza a los segmentos anteriores
+            lastPosition = table.commitJournal();
+            this.tables.put(tableId, table);
+            table.mailbox().submit(() -> this.retireIfAbandoned(tableId, table));
+        }
+        if (!this.log.awaitDurable(lastPosition, 10_000)) {
+            throw new IOException("Las mesas recuperadas no llegaron al disco a tiempo");
+        }
+        this.log.completeRecovery();
+        return recovered.size();
+    }
+
+    /**
+     * Devuelve el registro de escritura anticipada.
+     * @return el registro, o null si la persistencia no está activa.
+     */
+    public WriteAheadLog getWriteAheadLog() {
+        return this.log;
+    }
+
+    /**
+     * Cambia el tiempo que se reserva el asiento de un cliente desconectado para que
+     * pueda reanudarlo. Aplica a las mesas que se creen después.
+     * @param resumeGraceMillis milisegundos de reserva; 0 libera el asiento al instante.
+     */
+    public void setResumeGraceMillis(long resumeGraceMillis) {
+        this.resumeGraceMillis = resumeGraceMillis;
+    }
+
+    /**
+     * Devuelve la cantidad de mesas abiertas.
+     * @return mesas abiertas.
+     */
+    public int getTableCount() {
+        return this.tables.size();
+    }
+
+    /**
+     * Devuelve cuántas veces un espectador lento descartó cambios y se resincronizó.
+     * @return resincronizaciones.
+     */
+    public long getSpectatorResyncs() {
+        return this.spectatorResyncs.sum();
+    }
+
+    /**
+     * Copia las latencias del arbitraje de UNO y, si se pide, las reinicia.
+     * @param reset true para empezar una nueva ventana de medición.
+     * @return copia del histograma, desde la recepción de cada acción hasta su fallo.
+     */
+    public LatencyHistogram unoArbitrationSnapshot(boolean reset) {
+        LatencyHistogram copy = new LatencyHistogram();
+        synchronized (this.unoArbitration) {
+            copy.add(this.unoArbitration);
+            if (reset) {
+                this.unoArbitration.reset();
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Registra la resincronización de un espectador lento.
+     */
+    void recordSpectatorResync() {
+        this.spectatorResyncs.increment();
+    }
+
+    /**
+     * Devuelve el ejecutor de las mesas, con sus métricas.
+     * @return el ejecutor.
+     */
+    public TableExecutor getTableExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Acepta las conexiones pendientes y las reparte entre los bucles.
+     * Se llama desde el primer bucle.
+     */
+    void onAcceptable() {
+        try {
+            SocketChannel channel;
+            while ((channel = this.acceptor.accept()) != null) {
+                EventLoop loop = this.loops[this.nextLoop];
+                this.nextLoop = (this.nextLoop + 1) % this.loops.length;
+                SocketChannel accepted = channel;
+                this.runOn(loop, () -> {
+                    try {
+                        loop.register(accepted);
+                    } catch (IOException e) {
+                        closeQuietly(accepted);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            System.err.println("Error aceptando conexiones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ejecuta una tarea en un bucle, de inmediato si ya se está en él.
+     * @param loop el bucle.
+     * @param task la tarea.
+     */
+    private void runOn(EventLoop loop, Runnable task) {
+        if (loop.inLoop()) {
+            task.run();
+        } else {
+            loop.execute(task);
+        }
+    }
+
+    /**
+     * Interpreta una trama recibida y la envía al buzón de su mesa.
+     * La carga útil se lee aquí, en el bucle de la conexión, antes de cambiar de hilo.
+     * @param connection la conexión que envió la trama.
+     * @param type tipo de la trama.
+     * @param tableId id de la mesa.
+     * @param payload buffer posicionado en la carga útil, limitado al fin de la trama.
+     * @param receivedAt instante de recepción de la trama, en la escala de System.nanoTime().
+     */
+    void dispatch(Connection connection, byte type, int tableId, ByteBuffer payload, long receivedAt) {
+        if (type == WireProtocol.CREATE_TABLE) {
+            if (payload.remaining() < 2) {
+                this.rejectRequest(connection, tableId, WireProtocol.ERROR_BAD_REQUEST);
+                return;
+            }
+            int seats = payload.get() & 0xFF;
+            int remoteSeats = payload.get() & 0xFF;
+            if (seats < 2 || seats > 10 || remoteSeats < 1 || remoteSeats > seats) {
+                this.rejectRequest(connection, tableId, WireProtocol.ERROR_BAD_REQUEST);
+                return;
+            }
+            this.createTable(connection, tableId, seats, remoteSeats);
+            return;
+        }
+        ServerTable table = this.tables.get(tableId);
+        if (table == null) {
+            this.rejectRequest(connection, tableId, WireProtocol.ERROR_NO_TABLE);
+            return;
+        }
+        TableExecutor.Mailbox mailbox = table.mailbox();
+        switch (type) {
+            case WireProtocol.JOIN_TABLE -> mailbox.submit(() -> {
+                if (table.join(connection) < 0) {
+                    table.sendError(connection, WireProtocol.ERROR_TABLE_FULL);
+                }
+            });
+            case WireProtocol.PLAY -> {
+                if (payload.remaining() < 3) {
+                    this.rejectRequest(connection, tableId, WireProtocol.ERROR_BAD_REQUEST);
+                    return;
+                }
+                int handIndex = payload.get() & 0xFF;
+                int color = payload.get() & 0xFF;
+                int flags = payload.get() & 0xFF;
+                mailbox.submit(() -> table.play(connection, handIndex, color, flags, receivedAt));
+            }
+            case WireProtocol.DRAW -> mailbox.submit(() -> table.draw(connection));
+            case WireProtocol.DECLARE_UNO -> mailbox.submit(() -> table.declareUno(connection, receivedAt));
+            case WireProtocol.PUNISH -> {
+                if (payload.remaining() < 1) {
+                    this.rejectRequest(connection, tableId, WireProtocol.ERROR_BAD_REQUEST);
+                    return;
+                }
+                int target = payload.get() & 0xFF;
+                mailbox.submit(() -> table.punish(connection, target, receivedAt));
+            }
+            case WireProtocol.NEW_GAME -> mailbox.submit(() -> table.newGame(connection));
+            case WireProtocol.SPECTATE -> mailbox.submit(() -> table.spectate(connection));
+            case WireProtocol.RESUME -> {
+                if (payload.remaining() < 1 + Long.BYTES + Integer.BYTES) {
+                    this.rejectRequest(connection, tableId, WireProtocol.ERROR_BAD_REQUEST);
+                    return;
+                }
+                int seat = payload.get() & 0xFF;
+                long token = payload.getLong();
+                long eventsReceived = payload.getInt() & 0xFFFFFFFFL;
+                mailbox.submit(() -> table.resume(connection, seat, token, eventsReceived));
+            }
+            default -> this.rejectRequest(connection, tableId, WireProtocol.ERROR_BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Crea una mesa y sienta a su creador desde el buzón de la mesa.
+     * @param connection el creador.
+     * @param tableId id de la mesa.
+     * @param seats cantidad de asientos.
+     * @param remoteSeats asientos remotos.
+     */
+    private void createTable(Connection connection, int tableId, int seats, int remoteSeats) {
+        ServerTable table = new ServerTable(tableId, this.executor.newMailbox(), seats, remoteSeats,
+                this.unoArbitration, this.resumeGraceMillis,
+                this.log == null ? null : new GameJournal(this.log, tableId, this.checkpointInterval));
+        if (this.tables.putIfAbsent(tableId, table) != null) {
+            this.rejectRequest(connection, tableId, WireProtocol.ERROR_TABLE_EXISTS);
+            return;
+        }
+        table.mailbox().submit(() -> table.join(connection));
+    }
+
+    /**
+     * Responde con un error desde el bucle de la conexión.
+     * @param connection la conexión.
+     * @param tableId id de la mesa.
+     * @param code código de error.
+     */
+    private void rejectRequest(Connection connection, int tableId, int code) {
+        sendError(connection, connection.loop().scratch(), tableId, code);
+    }
+
+    /**
+     * Libera el asiento de una conexión cerrada y cierra la mesa si queda vacía.
+     * Si a la mesa le quedan asientos reservados para reanudar, se revisa otra vez
+     * cuando vence la reserva.
+     * @param connection la conexión.
+     * @param tableId id de la mesa.
+     */
+    void leave(Connection connection, int tableId) {
+        ServerTable table = this.tables.get(tableId);
+        if (table == null) {
+            return;
+        }
+        table.mailbox().submit(() -> {
+            table.leave(connection);
+            if (table.isEmpty()) {
+                this.retireIfAbandoned(tableId, table);
+            }
+        });
+    }
+
+    /**
+     * Retira una mesa sin clientes ni reservas, o programa otra revisión. Se llama desde el buzón de la mesa.
+     * @param tableId id de la mesa.
+     * @param table la mesa.
+     */
+    private void retireIfAbandoned(int tableId, ServerTable table) {
+        if (table.isAbandoned()) {
+            table.close();
+            this.tables.remove(tableId, table);
+        } else if (table.isEmpty() && !this.reaper.isShutdown()) {
+            try {
+                this.reaper.schedule(() -> table.mailbox().submit(() -> this.retireIfAbandoned(tableId, table)),
+                        table.resumeGraceMillis() + 1, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // El servidor se detuvo mientras tanto
+            }
+        }
+    }
+
+    // --- Tramas ---
+
+    /**
+     * Empieza una trama: reserva la longitud y escribe tipo e id de mesa.
+     * @param buffer buffer vacío.
+     * @param type tipo de la trama.
+     * @param tableId id de la mesa.
+     * @return el mismo buffer, posicionado en la carga útil.
+     */
+    static ByteBuffer beginFrame(ByteBuffer buffer, byte type, int tableId) {
+        buffer.putShort((short) 0).put(type).putInt(tableId);
+        return buffer;
+    }
+
+    /**
+     * Completa la longitud de la trama y deja el buffer listo para leer.
+     * @param buffer el buffer con la trama.
+     */
+    static void endFrame(ByteBuffer buffer) {
+        buffer.putShort(0, (short) (buffer.position() - WireProtocol.LENGTH_BYTES));
+        buffer.flip();
+    }
+
+    /**
+     * Envía un error.
+     * @param connection destino.
+     * @param scratch buffer de trabajo del hilo actual.
+     * @param tableId id de la mesa.
+     * @param code código de error.
+     */
+    static void sendError(Connection connection, ByteBuffer scratch, int tableId, int code) {
+        beginFrame(scratch, WireProtocol.ERROR, tableId).put((byte) code);
+        endFrame(scratch);
+        connection.send(scratch);
+    }
+
+    /**
+     * Cierra un canal ignorando errores.
+     * @param channel el canal.
+     */
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // nada que hacer
+        }
+    }
+
+    /**
+     * Arranca un servidor con un bucle por núcleo.
+     * Argumento opcional: el puerto (por defecto {@link #DEFAULT_PORT}).
+     * @param args argumentos de la línea de comandos.
+     * @throws IOException si no se puede abrir el puerto.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameServer server = new GameServer(Runtime.getRuntime().availableProcessors());
+        int bound = server.start(port);
+        System.out.println("Servidor UNO escuchando en el puerto " + bound + " con "
+                + server.loops.length + " bucles de eventos");
+        for (Thread thread : server.threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package univalle.tedesoft.uno.server;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales:
+ * valores exactos por debajo de 128 y 64 subcubetas por cada potencia de dos después,
+ * lo que da un error relativo menor al 2% con un arreglo fijo de unas 3.800 posiciones.
+ * Registrar un valor no reserva memoria. No es seguro entre hilos: cada hilo usa el
+ * suyo y al final se combinan con {@link #add(LatencyHistogram)}.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class LatencyHistogram {
+    /** Bits de precisión de cada subcubeta. */
+    private static final int SUB_BITS = 6;
+    /** Subcubetas por potencia de dos. */
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    /** Valores que se guardan exactos. */
+    private static final int LINEAR_LIMIT = 2 * SUB_COUNT;
+    /** Cantidad total de cubetas. */
+    private static final int BUCKETS = LINEAR_LIMIT + (Long.SIZE - SUB_BITS - 1) * SUB_COUNT;
+
+    /** Conteo por cubeta. */
+    private final long[] counts = new long[BUCKETS];
+    /** Cantidad de valores registrados. */
+    private long total;
+    /** Mayor valor registrado. */
+    private long max;
+
+    /**
+     * Devuelve la cantidad de cubetas, para histogramas que comparten esta escala.
+     * @return cantidad de cubetas.
+     */
+    public static int bucketCount() {
+        return BUCKETS;
+    }
+
+    /**
+     * Calcula la cubeta de un valor.
+     * @param value valor no negativo.
+     * @return índice de la cubeta.
+     */
+    public static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) Math.max(0, value);
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_COUNT + (int) ((value >>> shift) - SUB_COUNT);
+    }
+
+    /**
+     * Calcula el menor valor de una cubeta.
+     * @param bucket índice de la cubeta.
+     * @return su límite inferior.
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_LIMIT) / SUB_COUNT + 1;
+        long sub = (bucket - LINEAR_LIMIT) % SUB_COUNT + SUB_COUNT;
+        return sub << shift;
+    }
+
+    /**
+     * Registra un valor.
+     * @param nanos la latencia en nanosegundos.
+     */
+    public void record(long nanos) {
+        this.counts[bucketOf(nanos)]++;
+        this.total++;
+        if (nanos > this.max) {
+            this.max = nanos;
+        }
+    }
+
+    /**
+     * Suma los valores de otro histograma a este.
+     * @param other el otro histograma.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.total += other.total;
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * Suma conteos por cubeta tomados de otro histograma con la misma escala.
+     * @param bucketCounts conteo por cubeta, de largo {@link #bucketCount()}.
+     * @param maxValue mayor valor registrado en el origen.
+     */
+    public void add(long[] bucketCounts, long maxValue) {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] += bucketCounts[i];
+            this.total += bucketCounts[i];
+        }
+        this.max = Math.max(this.max, maxValue);
+    }
+
+    /**
+     * Borra todos los valores registrados.
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.total = 0;
+        this.max = 0;
+    }
+
+    /**
+     * Devuelve la cantidad de valores registrados.
+     * @return cantidad de valores.
+     */
+    public long getCount() {
+        return this.total;
+    }
+
+    /**
+     * Devuelve el conteo de una cubeta, para serializar el histograma.
+     * @param bucket índice de la cubeta, menor que {@link #bucketCount()}.
+     * @return valores registrados en la cubeta.
+     */
+    public long getBucket(int bucket) {
+        return this.counts[bucket];
+    }
+
+    /**
+     * Devuelve el mayor valor registrado.
+     * @return el máximo en nanosegundos.
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Estima un percentil.
+     * @param percentile entre 0 y 100.
+     * @return el límite inferior de la cubeta que contiene el percentil, en nanosegundos.
+     */
+    public long getPercentile(double percentile) {
+        if (this.total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * this.total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= rank && this.counts[i] > 0) {
+                return Math.min(lowerBound(i), this.max);
+            }
+        }
+        return this.max;
+    }
+}
@@ -0,0 +1,460 @@
+package univalle.tedesoft.uno.server;
+
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.protocol.DeltaCodec;
+import univalle.tedesoft.uno.protocol.TableView;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Cliente de carga para el {@link GameServer}: abre muchas mesas humano contra máquina
+ * sobre pocas conexiones y juega en todas a la vez, con una jugada en vuelo por mesa.
+ * La latencia de una jugada va desde que se envía hasta que llega el estado que la
+ * refleja, con los turnos de la máquina ya resueltos. Cada hilo atiende sus conexiones
+ * con su propio selector.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class LoadGenerator {
+    /** Ordinal del color comodín. */
+    private static final int WILD_COLOR = Color.WILD.ordinal();
+    /** Cantidad de valores por color en el índice de tipo de carta. */
+    private static final int VALUES = OpponentHandModel.VALUE_COUNT;
+    /** Primer id de mesa usado por el generador. */
+    private static final int BASE_TABLE_ID = 1_000_000;
+
+    /** Dirección del servidor. */
+    private final InetSocketAddress address;
+    /** Cantidad total de mesas. */
+    private final int tables;
+    /** Cantidad total de conexiones. */
+    private final int connections;
+    /** Cantidad de hilos cliente. */
+    private final int threads;
+
+    /**
+     * Resultados de una corrida.
+     */
+    public static final class Result {
+        /** Latencias de las jugadas medidas. */
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        /** Errores recibidos. */
+        private long errors;
+        /** Partidas terminadas. */
+        private long gamesFinished;
+        /** Duración de la medición en nanosegundos. */
+        private long elapsedNanos;
+
+        /**
+         * Devuelve el histograma de latencias.
+         * @return el histograma.
+         */
+        public LatencyHistogram getLatencies() {
+            return this.latencies;
+        }
+
+        /**
+         * Devuelve la cantidad de errores recibidos.
+         * @return errores.
+         */
+        public long getErrors() {
+            return this.errors;
+        }
+
+        /**
+         * Devuelve la cantidad de partidas terminadas.
+         * @return partidas terminadas.
+         */
+        public long getGamesFinished() {
+            return this.gamesFinished;
+        }
+
+        /**
+         * Resumen legible de la corrida.
+         * @return texto con jugadas por segundo y percentiles en microsegundos.
+         */
+        @Override
+        public String toString() {
+            double seconds = this.elapsedNanos / 1e9;
+            return String.format("%d jugadas en %.1f s (%.0f/s), %d partidas, %d errores; "
+                            + "latencia p50=%d us p99=%d us p99.9=%d us max=%d us",
+                    this.latencies.getCount(), seconds, this.latencies.getCount() / seconds,
+                    this.gamesFinished, this.errors,
+                    this.latencies.getPercentile(50) / 1000, this.latencies.getPercentile(99) / 1000,
+                    this.latencies.getPercentile(99.9) / 1000, this.latencies.getMax() / 1000);
+        }
+    }
+
+    /**
+     * Constructor del generador.
+     * @param address dirección del servidor.
+     * @param tables mesas a abrir.
+     * @param connections conexiones a repartir entre las mesas.
+     * @param threads hilos cliente.
+     */
+    public LoadGenerator(InetSocketAddress address, int tables, int connections, int threads) {
+        this.address = address;
+        this.tables = tables;
+        this.threads = Math.max(1, Math.min(threads, connections));
+        this.connections = Math.max(this.threads, connections);
+    }
+
+    /**
+     * Abre las mesas, juega durante el calentamiento sin medir y luego mide.
+     * @param warmupMillis tiempo de calentamiento.
+     * @param measureMillis tiempo de medición.
+     * @return los resultados combinados de todos los hilos.
+     * @throws IOException si no se puede conectar.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public Result run(long warmupMillis, long measureMillis) throws IOException, InterruptedException {
+        Worker[] workers = new Worker[this.threads];
+        Thread[] running = new Thread[this.threads];
+        int tableStart = 0;
+        int connectionStart = 0;
+        for (int i = 0; i < this.threads; i++) {
+            int tableEnd = (int) ((long) this.tables * (i + 1) / this.threads);
+            int connectionEnd = (int) ((long) this.connections * (i + 1) / this.threads);
+            workers[i] = new Worker(this.address, BASE_TABLE_ID + tableStart, tableEnd - tableStart,
+                    connectionEnd - connectionStart);
+            running[i] = new Thread(workers[i], "LoadGenerator-" + i);
+            running[i].setDaemon(true);
+            tableStart = tableEnd;
+            connectionStart = connectionEnd;
+        }
+        for (Thread thread : running) {
+            thread.start();
+        }
+        Thread.sleep(warmupMillis);
+        for (Worker worker : workers) {
+            worker.measuring = true;
+        }
+        long start = System.nanoTime();
+        Thread.sleep(measureMillis);
+        for (Worker worker : workers) {
+            worker.running = false;
+            worker.selector.wakeup();
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+        Result result = new Result();
+        result.elapsedNanos = System.nanoTime() - start;
+        for (Worker worker : workers) {
+            if (worker.failure != null) {
+                throw worker.failure;
+            }
+            result.latencies.add(worker.latencies);
+            result.errors += worker.errors;
+            result.gamesFinished += worker.gamesFinished;
+        }
+        return result;
+    }
+
+    /**
+     * Hilo cliente que atiende un rango de mesas sobre sus conexiones.
+     */
+    private static final class Worker implements Runnable {
+        /** Dirección del servidor. */
+        private final InetSocketAddress address;
+        /** Id de la primera mesa del hilo. */
+        private final int baseTableId;
+        /** Cantidad de mesas del hilo. */
+        private final int tableCount;
+        /** Selector de las conexiones del hilo. */
+        private final Selector selector;
+        /** Conexiones del hilo. */
+        private final SocketChannel[] channels;
+        /** Buffers de entrada por conexión. */
+        private final ByteBuffer[] inbound;
+        /** Buffers de salida por conexión. */
+        private final ByteBuffer[] outbound;
+        /** Estado de cada mesa, actualizado con los cambios que envía el servidor. */
+        private final TableView[] views;
+        /** Instante de envío de la jugada en vuelo de cada mesa, 0 si no hay. */
+        private final long[] sentAt;
+        /** Latencias medidas por el hilo. */
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        /** Errores recibidos. */
+        private long errors;
+        /** Partidas terminadas. */
+        private long gamesFinished;
+        /** true mientras se mide. */
+        private volatile boolean measuring;
+        /** false para terminar el hilo. */
+        private volatile boolean running = true;
+        /** Error de red que terminó el hilo, si lo hubo. */
+        private IOException failure;
+
+        /**
+         * Constructor del hilo cliente.
+         * @param address dirección del servidor.
+         * @param baseTableId id de su primera mesa.
+         * @param tableCount cantidad de mesas.
+         * @param connectionCount cantidad de conexiones.
+         * @throws IOException si no se puede abrir el selector.
+         */
+        private Worker(InetSocketAddress address, int baseTableId, int tableCount, int connectionCount) throws IOException {
+            this.address = address;
+            this.baseTableId = baseTableId;
+            this.tableCount = tableCount;
+            this.selector = Selector.open();
+            this.channels = new SocketChannel[connectionCount];
+            this.inbound = new ByteBuffer[connectionCount];
+            this.outbound = new ByteBuffer[connectionCount];
+            this.views = new TableView[tableCount];
+            for (int table = 0; table < tableCount; table++) {
+                this.views[table] = new TableView();
+            }
+            this.sentAt = new long[tableCount];
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.connect();
+                for (int table = 0; table < this.tableCount; table++) {
+                    this.send(table, WireProtocol.CREATE_TABLE, 2, 1, -1);
+                }
+                this.flushAll();
+                while (this.running) {
+                    this.selector.select(100);
+                    Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        int connection = (Integer) key.attachment();
+                        if (key.isReadable()) {
+                            this.read(connection);
+                        }
+                    }
+                    this.flushAll();
+                }
+            } catch (IOException e) {
+                this.failure = e;
+            } finally {
+                for (SocketChannel channel : this.channels) {
+                    try {
+                        if (channel != null) {
+                            channel.close();
+                        }
+                    } catch (IOException ignored) {
+                        // cerrando
+                    }
+                }
+                try {
+                    this.selector.close();
+                } catch (IOException ignored) {
+                    // cerrando
+                }
+            }
+        }
+
+        /**
+         * Abre las conexiones del hilo.
+         * @throws IOException si no se puede conectar.
+         */
+        private void connect() throws IOException {
+            for (int i = 0; i < this.channels.length; i++) {
+                SocketChannel channel = SocketChannel.open(this.address);
+                channel.socket().setTcpNoDelay(true);
+                channel.configureBlocking(false);
+                channel.register(this.selector, SelectionKey.OP_READ, i);
+                this.channels[i] = channel;
+                this.inbound[i] = ByteBuffer.allocateDirect(256 * 1024);
+                this.outbound[i] = ByteBuffer.allocateDirect(256 * 1024);
+            }
+        }
+
+        /**
+         * Lee y procesa las tramas de una conexión.
+         * @param connection índice de la conexión.
+         * @throws IOException si falla la lectura.
+         */
+        private void read(int connection) throws IOException {
+            ByteBuffer buffer = this.inbound[connection];
+            if (this.channels[connection].read(buffer) < 0) {
+                throw new IOException("El servidor cerró la conexión");
+            }
+            buffer.flip();
+            while (buffer.remaining() >= WireProtocol.LENGTH_BYTES) {
+                int start = buffer.position();
+                int length = buffer.getShort(start) & 0xFFFF;
+                if (buffer.remaining() < WireProtocol.LENGTH_BYTES + length) {
+                    break;
+                }
+                int end = start + WireProtocol.LENGTH_BYTES + length;
+                buffer.position(start + WireProtocol.LENGTH_BYTES);
+                byte type = buffer.get();
+                int table = buffer.getInt() - this.baseTableId;
+                if (type == WireProtocol.STATE) {
+                    this.onState(table, buffer);
+                } else if (type == WireProtocol.ERROR) {
+                    this.errors++;
+                    // La jugada elegida no era válida: robar en su lugar
+                    this.sentAt[table] = 0;
+                    this.send(table, WireProtocol.DRAW, -1, -1, -1);
+                }
+                buffer.position(end);
+            }
+            buffer.compact();
+        }
+
+        /**
+         * Actualiza una mesa con el estado recibido y, si es su turno, juega.
+         * @param table índice local de la mesa.
+         * @param buffer buffer posicionado en la carga útil.
+         */
+        private void onState(int table, ByteBuffer buffer) {
+            long now = System.nanoTime();
+            if (this.sentAt[table] != 0) {
+                if (this.measuring) {
+                    this.latencies.record(now - this.sentAt[table]);
+                }
+                this.sentAt[table] = 0;
+            }
+            TableView view = this.views[table];
+            DeltaCodec.decode(buffer, view);
+            if (view.isGameOver()) {
+                if (this.measuring) {
+                    this.gamesFinished++;
+                }
+                this.send(table, WireProtocol.NEW_GAME, -1, -1, -1);
+            } else if (view.getCurrentSeat() == view.getSeat()) {
+                this.playTurn(table);
+            }
+        }
+
+        /**
+         * Elige la primera carta válida de la mano, o roba si no hay.
+         * @param table índice local de la mesa.
+         */
+        private void playTurn(int table) {
+            TableView view = this.views[table];
+            int top = view.getTopCard();
+            int topValue = top % VALUES;
+            boolean topIsWild = top / VALUES == WILD_COLOR;
+            int color = view.getColor();
+            int handSize = view.getOwnHandSize();
+            for (int i = 0; i < handSize; i++) {
+                int card = view.getCard(i);
+                int cardColor = card / VALUES;
+                boolean valid = cardColor == WILD_COLOR || cardColor == color
+                        || (!topIsWild && card % VALUES == topValue);
+                if (valid) {
+                    int chosen = cardColor == WILD_COLOR ? mostCommonColor(view) : WireProtocol.NONE;
+                    int flags = handSize == 2 ? WireProtocol.FLAG_UNO : 0;
+                    this.send(table, WireProtocol.PLAY, i, chosen, flags);
+                    return;
+                }
+            }
+            this.send(table, WireProtocol.DRAW, -1, -1, -1);
+        }
+
+        /**
+         * Devuelve el color más frecuente en la mano propia.
+         * @param view la vista de la mesa.
+         * @return el ordinal del color.
+         */
+        private static int mostCommonColor(TableView view) {
+            int best = 0;
+            int bestCount = -1;
+            for (int color = 0; color < WILD_COLOR; color++) {
+                int count = 0;
+                for (int i = 0; i < view.getOwnHandSize(); i++) {
+                    if (view.getCard(i) / VALUES == color) {
+                        count++;
+                    }
+                }
+                if (count > bestCount) {
+                    best = color;
+                    bestCount = count;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Encola un comando para una mesa y marca su envío.
+         * @param table índice local de la mesa.
+         * @param type tipo del comando.
+         * @param a primer byte de carga útil, o -1.
+         * @param b segundo byte, o -1.
+         * @param c tercer byte, o -1.
+         */
+        private void send(int table, byte type, int a, int b, int c) {
+            ByteBuffer out = this.outbound[table % this.channels.length];
+            int start = out.position();
+            out.putShort((short) 0).put(type).putInt(this.baseTableId + table);
+            if (a >= 0) {
+                out.put((byte) a);
+            }
+            if (b >= 0) {
+                out.put((byte) b);
+            }
+            if (c >= 0) {
+                out.put((byte) c);
+            }
+            out.putShort(start, (short) (out.position() - start - WireProtocol.LENGTH_BYTES));
+            if (type != WireProtocol.CREATE_TABLE) {
+                this.sentAt[table] = System.nanoTime();
+            }
+        }
+
+        /**
+         * Envía lo acumulado en todas las conexiones.
+         * @throws IOException si falla la escritura.
+         */
+        private void flushAll() throws IOException {
+            for (int i = 0; i < this.channels.length; i++) {
+                ByteBuffer out = this.outbound[i];
+                if (out.position() == 0) {
+                    continue;
+                }
+                out.flip();
+                while (out.hasRemaining()) {
+                    this.channels[i].write(out);
+                }
+                out.clear();
+            }
+        }
+    }
+
+    /**
+     * Ejecuta una prueba de carga contra un servidor. Sin host, arranca uno en el mismo proceso.
+     * Argumentos opcionales: mesas (10.000), conexiones (100), segundos de medición (20), host y puerto.
+     * @param args argumentos de la línea de comandos.
+     * @throws IOException si falla la red.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int cores = Runtime.getRuntime().availableProcessors();
+        GameServer server = null;
+        InetSocketAddress address;
+        if (args.length > 4) {
+            address = new InetSocketAddress(args[3], Integer.parseInt(args[4]));
+        } else {
+            server = new GameServer(Math.max(1, cores / 2));
+            address = new InetSocketAddress("127.0.0.1", server.start(0));
+        }
+        LoadGenerator generator = new LoadGenerator(address, tables, connections, Math.max(1, cores / 2));
+        Result result = generator.run(5_000, seconds * 1000L);
+        System.out.println(tables + " mesas sobre " + connections + " conexiones: " + result);
+        if (server != null) {
+            System.out.println("Mesas abiertas en el servidor: " + server.getTableCount());
+            System.out.println("Ejecutor de mesas: " + server.getTableExecutor());
+            server.stop();
+        }
+    }
+}
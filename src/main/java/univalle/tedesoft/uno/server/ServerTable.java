@@ -0,0 +1,909 @@
+package univalle.tedesoft.uno.server;
+
+import univalle.tedesoft.uno.exceptions.EmptyDeckException;
+import univalle.tedesoft.uno.exceptions.InvalidPlayException;
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Decks.DeckPool;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Players.HumanPlayer;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.GameState;
+import univalle.tedesoft.uno.model.State.IGameStateListener;
+import univalle.tedesoft.uno.persistence.GameJournal;
+import univalle.tedesoft.uno.persistence.RecoveredGame;
+import univalle.tedesoft.uno.protocol.BufferPool;
+import univalle.tedesoft.uno.protocol.CardCodec;
+import univalle.tedesoft.uno.protocol.DeltaCodec;
+import univalle.tedesoft.uno.protocol.TableView;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.List;
+
+/**
+ * Mesa alojada en el servidor: un {@link GameState} con asientos remotos y de máquina.
+ * Solo se usa desde los comandos de su buzón en el {@link TableExecutor}, que se ejecutan
+ * de uno en uno, así que no necesita cerrojos.
+ * Aplica las mismas reglas de turno que el GameController: el jugador que roba pasa
+ * el turno, los robos pendientes se aplican al terminar la jugada y las máquinas
+ * juegan de inmediato y siempre cantan UNO. Las carreras entre cantar UNO y atrapar
+ * las decide un {@link UnoArbiter} por instante de recepción.
+ * Con persistencia, cada comando se escribe en el diario antes de responder y las tramas
+ * salen cuando su registro llega al disco: un cliente nunca ve una jugada que un fallo
+ * del proceso podría perder.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class ServerTable {
+    /** Turnos de máquina seguidos por comando; el resto se encola para no acaparar el hilo de la mesa. */
+    private static final int MAX_MACHINE_TURNS = 200;
+    /** Buffers directos compartidos por todas las mesas para codificar tramas. */
+    private static final BufferPool BUFFERS = new BufferPool(WireProtocol.MAX_FRAME, 4096);
+    /** Mazos que las mesas retiradas dejan para las nuevas. */
+    private static final DeckPool DECKS = new DeckPool(256);
+    /** Generador de las fichas de reanudación. */
+    private static final SecureRandom TOKENS = new SecureRandom();
+
+    /** Id de la mesa. */
+    private final int tableId;
+    /** Buzón por el que llegan los comandos de la mesa. */
+    private final TableExecutor.Mailbox mailbox;
+    /** Jugadores por asiento. */
+    private final Player[] seats;
+    /** Conexión de cada asiento remoto, null si está libre o es de máquina. */
+    private final Connection[] connections;
+    /** true para los asientos jugados por clientes. */
+    private final boolean[] remote;
+    /** Estado de la partida; se reinicia en su lugar en cada partida nueva y su mazo sale de {@link #DECKS}. */
+    private GameState gameState;
+    /** true cuando la primera partida ya empezó. */
+    private boolean started;
+    /** true cuando la mesa se quedó vacía y se retiró del servidor. */
+    private boolean closed;
+    /** true si hay en el buzón un comando que sigue con los turnos de las máquinas. */
+    private boolean machineTurnsQueued;
+    /** Ficha de reanudación de cada asiento remoto; 0 si está libre. */
+    private final long[] resumeTokens;
+    /** Instante en que se desconectó cada asiento reservado; 0 si está conectado o libre. */
+    private final long[] disconnectedAt;
+    /** Número de evento desde el que cada asiento cuenta los eventos recibidos. */
+    private final long[] eventBase;
+    /** Tiempo que se reserva un asiento desconectado para reanudarlo. */
+    private final long resumeGraceNanos;
+    /** Diario de la mesa en el registro de escritura anticipada; null sin persistencia. */
+    private final GameJournal journal;
+    /** Últimos eventos publicados, para los asientos que reanudan. */
+    private final EventTail tail = new EventTail();
+    /** Última vista enviada a cada asiento remoto; vacía si debe recibir una instantánea. */
+    private final TableView[] sent;
+    /** Espectadores de la mesa, creado con el primero. */
+    private SpectatorHub spectators;
+    /** Árbitro de las ventanas de UNO de la mesa. */
+    private final UnoArbiter arbiter;
+    /** Latencias de arbitraje compartidas con el servidor. Protegidas por sí mismas. */
+    private final LatencyHistogram arbitrationLatencies;
+    /** Fallo de las acciones de UNO, reutilizado en cada resolución. */
+    private final UnoArbiter.IRuling ruling = this::applyRuling;
+    /** true si la última resolución cambió la partida. */
+    private boolean rulingChanged;
+    /** Vista en construcción, con los eventos ocurridos desde el último envío. */
+    private final TableView current = new TableView();
+    /** Registra como eventos lo que ocurre en la partida, para enviarlo con el próximo cambio. */
+    private final IGameStateListener eventRecorder = new IGameStateListener() {
+        @Override
+        public void onCardPlayed(Player player, Card card) {
+            ServerTable.this.current.addEvent(TableView.EVENT_PLAYED, ServerTable.this.seatOf(player), CardCodec.encode(card));
+        }
+
+        @Override
+        public void onCardDrawn(Player player, Card card, boolean turnDraw) {
+            ServerTable.this.recordDraw(ServerTable.this.seatOf(player));
+        }
+
+        @Override
+        public void onColorChosen(Color color) {
+            int seat = ServerTable.this.seatOf(ServerTable.this.gameState.getCurrentPlayer());
+            ServerTable.this.current.addEvent(TableView.EVENT_COLOR_CHOSEN, seat, CardCodec.encodeColor(color));
+        }
+    };
+
+    /**
+     * Crea la mesa. Los primeros asientos son remotos y el resto los juegan máquinas.
+     * @param tableId id de la mesa.
+     * @param mailbox buzón de la mesa.
+     * @param seatCount cantidad de asientos.
+     * @param remoteSeats cantidad de asientos remotos, al menos uno.
+     * @param arbitrationLatencies histograma donde registrar la latencia del arbitraje de UNO.
+     * @param resumeGraceMillis tiempo que se reserva un asiento desconectado; 0 para liberarlo al instante.
+     * @param journal diario de la mesa, o null sin persistencia.
+     */
+    ServerTable(int tableId, TableExecutor.Mailbox mailbox, int seatCount, int remoteSeats,
+                LatencyHistogram arbitrationLatencies, long resumeGraceMillis, GameJournal journal) {
+        this(tableId, mailbox, newSeats(seatCount, remoteSeats), arbitrationLatencies, resumeGraceMillis, journal);
+        this.gameState = this.newGameState();
+    }
+
+    /**
+     * Restaura una mesa recuperada del registro. Los asientos remotos que tenían dueño
+     * quedan reservados para que sus clientes los reanuden con la misma ficha.
+     * @param mailbox buzón de la mesa.
+     * @param recovered la partida recuperada.
+     * @param arbitrationLatencies histograma donde registrar la latencia del arbitraje de UNO.
+     * @param resumeGraceMillis tiempo que se reservan los asientos.
+     * @param journal diario de la mesa en el registro nuevo.
+     */
+    ServerTable(TableExecutor.Mailbox mailbox, RecoveredGame recovered, LatencyHistogram arbitrationLatencies,
+                long resumeGraceMillis, GameJournal journal) {
+        this(recovered.getTableId(), mailbox, seatsOf(recovered.getGameState()), arbitrationLatencies,
+                resumeGraceMillis, journal);
+        long now = System.nanoTime();
+        for (int seat = 0; seat < this.seats.length; seat++) {
+            if (this.remote[seat] && recovered.getSeatTags()[seat] != 0) {
+                this.resumeTokens[seat] = recovered.getSeatTags()[seat];
+                this.disconnectedAt[seat] = now;
+            }
+        }
+        this.started = true;
+        this.gameState = recovered.getGameState();
+        this.gameState.addListener(this.eventRecorder);
+        this.attachJournal();
+    }
+
+    /**
+     * Inicializa los campos comunes de la mesa.
+     * @param tableId id de la mesa.
+     * @param mailbox buzón de la mesa.
+     * @param seats jugadores por asiento; las máquinas no son remotas.
+     * @param arbitrationLatencies histograma donde registrar la latencia del arbitraje de UNO.
+     * @param resumeGraceMillis tiempo que se reserva un asiento desconectado.
+     * @param journal diario de la mesa, o null.
+     */
+    private ServerTable(int tableId, TableExecutor.Mailbox mailbox, Player[] seats,
+                        LatencyHistogram arbitrationLatencies, long resumeGraceMillis, GameJournal journal) {
+        int seatCount = seats.length;
+        this.tableId = tableId;
+        this.resumeTokens = new long[seatCount];
+        this.disconnectedAt = new long[seatCount];
+        this.eventBase = new long[seatCount];
+        this.resumeGraceNanos = resumeGraceMillis * 1_000_000L;
+        this.mailbox = mailbox;
+        this.arbiter = new UnoArbiter(seatCount);
+        this.arbitrationLatencies = arbitrationLatencies;
+        this.journal = journal;
+        this.seats = seats;
+        this.connections = new Connection[seatCount];
+        this.remote = new boolean[seatCount];
+        this.sent = new TableView[seatCount];
+        for (int seat = 0; seat < seatCount; seat++) {
+            this.remote[seat] = !(seats[seat] instanceof MachinePlayer);
+            this.sent[seat] = new TableView();
+        }
+    }
+
+    /**
+     * Crea los jugadores de una mesa nueva: primero los remotos y luego las máquinas.
+     * @param seatCount cantidad de asientos.
+     * @param remoteSeats cantidad de asientos remotos.
+     * @return los jugadores por asiento.
+     */
+    private static Player[] newSeats(int seatCount, int remoteSeats) {
+        Player[] seats = new Player[seatCount];
+        for (int seat = 0; seat < seatCount; seat++) {
+            seats[seat] = seat < remoteSeats ? new HumanPlayer("Asiento " + seat) : new MachinePlayer();
+        }
+        return seats;
+    }
+
+    /**
+     * Devuelve los jugadores de una partida por asiento.
+     * @param state la partida.
+     * @return los jugadores.
+     */
+    private static Player[] seatsOf(GameState state) {
+        Player[] seats = new Player[state.getPlayerCount()];
+        for (int seat = 0; seat < seats.length; seat++) {
+            seats[seat] = state.getPlayer(seat);
+        }
+        return seats;
+    }
+
+    /**
+     * Conecta el diario a la partida actual con las fichas de los asientos.
+     */
+    private void attachJournal() {
+        if (this.journal == null) {
+            return;
+        }
+        this.journal.attach(this.gameState);
+        for (int seat = 0; seat < this.seats.length; seat++) {
+            this.journal.setSeatTag(seat, this.resumeTokens[seat]);
+        }
+    }
+
+    /**
+     * Escribe en el diario lo ocurrido desde el último comando.
+     * @return la posición del registro, o 0 sin persistencia.
+     */
+    long commitJournal() {
+        return this.journal == null ? 0 : this.journal.commit();
+    }
+
+    /**
+     * Crea el estado de una partida nueva y registra sus eventos.
+     * @return el estado.
+     */
+    private GameState newGameState() {
+        GameState state = new GameState(this.players(), DECKS.acquire());
+        state.addListener(this.eventRecorder);
+        if (this.journal != null) {
+            this.journal.attach(state);
+        }
+        return state;
+    }
+
+    /**
+     * Registra que un asiento robó una carta, acumulando robos seguidos del mismo asiento.
+     * @param seat el asiento.
+     */
+    private void recordDraw(int seat) {
+        int last = this.current.getEventCount() - 1;
+        if (last >= 0 && this.current.getEventKind(last) == TableView.EVENT_DREW
+                && this.current.getEventSeat(last) == seat && this.current.getEventArgument(last) < 0xFF) {
+            this.current.setEventArgument(last, this.current.getEventArgument(last) + 1);
+        } else {
+            this.current.addEvent(TableView.EVENT_DREW, seat, 1);
+        }
+    }
+
+    /**
+     * Devuelve los jugadores en el orden de sus asientos.
+     * @return los jugadores.
+     */
+    private List<Player> players() {
+        return List.of(this.seats);
+    }
+
+    /**
+     * Devuelve el buzón de la mesa.
+     * @return el buzón.
+     */
+    TableExecutor.Mailbox mailbox() {
+        return this.mailbox;
+    }
+
+    /**
+     * Sienta a una conexión en el siguiente asiento remoto libre. Cuando se ocupan
+     * todos los asientos remotos empieza la partida.
+     * @param connection la conexión.
+     * @return el asiento asignado, o -1 si la mesa está llena o ya se cerró.
+     */
+    int join(Connection connection) {
+        if (this.closed) {
+            return -1;
+        }
+        long now = System.nanoTime();
+        for (int seat = 0; seat < this.seats.length; seat++) {
+            if (this.remote[seat] && this.connections[seat] == null && !this.isReserved(seat, now)) {
+                this.connections[seat] = connection;
+                this.resumeTokens[seat] = newToken();
+                if (this.journal != null) {
+                    this.journal.setSeatTag(seat, this.resumeTokens[seat]);
+                }
+                this.disconnectedAt[seat] = 0;
+                this.eventBase[seat] = this.tail.getTotal();
+                this.sendJoined(seat);
+                connection.joined(this.tableId);
+                if (!this.started && this.allRemoteSeatsTaken()) {
+                    this.started = true;
+                    this.startGame();
+                } else if (this.started) {
+                    this.sendState(seat);
+                }
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Crea una ficha de reanudación distinta de 0.
+     * @return la ficha.
+     */
+    private static long newToken() {
+        long token;
+        do {
+            token = TOKENS.nextLong();
+        } while (token == 0);
+        return token;
+    }
+
+    /**
+     * Indica si un asiento libre sigue reservado para que su dueño lo reanude.
+     * @param seat el asiento.
+     * @param now instante actual.
+     * @return true si está reservado.
+     */
+    private boolean isReserved(int seat, long now) {
+        return this.resumeTokens[seat] != 0 && now - this.disconnectedAt[seat] < this.resumeGraceNanos;
+    }
+
+    /**
+     * Libera el asiento de una conexión. Si la partida empezó, el asiento queda
+     * reservado durante el tiempo de gracia para que su dueño lo reanude.
+     * @param connection la conexión que se fue.
+     */
+    void leave(Connection connection) {
+        for (int seat = 0; seat < this.seats.length; seat++) {
+            if (this.connections[seat] == connection) {
+                this.connections[seat] = null;
+                this.sent[seat].reset(0, 0);
+                if (this.started && this.resumeGraceNanos > 0) {
+                    this.disconnectedAt[seat] = System.nanoTime();
+                } else {
+                    this.resumeTokens[seat] = 0;
+                    if (this.journal != null) {
+                        this.journal.setSeatTag(seat, 0);
+                    }
+                }
+            }
+        }
+        if (this.spectators != null) {
+            this.spectators.remove(connection);
+        }
+    }
+
+    /**
+     * Devuelve un asiento a la conexión que presenta su ficha, con una instantánea de la
+     * mesa y los eventos que el cliente no alcanzó a recibir.
+     * @param connection la conexión nueva.
+     * @param seat el asiento a reanudar.
+     * @param token la ficha recibida en JOINED.
+     * @param eventsReceived eventos que el cliente recibió desde ese JOINED.
+     */
+    void resume(Connection connection, int seat, long token, long eventsReceived) {
+        if (this.closed) {
+            this.sendError(connection, WireProtocol.ERROR_NO_TABLE);
+            return;
+        }
+        if (seat >= this.seats.length || !this.remote[seat] || token == 0 || this.resumeTokens[seat] != token
+                || (this.connections[seat] == null && !this.isReserved(seat, System.nanoTime()))) {
+            this.sendError(connection, WireProtocol.ERROR_RESUME_REJECTED);
+            return;
+        }
+        // Si la conexión anterior sigue abierta a medias, la nueva la reemplaza
+        this.connections[seat] = connection;
+        this.disconnectedAt[seat] = 0;
+        connection.joined(this.tableId);
+        this.fillView(seat);
+        this.current.clearEvents();
+        this.tail.copySince(this.eventBase[seat] + eventsReceived, this.current);
+        // Desde aquí el cliente cuenta de nuevo, empezando por los eventos de la instantánea
+        this.eventBase[seat] = this.tail.getTotal() - this.current.getEventCount();
+        this.sendJoined(seat);
+        ByteBuffer frame = this.beginFrame(WireProtocol.STATE);
+        DeltaCodec.encodeSnapshot(this.current, frame);
+        this.sent[seat].copyFrom(this.current);
+        this.current.clearEvents();
+        this.endFrame(frame, connection);
+    }
+
+    /**
+     * Agrega una conexión a los espectadores de la mesa.
+     * @param connection la conexión.
+     */
+    void spectate(Connection connection) {
+        if (this.closed) {
+            this.sendError(connection, WireProtocol.ERROR_NO_TABLE);
+            return;
+        }
+        if (this.spectators == null) {
+            this.spectators = new SpectatorHub(this.tableId, this.journal);
+        }
+        if (this.started && this.spectators.isEmpty()) {
+            // Sin espectadores no se publicó nada: publicar el estado actual antes de sumarlo
+            this.publishToSpectators();
+        }
+        this.spectators.add(connection);
+    }
+
+    /**
+     * Marca la mesa como retirada; ya nadie puede sentarse en ella.
+     */
+    void close() {
+        this.closed = true;
+        if (this.journal != null) {
+            this.journal.end();
+        }
+        // Cerrada la mesa nadie vuelve a tocar su estado: su mazo pasa a la próxima mesa
+        this.gameState.reclaimCards();
+        DECKS.release(this.gameState.getDeck());
+    }
+
+    /**
+     * Devuelve el tiempo que se reserva un asiento desconectado.
+     * @return milisegundos de reserva.
+     */
+    long resumeGraceMillis() {
+        return this.resumeGraceNanos / 1_000_000L;
+    }
+
+    /**
+     * Indica si la mesa ya no tiene clientes sentados ni asientos reservados para reanudar.
+     * @return true si se puede retirar.
+     */
+    boolean isAbandoned() {
+        long now = System.nanoTime();
+        for (int seat = 0; seat < this.seats.length; seat++) {
+            if (this.connections[seat] != null || (this.remote[seat] && this.isReserved(seat, now))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica si la mesa ya no tiene clientes sentados.
+     * @return true si todos los asientos remotos están libres.
+     */
+    boolean isEmpty() {
+        for (Connection connection : this.connections) {
+            if (connection != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verifica que todos los asientos remotos estén ocupados.
+     * @return true si no queda ninguno libre.
+     */
+    private boolean allRemoteSeatsTaken() {
+        for (int seat = 0; seat < this.seats.length; seat++) {
+            if (this.remote[seat] && this.connections[seat] == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Empieza una partida nueva y avisa a todos.
+     */
+    private void startGame() {
+        this.gameState.onGameStart();
+        // El reparto no se informa como eventos: los asientos ven las manos nuevas en el cambio
+        this.current.clearEvents();
+        this.runMachineTurns();
+        this.broadcastState();
+    }
+
+    /**
+     * Busca el asiento de una conexión.
+     * @param connection la conexión.
+     * @return el asiento, o -1 si no está sentada.
+     */
+    private int seatOf(Connection connection) {
+        for (int seat = 0; seat < this.connections.length; seat++) {
+            if (this.connections[seat] == connection) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Busca el asiento de un jugador.
+     * @param player el jugador.
+     * @return el asiento, o {@link TableView#NO_SEAT} si no está en la mesa.
+     */
+    private int seatOf(Player player) {
+        for (int seat = 0; seat < this.seats.length; seat++) {
+            if (this.seats[seat] == player) {
+                return seat;
+            }
+        }
+        return TableView.NO_SEAT;
+    }
+
+    /**
+     * Verifica que la conexión pueda jugar ahora.
+     * @param connection la conexión.
+     * @return el asiento en turno de la conexión, o -1 si no le toca.
+     */
+    private int seatInTurn(Connection connection) {
+        int seat = this.seatOf(connection);
+        if (seat < 0 || !this.started || this.gameState.isGameOver()
+                || this.gameState.getCurrentPlayer() != this.seats[seat]) {
+            this.sendError(connection, WireProtocol.ERROR_NOT_YOUR_TURN);
+            return -1;
+        }
+        return seat;
+    }
+
+    /**
+     * Juega una carta de la mano del asiento de la conexión.
+     * @param connection la conexión que juega.
+     * @param handIndex posición de la carta en la mano.
+     * @param colorCode color elegido si la carta es un comodín.
+     * @param flags banderas de la jugada.
+     * @param receivedAt instante de recepción de la jugada.
+     */
+    void play(Connection connection, int handIndex, int colorCode, int flags, long receivedAt) {
+        this.resolveUnoBeforeTurn();
+        int seat = this.seatInTurn(connection);
+        if (seat < 0) {
+            return;
+        }
+        Player player = this.seats[seat];
+        if (handIndex >= player.getNumeroCartas()) {
+            this.sendError(connection, WireProtocol.ERROR_BAD_REQUEST);
+            return;
+        }
+        Card card = player.getCards().get(handIndex);
+        Color chosen = WireProtocol.decodeChoosableColor(colorCode);
+        if (card.getColor() == Color.WILD && chosen == null) {
+            this.sendError(connection, WireProtocol.ERROR_BAD_REQUEST);
+            return;
+        }
+        if (!this.playCard(player, card, chosen, (flags & WireProtocol.FLAG_UNO) != 0)) {
+            this.sendError(connection, WireProtocol.ERROR_INVALID_PLAY);
+            return;
+        }
+        if (player.isUnoCandidate()) {
+            // Quedó con una carta sin cantar UNO: empieza la carrera para cantar o atraparlo
+            this.arbiter.open(seat, receivedAt);
+        }
+        this.runMachineTurns();
+        this.broadcastState();
+    }
+
+    /**
+     * Roba una carta para el asiento de la conexión y pasa el turno.
+     * @param connection la conexión que roba.
+     */
+    void draw(Connection connection) {
+        this.resolveUnoBeforeTurn();
+        int seat = this.seatInTurn(connection);
+        if (seat < 0) {
+            return;
+        }
+        this.drawAndPass(this.seats[seat]);
+        this.runMachineTurns();
+        this.broadcastState();
+    }
+
+    /**
+     * Canta UNO por el asiento de la conexión. La acción se arbitra junto con las
+     * capturas que compiten por la misma ventana.
+     * @param connection la conexión.
+     * @param receivedAt instante de recepción de la acción.
+     */
+    void declareUno(Connection connection, long receivedAt) {
+        int seat = this.seatOf(connection);
+        if (seat < 0) {
+            this.sendError(connection, WireProtocol.ERROR_NOT_YOUR_TURN);
+            return;
+        }
+        this.submitUnoAction(UnoArbiter.DECLARE, seat, seat, receivedAt);
+    }
+
+    /**
+     * Intenta atrapar a un jugador que quedó con una carta sin cantar UNO.
+     * La acción se arbitra junto con las demás que compiten por la misma ventana.
+     * @param connection la conexión que castiga.
+     * @param targetSeat el asiento castigado.
+     * @param receivedAt instante de recepción de la acción.
+     */
+    void punish(Connection connection, int targetSeat, long receivedAt) {
+        int seat = this.seatOf(connection);
+        if (seat < 0 || targetSeat >= this.seats.length || targetSeat == seat) {
+            this.sendError(connection, WireProtocol.ERROR_BAD_REQUEST);
+            return;
+        }
+        this.submitUnoAction(UnoArbiter.CATCH, seat, targetSeat, receivedAt);
+    }
+
+    /**
+     * Entrega una acción al árbitro y, si es la primera pendiente, programa su resolución
+     * al final del buzón, después de las acciones que ya estaban encoladas.
+     * @param kind tipo de acción.
+     * @param actor asiento que la envió.
+     * @param target asiento de la ventana disputada.
+     * @param receivedAt instante de recepción.
+     */
+    private void submitUnoAction(int kind, int actor, int target, long receivedAt) {
+        if (this.arbiter.submit(kind, actor, target, receivedAt)) {
+            this.mailbox.submit(this::resolveUno);
+        }
+    }
+
+    /**
+     * Resuelve las acciones de UNO pendientes y avisa si la partida cambió.
+     */
+    private void resolveUno() {
+        if (this.resolvePendingUno()) {
+            this.broadcastState();
+        }
+    }
+
+    /**
+     * Resuelve las acciones de UNO pendientes antes de una jugada, para que una
+     * jugada posterior no cierre una ventana que ya se estaba disputando.
+     */
+    private void resolveUnoBeforeTurn() {
+        if (this.arbiter.hasPending()) {
+            this.resolveUno();
+        }
+    }
+
+    /**
+     * Resuelve en un paso las acciones de UNO pendientes.
+     * @return true si alguna cambió la partida.
+     */
+    private boolean resolvePendingUno() {
+        if (!this.arbiter.hasPending()) {
+            return false;
+        }
+        this.rulingChanged = false;
+        this.arbiter.resolve(this.ruling);
+        return this.rulingChanged;
+    }
+
+    /**
+     * Aplica el fallo de una acción de UNO.
+     * @param kind tipo de acción.
+     * @param actor asiento que la envió.
+     * @param target asiento de la ventana disputada.
+     * @param accepted true si la acción ganó la ventana.
+     * @param receivedAt instante de recepción.
+     */
+    private void applyRuling(int kind, int actor, int target, boolean accepted, long receivedAt) {
+        long latency = System.nanoTime() - receivedAt;
+        synchronized (this.arbitrationLatencies) {
+            this.arbitrationLatencies.record(latency);
+        }
+        if (!accepted || this.closed || this.gameState.isGameOver()) {
+            if (this.connections[actor] != null) {
+                this.sendError(this.connections[actor], WireProtocol.ERROR_INVALID_PLAY);
+            }
+            return;
+        }
+        Player player = this.seats[target];
+        if (kind == UnoArbiter.DECLARE) {
+            this.gameState.playerDeclaresUno(player);
+            this.current.addEvent(TableView.EVENT_UNO, target, 0);
+        } else {
+            this.gameState.penalizePlayerForUno(player);
+            this.current.addEvent(TableView.EVENT_PENALIZED, target, GameState.PENALTY_CARDS_FOR_UNO);
+        }
+        this.rulingChanged = true;
+    }
+
+    /**
+     * Empieza otra partida si la anterior terminó. Se reutiliza el mismo estado: al
+     * empezar recoge las cartas de la partida anterior, y el diario toma una instantánea.
+     * @param connection la conexión que la pide.
+     */
+    void newGame(Connection connection) {
+        if (this.seatOf(connection) < 0 || !this.started || !this.gameState.isGameOver()) {
+            this.sendError(connection, WireProtocol.ERROR_BAD_REQUEST);
+            return;
+        }
+        this.arbiter.reset();
+        this.startGame();
+    }
+
+    /**
+     * Juega una carta, aplica sus efectos y pasa el turno.
+     * @param player el jugador.
+     * @param card la carta.
+     * @param chosen color elegido si es un comodín de un jugador remoto, null en otro caso.
+     * @param declareUno true si el jugador canta UNO con la jugada.
+     * @return false si la jugada no es válida.
+     */
+    private boolean playCard(Player player, Card card, Color chosen, boolean declareUno) {
+        boolean gameOver;
+        try {
+            gameOver = this.gameState.playCard(player, card);
+        } catch (InvalidPlayException e) {
+            return false;
+        }
+        if (gameOver) {
+            return true;
+        }
+        if (chosen != null && card.getColor() == Color.WILD) {
+            this.gameState.onColorChosen(chosen);
+        }
+        if (declareUno) {
+            this.gameState.playerDeclaresUno(player);
+        }
+        this.gameState.applyPendingDraws();
+        this.passTurn(player);
+        return true;
+    }
+
+    /**
+     * Roba una carta, reciclando la pila de descarte si hace falta, y pasa el turno.
+     * @param player el jugador que roba.
+     */
+    private void drawAndPass(Player player) {
+        try {
+            this.gameState.drawTurnCard(player);
+        } catch (EmptyDeckException e) {
+            this.gameState.recyclingDeck();
+            try {
+                this.gameState.drawTurnCard(player);
+            } catch (EmptyDeckException ignored) {
+                // No hay cartas ni para reciclar: el jugador simplemente pasa
+            }
+        }
+        this.passTurn(player);
+    }
+
+    /**
+     * Avanza el turno y reinicia el estado de UNO del jugador que empieza.
+     * @param previous el jugador que acaba de jugar.
+     */
+    private void passTurn(Player previous) {
+        this.gameState.advanceTurn();
+        Player next = this.gameState.getCurrentPlayer();
+        if (next != previous) {
+            next.resetUnoStatus();
+            int seat = this.seatOf(next);
+            if (seat != TableView.NO_SEAT) {
+                this.arbiter.close(seat);
+            }
+        }
+    }
+
+    /**
+     * Juega los turnos de las máquinas hasta que le toque a un asiento remoto. Si se
+     * alcanza el límite de turnos con una máquina todavía en turno, el resto se encola
+     * al final del buzón, detrás de los comandos que ya esperaban.
+     */
+    private void runMachineTurns() {
+        for (int turn = 0; turn < MAX_MACHINE_TURNS && !this.gameState.isGameOver(); turn++) {
+            Player current = this.gameState.getCurrentPlayer();
+            if (!(current instanceof MachinePlayer)) {
+                return;
+            }
+            Card card = ((MachinePlayer) current).chooseCardToPlay(this.gameState);
+            if (card == null || !this.playCard(current, card, null, true)) {
+                this.drawAndPass(current);
+            }
+        }
+        if (!this.gameState.isGameOver() && this.gameState.getCurrentPlayer() instanceof MachinePlayer
+                && !this.machineTurnsQueued) {
+            this.machineTurnsQueued = true;
+            this.mailbox.submit(this::continueMachineTurns);
+        }
+    }
+
+    /**
+     * Sigue con los turnos de las máquinas que quedaron pendientes y avisa a todos.
+     */
+    private void continueMachineTurns() {
+        this.machineTurnsQueued = false;
+        if (this.closed) {
+            return;
+        }
+        this.runMachineTurns();
+        this.broadcastState();
+    }
+
+    /**
+     * Envía a todos los asientos remotos ocupados lo que cambió desde su último mensaje.
+     */
+    private void broadcastState() {
+        // Las tramas que siguen se retienen hasta que este registro llegue al disco
+        this.commitJournal();
+        for (int seat = 0; seat < this.seats.length; seat++) {
+            if (this.connections[seat] != null) {
+                this.sendState(seat);
+            }
+        }
+        if (this.spectators != null && !this.spectators.isEmpty()) {
+            this.publishToSpectators();
+        }
+        this.tail.append(this.current);
+        this.current.clearEvents();
+    }
+
+    /**
+     * Publica a los espectadores la mesa vista sin mano propia.
+     */
+    private void publishToSpectators() {
+        this.fillView(TableView.NO_SEAT);
+        this.spectators.publish(this.current);
+    }
+
+    /**
+     * Envía a un asiento lo que cambió en la mesa desde su último mensaje, o una
+     * instantánea si es el primero.
+     * @param seat el asiento destino.
+     */
+    private void sendState(int seat) {
+        this.fillView(seat);
+        ByteBuffer frame = this.beginFrame(WireProtocol.STATE);
+        if (DeltaCodec.encode(this.sent[seat], this.current, frame) > 0) {
+            this.sent[seat].copyFrom(this.current);
+            this.endFrame(frame, this.connections[seat]);
+        } else {
+            BUFFERS.release(frame);
+        }
+    }
+
+    /**
+     * Llena la vista en construcción con el estado de la mesa visto desde un asiento.
+     * @param seat el asiento, o {@link TableView#NO_SEAT} para un espectador.
+     */
+    private void fillView(int seat) {
+        TableView view = this.current;
+        view.setSeat(seat, this.seats.length);
+        view.setTurn(this.seatOf(this.gameState.getCurrentPlayer()), this.gameState.getDirection());
+        view.setTop(CardCodec.encode(this.gameState.getTopDiscardCard()),
+                CardCodec.encodeColor(this.gameState.getCurrentValidColor()));
+        view.setResult(this.gameState.isGameOver(), this.seatOf(this.gameState.getWinner()));
+        for (int s = 0; s < this.seats.length; s++) {
+            view.setHandSize(s, this.seats[s].getNumeroCartas());
+        }
+        view.clearHand();
+        if (seat == TableView.NO_SEAT) {
+            return;
+        }
+        List<Card> hand = this.seats[seat].getCards();
+        for (int i = 0; i < hand.size(); i++) {
+            view.addCard(CardCodec.encode(hand.get(i)));
+        }
+    }
+
+    /**
+     * Confirma el asiento a una conexión.
+     * @param seat el asiento asignado.
+     */
+    private void sendJoined(int seat) {
+        ByteBuffer frame = this.beginFrame(WireProtocol.JOINED);
+        frame.put((byte) seat).putLong(this.resumeTokens[seat]);
+        this.endFrame(frame, this.connections[seat]);
+    }
+
+    /**
+     * Informa un error a una conexión.
+     * @param connection la conexión.
+     * @param code el código de error.
+     */
+    void sendError(Connection connection, int code) {
+        ByteBuffer frame = this.beginFrame(WireProtocol.ERROR);
+        frame.put((byte) code);
+        this.endFrame(frame, connection);
+    }
+
+    /**
+     * Empieza una trama en un buffer del grupo.
+     * @param type tipo de la trama.
+     * @return el buffer posicionado en la carga útil.
+     */
+    private ByteBuffer beginFrame(byte type) {
+        return GameServer.beginFrame(BUFFERS.acquire(), type, this.tableId);
+    }
+
+    /**
+     * Completa la longitud de la trama y la entrega a la conexión junto con el buffer:
+     * el bucle de la conexión la copia a su buffer de salida y devuelve el buffer al grupo.
+     * Con persistencia, la trama se retiene hasta que el último registro de la mesa llega
+     * al disco, para no confirmar jugadas que un fallo podría perder.
+     * @param frame el buffer con la trama; no debe usarse después.
+     * @param connection destino.
+     */
+    private void endFrame(ByteBuffer frame, Connection connection) {
+        GameServer.endFrame(frame);
+        if (this.journal == null) {
+            connection.send(frame, BUFFERS);
+        } else {
+            this.journal.whenDurable(() -> connection.send(frame, BUFFERS));
+        }
+    }
+}
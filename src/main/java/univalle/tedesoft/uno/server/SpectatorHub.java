@@ -0,0 +1,201 @@
+package univalle.tedesoft.uno.server;
+
+import univalle.tedesoft.uno.persistence.GameJournal;
+import univalle.tedesoft.uno.protocol.DeltaCodec;
+import univalle.tedesoft.uno.protocol.TableView;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Difusión del estado de una mesa a sus espectadores. Cada cambio se codifica una sola
+ * vez, junto con una instantánea del estado resultante, en buffers directos de solo
+ * lectura; todas las conexiones encolan vistas ({@link ByteBuffer#duplicate()}) de esos
+ * mismos bytes y los escriben con escrituras agrupadas, sin más copias.
+ * Los espectadores se agrupan por bucle de eventos, así que un cambio genera una sola
+ * tarea por bucle. Un espectador lento no acumula memoria sin límite: su conexión
+ * descarta lo pendiente y se resincroniza con la última instantánea (ver
+ * {@link Connection#offerShared}). Con persistencia, los cambios se entregan cuando el
+ * registro de la mesa llega al disco, igual que las respuestas a los asientos.
+ * Solo se usa desde los comandos de la mesa.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class SpectatorHub {
+    /** Tamaño de cada bloque de memoria directa del que se cortan las tramas. */
+    private static final int SLAB_BYTES = 64 * 1024;
+    /** Espacio mínimo para codificar una trama. */
+    private static final int FRAME_BYTES = WireProtocol.LENGTH_BYTES + WireProtocol.HEADER_BYTES
+            + DeltaCodec.MAX_MESSAGE_BYTES;
+
+    /** Id de la mesa. */
+    private final int tableId;
+    /** Diario de la mesa, o null sin persistencia. */
+    private final GameJournal journal;
+    /** Espectadores agrupados por bucle; cada arreglo se reemplaza, nunca se modifica. */
+    private final Map<EventLoop, Spectator[]> groups = new HashMap<>();
+    /** Última vista publicada. */
+    private final TableView published = new TableView();
+    /** Última instantánea codificada, o null si aún no se publicó nada. */
+    private ByteBuffer snapshot;
+    /** Bloque actual de memoria directa; las tramas viven hasta que nadie las referencia. */
+    private ByteBuffer slab = ByteBuffer.allocateDirect(SLAB_BYTES);
+    /** Cantidad de espectadores. */
+    private int size;
+
+    /**
+     * Constructor del concentrador.
+     * @param tableId id de la mesa.
+     */
+    SpectatorHub(int tableId) {
+        this(tableId, null);
+    }
+
+    /**
+     * Constructor del concentrador de una mesa con persistencia.
+     * @param tableId id de la mesa.
+     * @param journal diario de la mesa, o null sin persistencia.
+     */
+    SpectatorHub(int tableId, GameJournal journal) {
+        this.tableId = tableId;
+        this.journal = journal;
+    }
+
+    /**
+     * Indica si hay espectadores.
+     * @return true si no hay ninguno.
+     */
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Agrega un espectador. Si ya hay estado publicado, recibe la instantánea actual.
+     * @param connection la conexión del espectador.
+     */
+    void add(Connection connection) {
+        Spectator spectator = new Spectator(connection, this.tableId);
+        EventLoop loop = connection.loop();
+        Spectator[] group = this.groups.getOrDefault(loop, new Spectator[0]);
+        Spectator[] larger = new Spectator[group.length + 1];
+        System.arraycopy(group, 0, larger, 0, group.length);
+        larger[group.length] = spectator;
+        this.groups.put(loop, larger);
+        this.size++;
+        ByteBuffer current = this.snapshot;
+        loop.execute(() -> connection.startSpectating(spectator, current));
+    }
+
+    /**
+     * Quita a una conexión de los espectadores, si lo era.
+     * @param connection la conexión.
+     */
+    void remove(Connection connection) {
+        EventLoop loop = connection.loop();
+        Spectator[] group = this.groups.get(loop);
+        if (group == null) {
+            return;
+        }
+        for (int i = 0; i < group.length; i++) {
+            if (group[i].connection == connection) {
+                Spectator removed = group[i];
+                Spectator[] smaller = new Spectator[group.length - 1];
+                System.arraycopy(group, 0, smaller, 0, i);
+                System.arraycopy(group, i + 1, smaller, i, group.length - i - 1);
+                if (smaller.length == 0) {
+                    this.groups.remove(loop);
+                } else {
+                    this.groups.put(loop, smaller);
+                }
+                this.size--;
+                loop.execute(() -> connection.stopSpectating(removed));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publica el estado de la mesa visto por un espectador: lo codifica una vez como
+     * cambio e instantánea y lo entrega a cada bucle.
+     * @param view la vista de espectador, con los eventos a enviar.
+     */
+    void publish(TableView view) {
+        ByteBuffer deltaFrame = this.allocateFrame();
+        if (DeltaCodec.encode(this.published, view, deltaFrame) == 0) {
+            this.slab.position(this.slab.position() - WireProtocol.LENGTH_BYTES - WireProtocol.HEADER_BYTES);
+            return;
+        }
+        ByteBuffer delta = this.finishFrame(deltaFrame);
+        ByteBuffer snapshotFrame = this.allocateFrame();
+        DeltaCodec.encodeSnapshot(view, snapshotFrame);
+        ByteBuffer full = this.finishFrame(snapshotFrame);
+        this.published.copyFrom(view);
+        this.snapshot = full;
+        for (Map.Entry<EventLoop, Spectator[]> entry : this.groups.entrySet()) {
+            EventLoop loop = entry.getKey();
+            Spectator[] targets = entry.getValue();
+            Runnable delivery = () -> {
+                for (Spectator spectator : targets) {
+                    spectator.connection.offerShared(spectator, delta, full);
+                }
+            };
+            if (this.journal == null) {
+                loop.execute(delivery);
+            } else {
+                this.journal.whenDurable(() -> loop.execute(delivery));
+            }
+        }
+    }
+
+    /**
+     * Reserva espacio para una trama al final del bloque actual y escribe su cabecera.
+     * @return un buffer cuyo índice 0 es el inicio de la trama, posicionado en la carga útil.
+     */
+    private ByteBuffer allocateFrame() {
+        if (this.slab.remaining() < FRAME_BYTES) {
+            this.slab = ByteBuffer.allocateDirect(SLAB_BYTES);
+        }
+        ByteBuffer frame = this.slab.slice();
+        GameServer.beginFrame(frame, WireProtocol.STATE, this.tableId);
+        this.slab.position(this.slab.position() + frame.position());
+        return frame;
+    }
+
+    /**
+     * Completa una trama, avanza el bloque y la devuelve como vista de solo lectura.
+     * @param frame la trama reservada con {@link #allocateFrame()}.
+     * @return la trama lista para compartir.
+     */
+    private ByteBuffer finishFrame(ByteBuffer frame) {
+        int headerBytes = WireProtocol.LENGTH_BYTES + WireProtocol.HEADER_BYTES;
+        this.slab.position(this.slab.position() + frame.position() - headerBytes);
+        GameServer.endFrame(frame);
+        return frame.asReadOnlyBuffer();
+    }
+
+    /**
+     * Suscripción de una conexión a una mesa. Su estado solo lo toca el bucle de la conexión.
+     */
+    static final class Spectator {
+        /** Conexión del espectador. */
+        final Connection connection;
+        /** Id de la mesa observada. */
+        final int tableId;
+        /** Última instantánea recibida de la mesa, para resincronizar. */
+        ByteBuffer lastSnapshot;
+        /** true si el próximo envío debe ser una instantánea. */
+        boolean needsSnapshot = true;
+
+        /**
+         * Constructor de la suscripción.
+         * @param connection la conexión.
+         * @param tableId id de la mesa.
+         */
+        private Spectator(Connection connection, int tableId) {
+            this.connection = connection;
+            this.tableId = tableId;
+        }
+    }
+}
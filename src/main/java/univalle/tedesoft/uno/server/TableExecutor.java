@@ -0,0 +1,252 @@
+package univalle.tedesoft.uno.server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecutor de mesas al estilo actor: cada mesa tiene un {@link Mailbox} y sus comandos
+ * (jugar, robar, cantar UNO, castigar...) se ejecutan de uno en uno y en orden de llegada,
+ * así que el {@link univalle.tedesoft.uno.model.State.GameState} de la mesa nunca se
+ * toca desde dos hilos a la vez y no necesita cerrojos.
+ * Las mesas con trabajo se programan en un {@link ForkJoinPool} compartido: cada buzón
+ * activo es una tarea, y los hilos ociosos roban buzones de las colas de los ocupados.
+ * Un buzón procesa a lo sumo {@link #BATCH_SIZE} comandos por turno y luego cede el hilo,
+ * para que una mesa muy activa no acapare a un trabajador.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class TableExecutor {
+    /** Comandos que procesa un buzón antes de ceder el hilo. */
+    public static final int BATCH_SIZE = 64;
+
+    /** Grupo de trabajadores compartido por todas las mesas. */
+    private final ForkJoinPool pool;
+    /** Comandos encolados y aún no ejecutados, en todos los buzones. */
+    private final LongAdder queued = new LongAdder();
+    /** Comandos ejecutados. */
+    private final LongAdder executed = new LongAdder();
+    /** Comandos que lanzaron una excepción. */
+    private final LongAdder failed = new LongAdder();
+    /** Mayor profundidad observada en un buzón. */
+    private final AtomicInteger maxMailboxDepth = new AtomicInteger();
+    /** Latencia por comando, desde que se encola hasta que termina. Protegida por sí misma. */
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * Constructor del ejecutor.
+     * @param workers cantidad de hilos trabajadores (normalmente uno por núcleo).
+     */
+    public TableExecutor(int workers) {
+        // asyncMode: las tareas locales se atienden en orden FIFO, como corresponde a buzones
+        this.pool = new ForkJoinPool(Math.max(1, workers), pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("TableWorker-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * Crea el buzón de una mesa nueva.
+     * @return el buzón.
+     */
+    public Mailbox newMailbox() {
+        return new Mailbox();
+    }
+
+    /**
+     * Detiene el ejecutor; los comandos pendientes se descartan.
+     * @param timeoutMillis tiempo máximo de espera para los comandos en curso.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void shutdown(long timeoutMillis) throws InterruptedException {
+        this.pool.shutdownNow();
+        this.pool.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Espera a que no quede ningún comando encolado ni en ejecución.
+     * @param timeoutMillis tiempo máximo de espera.
+     * @return true si el ejecutor quedó inactivo antes del plazo.
+     */
+    public boolean awaitQuiescence(long timeoutMillis) {
+        return this.pool.awaitQuiescence(timeoutMillis, TimeUnit.MILLISECONDS) && this.queued.sum() == 0;
+    }
+
+    /**
+     * Devuelve la cantidad de comandos encolados y aún no ejecutados en todos los buzones.
+     * @return comandos pendientes.
+     */
+    public long getQueuedCommands() {
+        return this.queued.sum();
+    }
+
+    /**
+     * Devuelve la cantidad de comandos ejecutados.
+     * @return comandos ejecutados.
+     */
+    public long getExecutedCommands() {
+        return this.executed.sum();
+    }
+
+    /**
+     * Devuelve la cantidad de comandos que terminaron con una excepción.
+     * @return comandos fallidos.
+     */
+    public long getFailedCommands() {
+        return this.failed.sum();
+    }
+
+    /**
+     * Devuelve la mayor profundidad que llegó a tener un buzón.
+     * @return profundidad máxima.
+     */
+    public int getMaxMailboxDepth() {
+        return this.maxMailboxDepth.get();
+    }
+
+    /**
+     * Devuelve la cantidad de buzones robados entre trabajadores.
+     * @return robos del grupo de trabajadores.
+     */
+    public long getStealCount() {
+        return this.pool.getStealCount();
+    }
+
+    /**
+     * Copia las latencias por comando acumuladas y, si se pide, las reinicia.
+     * @param reset true para empezar una nueva ventana de medición.
+     * @return copia del histograma de latencias.
+     */
+    public LatencyHistogram latencySnapshot(boolean reset) {
+        LatencyHistogram copy = new LatencyHistogram();
+        synchronized (this.latencies) {
+            copy.add(this.latencies);
+            if (reset) {
+                this.latencies.reset();
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Resumen legible de las métricas.
+     * @return texto con comandos, profundidad de buzones y percentiles de latencia.
+     */
+    @Override
+    public String toString() {
+        LatencyHistogram snapshot = this.latencySnapshot(false);
+        return String.format("%d comandos (%d fallidos, %d pendientes), buzón máx=%d, robos=%d; "
+                        + "latencia p50=%d us p99=%d us max=%d us",
+                this.getExecutedCommands(), this.getFailedCommands(), this.getQueuedCommands(),
+                this.getMaxMailboxDepth(), this.getStealCount(),
+                snapshot.getPercentile(50) / 1000, snapshot.getPercentile(99) / 1000, snapshot.getMax() / 1000);
+    }
+
+    /**
+     * Buzón de una mesa. Cualquier hilo puede enviarle comandos; como mucho un
+     * trabajador lo procesa a la vez.
+     */
+    public final class Mailbox implements Runnable {
+        /** Comandos pendientes con su instante de llegada. */
+        private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+        /** Comandos pendientes; el envío que la lleva de 0 a 1 programa el buzón. */
+        private final AtomicInteger depth = new AtomicInteger();
+        /** Latencias del turno en curso, para volcarlas al histograma una vez por turno. */
+        private final long[] batchLatencies = new long[BATCH_SIZE];
+
+        /**
+         * Constructor del buzón.
+         */
+        private Mailbox() {
+        }
+
+        /**
+         * Encola un comando para la mesa.
+         * @param command el comando.
+         */
+        public void submit(Runnable command) {
+            this.commands.add(new Command(command, System.nanoTime()));
+            TableExecutor.this.queued.increment();
+            int newDepth = this.depth.incrementAndGet();
+            if (newDepth == 1) {
+                TableExecutor.this.pool.execute(this);
+            } else if (newDepth > TableExecutor.this.maxMailboxDepth.get()) {
+                TableExecutor.this.maxMailboxDepth.accumulateAndGet(newDepth, Math::max);
+            }
+        }
+
+        /**
+         * Devuelve la cantidad de comandos pendientes del buzón.
+         * @return profundidad actual.
+         */
+        public int getDepth() {
+            return this.depth.get();
+        }
+
+        /**
+         * Procesa un turno de comandos. Lo invoca el grupo de trabajadores.
+         */
+        @Override
+        public void run() {
+            int processed = 0;
+            int remaining;
+            do {
+                // Cada incremento de profundidad sigue a su encolado, así que hay comando
+                Command command = this.commands.poll();
+                try {
+                    command.action.run();
+                } catch (RuntimeException e) {
+                    TableExecutor.this.failed.increment();
+                    System.err.println("Error en comando de mesa: " + e);
+                }
+                this.batchLatencies[processed++] = System.nanoTime() - command.enqueuedAt;
+                remaining = this.depth.decrementAndGet();
+            } while (remaining > 0 && processed < BATCH_SIZE);
+            this.recordBatch(processed);
+            if (remaining > 0) {
+                // Ceder el hilo: el buzón vuelve a la cola y otro trabajador puede robarlo
+                TableExecutor.this.pool.execute(this);
+            }
+        }
+
+        /**
+         * Vuelca las métricas del turno.
+         * @param processed comandos procesados en el turno.
+         */
+        private void recordBatch(int processed) {
+            TableExecutor.this.queued.add(-processed);
+            TableExecutor.this.executed.add(processed);
+            synchronized (TableExecutor.this.latencies) {
+                for (int i = 0; i < processed; i++) {
+                    TableExecutor.this.latencies.record(this.batchLatencies[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Comando encolado con su instante de llegada.
+     */
+    private static final class Command {
+        /** Acción a ejecutar sobre la mesa. */
+        private final Runnable action;
+        /** Instante de llegada, en la escala de System.nanoTime(). */
+        private final long enqueuedAt;
+
+        /**
+         * Constructor del comando.
+         * @param action acción a ejecutar.
+         * @param enqueuedAt instante de llegada.
+         */
+        private Command(Runnable action, long enqueuedAt) {
+            this.action = action;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
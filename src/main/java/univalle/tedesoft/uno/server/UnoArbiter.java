@@ -0,0 +1,183 @@
+package univalle.tedesoft.uno.server;
+
+import java.util.Arrays;
+
+/**
+ * Árbitro de las carreras de UNO de una mesa alojada. Cuando un jugador queda con una
+ * carta sin cantar UNO se abre su ventana; "cantar UNO" y "atrapar" compiten por cerrarla.
+ * En el juego local gana la acción cuyo {@code Platform.runLater} llega primero; aquí cada
+ * acción lleva el instante monotónico ({@link System#nanoTime()}) en que el bucle de red
+ * leyó su trama, se acumula y se resuelve en un único paso determinista: las pendientes
+ * se ordenan por instante de recepción, con empates a favor de quien canta y luego del
+ * asiento menor, y la primera que alcanza una ventana abierta la cierra. Las demás se
+ * rechazan, igual que las que se recibieron antes de que la ventana se abriera.
+ * <p>
+ * Se usa solo desde el buzón de la mesa y no reserva memoria por acción.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class UnoArbiter {
+    /** Acción de cantar UNO por uno mismo. */
+    static final int DECLARE = 0;
+    /** Acción de atrapar a otro jugador que no cantó UNO. */
+    static final int CATCH = 1;
+    /** Acciones pendientes iniciales; el arreglo crece si hace falta. */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Recibe el fallo de cada acción, en el orden en que se resolvió.
+     */
+    interface IRuling {
+        /**
+         * Aplica o rechaza una acción.
+         * @param kind {@link #DECLARE} o {@link #CATCH}.
+         * @param actor asiento que envió la acción.
+         * @param target asiento de la ventana disputada.
+         * @param accepted true si la acción cerró la ventana.
+         * @param receivedAt instante de recepción de la acción.
+         */
+        void rule(int kind, int actor, int target, boolean accepted, long receivedAt);
+    }
+
+    /** true para los asientos con la ventana abierta. */
+    private final boolean[] open;
+    /** Instante de recepción de la jugada que abrió la ventana de cada asiento. */
+    private final long[] openedAt;
+    /** Tipo de cada acción pendiente. */
+    private int[] kinds = new int[INITIAL_CAPACITY];
+    /** Asiento que envió cada acción pendiente. */
+    private int[] actors = new int[INITIAL_CAPACITY];
+    /** Asiento objetivo de cada acción pendiente. */
+    private int[] targets = new int[INITIAL_CAPACITY];
+    /** Instante de recepción de cada acción pendiente. */
+    private long[] times = new long[INITIAL_CAPACITY];
+    /** Orden de resolución, como índices de las acciones pendientes. */
+    private int[] order = new int[INITIAL_CAPACITY];
+    /** Cantidad de acciones pendientes. */
+    private int pending;
+
+    /**
+     * Constructor del árbitro.
+     * @param seatCount cantidad de asientos de la mesa.
+     */
+    UnoArbiter(int seatCount) {
+        this.open = new boolean[seatCount];
+        this.openedAt = new long[seatCount];
+    }
+
+    /**
+     * Abre la ventana de un asiento que quedó con una carta sin cantar UNO.
+     * @param seat el asiento.
+     * @param receivedAt instante de recepción de la jugada que la abrió.
+     */
+    void open(int seat, long receivedAt) {
+        this.open[seat] = true;
+        this.openedAt[seat] = receivedAt;
+    }
+
+    /**
+     * Cierra la ventana de un asiento sin disputa, por ejemplo cuando vuelve a ser su turno.
+     * @param seat el asiento.
+     */
+    void close(int seat) {
+        this.open[seat] = false;
+    }
+
+    /**
+     * Cierra todas las ventanas y descarta las acciones pendientes, para una partida nueva.
+     */
+    void reset() {
+        Arrays.fill(this.open, false);
+        this.pending = 0;
+    }
+
+    /**
+     * Indica si la ventana de un asiento está abierta.
+     * @param seat el asiento.
+     * @return true si se le puede cantar UNO o atrapar.
+     */
+    boolean isOpen(int seat) {
+        return this.open[seat];
+    }
+
+    /**
+     * Indica si hay acciones esperando resolución.
+     * @return true si hay pendientes.
+     */
+    boolean hasPending() {
+        return this.pending > 0;
+    }
+
+    /**
+     * Agrega una acción para la próxima resolución.
+     * @param kind {@link #DECLARE} o {@link #CATCH}.
+     * @param actor asiento que la envió.
+     * @param target asiento de la ventana disputada.
+     * @param receivedAt instante de recepción.
+     * @return true si es la primera pendiente, es decir, si hay que programar una resolución.
+     */
+    boolean submit(int kind, int actor, int target, long receivedAt) {
+        if (this.pending == this.kinds.length) {
+            int capacity = this.pending * 2;
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+            this.actors = Arrays.copyOf(this.actors, capacity);
+            this.targets = Arrays.copyOf(this.targets, capacity);
+            this.times = Arrays.copyOf(this.times, capacity);
+            this.order = new int[capacity];
+        }
+        int index = this.pending++;
+        this.kinds[index] = kind;
+        this.actors[index] = actor;
+        this.targets[index] = target;
+        this.times[index] = receivedAt;
+        return index == 0;
+    }
+
+    /**
+     * Resuelve de una vez todas las acciones pendientes, en orden de recepción.
+     * @param ruling receptor del fallo de cada acción.
+     * @return cantidad de acciones resueltas.
+     */
+    int resolve(IRuling ruling) {
+        int count = this.pending;
+        // Inserción: en la práctica llegan pocas acciones por ventana y casi ordenadas
+        for (int i = 0; i < count; i++) {
+            int j = i;
+            while (j > 0 && this.before(i, this.order[j - 1])) {
+                this.order[j] = this.order[j - 1];
+                j--;
+            }
+            this.order[j] = i;
+        }
+        this.pending = 0;
+        for (int i = 0; i < count; i++) {
+            int action = this.order[i];
+            int target = this.targets[action];
+            long receivedAt = this.times[action];
+            boolean accepted = this.open[target] && receivedAt - this.openedAt[target] >= 0;
+            if (accepted) {
+                this.open[target] = false;
+            }
+            ruling.rule(this.kinds[action], this.actors[action], target, accepted, receivedAt);
+        }
+        return count;
+    }
+
+    /**
+     * Compara dos acciones pendientes por instante, tipo y asiento.
+     * @param a índice de la primera.
+     * @param b índice de la segunda.
+     * @return true si la primera se resuelve antes.
+     */
+    private boolean before(int a, int b) {
+        long delta = this.times[a] - this.times[b];
+        if (delta != 0) {
+            return delta < 0;
+        }
+        if (this.kinds[a] != this.kinds[b]) {
+            return this.kinds[a] == DECLARE;
+        }
+        return this.actors[a] < this.actors[b];
+    }
+}
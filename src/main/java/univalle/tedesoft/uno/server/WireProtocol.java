@@ -0,0 +1,111 @@
+package univalle.tedesoft.uno.server;
+
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.protocol.CardCodec;
+import univalle.tedesoft.uno.protocol.DeltaCodec;
+
+/**
+ * Constantes del protocolo binario entre el servidor y sus clientes.
+ * Cada trama es: longitud del resto (u16, big-endian), tipo (u8), id de mesa (i32)
+ * y la carga útil del tipo. Las cartas y los colores viajan como un byte de {@link CardCodec}.
+ * <p>
+ * Cliente a servidor:
+ * <ul>
+ *     <li>{@link #CREATE_TABLE}: asientos (u8), asientos remotos (u8). El creador ocupa el asiento 0;
+ *     los asientos no remotos los juega una máquina.</li>
+ *     <li>{@link #JOIN_TABLE}: sin carga; ocupa el siguiente asiento remoto libre.</li>
+ *     <li>{@link #PLAY}: índice de la carta en la mano (u8), color para comodines (u8), banderas (u8, bit 0 = UNO).</li>
+ *     <li>{@link #DRAW}, {@link #DECLARE_UNO}, {@link #NEW_GAME}: sin carga.</li>
+ *     <li>{@link #PUNISH}: asiento del jugador que no cantó UNO (u8).</li>
+ *     <li>{@link #SPECTATE}: sin carga; recibe los cambios de la mesa vistos sin mano propia.
+ *     Si el cliente no los consume a tiempo, recibe una instantánea en lugar de los cambios perdidos.</li>
+ *     <li>{@link #RESUME}: asiento (u8), ficha de reanudación (i64), eventos recibidos desde el
+ *     último JOINED (u32). Recupera el asiento tras una desconexión; la respuesta es JOINED y una
+ *     instantánea con los eventos que el cliente se perdió.</li>
+ * </ul>
+ * Servidor a cliente:
+ * <ul>
+ *     <li>{@link #JOINED}: asiento asignado (u8), ficha para reanudarlo (i64).</li>
+ *     <li>{@link #STATE}: un mensaje de {@link DeltaCodec} con lo que cambió desde el anterior;
+ *     el primero que recibe un asiento es una instantánea completa.</li>
+ *     <li>{@link #ERROR}: código de error (u8).</li>
+ * </ul>
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class WireProtocol {
+    /** Bytes del prefijo de longitud. */
+    public static final int LENGTH_BYTES = 2;
+    /** Bytes de la cabecera después del prefijo: tipo e id de mesa. */
+    public static final int HEADER_BYTES = 1 + Integer.BYTES;
+    /** Tamaño máximo de una trama, incluido el prefijo. */
+    public static final int MAX_FRAME = 1024;
+
+    /** Crear una mesa. */
+    public static final byte CREATE_TABLE = 0x01;
+    /** Unirse a una mesa existente. */
+    public static final byte JOIN_TABLE = 0x02;
+    /** Jugar una carta. */
+    public static final byte PLAY = 0x03;
+    /** Robar y pasar el turno. */
+    public static final byte DRAW = 0x04;
+    /** Cantar UNO. */
+    public static final byte DECLARE_UNO = 0x05;
+    /** Castigar a un jugador que no cantó UNO. */
+    public static final byte PUNISH = 0x06;
+    /** Empezar otra partida en la misma mesa. */
+    public static final byte NEW_GAME = 0x07;
+    /** Observar una mesa como espectador. */
+    public static final byte SPECTATE = 0x08;
+    /** Recuperar un asiento tras una desconexión. */
+    public static final byte RESUME = 0x09;
+
+    /** Confirmación de asiento. */
+    public static final byte JOINED = (byte) 0x81;
+    /** Estado de la mesa visto desde un asiento. */
+    public static final byte STATE = (byte) 0x82;
+    /** Error en un comando. */
+    public static final byte ERROR = (byte) 0x83;
+
+    /** Bandera de PLAY: el jugador canta UNO con la jugada. */
+    public static final int FLAG_UNO = 1;
+    /** Valor de PLAY para "sin color", cuando la carta no es un comodín. */
+    public static final int NONE = 0xFF;
+
+    /** La mesa no existe. */
+    public static final int ERROR_NO_TABLE = 1;
+    /** La mesa ya existe. */
+    public static final int ERROR_TABLE_EXISTS = 2;
+    /** La mesa no tiene asientos libres. */
+    public static final int ERROR_TABLE_FULL = 3;
+    /** No es el turno del jugador o no está sentado en la mesa. */
+    public static final int ERROR_NOT_YOUR_TURN = 4;
+    /** La jugada no es válida. */
+    public static final int ERROR_INVALID_PLAY = 5;
+    /** El comando o sus parámetros no son válidos. */
+    public static final int ERROR_BAD_REQUEST = 6;
+    /** El asiento no se puede reanudar: la ficha no coincide o la reserva expiró. */
+    public static final int ERROR_RESUME_REJECTED = 7;
+
+    /** Colores por ordinal, para decodificar sin reservar arreglos. */
+    private static final Color[] COLORS = Color.values();
+
+    /**
+     * Clase de constantes, no se instancia.
+     */
+    private WireProtocol() {
+    }
+
+    /**
+     * Decodifica un color elegible tras un comodín.
+     * @param code el byte recibido.
+     * @return el color, o null si no es un color elegible.
+     */
+    public static Color decodeChoosableColor(int code) {
+        if (code < 0 || code >= COLORS.length || COLORS[code] == Color.WILD) {
+            return null;
+        }
+        return COLORS[code];
+    }
+}
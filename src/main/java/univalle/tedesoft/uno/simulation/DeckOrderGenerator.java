@@ -0,0 +1,102 @@
+package univalle.tedesoft.uno.simulation;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Decks.Deck;
+import univalle.tedesoft.uno.model.Rng.Xoshiro256Random;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Etapa de fondo que baraja mazos por adelantado para los hilos de simulación. Cada hilo
+ * registra su propio {@link DeckOrderQueue} y el generador, desde un único hilo, los
+ * mantiene llenos; así cada anillo tiene un solo productor y un solo consumidor. Solo
+ * compensa cuando sobra un núcleo: con todos ocupados, barajar aquí compite con las
+ * partidas (ver DeckPregenerationBenchmark).
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class DeckOrderGenerator implements Runnable {
+    /** Espera cuando todos los anillos están llenos. */
+    private static final long IDLE_PARK_NANOS = 50_000L;
+
+    /** Anillos registrados, uno por hilo consumidor. */
+    private final List<DeckOrderQueue> queues = new CopyOnWriteArrayList<>();
+    /** Códigos de un mazo completo, ordenados. */
+    private final byte[] canonical = new byte[Deck.SIZE];
+    /** Fuente aleatoria del generador; solo la usa su hilo. */
+    private final Xoshiro256Random random;
+    /** Hilo del generador, o null si no está corriendo. */
+    private volatile Thread thread;
+
+    /**
+     * Crea un generador detenido.
+     * @param seed semilla de los órdenes generados.
+     */
+    public DeckOrderGenerator(long seed) {
+        this.random = new Xoshiro256Random(seed);
+        Deck deck = new Deck();
+        deck.sortByCode();
+        List<Card> cards = deck.getCards();
+        for (int i = 0; i < this.canonical.length; i++) {
+            this.canonical[i] = (byte) cards.get(i).getCode();
+        }
+    }
+
+    /**
+     * Crea y registra el anillo de un consumidor.
+     * @param capacity cantidad de órdenes que se mantienen listos.
+     * @return el anillo, que solo debe leer un hilo.
+     */
+    public DeckOrderQueue register(int capacity) {
+        DeckOrderQueue queue = new DeckOrderQueue(capacity);
+        this.queues.add(queue);
+        return queue;
+    }
+
+    /**
+     * Arranca el hilo del generador.
+     */
+    public synchronized void start() {
+        if (this.thread == null) {
+            Thread generator = new Thread(this, "DeckOrderGenerator");
+            generator.setDaemon(true);
+            this.thread = generator;
+            generator.start();
+        }
+    }
+
+    /**
+     * Detiene el hilo del generador y espera a que termine.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public synchronized void stop() throws InterruptedException {
+        Thread generator = this.thread;
+        if (generator != null) {
+            this.thread = null;
+            generator.interrupt();
+            generator.join();
+        }
+    }
+
+    /**
+     * Llena los anillos por turnos hasta que se detenga el generador; si están todos
+     * llenos, duerme un momento.
+     */
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            boolean produced = false;
+            for (DeckOrderQueue queue : this.queues) {
+                while (queue.offerShuffled(this.canonical, this.random)) {
+                    produced = true;
+                }
+            }
+            if (!produced) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+}
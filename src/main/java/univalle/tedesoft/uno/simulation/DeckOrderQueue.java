@@ -0,0 +1,103 @@
+package univalle.tedesoft.uno.simulation;
+
+import univalle.tedesoft.uno.model.Decks.Deck;
+import univalle.tedesoft.uno.model.Rng.IRandomSource;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Anillo acotado de órdenes de mazo ya barajados, con un solo productor (el
+ * {@link DeckOrderGenerator}) y un solo consumidor (un hilo de simulación). Cada orden son
+ * los códigos de las 64 cartas en un byte[] reservado al crear el anillo: barajar en el
+ * productor y copiar en el consumidor no reserva memoria ni toma cerrojos. Cada lado solo
+ * escribe su propio contador y lee el del otro con orden de adquisición.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class DeckOrderQueue {
+    /** Órdenes, indexados por posición módulo la capacidad. */
+    private final byte[][] slots;
+    /** Máscara de la capacidad, que es potencia de dos. */
+    private final int mask;
+    /** Próxima posición a leer; solo la escribe el consumidor. */
+    private final AtomicLong head = new AtomicLong();
+    /** Próxima posición a escribir; solo la escribe el productor. */
+    private final AtomicLong tail = new AtomicLong();
+    /** Última cabeza vista por el productor, para no leer la del consumidor en cada orden. */
+    private long cachedHead;
+    /** Órdenes que el consumidor pidió y no encontró. */
+    private long misses;
+
+    /**
+     * Crea un anillo vacío.
+     * @param capacity cantidad de órdenes; se redondea a la potencia de dos siguiente.
+     */
+    public DeckOrderQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new byte[Math.max(1, size)][Deck.SIZE];
+        this.mask = this.slots.length - 1;
+    }
+
+    /**
+     * Baraja un orden en la próxima posición libre y lo publica. Solo lo llama el productor.
+     * @param canonical códigos del mazo en el orden de partida.
+     * @param random fuente aleatoria del productor.
+     * @return false si el anillo está lleno.
+     */
+    boolean offerShuffled(byte[] canonical, IRandomSource random) {
+        long position = this.tail.get();
+        if (position - this.cachedHead >= this.slots.length) {
+            this.cachedHead = this.head.get();
+            if (position - this.cachedHead >= this.slots.length) {
+                return false;
+            }
+        }
+        byte[] slot = this.slots[(int) position & this.mask];
+        System.arraycopy(canonical, 0, slot, 0, slot.length);
+        for (int i = slot.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte swap = slot[i];
+            slot[i] = slot[j];
+            slot[j] = swap;
+        }
+        this.tail.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Copia el orden más antiguo y libera su posición. Solo lo llama el consumidor.
+     * @param out destino, de {@link Deck#SIZE} posiciones.
+     * @return false si no había órdenes listos; el consumidor baraja por su cuenta.
+     */
+    public boolean poll(byte[] out) {
+        long position = this.head.get();
+        if (position == this.tail.get()) {
+            this.misses++;
+            return false;
+        }
+        System.arraycopy(this.slots[(int) position & this.mask], 0, out, 0, out.length);
+        this.head.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Devuelve la cantidad de órdenes listos.
+     * @return órdenes listos.
+     */
+    public int size() {
+        return (int) (this.tail.get() - this.head.get());
+    }
+
+    /**
+     * Devuelve las veces que el consumidor no encontró un orden listo. Solo es exacto
+     * leído desde el consumidor o cuando ya terminó.
+     * @return pedidos sin orden listo.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+}
@@ -0,0 +1,168 @@
+package univalle.tedesoft.uno.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Calificaciones Elo ajustadas por máxima verosimilitud (modelo de Bradley-Terry)
+ * a partir de los resultados de un torneo todos contra todos.
+ * Los empates cuentan como media victoria. Se agrega media victoria y media derrota
+ * ficticias por pareja para que un participante invicto no tenga calificación infinita.
+ * El intervalo de confianza del 95% se aproxima con la información de Fisher de cada
+ * participante, ignorando la covarianza entre calificaciones.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class EloRatings {
+    /** Calificación promedio a la que se ancla la escala. */
+    public static final double MEAN_RATING = 1500.0;
+    /** Factor de conversión de logaritmo natural a puntos Elo. */
+    private static final double ELO_PER_NAT = 400.0 / Math.log(10.0);
+    /** Cuantil normal para el intervalo del 95%. */
+    private static final double Z_95 = 1.959964;
+    /** Iteraciones máximas del ajuste. */
+    private static final int MAX_ITERATIONS = 500;
+    /** Tolerancia de convergencia del ajuste. */
+    private static final double TOLERANCE = 1e-10;
+
+    /** Nombres de los participantes. */
+    private final String[] names;
+    /** Calificación de cada participante. */
+    private final double[] ratings;
+    /** Mitad del intervalo de confianza del 95% de cada participante. */
+    private final double[] confidence;
+    /** Partidas jugadas por cada participante. */
+    private final long[] games;
+    /** Total de partidas del torneo. */
+    private final long totalGames;
+
+    /**
+     * Constructor privado; usar {@link #fit}.
+     * @param names nombres de los participantes.
+     * @param ratings calificaciones.
+     * @param confidence mitades de los intervalos de confianza.
+     * @param games partidas por participante.
+     * @param totalGames total de partidas.
+     */
+    private EloRatings(String[] names, double[] ratings, double[] confidence, long[] games, long totalGames) {
+        this.names = names;
+        this.ratings = ratings;
+        this.confidence = confidence;
+        this.games = games;
+        this.totalGames = totalGames;
+    }
+
+    /**
+     * Ajusta las calificaciones a partir de la matriz de resultados.
+     * @param names nombres de los participantes.
+     * @param wins wins[i][j] = partidas que i le ganó a j.
+     * @param draws draws[i][j] = empates entre i y j (simétrica).
+     * @return las calificaciones ajustadas.
+     */
+    public static EloRatings fit(String[] names, long[][] wins, long[][] draws) {
+        int n = names.length;
+        double[][] played = new double[n][n];
+        double[] score = new double[n];
+        long[] games = new long[n];
+        long totalGames = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j) {
+                    continue;
+                }
+                long pairGames = wins[i][j] + wins[j][i] + draws[i][j];
+                games[i] += pairGames;
+                if (i < j) {
+                    totalGames += pairGames;
+                }
+                // Media victoria y media derrota ficticias por pareja
+                played[i][j] = pairGames + 1.0;
+                score[i] += wins[i][j] + 0.5 * draws[i][j] + 0.5;
+            }
+        }
+
+        double[] gamma = new double[n];
+        Arrays.fill(gamma, 1.0);
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double maxChange = 0.0;
+            for (int i = 0; i < n; i++) {
+                double denominator = 0.0;
+                for (int j = 0; j < n; j++) {
+                    if (i != j) {
+                        denominator += played[i][j] / (gamma[i] + gamma[j]);
+                    }
+                }
+                double updated = denominator > 0 ? score[i] / denominator : gamma[i];
+                maxChange = Math.max(maxChange, Math.abs(Math.log(updated / gamma[i])));
+                gamma[i] = updated;
+            }
+            if (maxChange < TOLERANCE) {
+                break;
+            }
+        }
+
+        double[] ratings = new double[n];
+        double meanLog = 0.0;
+        for (int i = 0; i < n; i++) {
+            meanLog += Math.log(gamma[i]) / n;
+        }
+        double[] confidence = new double[n];
+        for (int i = 0; i < n; i++) {
+            ratings[i] = MEAN_RATING + ELO_PER_NAT * (Math.log(gamma[i]) - meanLog);
+            double information = 0.0;
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    double p = gamma[i] / (gamma[i] + gamma[j]);
+                    information += played[i][j] * p * (1.0 - p);
+                }
+            }
+            confidence[i] = information > 0 ? Z_95 * ELO_PER_NAT / Math.sqrt(information) : Double.POSITIVE_INFINITY;
+        }
+        return new EloRatings(names.clone(), ratings, confidence, games, totalGames);
+    }
+
+    /**
+     * Devuelve la calificación de un participante.
+     * @param index índice del participante.
+     * @return la calificación Elo.
+     */
+    public double getRating(int index) {
+        return this.ratings[index];
+    }
+
+    /**
+     * Devuelve la mitad del intervalo de confianza del 95% de un participante.
+     * @param index índice del participante.
+     * @return puntos Elo a cada lado de la calificación.
+     */
+    public double getConfidence(int index) {
+        return this.confidence[index];
+    }
+
+    /**
+     * Devuelve el total de partidas consideradas.
+     * @return total de partidas.
+     */
+    public long getTotalGames() {
+        return this.totalGames;
+    }
+
+    /**
+     * Tabla legible con una fila por participante, ordenada por calificación.
+     * @return la tabla como texto.
+     */
+    @Override
+    public String toString() {
+        Integer[] order = new Integer[this.names.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(this.ratings[b], this.ratings[a]));
+        StringBuilder builder = new StringBuilder();
+        for (int i : order) {
+            builder.append(String.format("%-12s %7.1f ± %5.1f  (%d partidas)%n",
+                    this.names[i], this.ratings[i], this.confidence[i], this.games[i]));
+        }
+        return builder.toString();
+    }
+}
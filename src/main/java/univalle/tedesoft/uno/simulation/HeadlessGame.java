@@ -0,0 +1,274 @@
+package univalle.tedesoft.uno.simulation;
+
+import univalle.tedesoft.uno.exceptions.EmptyDeckException;
+import univalle.tedesoft.uno.exceptions.InvalidPlayException;
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Decks.Deck;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+import univalle.tedesoft.uno.model.Players.HumanPlayer;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.Rng.Xoshiro256Random;
+import univalle.tedesoft.uno.model.State.GameState;
+import univalle.tedesoft.uno.model.Strategies.IMachineStrategy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Bucle de juego sin interfaz que enfrenta dos estrategias sobre un {@link GameState}.
+ * El asiento "humano" del estado lo maneja una estrategia con su propio modelo del
+ * oponente; el asiento de la máquina usa {@link MachinePlayer#setStrategy}.
+ * Reproduce las reglas que aplica el GameController: los jugadores declaran UNO
+ * (salvo que se configure una probabilidad de olvidarlo, y entonces el rival siempre
+ * lo atrapa), los robos pendientes se aplican al final de la jugada y, si no hay
+ * jugada válida, se roba una carta y se pasa el turno.
+ * Una instancia no es segura entre hilos; cada hilo de simulación usa la suya.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class HeadlessGame {
+    /** Resultado cuando gana el asiento A (asiento humano del estado). */
+    public static final int SEAT_A_WINS = 0;
+    /** Resultado cuando gana el asiento B (asiento de la máquina). */
+    public static final int SEAT_B_WINS = 1;
+    /** Resultado cuando se alcanza el límite de turnos sin ganador. */
+    public static final int DRAW = -1;
+    /** Límite de turnos para evitar partidas infinitas (mazo agotado y todos pasan). */
+    static final int MAX_TURNS = 1000;
+
+    /** Asiento A, manejado por una estrategia externa. */
+    private final HumanPlayer seatA = new HumanPlayer("A");
+    /** Asiento B, la máquina del estado. */
+    private final MachinePlayer seatB = new MachinePlayer();
+    /** Modelo del oponente para el asiento A. */
+    private final OpponentHandModel seatAModel = new OpponentHandModel(this.seatA);
+    /** Estrategia del asiento A. */
+    private IMachineStrategy strategyA;
+    /** Presupuesto por decisión del asiento A. */
+    private long budgetA;
+    /** Estado de la partida en curso; se crea una vez y se reinicia en cada partida. */
+    private GameState gameState;
+    /** Turnos jugados en la última partida. */
+    private int lastTurnCount;
+    /** Exportador de decisiones para entrenamiento, o null si no se exporta. */
+    private PolicyDataExporter exporter;
+    /** Estadísticas donde se registra cada partida, o null si no se registran. */
+    private SimulationStatistics statistics;
+    /** Probabilidad de que un jugador olvide declarar UNO. */
+    private double unoMissChance;
+    /** Órdenes de mazo barajados de antemano, o null para barajar en cada partida. */
+    private DeckOrderQueue deckOrders;
+    /** Orden del mazo de la partida, copiado de {@link #deckOrders}. */
+    private final byte[] deckOrder = new byte[Deck.SIZE];
+    /** Fuente aleatoria de la partida: decide los olvidos de UNO y siembra las demás. */
+    private final Xoshiro256Random random = new Xoshiro256Random();
+    /** Fuente aleatoria del mazo. */
+    private final Xoshiro256Random deckRandom = this.random.split();
+    /** Fuente aleatoria de la estrategia del asiento A. */
+    private final Xoshiro256Random seatARandom = this.random.split();
+    /** Fuente aleatoria de la estrategia del asiento B. */
+    private final Xoshiro256Random seatBRandom = this.random.split();
+
+    /**
+     * Asigna las estrategias de ambos asientos.
+     * @param strategyA estrategia del asiento A.
+     * @param budgetA presupuesto por decisión del asiento A en nanosegundos.
+     * @param strategyB estrategia del asiento B.
+     * @param budgetB presupuesto por decisión del asiento B en nanosegundos.
+     */
+    public void configure(IMachineStrategy strategyA, long budgetA, IMachineStrategy strategyB, long budgetB) {
+        this.strategyA = strategyA;
+        this.budgetA = budgetA;
+        this.strategyA.setRandom(this.seatARandom);
+        this.seatB.setRandom(this.seatBRandom);
+        this.seatB.setStrategy(strategyB, budgetB);
+    }
+
+    /**
+     * Hace que las partidas siguientes tomen el mazo ya barajado de un anillo. Si el anillo
+     * está vacío, la partida baraja por su cuenta. Los órdenes salen de la semilla del
+     * generador, no de la de la partida.
+     * @param deckOrders el anillo de este hilo, o null para barajar siempre.
+     */
+    public void setDeckOrders(DeckOrderQueue deckOrders) {
+        this.deckOrders = deckOrders;
+    }
+
+    /**
+     * Siembra la partida siguiente: el barajado, las estrategias y los olvidos de UNO.
+     * Con la misma semilla y configuración la partida se repite, salvo que una estrategia
+     * dependa de su presupuesto de tiempo. Se reutilizan las mismas fuentes, sin reservar memoria.
+     * @param seed la semilla de la partida.
+     */
+    public void setSeed(long seed) {
+        this.random.setSeed(seed);
+        this.deckRandom.setSeed(this.random.nextLong());
+        this.seatARandom.setSeed(this.random.nextLong());
+        this.seatBRandom.setSeed(this.random.nextLong());
+    }
+
+    /**
+     * Asigna el exportador que registrará cada decisión de ambos asientos.
+     * @param exporter el exportador, o null para no exportar.
+     */
+    public void setExporter(PolicyDataExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Asigna las estadísticas donde se registrarán las partidas siguientes.
+     * @param statistics las estadísticas, o null para no registrar.
+     */
+    public void setStatistics(SimulationStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Asigna la probabilidad de que un jugador olvide declarar UNO y sea penalizado.
+     * @param unoMissChance probabilidad entre 0 (por defecto) y 1.
+     */
+    public void setUnoMissChance(double unoMissChance) {
+        this.unoMissChance = unoMissChance;
+    }
+
+    /**
+     * Juega una partida completa.
+     * @param seatAStarts true si el asiento A tiene el primer turno.
+     * @return {@link #SEAT_A_WINS}, {@link #SEAT_B_WINS} o {@link #DRAW}.
+     */
+    public int play(boolean seatAStarts) {
+        if (this.gameState == null) {
+            this.gameState = new GameState(this.seatA, this.seatB);
+            this.gameState.addListener(this.seatAModel);
+            this.gameState.getDeck().setRandom(this.deckRandom);
+        }
+        // onGameStart recoge las cartas de la partida anterior: no se crean cartas nuevas
+        boolean preshuffled = this.deckOrders != null && this.deckOrders.poll(this.deckOrder);
+        this.gameState.onGameStart(seatAStarts ? this.seatA : this.seatB, preshuffled ? this.deckOrder : null);
+        SimulationStatistics stats = this.statistics;
+        if (stats != null) {
+            // Se registra tras el reparto para contar solo los robos de la partida
+            this.gameState.addListener(stats);
+            stats.beginGame();
+        }
+        int outcome = DRAW;
+        for (this.lastTurnCount = 0; this.lastTurnCount < MAX_TURNS; this.lastTurnCount++) {
+            long turnStart = stats != null ? System.nanoTime() : 0;
+            boolean gameOver = this.playTurn();
+            if (stats != null) {
+                stats.recordTurn(System.nanoTime() - turnStart);
+            }
+            if (gameOver) {
+                outcome = this.gameState.getWinner() == this.seatA ? SEAT_A_WINS : SEAT_B_WINS;
+                break;
+            }
+        }
+        if (stats != null) {
+            this.gameState.removeListener(stats);
+            stats.endGame(outcome == DRAW ? this.lastTurnCount : this.lastTurnCount + 1);
+        }
+        if (this.exporter != null) {
+            try {
+                this.exporter.endGame(this.gameState.getWinner());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Juega el turno del jugador actual y avanza al siguiente.
+     * @return true si la partida terminó.
+     */
+    private boolean playTurn() {
+        Player current = this.gameState.getCurrentPlayer();
+        if (this.exporter != null) {
+            Player opponent = current == this.seatA ? this.seatB : this.seatA;
+            this.exporter.captureFeatures(this.gameState, current, opponent.getNumeroCartas());
+        }
+        Card card;
+        if (current == this.seatA) {
+            card = this.strategyA.chooseCardToPlay(this.gameState, this.seatA, this.seatAModel, System.nanoTime() + this.budgetA);
+        } else {
+            card = this.seatB.chooseCardToPlay(this.gameState);
+        }
+        if (card != null) {
+            boolean gameOver;
+            try {
+                gameOver = this.gameState.playCard(current, card);
+            } catch (InvalidPlayException e) {
+                throw new IllegalStateException("La estrategia eligió una jugada inválida: " + e.getMessage(), e);
+            }
+            if (!gameOver && current == this.seatA && card.getColor() == Color.WILD) {
+                Color color = this.strategyA.chooseColor(this.seatA, this.seatAModel, System.nanoTime() + this.budgetA);
+                this.gameState.onColorChosen(color);
+            }
+            if (this.exporter != null) {
+                Color chosen = card.getColor() == Color.WILD && !gameOver ? this.gameState.getCurrentValidColor() : null;
+                this.exporter.commitAction(current, card, chosen);
+            }
+            if (gameOver) {
+                return true;
+            }
+            if (current.isUnoCandidate()) {
+                if (this.unoMissChance > 0 && this.random.nextDouble() < this.unoMissChance) {
+                    this.gameState.penalizePlayerForUno(current);
+                    if (this.statistics != null) {
+                        this.statistics.recordUnoPenalty();
+                    }
+                } else {
+                    this.gameState.playerDeclaresUno(current);
+                }
+            }
+            this.gameState.applyPendingDraws();
+        } else {
+            if (this.exporter != null) {
+                this.exporter.commitAction(current, null, null);
+            }
+            this.drawForTurn(current);
+        }
+        this.gameState.advanceTurn();
+        Player next = this.gameState.getCurrentPlayer();
+        if (next != current) {
+            next.resetUnoStatus();
+        }
+        return false;
+    }
+
+    /**
+     * Roba una carta para el turno, reciclando la pila de descarte si el mazo está vacío.
+     * @param player el jugador que roba.
+     */
+    private void drawForTurn(Player player) {
+        try {
+            this.gameState.drawTurnCard(player);
+        } catch (EmptyDeckException e) {
+            this.gameState.recyclingDeck();
+            try {
+                this.gameState.drawTurnCard(player);
+            } catch (EmptyDeckException ignored) {
+                // No hay cartas ni para reciclar: el jugador simplemente pasa
+            }
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de turnos de la última partida.
+     * @return turnos jugados.
+     */
+    public int getLastTurnCount() {
+        return this.lastTurnCount;
+    }
+
+    /**
+     * Devuelve el estado de la última partida jugada.
+     * @return el estado del juego.
+     */
+    public GameState getGameState() {
+        return this.gameState;
+    }
+}
@@ -0,0 +1,249 @@
+package univalle.tedesoft.uno.simulation;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.model.Learning.PolicyFeatures;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.IGameState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Exporta las decisiones tomadas durante el autojuego para entrenar políticas fuera de línea.
+ * Las filas se acumulan en columnas dentro de un único arreglo y se escriben por bloques
+ * con un canal NIO y un buffer directo reutilizado, por lo que registrar una decisión
+ * no reserva memoria.
+ * <p>
+ * Formato del archivo (little-endian):
+ * <ul>
+ *     <li>Cabecera: magic {@link #MAGIC}, versión (short), cantidad de características (short),
+ *     cantidad de columnas (short), cantidad de tipos de carta (short).</li>
+ *     <li>Bloques: cantidad de filas (int) seguida de cada columna completa, un byte por fila.
+ *     Las primeras {@link PolicyFeatures#FEATURE_COUNT} columnas son las características; les siguen
+ *     la acción, el color elegido ({@link PolicyFeatures#NO_COLOR} si no aplica) y el resultado
+ *     (1 si quien decidió ganó la partida, 0 si no).</li>
+ * </ul>
+ * Los bloques solo contienen partidas completas; las partidas sin ganador se descartan.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class PolicyDataExporter implements Closeable {
+    /** Identificador del formato ("UNOP"). */
+    public static final int MAGIC = 0x504F4E55;
+    /** Versión del formato. */
+    public static final short VERSION = 1;
+    /** Columna de la acción tomada. */
+    public static final int ACTION_COLUMN = PolicyFeatures.FEATURE_COUNT;
+    /** Columna del color elegido tras un comodín. */
+    public static final int COLOR_COLUMN = ACTION_COLUMN + 1;
+    /** Columna del resultado de la partida para quien decidió. */
+    public static final int OUTCOME_COLUMN = COLOR_COLUMN + 1;
+    /** Cantidad total de columnas. */
+    public static final int COLUMN_COUNT = OUTCOME_COLUMN + 1;
+    /** Filas mínimas por bloque escrito. */
+    private static final int BATCH_ROWS = 8192;
+    /** Filas que caben en memoria: un bloque más una partida completa. */
+    private static final int CAPACITY = BATCH_ROWS + HeadlessGame.MAX_TURNS;
+
+    /** Canal del archivo de salida. */
+    private final FileChannel channel;
+    /** Buffer directo reutilizado para cada bloque. */
+    private final ByteBuffer buffer;
+    /** Datos en columnas: columns[columna * CAPACITY + fila]. */
+    private final byte[] columns = new byte[COLUMN_COUNT * CAPACITY];
+    /** Jugador que tomó cada decisión pendiente de resultado. */
+    private final Player[] deciders = new Player[CAPACITY];
+    /** Filas acumuladas (completas y de la partida en curso). */
+    private int rowCount;
+    /** Primera fila de la partida en curso. */
+    private int gameStart;
+    /** true si la partida en curso no cupo en memoria y se descartará. */
+    private boolean overflow;
+    /** true si ya se capturaron las características de la decisión actual. */
+    private boolean captured;
+    /** Total de filas escritas en el archivo. */
+    private long rowsWritten;
+
+    /**
+     * Crea el archivo de salida y escribe la cabecera.
+     * @param path ruta del archivo; se sobrescribe si existe.
+     * @throws IOException si no se puede abrir o escribir el archivo.
+     */
+    public PolicyDataExporter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(Integer.BYTES + COLUMN_COUNT * CAPACITY)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        this.buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) PolicyFeatures.FEATURE_COUNT)
+                .putShort((short) COLUMN_COUNT)
+                .putShort((short) PolicyFeatures.TYPE_COUNT);
+        this.writeBuffer();
+    }
+
+    /**
+     * Captura las características de la decisión que está por tomarse.
+     * Debe llamarse antes de jugar, mientras la mano aún contiene la carta elegida.
+     * @param gameState estado actual del juego.
+     * @param self jugador que decide.
+     * @param opponentHandSize cartas en la mano del oponente.
+     */
+    public void captureFeatures(IGameState gameState, Player self, int opponentHandSize) {
+        if (this.rowCount == CAPACITY) {
+            this.overflow = true;
+            return;
+        }
+        PolicyFeatures.extract(gameState, self, opponentHandSize, this.columns, this.rowCount, CAPACITY);
+        this.captured = true;
+    }
+
+    /**
+     * Completa la fila capturada con la acción tomada.
+     * @param self jugador que decidió.
+     * @param card carta jugada, o null si robó.
+     * @param chosenColor color elegido tras un comodín, o null.
+     */
+    public void commitAction(Player self, Card card, Color chosenColor) {
+        if (!this.captured) {
+            return;
+        }
+        int row = this.rowCount;
+        this.columns[ACTION_COLUMN * CAPACITY + row] = (byte) PolicyFeatures.encodeAction(card);
+        this.columns[COLOR_COLUMN * CAPACITY + row] =
+                (byte) (chosenColor != null ? chosenColor.ordinal() : PolicyFeatures.NO_COLOR);
+        this.deciders[row] = self;
+        this.rowCount++;
+        this.captured = false;
+    }
+
+    /**
+     * Cierra la partida en curso: etiqueta sus filas con el resultado y, si se
+     * acumuló un bloque completo, lo escribe.
+     * @param winner el ganador, o null si la partida no terminó (se descartan sus filas).
+     * @throws IOException si falla la escritura.
+     */
+    public void endGame(Player winner) throws IOException {
+        int base = OUTCOME_COLUMN * CAPACITY;
+        for (int row = this.gameStart; row < this.rowCount; row++) {
+            this.columns[base + row] = (byte) (this.deciders[row] == winner ? 1 : 0);
+            this.deciders[row] = null;
+        }
+        if (winner == null || this.overflow) {
+            this.rowCount = this.gameStart;
+        }
+        this.overflow = false;
+        this.captured = false;
+        this.gameStart = this.rowCount;
+        if (this.rowCount >= BATCH_ROWS) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Escribe las partidas completas acumuladas como un bloque.
+     * @throws IOException si falla la escritura.
+     */
+    public void flush() throws IOException {
+        int rows = this.gameStart;
+        if (rows == 0) {
+            return;
+        }
+        this.buffer.putInt(rows);
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            this.buffer.put(this.columns, column * CAPACITY, rows);
+        }
+        this.writeBuffer();
+        this.rowsWritten += rows;
+        // Mover al inicio las filas de una partida en curso, si las hay
+        int pending = this.rowCount - rows;
+        if (pending > 0) {
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                System.arraycopy(this.columns, column * CAPACITY + rows, this.columns, column * CAPACITY, pending);
+            }
+            System.arraycopy(this.deciders, rows, this.deciders, 0, pending);
+        }
+        this.rowCount = pending;
+        this.gameStart = 0;
+    }
+
+    /**
+     * Vacía el buffer en el canal.
+     * @throws IOException si falla la escritura.
+     */
+    private void writeBuffer() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    /**
+     * Devuelve la cantidad de filas escritas en el archivo.
+     * @return filas escritas.
+     */
+    public long getRowsWritten() {
+        return this.rowsWritten;
+    }
+
+    /**
+     * Escribe las partidas completas pendientes y cierra el archivo.
+     * @throws IOException si falla la escritura.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Genera un archivo de entrenamiento con partidas entre estrategias heurísticas e informa
+     * el costo de la exportación comparado con simular sin exportar.
+     * Argumentos opcionales: ruta de salida (por defecto policy-data.bin) y cantidad de partidas
+     * (por defecto 100.000).
+     * @param args argumentos de la línea de comandos.
+     * @throws IOException si falla la escritura.
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "policy-data.bin");
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        HeadlessGame game = new HeadlessGame();
+        game.configure(Difficulty.HEURISTIC.createStrategy(), 0, Difficulty.HEURISTIC.createStrategy(), 0);
+
+        // Calentamiento para que la comparación no incluya la compilación JIT
+        for (int g = 0; g < games / 10; g++) {
+            game.play((g & 1) == 0);
+        }
+        long start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            game.play((g & 1) == 0);
+        }
+        double baseline = (System.nanoTime() - start) / 1e9;
+
+        try (PolicyDataExporter exporter = new PolicyDataExporter(path)) {
+            game.setExporter(exporter);
+            start = System.nanoTime();
+            for (int g = 0; g < games; g++) {
+                game.play((g & 1) == 0);
+            }
+            exporter.flush();
+            double exported = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d partidas: %.2f s sin exportar, %.2f s exportando (%+.1f%%), %d filas en %s%n",
+                    games, baseline, exported, 100.0 * (exported - baseline) / baseline,
+                    exporter.getRowsWritten(), path);
+        }
+    }
+}
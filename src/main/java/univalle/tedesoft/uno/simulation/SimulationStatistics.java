@@ -0,0 +1,420 @@
+package univalle.tedesoft.uno.simulation;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.IGameStateListener;
+import univalle.tedesoft.uno.server.LatencyHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estadísticas de autojuego en memoria constante: largo de la partida, cartas robadas,
+ * reciclajes del mazo y penalizaciones por UNO por partida, tiempo por turno y
+ * resultados por estrategia. Las distribuciones se guardan en {@link LatencyHistogram}
+ * (exactas por debajo de 128 y con error relativo menor al 2% por encima), así que el
+ * tamaño no depende de la cantidad de partidas y dos instancias se combinan con
+ * {@link #merge} sumando cubetas.
+ * No es segura entre hilos: cada hilo de simulación usa la suya y al final se combinan.
+ * Se exporta como CSV o en un formato binario compacto que {@link #read} vuelve a cargar,
+ * para combinar corridas de distintas máquinas.
+ * <p>
+ * Formato binario (big-endian): magic {@link #MAGIC}, versión (short); por cada
+ * distribución, en el orden de {@link #METRICS}: suma, máximo y cantidad de cubetas no
+ * vacías (varint), seguidas de pares (salto de índice, conteo); luego la cantidad de
+ * estrategias y, por cada una, su nombre (UTF) y partidas, victorias y empates (varint).
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class SimulationStatistics implements IGameStateListener {
+    /** Identificador del formato binario ("UNOS"). */
+    public static final int MAGIC = 0x554E4F53;
+    /** Versión del formato binario. */
+    public static final short VERSION = 1;
+    /** Nombres de las distribuciones, en el orden del formato binario. */
+    public static final List<String> METRICS =
+            List.of("game.turns", "game.cardsDrawn", "game.recycles", "game.unoPenalties", "turn.nanos");
+    /** Cabecera del CSV de distribuciones. */
+    public static final String CSV_HEADER = "metric,count,mean,p50,p90,p99,p999,max";
+    /** Cabecera del CSV de estrategias. */
+    public static final String STRATEGY_CSV_HEADER = "strategy,games,wins,draws,win_rate";
+
+    /** Índice de la distribución de turnos por partida. */
+    private static final int TURNS = 0;
+    /** Índice de la distribución de cartas robadas por partida. */
+    private static final int CARDS_DRAWN = 1;
+    /** Índice de la distribución de reciclajes por partida. */
+    private static final int RECYCLES = 2;
+    /** Índice de la distribución de penalizaciones por UNO por partida. */
+    private static final int UNO_PENALTIES = 3;
+    /** Índice de la distribución del tiempo por turno. */
+    private static final int TURN_NANOS = 4;
+
+    /** Distribuciones, en el orden de {@link #METRICS}. */
+    private final LatencyHistogram[] histograms = new LatencyHistogram[METRICS.size()];
+    /** Suma de los valores de cada distribución, para la media. */
+    private final long[] sums = new long[METRICS.size()];
+    /** Estrategia → {partidas, victorias, empates}. */
+    private final Map<String, long[]> outcomes = new TreeMap<>();
+    /** Cartas robadas en la partida en curso. */
+    private int gameCardsDrawn;
+    /** Reciclajes en la partida en curso. */
+    private int gameRecycles;
+    /** Penalizaciones por UNO en la partida en curso. */
+    private int gameUnoPenalties;
+
+    /**
+     * Constructor de unas estadísticas vacías.
+     */
+    public SimulationStatistics() {
+        for (int i = 0; i < this.histograms.length; i++) {
+            this.histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Empieza a contar una partida nueva. Se llama tras el reparto, para no contarlo.
+     */
+    public void beginGame() {
+        this.gameCardsDrawn = 0;
+        this.gameRecycles = 0;
+        this.gameUnoPenalties = 0;
+    }
+
+    /**
+     * Cuenta cada carta robada de la partida en curso, incluidos +2, +4 y penalizaciones.
+     * @param player el jugador que recibe la carta.
+     * @param card la carta.
+     * @param turnDraw true si fue un robo voluntario.
+     */
+    @Override
+    public void onCardDrawn(Player player, Card card, boolean turnDraw) {
+        this.gameCardsDrawn++;
+    }
+
+    /**
+     * Cuenta cada reciclaje del mazo en la partida en curso.
+     * @param recycledCards las cartas que volvieron al mazo.
+     */
+    @Override
+    public void onDeckRecycled(List<Card> recycledCards) {
+        this.gameRecycles++;
+    }
+
+    /**
+     * Cuenta una penalización por no declarar UNO en la partida en curso.
+     */
+    public void recordUnoPenalty() {
+        this.gameUnoPenalties++;
+    }
+
+    /**
+     * Registra la duración de un turno.
+     * @param nanos duración en nanosegundos.
+     */
+    public void recordTurn(long nanos) {
+        this.record(TURN_NANOS, nanos);
+    }
+
+    /**
+     * Cierra la partida en curso y registra sus totales.
+     * @param turns turnos jugados.
+     */
+    public void endGame(int turns) {
+        this.record(TURNS, turns);
+        this.record(CARDS_DRAWN, this.gameCardsDrawn);
+        this.record(RECYCLES, this.gameRecycles);
+        this.record(UNO_PENALTIES, this.gameUnoPenalties);
+    }
+
+    /**
+     * Registra el resultado de una partida para una estrategia.
+     * @param strategy nombre de la estrategia.
+     * @param won true si ganó.
+     * @param draw true si la partida terminó sin ganador.
+     */
+    public void recordOutcome(String strategy, boolean won, boolean draw) {
+        long[] record = this.outcomes.computeIfAbsent(strategy, name -> new long[3]);
+        record[0]++;
+        if (won) {
+            record[1]++;
+        } else if (draw) {
+            record[2]++;
+        }
+    }
+
+    /**
+     * Registra un valor en una distribución.
+     * @param metric índice de la distribución.
+     * @param value el valor.
+     */
+    private void record(int metric, long value) {
+        this.histograms[metric].record(value);
+        this.sums[metric] += value;
+    }
+
+    /**
+     * Suma otras estadísticas a estas.
+     * @param other las otras estadísticas; no se modifican.
+     */
+    public void merge(SimulationStatistics other) {
+        for (int i = 0; i < this.histograms.length; i++) {
+            this.histograms[i].add(other.histograms[i]);
+            this.sums[i] += other.sums[i];
+        }
+        for (Map.Entry<String, long[]> entry : other.outcomes.entrySet()) {
+            long[] record = this.outcomes.computeIfAbsent(entry.getKey(), name -> new long[3]);
+            for (int i = 0; i < record.length; i++) {
+                record[i] += entry.getValue()[i];
+            }
+        }
+    }
+
+    /**
+     * Devuelve una distribución.
+     * @param metric nombre de la distribución, uno de {@link #METRICS}.
+     * @return el histograma; no debe modificarse.
+     */
+    public LatencyHistogram getHistogram(String metric) {
+        return this.histograms[indexOf(metric)];
+    }
+
+    /**
+     * Devuelve la media de una distribución.
+     * @param metric nombre de la distribución, uno de {@link #METRICS}.
+     * @return la media, o 0 si está vacía.
+     */
+    public double getMean(String metric) {
+        int index = indexOf(metric);
+        long count = this.histograms[index].getCount();
+        return count == 0 ? 0 : (double) this.sums[index] / count;
+    }
+
+    /**
+     * Devuelve la cantidad de partidas registradas.
+     * @return partidas.
+     */
+    public long getGameCount() {
+        return this.histograms[TURNS].getCount();
+    }
+
+    /**
+     * Devuelve la tasa de victorias de una estrategia.
+     * @param strategy nombre de la estrategia.
+     * @return victorias sobre partidas jugadas, o 0 si no jugó.
+     */
+    public double getWinRate(String strategy) {
+        long[] record = this.outcomes.get(strategy);
+        return record == null || record[0] == 0 ? 0 : (double) record[1] / record[0];
+    }
+
+    /**
+     * Devuelve las partidas jugadas por una estrategia.
+     * @param strategy nombre de la estrategia.
+     * @return partidas jugadas.
+     */
+    public long getGames(String strategy) {
+        long[] record = this.outcomes.get(strategy);
+        return record == null ? 0 : record[0];
+    }
+
+    /**
+     * Calcula el índice de una distribución.
+     * @param metric nombre de la distribución.
+     * @return su índice.
+     */
+    private static int indexOf(String metric) {
+        int index = METRICS.indexOf(metric);
+        if (index < 0) {
+            throw new IllegalArgumentException("Métrica desconocida: " + metric);
+        }
+        return index;
+    }
+
+    /**
+     * Escribe las distribuciones como CSV, una fila por distribución.
+     * @param out destino del texto.
+     * @throws IOException si falla la escritura.
+     */
+    public void writeCsv(Appendable out) throws IOException {
+        out.append(CSV_HEADER).append('\n');
+        for (int i = 0; i < this.histograms.length; i++) {
+            LatencyHistogram histogram = this.histograms[i];
+            out.append(METRICS.get(i)).append(',')
+                    .append(Long.toString(histogram.getCount())).append(',')
+                    .append(String.format(Locale.ROOT, "%.3f", this.getMean(METRICS.get(i)))).append(',')
+                    .append(Long.toString(histogram.getPercentile(50))).append(',')
+                    .append(Long.toString(histogram.getPercentile(90))).append(',')
+                    .append(Long.toString(histogram.getPercentile(99))).append(',')
+                    .append(Long.toString(histogram.getPercentile(99.9))).append(',')
+                    .append(Long.toString(histogram.getMax())).append('\n');
+        }
+    }
+
+    /**
+     * Escribe los resultados por estrategia como CSV.
+     * @param out destino del texto.
+     * @throws IOException si falla la escritura.
+     */
+    public void writeStrategyCsv(Appendable out) throws IOException {
+        out.append(STRATEGY_CSV_HEADER).append('\n');
+        for (Map.Entry<String, long[]> entry : this.outcomes.entrySet()) {
+            long[] record = entry.getValue();
+            out.append(entry.getKey()).append(',')
+                    .append(Long.toString(record[0])).append(',')
+                    .append(Long.toString(record[1])).append(',')
+                    .append(Long.toString(record[2])).append(',')
+                    .append(String.format(Locale.ROOT, "%.4f", this.getWinRate(entry.getKey())))
+                    .append('\n');
+        }
+    }
+
+    /**
+     * Escribe las estadísticas en el formato binario compacto.
+     * @param output destino; no se cierra.
+     * @throws IOException si falla la escritura.
+     */
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        int buckets = LatencyHistogram.bucketCount();
+        for (int i = 0; i < this.histograms.length; i++) {
+            LatencyHistogram histogram = this.histograms[i];
+            int used = 0;
+            for (int b = 0; b < buckets; b++) {
+                if (histogram.getBucket(b) != 0) {
+                    used++;
+                }
+            }
+            writeVarLong(out, this.sums[i]);
+            writeVarLong(out, histogram.getMax());
+            writeVarLong(out, used);
+            int previous = 0;
+            for (int b = 0; b < buckets; b++) {
+                long count = histogram.getBucket(b);
+                if (count != 0) {
+                    writeVarLong(out, b - previous);
+                    writeVarLong(out, count);
+                    previous = b;
+                }
+            }
+        }
+        writeVarLong(out, this.outcomes.size());
+        for (Map.Entry<String, long[]> entry : this.outcomes.entrySet()) {
+            out.writeUTF(entry.getKey());
+            for (long value : entry.getValue()) {
+                writeVarLong(out, value);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Lee estadísticas escritas con {@link #write}.
+     * @param input origen; no se cierra.
+     * @return las estadísticas leídas.
+     * @throws IOException si falla la lectura o el formato no es válido.
+     */
+    public static SimulationStatistics read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("El archivo no contiene estadísticas de simulación.");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Versión de estadísticas no soportada: " + version);
+        }
+        SimulationStatistics statistics = new SimulationStatistics();
+        long[] counts = new long[LatencyHistogram.bucketCount()];
+        for (int i = 0; i < statistics.histograms.length; i++) {
+            statistics.sums[i] = readVarLong(in);
+            long max = readVarLong(in);
+            long used = readVarLong(in);
+            Arrays.fill(counts, 0);
+            int bucket = 0;
+            for (long k = 0; k < used; k++) {
+                bucket += (int) readVarLong(in);
+                if (bucket >= counts.length) {
+                    throw new IOException("Cubeta fuera de rango: " + bucket);
+                }
+                counts[bucket] = readVarLong(in);
+            }
+            statistics.histograms[i].add(counts, max);
+        }
+        long strategies = readVarLong(in);
+        for (long k = 0; k < strategies; k++) {
+            long[] record = new long[3];
+            String name = in.readUTF();
+            for (int j = 0; j < record.length; j++) {
+                record[j] = readVarLong(in);
+            }
+            statistics.outcomes.put(name, record);
+        }
+        return statistics;
+    }
+
+    /**
+     * Exporta las estadísticas a tres archivos: {@code prefijo-metrics.csv},
+     * {@code prefijo-strategies.csv} y {@code prefijo.unos} (binario).
+     * @param prefix ruta y nombre base de los archivos.
+     * @throws IOException si falla la escritura.
+     */
+    public void export(Path prefix) throws IOException {
+        String base = prefix.getFileName().toString();
+        try (var writer = Files.newBufferedWriter(prefix.resolveSibling(base + "-metrics.csv"))) {
+            this.writeCsv(writer);
+        }
+        try (var writer = Files.newBufferedWriter(prefix.resolveSibling(base + "-strategies.csv"))) {
+            this.writeStrategyCsv(writer);
+        }
+        try (OutputStream out = Files.newOutputStream(prefix.resolveSibling(base + ".unos"))) {
+            this.write(out);
+        }
+    }
+
+    /**
+     * Escribe un entero no negativo en base 128, siete bits por byte.
+     * @param out destino.
+     * @param value el valor.
+     * @throws IOException si falla la escritura.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Lee un entero escrito con {@link #writeVarLong}.
+     * @param in origen.
+     * @return el valor.
+     * @throws IOException si falla la lectura o el valor es demasiado largo.
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Entero variable demasiado largo.");
+    }
+}
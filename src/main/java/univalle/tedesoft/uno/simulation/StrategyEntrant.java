@@ -0,0 +1,69 @@
+package univalle.tedesoft.uno.simulation;
+
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.model.Strategies.IMachineStrategy;
+
+import java.util.function.Supplier;
+
+/**
+ * Participante registrado en un torneo: un nombre, una fábrica de estrategias y el
+ * presupuesto de tiempo por decisión. La fábrica se usa para crear una instancia por
+ * hilo, ya que las estrategias reutilizan arreglos internos y no son seguras entre hilos.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class StrategyEntrant {
+    /** Nombre del participante en los reportes. */
+    private final String name;
+    /** Fábrica de instancias de la estrategia. */
+    private final Supplier<IMachineStrategy> factory;
+    /** Presupuesto por decisión en nanosegundos. */
+    private final long budgetNanos;
+
+    /**
+     * Constructor del participante.
+     * @param name nombre en los reportes.
+     * @param factory fábrica de instancias de la estrategia.
+     * @param budgetNanos presupuesto por decisión en nanosegundos.
+     */
+    public StrategyEntrant(String name, Supplier<IMachineStrategy> factory, long budgetNanos) {
+        this.name = name;
+        this.factory = factory;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Crea un participante a partir de un nivel de dificultad con un presupuesto propio.
+     * @param difficulty el nivel de dificultad.
+     * @param budgetNanos presupuesto por decisión en nanosegundos.
+     * @return el participante.
+     */
+    public static StrategyEntrant of(Difficulty difficulty, long budgetNanos) {
+        return new StrategyEntrant(difficulty.name().toLowerCase(), difficulty::createStrategy, budgetNanos);
+    }
+
+    /**
+     * Devuelve el nombre del participante.
+     * @return el nombre.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Crea una nueva instancia de la estrategia.
+     * @return la estrategia.
+     */
+    public IMachineStrategy newStrategy() {
+        return this.factory.get();
+    }
+
+    /**
+     * Devuelve el presupuesto por decisión.
+     * @return presupuesto en nanosegundos.
+     */
+    public long getBudgetNanos() {
+        return this.budgetNanos;
+    }
+}
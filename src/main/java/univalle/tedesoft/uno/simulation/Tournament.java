@@ -0,0 +1,319 @@
+package univalle.tedesoft.uno.simulation;
+
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.model.Rng.Xoshiro256Random;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Torneo todos contra todos entre estrategias registradas, jugado sin interfaz.
+ * Las partidas se reparten en bloques entre un hilo por núcleo; cada bloque alterna
+ * el asiento y el jugador inicial para que ninguna estrategia tenga ventaja.
+ * A medida que terminan los bloques se reajustan las calificaciones Elo y se
+ * publican mediante el consumidor de progreso.
+ * Opcionalmente cada hilo acumula {@link SimulationStatistics} propias, que se
+ * combinan al final en {@link #getStatistics()}.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class Tournament {
+    /** Partidas por bloque de trabajo. */
+    private static final int DEFAULT_CHUNK_SIZE = 2000;
+    /** Intervalo mínimo entre reportes de progreso, en nanosegundos. */
+    private static final long REPORT_INTERVAL_NANOS = 2_000_000_000L;
+
+    /** Participantes del torneo. */
+    private final List<StrategyEntrant> entrants;
+    /** Cantidad de hilos de simulación. */
+    private final int threads;
+    /** wins[i][j] = partidas que i le ganó a j. */
+    private final long[][] wins;
+    /** draws[i][j] = empates entre i y j. */
+    private final long[][] draws;
+    /** Hilo de simulación → partida reutilizable. */
+    private final ThreadLocal<HeadlessGame> games = ThreadLocal.withInitial(HeadlessGame::new);
+    /** Estadísticas de cada hilo de simulación. */
+    private final List<SimulationStatistics> workerStatistics = new CopyOnWriteArrayList<>();
+    /** Hilo de simulación → sus estadísticas, registradas en {@link #workerStatistics}. */
+    private final ThreadLocal<SimulationStatistics> statistics = ThreadLocal.withInitial(() -> {
+        SimulationStatistics stats = new SimulationStatistics();
+        this.workerStatistics.add(stats);
+        return stats;
+    });
+    /** true si se registran estadísticas de las partidas. */
+    private boolean collectStatistics;
+    /** Probabilidad de que un jugador olvide declarar UNO. */
+    private double unoMissChance;
+    /** Semilla del torneo; de ella se deriva la de cada partida. */
+    private long seed = Xoshiro256Random.newSeed();
+    /** Órdenes de mazo que se mantienen listos por hilo, o 0 para barajar en cada partida. */
+    private int pregeneratedDecks;
+    /** Generador de mazos de la ejecución en curso, o null. */
+    private volatile DeckOrderGenerator deckGenerator;
+    /** Hilo de simulación → su anillo en el generador de la ejecución en curso. */
+    private final ThreadLocal<DeckOrderQueue> deckOrders = ThreadLocal.withInitial(
+            () -> this.deckGenerator.register(this.pregeneratedDecks));
+
+    /**
+     * Constructor del torneo.
+     * @param entrants participantes, al menos dos.
+     * @param threads cantidad de hilos de simulación.
+     */
+    public Tournament(List<StrategyEntrant> entrants, int threads) {
+        if (entrants.size() < 2) {
+            throw new IllegalArgumentException("Un torneo necesita al menos dos participantes.");
+        }
+        this.entrants = List.copyOf(entrants);
+        this.threads = Math.max(1, threads);
+        int n = entrants.size();
+        this.wins = new long[n][n];
+        this.draws = new long[n][n];
+    }
+
+    /**
+     * Activa el registro de estadísticas de las partidas. Debe llamarse antes de {@link #run}.
+     * @param unoMissChance probabilidad de que un jugador olvide declarar UNO y sea penalizado.
+     */
+    public void collectStatistics(double unoMissChance) {
+        this.collectStatistics = true;
+        this.unoMissChance = unoMissChance;
+    }
+
+    /**
+     * Fija la semilla del torneo. La partida g del bloque k se siembra con una semilla
+     * derivada de esta, de k y de g, sin importar qué hilo la juegue.
+     * @param seed la semilla.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Baraja los mazos en un hilo aparte y deja listos unos cuantos por hilo de simulación.
+     * Conviene cuando hay más núcleos que hilos de simulación. Debe llamarse antes de {@link #run}.
+     * @param perThread órdenes listos por hilo, o 0 para barajar en cada partida.
+     */
+    public void pregenerateDecks(int perThread) {
+        this.pregeneratedDecks = perThread;
+    }
+
+    /**
+     * Combina las estadísticas de todos los hilos. Debe llamarse cuando {@link #run} terminó.
+     * @return las estadísticas combinadas, vacías si no se activó el registro.
+     */
+    public SimulationStatistics getStatistics() {
+        SimulationStatistics merged = new SimulationStatistics();
+        for (SimulationStatistics stats : this.workerStatistics) {
+            merged.merge(stats);
+        }
+        return merged;
+    }
+
+    /**
+     * Juega el torneo completo.
+     * @param totalGames cantidad aproximada de partidas, repartidas por igual entre las parejas.
+     * @param progress consumidor que recibe las calificaciones parciales y finales, puede ser null.
+     * @return las calificaciones finales.
+     * @throws InterruptedException si el hilo que espera los resultados es interrumpido.
+     */
+    public EloRatings run(long totalGames, Consumer<EloRatings> progress) throws InterruptedException {
+        int n = this.entrants.size();
+        int pairs = n * (n - 1) / 2;
+        long gamesPerPair = Math.max(1, totalGames / pairs);
+        long chunksPerPair = (gamesPerPair + DEFAULT_CHUNK_SIZE - 1) / DEFAULT_CHUNK_SIZE;
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName("TournamentWorker-" + thread.getId());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<ChunkResult> completion = new ExecutorCompletionService<>(executor);
+        // Los hilos del ejecutor son nuevos en cada ejecución: cada uno registra su anillo aquí
+        DeckOrderGenerator generator = this.pregeneratedDecks > 0 ? new DeckOrderGenerator(this.seed) : null;
+        this.deckGenerator = generator;
+        if (generator != null) {
+            generator.start();
+        }
+        int submitted = 0;
+        try {
+            // Intercalar las parejas para que los reportes parciales estén balanceados
+            for (long chunk = 0; chunk < chunksPerPair; chunk++) {
+                int chunkGames = (int) Math.min(DEFAULT_CHUNK_SIZE, gamesPerPair - chunk * DEFAULT_CHUNK_SIZE);
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        final int first = i;
+                        final int second = j;
+                        final long chunkSeed = Xoshiro256Random.derive(this.seed, submitted);
+                        completion.submit(() -> this.playChunk(first, second, chunkGames, chunkSeed));
+                        submitted++;
+                    }
+                }
+            }
+            long lastReport = System.nanoTime();
+            for (int done = 0; done < submitted; done++) {
+                ChunkResult result = completion.take().get();
+                this.wins[result.first][result.second] += result.firstWins;
+                this.wins[result.second][result.first] += result.secondWins;
+                this.draws[result.first][result.second] += result.draws;
+                this.draws[result.second][result.first] += result.draws;
+                if (progress != null && System.nanoTime() - lastReport >= REPORT_INTERVAL_NANOS) {
+                    progress.accept(this.ratings());
+                    lastReport = System.nanoTime();
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló una partida del torneo", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            if (generator != null) {
+                generator.stop();
+                this.deckGenerator = null;
+            }
+        }
+        EloRatings finalRatings = this.ratings();
+        if (progress != null) {
+            progress.accept(finalRatings);
+        }
+        return finalRatings;
+    }
+
+    /**
+     * Calcula las calificaciones con los resultados acumulados hasta ahora.
+     * @return las calificaciones.
+     */
+    public EloRatings ratings() {
+        String[] names = new String[this.entrants.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = this.entrants.get(i).getName();
+        }
+        return EloRatings.fit(names, this.wins, this.draws);
+    }
+
+    /**
+     * Juega un bloque de partidas entre dos participantes en el hilo actual.
+     * @param first índice del primer participante.
+     * @param second índice del segundo participante.
+     * @param count cantidad de partidas.
+     * @param chunkSeed semilla del bloque, de la que se deriva la de cada partida.
+     * @return los resultados del bloque.
+     */
+    private ChunkResult playChunk(int first, int second, int count, long chunkSeed) {
+        StrategyEntrant a = this.entrants.get(first);
+        StrategyEntrant b = this.entrants.get(second);
+        HeadlessGame game = this.games.get();
+        SimulationStatistics stats = this.collectStatistics ? this.statistics.get() : null;
+        game.setStatistics(stats);
+        game.setUnoMissChance(this.unoMissChance);
+        game.setDeckOrders(this.deckGenerator != null ? this.deckOrders.get() : null);
+        ChunkResult result = new ChunkResult(first, second);
+        // Dos configuraciones para alternar asientos sin crear estrategias por partida
+        var aStrategy = a.newStrategy();
+        var bStrategy = b.newStrategy();
+        for (int g = 0; g < count; g++) {
+            boolean aInSeatA = (g & 1) == 0;
+            boolean seatAStarts = (g & 2) == 0;
+            if (aInSeatA) {
+                game.configure(aStrategy, a.getBudgetNanos(), bStrategy, b.getBudgetNanos());
+            } else {
+                game.configure(bStrategy, b.getBudgetNanos(), aStrategy, a.getBudgetNanos());
+            }
+            game.setSeed(Xoshiro256Random.derive(chunkSeed, g));
+            int outcome = game.play(seatAStarts);
+            if (stats != null) {
+                boolean draw = outcome == HeadlessGame.DRAW;
+                boolean aWon = !draw && (outcome == HeadlessGame.SEAT_A_WINS) == aInSeatA;
+                stats.recordOutcome(a.getName(), aWon, draw);
+                stats.recordOutcome(b.getName(), !draw && !aWon, draw);
+            }
+            if (outcome == HeadlessGame.DRAW) {
+                result.draws++;
+            } else if ((outcome == HeadlessGame.SEAT_A_WINS) == aInSeatA) {
+                result.firstWins++;
+            } else {
+                result.secondWins++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resultados de un bloque de partidas entre dos participantes.
+     */
+    private static final class ChunkResult {
+        /** Índice del primer participante. */
+        private final int first;
+        /** Índice del segundo participante. */
+        private final int second;
+        /** Victorias del primero. */
+        private long firstWins;
+        /** Victorias del segundo. */
+        private long secondWins;
+        /** Empates. */
+        private long draws;
+
+        /**
+         * Constructor del resultado.
+         * @param first índice del primer participante.
+         * @param second índice del segundo participante.
+         */
+        private ChunkResult(int first, int second) {
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    /**
+     * Punto de entrada para ejecutar un torneo desde la línea de comandos.
+     * Argumentos opcionales: cantidad de partidas (por defecto 1.000.000), presupuesto
+     * de la búsqueda en microsegundos (por defecto 0, que la excluye del torneo) y
+     * ruta base donde exportar las estadísticas de las partidas (por defecto no se registran)
+     * y probabilidad de olvidar declarar UNO en esas partidas (por defecto 0).
+     * @param args argumentos de la línea de comandos.
+     * @throws InterruptedException si el torneo es interrumpido.
+     * @throws IOException si falla la exportación de las estadísticas.
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        long totalGames = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        long searchMicros = args.length > 1 ? Long.parseLong(args[1]) : 0L;
+        Path statisticsPrefix = args.length > 2 ? Paths.get(args[2]) : null;
+        double unoMissChance = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+        List<StrategyEntrant> entrants = new ArrayList<>();
+        entrants.add(StrategyEntrant.of(Difficulty.RANDOM, 0));
+        entrants.add(StrategyEntrant.of(Difficulty.GREEDY, 0));
+        entrants.add(StrategyEntrant.of(Difficulty.HEURISTIC, 0));
+        if (searchMicros > 0) {
+            entrants.add(StrategyEntrant.of(Difficulty.SEARCH, searchMicros * 1_000L));
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.println("Torneo de " + totalGames + " partidas con " + threads + " hilos");
+        long start = System.nanoTime();
+        Tournament tournament = new Tournament(entrants, threads);
+        if (statisticsPrefix != null) {
+            tournament.collectStatistics(unoMissChance);
+        }
+        tournament.run(totalGames, ratings -> {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("--- %d partidas en %.1f s (%.0f partidas/s)%n%s",
+                    ratings.getTotalGames(), seconds, ratings.getTotalGames() / seconds, ratings);
+        });
+        if (statisticsPrefix != null) {
+            SimulationStatistics statistics = tournament.getStatistics();
+            statistics.writeCsv(System.out);
+            statistics.writeStrategyCsv(System.out);
+            statistics.export(statisticsPrefix);
+        }
+    }
+}
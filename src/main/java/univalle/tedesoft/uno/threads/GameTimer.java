@@ -0,0 +1,67 @@
+package univalle.tedesoft.uno.threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Utilidades de los temporizadores del juego sobre el reloj monotónico (System.nanoTime()).
+ * Un temporizador fija su plazo una sola vez, al programarse, y duerme hasta ese instante:
+ * el arranque tardío del hilo, el cálculo previo (la decisión de la máquina) o un
+ * despertar prematuro no corren el plazo, como ocurre al encadenar Thread.sleep(delay).
+ * El controlador compara las acciones del jugador con el mismo plazo, así la ventana de
+ * UNO no se alarga cuando la cola de JavaFX va atrasada.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class GameTimer {
+    /** Último tramo antes del plazo que se espera activamente en lugar de dormir. */
+    static final long SPIN_NANOS = 200_000L;
+
+    /**
+     * Clase de utilidades, no se instancia.
+     */
+    private GameTimer() {
+    }
+
+    /**
+     * Calcula el plazo de un temporizador que se programa ahora.
+     * @param delayMillis retraso del temporizador.
+     * @return el plazo, en la escala de System.nanoTime().
+     */
+    public static long deadlineAfter(long delayMillis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+    }
+
+    /**
+     * Indica si un plazo ya venció.
+     * @param deadline el plazo, o 0 si no hay temporizador activo.
+     * @return true si hay plazo y ya pasó.
+     */
+    public static boolean hasExpired(long deadline) {
+        return deadline != 0 && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Duerme hasta un plazo. Los últimos {@link #SPIN_NANOS} se esperan activamente para
+     * no depender de la granularidad del planificador.
+     * @param deadline el plazo, en la escala de System.nanoTime().
+     * @return cuánto después del plazo despertó, en nanosegundos.
+     * @throws InterruptedException si se interrumpe el hilo, como Thread.sleep.
+     */
+    public static long sleepUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS) {
+                // parkNanos puede volver antes de tiempo; el bucle recalcula lo que falta
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return -remaining;
+    }
+}
@@ -2,9 +2,10 @@ package univalle.tedesoft.uno.threads;
 
 import javafx.application.Platform;
 import univalle.tedesoft.uno.controller.GameController;
+import univalle.tedesoft.uno.diagnostics.EngineMetrics;
+import univalle.tedesoft.uno.diagnostics.TimerFireEvent;
 import univalle.tedesoft.uno.model.Players.HumanPlayer;
 
-import java.util.concurrent.TimeUnit;
 
 /**
  * Runnable que implementa un temporizador para la ventana de oportunidad
@@ -26,6 +27,8 @@ public class HumanUnoTimerRunnable implements Runnable {
      * Tiempo de espera en milisegundos antes de que el temporizador expire.
      */
     private final long timeoutMilliseconds;
+    /** Plazo del temporizador en el reloj monotónico, fijado al crearlo. */
+    private final long deadline;
 
     /**
      * Constructor para HumanUnoTimerRunnable.
@@ -36,6 +39,16 @@ public class HumanUnoTimerRunnable implements Runnable {
     public HumanUnoTimerRunnable(GameController gameController, long timeoutMilliseconds) {
         this.gameController = gameController;
         this.timeoutMilliseconds = timeoutMilliseconds;
+        this.deadline = GameTimer.deadlineAfter(timeoutMilliseconds);
+    }
+
+    /**
+     * Devuelve el plazo del temporizador, con el que el controlador decide si el
+     * jugador cantó UNO a tiempo aunque esta tarea aún no se haya ejecutado.
+     * @return el plazo, en la escala de System.nanoTime().
+     */
+    public long getDeadline() {
+        return this.deadline;
     }
 
     /**
@@ -43,15 +56,20 @@ public class HumanUnoTimerRunnable implements Runnable {
      */
     @Override
     public void run() {
+        EngineMetrics.GAME_THREADS.incrementAndGet();
         try {
-            TimeUnit.MILLISECONDS.sleep(this.timeoutMilliseconds);
+            GameTimer.sleepUntil(this.deadline);
 
             // Verificar si el hilo fue interrumpido durante el sleep
             if (Thread.currentThread().isInterrupted()) {
                 return; // Salir si fue interrumpido
             }
+            TimerFireEvent.fired("unoHumano", this.timeoutMilliseconds, this.deadline);
 
+            long postedAt = System.nanoTime();
             Platform.runLater(() -> {
+                EngineMetrics.fxDispatched(postedAt);
+                EngineMetrics.timerApplied(this.deadline);
                 // Solo ejecutar si el juego no ha sido interrumpido/terminado
                 if (gameController == null || gameController.getGameState() == null || gameController.getGameState().isGameOver()) {
                     return;
@@ -76,6 +94,8 @@ public class HumanUnoTimerRunnable implements Runnable {
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.out.println("HumanUnoTimerRunnable interrumpido.");
+        } finally {
+            EngineMetrics.GAME_THREADS.decrementAndGet();
         }
     }
 }
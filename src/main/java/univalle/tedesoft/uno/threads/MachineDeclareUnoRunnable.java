@@ -2,6 +2,8 @@ package univalle.tedesoft.uno.threads;
 
 import javafx.application.Platform;
 import univalle.tedesoft.uno.controller.GameController;
+import univalle.tedesoft.uno.diagnostics.EngineMetrics;
+import univalle.tedesoft.uno.diagnostics.TimerFireEvent;
 import univalle.tedesoft.uno.model.Players.MachinePlayer;
 
 /**
@@ -19,6 +21,8 @@ public class MachineDeclareUnoRunnable implements Runnable {
     private final GameController gameController;
     /** Tiempo de espera en milisegundos antes de que la máquina intente declarar UNO. */
     private final long delayMs;
+    /** Plazo del temporizador en el reloj monotónico, fijado al crearlo. */
+    private final long deadline;
 
     /**
      * Constructor para MachineDeclareUnoRunnable.
@@ -29,6 +33,16 @@ public class MachineDeclareUnoRunnable implements Runnable {
     public MachineDeclareUnoRunnable(GameController gameController, long delayMs) {
         this.gameController = gameController;
         this.delayMs = delayMs;
+        this.deadline = GameTimer.deadlineAfter(delayMs);
+    }
+
+    /**
+     * Devuelve el plazo del temporizador, con el que el controlador decide si el
+     * jugador atrapó a la máquina antes de que cantara UNO.
+     * @return el plazo, en la escala de System.nanoTime().
+     */
+    public long getDeadline() {
+        return this.deadline;
     }
 
     /**
@@ -37,15 +51,20 @@ public class MachineDeclareUnoRunnable implements Runnable {
      */
     @Override
     public void run() {
+        EngineMetrics.GAME_THREADS.incrementAndGet();
         try {
-            Thread.sleep(this.delayMs);
+            GameTimer.sleepUntil(this.deadline);
 
             // Verificar si el hilo fue interrumpido durante el sleep
             if (Thread.currentThread().isInterrupted()) {
                 return; // Salir si fue interrumpido
             }
+            TimerFireEvent.fired("unoMaquina", this.delayMs, this.deadline);
 
+            long postedAt = System.nanoTime();
             Platform.runLater(() -> {
+                EngineMetrics.fxDispatched(postedAt);
+                EngineMetrics.timerApplied(this.deadline);
                 // Solo ejecutar si el juego no ha sido interrumpido/terminado
                 if (gameController == null || gameController.getGameState() == null || gameController.getGameState().isGameOver()) {
                     return;
@@ -65,6 +84,8 @@ public class MachineDeclareUnoRunnable implements Runnable {
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.out.println("MachineDeclareUnoRunnable interrumpido.");
+        } finally {
+            EngineMetrics.GAME_THREADS.decrementAndGet();
         }
     }
 }
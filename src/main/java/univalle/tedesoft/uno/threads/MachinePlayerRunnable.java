@@ -2,10 +2,15 @@ package univalle.tedesoft.uno.threads;
 
 import javafx.application.Platform;
 import univalle.tedesoft.uno.controller.GameController;
+import univalle.tedesoft.uno.diagnostics.EngineMetrics;
+import univalle.tedesoft.uno.diagnostics.TimerFireEvent;
+import univalle.tedesoft.uno.model.Cards.Card;
 
 /**
  * Runnable encargado de gestionar el turno de la máquina en un hilo separado.
- * Incluye un retraso para simular el "pensamiento" de la máquina antes de ejecutar su lógica de juego.
+ * La decisión se calcula en este hilo, dentro del presupuesto de la dificultad, y luego
+ * solo se espera el tiempo restante del retraso de "pensamiento", de modo que una
+ * estrategia costosa no suma latencia al retraso artificial.
  *  @author Juan Pablo Escamilla
  *  @author David Esteban Valencia
  *  @author Santiago David Guerrero
@@ -27,27 +32,50 @@ public class MachinePlayerRunnable implements Runnable {
     }
 
     /**
-     * Simula el pensamiento de la máquina y luego ejecuta su lógica de turno
-     * en el hilo de la interfaz de usuario de JavaFX.
+     * Calcula la jugada de la máquina, espera el resto del tiempo de "pensamiento"
+     * y luego ejecuta su lógica de turno en el hilo de la interfaz de usuario de JavaFX.
+     * La decisión lee la mano y el estado sin copiarlos: para reiniciar la partida o
+     * programar otro turno, el controlador interrumpe este hilo y espera a que termine
+     * antes de modificarlos (ver GameController.stopMachineTurnThread).
      */
     @Override
     public void run() {
+        EngineMetrics.GAME_THREADS.incrementAndGet();
         try {
-            Thread.sleep(this.thinkDelayMs);
+            // El plazo se fija antes de decidir: el tiempo de la decisión cuenta como
+            // parte del "pensamiento" y no se suma a la espera
+            long deadline = GameTimer.deadlineAfter(this.thinkDelayMs);
+            Card decidedCard = null;
+            if (!this.gameController.getGameState().isGameOver()) {
+                decidedCard = this.gameController.getMachinePlayer().chooseCardToPlay(this.gameController.getGameState());
+            }
+            boolean waited = !GameTimer.hasExpired(deadline);
+            GameTimer.sleepUntil(deadline);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (waited) {
+                TimerFireEvent.fired("turnoMaquina", this.thinkDelayMs, deadline);
+            }
+            final Card cardToPlay = decidedCard;
             // Una vez finalizado el pensamiento, la lógica del turno de la máquina
             // debe ejecutarse en el hilo de la aplicación JavaFX
+            long postedAt = System.nanoTime();
             Platform.runLater(() -> {
+                EngineMetrics.fxDispatched(postedAt);
                 // Solo ejecutar si el juego no ha sido interrumpido
                 // y sigue siendo el turno de la máquina.
                 if (!this.gameController.getGameState().isGameOver() &&
                         this.gameController.getCurrentPlayer() == this.gameController.getMachinePlayer()) {
-                    this.gameController.executeMachineTurnLogic();
+                    this.gameController.executeMachineTurnLogic(cardToPlay);
                 }
             });
 
         } catch (InterruptedException e) {
             // Si el hilo es interrumpido, se termina la ejecución.
             Thread.currentThread().interrupt();
+        } finally {
+            EngineMetrics.GAME_THREADS.decrementAndGet();
         }
     }
 }
\ No newline at end of file
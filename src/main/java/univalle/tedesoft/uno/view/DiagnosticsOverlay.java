@@ -0,0 +1,203 @@
+package univalle.tedesoft.uno.view;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+
+import univalle.tedesoft.uno.diagnostics.EngineMetrics;
+import univalle.tedesoft.uno.diagnostics.FxWatchdog;
+import univalle.tedesoft.uno.diagnostics.MetricsRegistry;
+import univalle.tedesoft.uno.diagnostics.MetricsSnapshot;
+import univalle.tedesoft.uno.server.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Panel de diagnóstico que se dibuja encima de la partida y se muestra u oculta con F3.
+ * Lee el {@link MetricsRegistry} global desde un {@link AnimationTimer}, unas cuatro
+ * veces por segundo y solo mientras está visible, así que oculto no cuesta nada.
+ * Muestra cuadros por segundo, pulsos y cola de JavaFX, nodos de los contenedores que
+ * crecen durante la partida, aciertos de la caché de imágenes, memoria, hilos del juego
+ * y los últimos turnos, para diagnosticar las partidas que se vuelven lentas.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class DiagnosticsOverlay extends VBox {
+    /** Intervalo entre actualizaciones del panel. */
+    private static final long REFRESH_NANOS = 250_000_000L;
+    /** Bytes por mebibyte. */
+    private static final long MIB = 1024L * 1024L;
+
+    /** Cuadros por segundo. */
+    private final Label fpsLabel = newLine();
+    /** Pulsos de dibujo. */
+    private final Label pulseLabel = newLine();
+    /** Espera en la cola de Platform.runLater. */
+    private final Label queueLabel = newLine();
+    /** Bloqueos del hilo de JavaFX. */
+    private final Label stallLabel = newLine();
+    /** Nodos de los contenedores vigilados. */
+    private final Label nodeLabel = newLine();
+    /** Aciertos de la caché de imágenes. */
+    private final Label imageCacheLabel = newLine();
+    /** Memoria usada y máxima. */
+    private final Label heapLabel = newLine();
+    /** Hilos del juego vivos. */
+    private final Label threadLabel = newLine();
+    /** Últimos turnos procesados en el hilo de JavaFX. */
+    private final Label turnLabel = newLine();
+    /** Contenedores cuyos nodos se cuentan, por nombre. */
+    private final Map<String, Parent> watchedNodes = new LinkedHashMap<>();
+    /** Buffer reutilizado para leer los últimos turnos. */
+    private final long[] recentTurns = new long[EngineMetrics.RECENT_TURNS];
+    /** Refresca el panel mientras está visible. */
+    private final AnimationTimer refresher;
+    /** Cuadros dibujados desde la última actualización. */
+    private int frames;
+    /** Cuadros por segundo medidos en la última actualización. */
+    private double fps;
+
+    /**
+     * Constructor del panel, inicialmente oculto.
+     */
+    public DiagnosticsOverlay() {
+        this.setSpacing(2);
+        this.setPadding(new Insets(6));
+        this.setAlignment(Pos.TOP_LEFT);
+        this.setMaxSize(VBox.USE_PREF_SIZE, VBox.USE_PREF_SIZE);
+        this.setStyle("-fx-background-color: rgba(0,0,0,0.7); -fx-background-radius: 6;");
+        this.setMouseTransparent(true);
+        this.setVisible(false);
+        this.getChildren().addAll(this.fpsLabel, this.pulseLabel, this.queueLabel, this.stallLabel,
+                this.nodeLabel, this.imageCacheLabel, this.heapLabel, this.threadLabel, this.turnLabel);
+        this.refresher = new AnimationTimer() {
+            /** Instante de la última actualización. */
+            private long last;
+
+            @Override
+            public void handle(long now) {
+                DiagnosticsOverlay.this.frames++;
+                if (now - this.last >= REFRESH_NANOS) {
+                    if (this.last != 0) {
+                        DiagnosticsOverlay.this.fps = DiagnosticsOverlay.this.frames * 1e9 / (now - this.last);
+                    }
+                    DiagnosticsOverlay.this.frames = 0;
+                    this.last = now;
+                    DiagnosticsOverlay.this.refresh();
+                }
+            }
+        };
+    }
+
+    /**
+     * Agrega un contenedor cuyos nodos se cuentan en el panel.
+     * @param name nombre que se muestra.
+     * @param node el contenedor.
+     */
+    public void watchNodes(String name, Parent node) {
+        if (node != null) {
+            this.watchedNodes.put(name, node);
+        }
+    }
+
+    /**
+     * Muestra u oculta el panel.
+     */
+    public void toggle() {
+        boolean show = !this.isVisible();
+        this.setVisible(show);
+        if (show) {
+            this.refresh();
+            this.refresher.start();
+        } else {
+            this.refresher.stop();
+        }
+    }
+
+    /**
+     * Actualiza los textos con las métricas actuales.
+     */
+    void refresh() {
+        MetricsSnapshot snapshot = MetricsRegistry.global().snapshot(false);
+        FxWatchdog watchdog = FxWatchdog.getInstalled();
+        long lastPulse = watchdog == null ? 0 : watchdog.getLastPulseInterval();
+        long lastQueue = watchdog == null ? 0 : watchdog.getLastHeartbeatLatency();
+        this.fpsLabel.setText(String.format("FPS: %.0f", this.fps));
+        this.pulseLabel.setText("Pulso: " + describe(snapshot.getHistogram("fx.pulse"), lastPulse));
+        this.queueLabel.setText("Cola runLater: " + describe(snapshot.getHistogram("fx.heartbeat"), lastQueue));
+        this.stallLabel.setText("Bloqueos del hilo FX: " + snapshot.getCounter("fx.stalls"));
+
+        StringBuilder nodes = new StringBuilder("Nodos:");
+        for (Map.Entry<String, Parent> entry : this.watchedNodes.entrySet()) {
+            nodes.append(' ').append(entry.getKey()).append(' ').append(countNodes(entry.getValue()));
+        }
+        this.nodeLabel.setText(nodes.toString());
+
+        long hits = snapshot.getCounter(GameView.IMAGE_CACHE_HITS);
+        long misses = snapshot.getCounter(GameView.IMAGE_CACHE_MISSES);
+        this.imageCacheLabel.setText(String.format("Caché de imágenes: %.1f%% aciertos (%d/%d)",
+                hits + misses == 0 ? 0.0 : 100.0 * hits / (hits + misses), hits, hits + misses));
+
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        this.heapLabel.setText(String.format("Memoria: %d / %d MiB", used / MIB, runtime.maxMemory() / MIB));
+        this.threadLabel.setText("Hilos del juego: " + snapshot.getCounter("game.threads")
+                + " (JVM: " + Thread.activeCount() + ")");
+
+        int count = EngineMetrics.RECENT_FX_TURNS.copyRecent(this.recentTurns);
+        StringBuilder turns = new StringBuilder("Turnos (ms, reciente primero):");
+        if (count == 0) {
+            turns.append(" sin datos");
+        }
+        for (int i = 0; i < count; i++) {
+            turns.append(String.format(" %.1f", this.recentTurns[i] / 1e6));
+        }
+        this.turnLabel.setText(turns.toString());
+    }
+
+    /**
+     * Cuenta un nodo y todos sus descendientes.
+     * @param node el nodo raíz.
+     * @return cantidad de nodos, incluido él mismo.
+     */
+    static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent parent) {
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Describe un histograma en milisegundos.
+     * @param histogram el histograma, o null si aún no existe.
+     * @param last último valor medido, en nanosegundos.
+     * @return texto con el último valor y los percentiles.
+     */
+    static String describe(LatencyHistogram histogram, long last) {
+        if (histogram == null || histogram.getCount() == 0) {
+            return "sin datos";
+        }
+        return String.format("último %.1f ms, p50 %.1f, p99 %.1f, máx %.1f ms",
+                last / 1e6, histogram.getPercentile(50) / 1e6, histogram.getPercentile(99) / 1e6,
+                histogram.getMax() / 1e6);
+    }
+
+    /**
+     * Crea una línea de texto del panel.
+     * @return la etiqueta.
+     */
+    private static Label newLine() {
+        Label label = new Label();
+        label.setStyle("-fx-text-fill: #7CFC00; -fx-font-family: monospace; -fx-font-size: 12px;");
+        return label;
+    }
+}
@@ -2,8 +2,11 @@ package univalle.tedesoft.uno.view;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import javafx.animation.TranslateTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
@@ -12,24 +15,32 @@ import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.Node;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Tooltip;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Dialog;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import jdk.jfr.EventType;
 
 import univalle.tedesoft.uno.Main;
 import univalle.tedesoft.uno.controller.GameController;
+import univalle.tedesoft.uno.diagnostics.FxWatchdog;
+import univalle.tedesoft.uno.diagnostics.HandRenderEvent;
+import univalle.tedesoft.uno.diagnostics.MetricsRegistry;
 import univalle.tedesoft.uno.model.Cards.Card;
 import univalle.tedesoft.uno.model.Enum.Color;
 import univalle.tedesoft.uno.model.Enum.Value;
@@ -49,6 +60,8 @@ public class GameView extends Stage {
     // Constantes de UI
     /** Altura estándar para las imágenes de las cartas en la UI. */
     private static final double CARD_HEIGHT = 100.0;
+    /** Tipo del evento de dibujo de manos; se consulta antes de crear el evento para no reservar memoria sin JFR. */
+    private static final EventType HAND_RENDER_EVENT_TYPE = EventType.getEventType(HandRenderEvent.class);
     /** Prefijo de la ruta donde se encuentran las imágenes de las cartas. */
     private static final String CARD_IMAGE_PATH_PREFIX = "/univalle/tedesoft/uno/images/";
     /** Extensión de archivo para las imágenes de las cartas. */
@@ -61,6 +74,18 @@ public class GameView extends Stage {
     private String playerName;
     /** Número máximo de mensajes que se mostrarán simultáneamente en el contenedor de mensajes. */
     private static final int MAX_MESSAGES = 3;
+    /** Panel de diagnóstico, se muestra con F3. */
+    private final DiagnosticsOverlay diagnosticsOverlay = new DiagnosticsOverlay();
+    /** Métrica de aciertos de la caché de imágenes. */
+    static final String IMAGE_CACHE_HITS = "view.imageCache.hit";
+    /** Métrica de fallos de la caché de imágenes. */
+    static final String IMAGE_CACHE_MISSES = "view.imageCache.miss";
+    /** Imágenes ya decodificadas por nombre base; solo se usa desde el hilo de JavaFX. */
+    private final Map<String, Image> imageCache = new HashMap<>();
+    /** Aciertos de la caché de imágenes. */
+    private final LongAdder imageCacheHits = MetricsRegistry.global().counter(IMAGE_CACHE_HITS);
+    /** Fallos de la caché de imágenes. */
+    private final LongAdder imageCacheMisses = MetricsRegistry.global().counter(IMAGE_CACHE_MISSES);
 
     /**
      * Clase interna para implementar el patrón Singleton.
@@ -88,11 +113,23 @@ public class GameView extends Stage {
      */
     private GameView() throws IOException {
         FXMLLoader loader = new FXMLLoader(Main.class.getResource("game-view.fxml"));
-        Scene scene = new Scene(loader.load());
+        // El panel de diagnóstico se apila sobre la partida, en la esquina superior izquierda
+        StackPane root = new StackPane(loader.<Parent>load(), this.diagnosticsOverlay);
+        StackPane.setAlignment(this.diagnosticsOverlay, Pos.TOP_LEFT);
+        Scene scene = new Scene(root);
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.F3) {
+                this.diagnosticsOverlay.toggle();
+            }
+        });
+        FxWatchdog.install();
         this.gameController = loader.getController();
 
         if (this.gameController != null) {
             this.gameController.setGameView(this);
+            this.diagnosticsOverlay.watchNodes("mano", this.gameController.playerHandHBox);
+            this.diagnosticsOverlay.watchNodes("máquina", this.gameController.machineHandHBox);
+            this.diagnosticsOverlay.watchNodes("mensajes", this.gameController.messageContainer);
         } else {
             throw new IOException("No se pudo obtener el GameController desde el FXML");
         }
@@ -209,6 +246,7 @@ public class GameView extends Stage {
      */
     public void updatePlayerHand(List<Card> hand, GameController ctrl) {
         Platform.runLater(() -> {
+            HandRenderEvent event = this.beginHandRender();
             this.gameController.playerHandHBox.getChildren().clear();
 
             // Configurar el HBox para las cartas solapadas como en la imagen
@@ -230,6 +268,7 @@ public class GameView extends Stage {
             if (this.gameController.humanCardsCountLabel != null) {
                 this.gameController.humanCardsCountLabel.setText("Mis Cartas: " + hand.size());
             }
+            this.commitHandRender(event, "humano", this.gameController.playerHandHBox);
         });
     }
 
@@ -239,6 +278,7 @@ public class GameView extends Stage {
      */
     public void updateMachineHand(int cardCount) {
         Platform.runLater(() -> {
+            HandRenderEvent event = this.beginHandRender();
             this.gameController.machineCardsCountLabel.setText("Cartas Máquina: " + cardCount);
             this.gameController.machineHandHBox.getChildren().clear();
             this.gameController.machineHandHBox.setSpacing(-20);
@@ -280,9 +320,41 @@ public class GameView extends Stage {
                     }
                 }
             }
+            this.commitHandRender(event, "maquina", this.gameController.machineHandHBox);
         });
     }
 
+    /**
+     * Empieza el evento de JFR de un redibujado de mano, si JFR lo está grabando.
+     * @return el evento empezado, o null si el evento está deshabilitado.
+     */
+    private HandRenderEvent beginHandRender() {
+        if (!HAND_RENDER_EVENT_TYPE.isEnabled()) {
+            return null;
+        }
+        HandRenderEvent event = new HandRenderEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Termina y emite el evento de JFR de un redibujado de mano, si JFR lo está grabando.
+     * @param event el evento, empezado antes de redibujar, o null si JFR no lo graba.
+     * @param hand nombre de la mano.
+     * @param box contenedor de la mano.
+     */
+    private void commitHandRender(HandRenderEvent event, String hand, HBox box) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.hand = hand;
+            event.nodeCount = box.getChildren().size();
+            event.commit();
+        }
+    }
+
     /**
      * Actualiza la imagen mostrada en la pila de descarte y aplica un
      * indicador de color si es necesario (para comodines).
@@ -672,10 +744,31 @@ public class GameView extends Stage {
 
     /**
      * Obtiene un objeto Image por su nombre de archivo base (sin ruta ni extensión).
+     * Cada imagen se decodifica una sola vez; las siguientes veces se reutiliza la misma,
+     * que JavaFX puede compartir entre varios ImageView.
      * @param baseName Nombre base (ej: "RED_5", "deck_of_cards").
      * @return El objeto Image, o null si no se encuentra o hay error.
      */
     private Image getCardImageByName(String baseName) {
+        Image cached = this.imageCache.get(baseName);
+        if (cached != null) {
+            this.imageCacheHits.increment();
+            return cached;
+        }
+        this.imageCacheMisses.increment();
+        Image image = this.loadCardImage(baseName);
+        if (image != null) {
+            this.imageCache.put(baseName, image);
+        }
+        return image;
+    }
+
+    /**
+     * Carga y decodifica una imagen de carta desde los recursos.
+     * @param baseName Nombre base (ej: "RED_5", "deck_of_cards").
+     * @return El objeto Image, el reverso si no se encuentra, o null si tampoco hay reverso.
+     */
+    private Image loadCardImage(String baseName) {
         String resourcePath = CARD_IMAGE_PATH_PREFIX + baseName + CARD_IMAGE_EXTENSION;
         try {
             InputStream stream = Main.class.getResourceAsStream(resourcePath);
@@ -741,6 +834,7 @@ public class GameView extends Stage {
             case ZERO, ONE, TWO, THREE, FOUR, FIVE, SIX, SEVEN, EIGHT, NINE ->
                     value.ordinal() + "_" + colorString; // Asume 0_red, 1_blue...
             case SKIP -> "skip_" + colorString;
+            case REVERSE -> "reverse_" + colorString;
             case DRAW_TWO -> "2_wild_draw_" + colorString; // Asume '2_wild_draw_color.png'
             case WILD -> "change_color";
             case WILD_DRAW_FOUR -> "4_wild_draw";
@@ -11,6 +11,7 @@ import java.io.IOException;
 /**
  * Esta clase representa la vista del menú principal del juego de UNO.
  * Se encarga de mostrar las opciones del menú, tales como ingresar el nombre del usuario,
+ * elegir la dificultad de la máquina,
  * salir del juego o mostrar las instrucciones.
  *
  * @author Juan Pablo Escamilla
@@ -0,0 +1,81 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.simulation.HeadlessGame;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los eventos de JFR del juego: se graban partidas sin interfaz y se leen
+ * los eventos del archivo resultante.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class FlightEventsTest {
+    /** Directorio temporal para la grabación. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Las partidas emiten turnos con jugador y carta, decisiones de la máquina,
+     * reciclajes del mazo y vencimientos de temporizadores.
+     * @throws Exception si falla la grabación.
+     */
+    @Test
+    void recording_containsGameEvents() throws Exception {
+        Path file = this.tempDir.resolve("uno.jfr");
+        try (Recording recording = new Recording()) {
+            for (Class<?> type : List.of(TurnEvent.class, DeckRecycleEvent.class, MachineDecisionEvent.class,
+                    TimerFireEvent.class)) {
+                recording.enable(type.getName()).withThreshold(java.time.Duration.ZERO);
+            }
+            recording.start();
+            HeadlessGame game = new HeadlessGame();
+            game.configure(Difficulty.GREEDY.createStrategy(), 0, Difficulty.GREEDY.createStrategy(), 0);
+            for (int g = 0; g < 200; g++) {
+                game.play((g & 1) == 0);
+            }
+            TimerFireEvent.fired("prueba", 5, System.nanoTime() - 1_000_000L);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        int turnsWithCard = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            String name = event.getEventType().getName();
+            counts.merge(name, 1, Integer::sum);
+            switch (name) {
+                case "univalle.tedesoft.uno.Turn" -> {
+                    assertTrue(List.of("A", "Machine").contains(event.getString("player")));
+                    if (event.getString("card") != null) {
+                        turnsWithCard++;
+                    }
+                }
+                case "univalle.tedesoft.uno.DeckRecycle" -> assertTrue(event.getInt("deckSize") >= event.getInt("pileSize"));
+                case "univalle.tedesoft.uno.TimerFire" -> {
+                    assertEquals("prueba", event.getString("timer"));
+                    assertTrue(event.getLong("lateness") >= 1_000_000L);
+                }
+                default -> { }
+            }
+        }
+        assertTrue(counts.getOrDefault("univalle.tedesoft.uno.Turn", 0) > 1000, counts.toString());
+        assertTrue(turnsWithCard > 0);
+        assertTrue(counts.getOrDefault("univalle.tedesoft.uno.MachineDecision", 0) > 0, counts.toString());
+        assertTrue(counts.getOrDefault("univalle.tedesoft.uno.DeckRecycle", 0) > 0, counts.toString());
+        assertEquals(1, counts.getOrDefault("univalle.tedesoft.uno.TimerFire", 0));
+    }
+}
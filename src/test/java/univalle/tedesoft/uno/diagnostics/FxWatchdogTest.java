@@ -0,0 +1,75 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del vigilante del hilo de interfaz, sobre un hilo común que hace de hilo de JavaFX.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class FxWatchdogTest {
+
+    /**
+     * Un bloqueo largo del hilo vigilado se detecta una sola vez, con la pila del bloqueo,
+     * y las sondas vuelven a medirse cuando el hilo se libera.
+     * @throws Exception si se interrumpe la espera.
+     */
+    @Test
+    void blockedThread_isReportedOnceWithItsStack() throws Exception {
+        Thread[] uiThread = new Thread[1];
+        ExecutorService ui = Executors.newSingleThreadExecutor(runnable -> {
+            uiThread[0] = new Thread(runnable, "FakeFxThread");
+            return uiThread[0];
+        });
+        ui.submit(() -> { }).get();
+        MetricsRegistry registry = new MetricsRegistry();
+        FxWatchdog watchdog = new FxWatchdog(ui, uiThread[0], 100, 10, registry);
+        watchdog.start();
+        try {
+            Thread.sleep(100);
+            long probesBefore = registry.snapshot(false).getHistogram("fx.heartbeat").getCount();
+            assertTrue(probesBefore > 0, "Las sondas deberían medirse con el hilo libre.");
+            assertEquals(0, watchdog.getStallCount());
+
+            CountDownLatch release = new CountDownLatch(1);
+            ui.execute(() -> blockUiThread(release));
+            Thread.sleep(500);
+            assertEquals(1, watchdog.getStallCount(), "Un bloqueo debería contarse una vez.");
+            assertTrue(Arrays.stream(watchdog.getLastStallTrace())
+                            .anyMatch(frame -> frame.getMethodName().equals("blockUiThread")),
+                    "La pila debería mostrar dónde está bloqueado el hilo.");
+
+            release.countDown();
+            Thread.sleep(100);
+            long probesAfter = registry.snapshot(false).getHistogram("fx.heartbeat").getCount();
+            assertTrue(probesAfter > probesBefore + 1);
+            assertTrue(registry.snapshot(false).getHistogram("fx.heartbeat").getMax() >= 300_000_000L,
+                    "La sonda atrapada debería medir la espera del bloqueo.");
+        } finally {
+            watchdog.stop();
+            ui.shutdownNow();
+            ui.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Bloquea el hilo que lo ejecuta hasta que se libere el cerrojo.
+     * @param release cerrojo que libera el hilo.
+     */
+    private static void blockUiThread(CountDownLatch release) {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.simulation.HeadlessGame;
+
+/**
+ * Benchmark del costo de las métricas del motor: juega las mismas partidas sin interfaz
+ * con el registro desactivado y activado, alternando rondas para que el JIT y el ruido
+ * afecten a ambos por igual, y compara los tiempos.
+ * No es una prueba unitaria; se ejecuta manualmente con su método main.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class MetricsOverheadBenchmark {
+
+    /**
+     * Ejecuta el benchmark.
+     * Argumentos opcionales: partidas por ronda (50.000) y rondas (6).
+     * @param args argumentos de la línea de comandos.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        HeadlessGame game = new HeadlessGame();
+        game.configure(Difficulty.GREEDY.createStrategy(), 0, Difficulty.GREEDY.createStrategy(), 0);
+        MetricsRegistry registry = MetricsRegistry.global();
+
+        // Calentamiento con ambas ramas
+        for (int g = 0; g < games; g++) {
+            registry.setEnabled((g & 1) == 0);
+            game.play((g & 1) == 0);
+        }
+        long disabled = 0;
+        long enabled = 0;
+        for (int round = 0; round < rounds; round++) {
+            // Alternar también el orden dentro de la ronda
+            boolean enabledFirst = (round & 1) == 1;
+            registry.setEnabled(enabledFirst);
+            long first = playRound(game, games);
+            registry.setEnabled(!enabledFirst);
+            long second = playRound(game, games);
+            enabled += enabledFirst ? first : second;
+            disabled += enabledFirst ? second : first;
+        }
+        System.out.printf("%d partidas por modo: %.2f s sin métricas, %.2f s con métricas (%+.2f%%)%n",
+                (long) games * rounds, disabled / 1e9, enabled / 1e9, 100.0 * (enabled - disabled) / disabled);
+        System.out.print(registry.snapshot(false));
+    }
+
+    /**
+     * Juega una ronda de partidas.
+     * @param game el bucle de juego.
+     * @param games cantidad de partidas.
+     * @return duración en nanosegundos.
+     */
+    private static long playRound(HeadlessGame game, int games) {
+        long start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            game.play((g & 1) == 0);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,132 @@
+package univalle.tedesoft.uno.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.server.LatencyHistogram;
+import univalle.tedesoft.uno.simulation.HeadlessGame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del registro de métricas y sus instrumentos.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class MetricsRegistryTest {
+
+    /**
+     * Varios hilos registran a la vez sin perder valores, y reiniciar vacía el histograma.
+     * @throws Exception si se interrumpe la espera.
+     */
+    @Test
+    void histogram_countsConcurrentRecordsExactly() throws Exception {
+        ConcurrentHistogram histogram = new ConcurrentHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram snapshot = histogram.snapshot(true);
+        assertEquals(40_000, snapshot.getCount());
+        assertEquals(10_000, snapshot.getMax());
+        long median = snapshot.getPercentile(50);
+        assertTrue(median > 4_800 && median <= 5_000, "Mediana fuera de rango: " + median);
+        assertEquals(0, histogram.snapshot(false).getCount());
+    }
+
+    /**
+     * Un cronómetro muestreado cronometra una de cada tantas llamadas y estima la cuenta;
+     * desactivado no registra nada.
+     */
+    @Test
+    void timer_samplesAndEstimatesCalls() {
+        MetricsRegistry registry = new MetricsRegistry();
+        SampledTimer timer = registry.timer("op", 4);
+        for (int tick = 0; tick < 400; tick++) {
+            timer.stop(timer.start(tick));
+        }
+        MetricsSnapshot snapshot = registry.snapshot(true);
+        assertEquals(400, snapshot.getCounter("op"));
+        assertEquals(100, snapshot.getHistogram("op").getCount());
+
+        registry.setEnabled(false);
+        for (int tick = 0; tick < 400; tick++) {
+            timer.stop(timer.start(tick));
+        }
+        snapshot = registry.snapshot(false);
+        assertEquals(0, snapshot.getCounter("op"));
+        assertEquals(0, snapshot.getHistogram("op").getCount());
+        assertThrows(IllegalArgumentException.class, () -> registry.timer("bad", 3));
+    }
+
+    /**
+     * La exportación CSV tiene una fila por contador y una por histograma.
+     * @throws Exception si falla la escritura.
+     */
+    @Test
+    void snapshot_exportsCsv() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("a.count").add(3);
+        registry.histogram("b").record(1_000);
+        StringBuilder csv = new StringBuilder();
+        registry.snapshot(false).writeCsv(csv);
+        String[] lines = csv.toString().split("\n");
+        assertEquals(MetricsSnapshot.CSV_HEADER, lines[0]);
+        assertEquals("a.count,3,,,,,", lines[1]);
+        assertTrue(lines[2].startsWith("b.latency,1,"), lines[2]);
+        assertTrue(lines[2].endsWith(",1000"), lines[2]);
+    }
+
+    /**
+     * Jugar partidas alimenta los instrumentos del motor y de la máquina.
+     */
+    @Test
+    void engine_recordsPlaysAndDecisions() {
+        MetricsRegistry.global().snapshot(true);
+        HeadlessGame game = new HeadlessGame();
+        game.configure(Difficulty.GREEDY.createStrategy(), 0, Difficulty.GREEDY.createStrategy(), 0);
+        for (int g = 0; g < 500; g++) {
+            game.play((g & 1) == 0);
+        }
+        MetricsSnapshot snapshot = MetricsRegistry.global().snapshot(false);
+        assertTrue(snapshot.getCounter("engine.playCard") > 0, snapshot.toString());
+        assertTrue(snapshot.getHistogram("engine.playCard").getCount() > 0, snapshot.toString());
+        assertTrue(snapshot.getCounter("machine.decision") > 0, snapshot.toString());
+    }
+
+    /**
+     * Los medidores aparecen en las copias sin reiniciarse y el anillo conserva solo
+     * los últimos valores, del más nuevo al más viejo.
+     */
+    @Test
+    void gaugesAndRecentValues() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.gauge("hilos").set(3);
+        registry.snapshot(true);
+        assertEquals(3, registry.snapshot(true).getCounter("hilos"));
+
+        RecentValues recent = registry.recent("turnos", 4);
+        long[] out = new long[8];
+        assertEquals(0, recent.copyRecent(out));
+        for (long v = 1; v <= 6; v++) {
+            recent.record(v);
+        }
+        assertEquals(4, recent.copyRecent(out));
+        assertArrayEquals(new long[]{6, 5, 4, 3}, Arrays.copyOf(out, 4));
+        assertSame(recent, registry.recent("turnos", 99));
+    }
+}
@@ -0,0 +1,167 @@
+package univalle.tedesoft.uno.lobby;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del lobby de emparejamiento por rondas.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class LobbyTest {
+
+    /**
+     * Las solicitudes no se emparejan al llegar sino en la ronda, y cada mesa
+     * agrupa calificaciones cercanas de la misma dificultad.
+     */
+    @Test
+    void tick_pairsCloseRatingsWithinDifficulty() {
+        List<LobbyTable> tables = new ArrayList<>();
+        Lobby lobby = new Lobby(2, 2, 8, tables::add);
+        lobby.submit(new LobbyTicket(1, "a", Difficulty.GREEDY, 1500));
+        lobby.submit(new LobbyTicket(2, "b", Difficulty.GREEDY, 1000));
+        lobby.submit(new LobbyTicket(3, "c", Difficulty.GREEDY, 1520));
+        lobby.submit(new LobbyTicket(4, "d", Difficulty.GREEDY, 1030));
+        lobby.submit(new LobbyTicket(5, "e", Difficulty.RANDOM, 1000));
+        assertTrue(tables.isEmpty(), "Nada se empareja antes de la ronda.");
+
+        lobby.tick();
+
+        assertEquals(2, tables.size());
+        assertEquals(List.of(2L, 4L), ids(tables.get(0)));
+        assertEquals(List.of(1L, 3L), ids(tables.get(1)));
+        assertEquals(1, lobby.getWaiting(), "El único jugador de RANDOM sigue esperando.");
+        assertNotNull(tables.get(0).getGameState());
+        assertEquals(5, tables.get(0).getPlayers().get(0).getNumeroCartas());
+        assertEquals("b", tables.get(0).getPlayers().get(0).getName());
+    }
+
+    /**
+     * La ventana de calificación se ensancha con la espera y, pasado el límite,
+     * el jugador solitario se sienta con máquinas de su dificultad.
+     */
+    @Test
+    void tick_widensWindowAndFillsWithMachines() {
+        List<LobbyTable> tables = new ArrayList<>();
+        Lobby lobby = new Lobby(2, 3, 8, tables::add);
+        lobby.setMachineFillTicks(5);
+        lobby.submit(new LobbyTicket(1, "a", Difficulty.HEURISTIC, 1000));
+        lobby.submit(new LobbyTicket(2, "b", Difficulty.HEURISTIC, 1180));
+        lobby.submit(new LobbyTicket(3, "c", Difficulty.SEARCH, 1000));
+
+        lobby.tick();
+        assertTrue(tables.isEmpty(), "180 puntos no caben en la ventana inicial.");
+        lobby.tick();
+        lobby.tick();
+        assertEquals(1, tables.size(), "Tras dos rondas de espera la ventana admite la diferencia.");
+        assertEquals(List.of(1L, 2L), ids(tables.get(0)));
+        assertInstanceOf(MachinePlayer.class, tables.get(0).getPlayers().get(2));
+
+        for (int i = 0; i < 3; i++) {
+            lobby.tick();
+        }
+        assertEquals(2, tables.size());
+        LobbyTable solo = tables.get(1);
+        assertEquals(List.of(3L), ids(solo));
+        assertEquals(3, solo.getPlayers().size());
+        MachinePlayer machine = (MachinePlayer) solo.getPlayers().get(1);
+        assertEquals(Difficulty.SEARCH, machine.getDifficulty());
+        assertEquals(1, lobby.getMachineFilled());
+    }
+
+    /**
+     * Las mesas devueltas se reutilizan en rondas posteriores.
+     */
+    @Test
+    void release_recyclesTables() {
+        List<LobbyTable> tables = new ArrayList<>();
+        Lobby lobby = new Lobby(2, 2, 8, tables::add);
+        lobby.submit(new LobbyTicket(1, "a", Difficulty.RANDOM, 1000));
+        lobby.submit(new LobbyTicket(2, "b", Difficulty.RANDOM, 1000));
+        lobby.tick();
+        LobbyTable first = tables.get(0);
+        lobby.release(first);
+        lobby.submit(new LobbyTicket(3, "c", Difficulty.RANDOM, 1000));
+        lobby.submit(new LobbyTicket(4, "d", Difficulty.RANDOM, 1000));
+        lobby.tick();
+
+        assertSame(first, tables.get(1));
+        assertEquals(2, first.getUses());
+        assertEquals(List.of(3L, 4L), ids(first));
+        assertEquals(1, lobby.getTablesCreated());
+        assertEquals(1, lobby.getTablesReused());
+    }
+
+    /**
+     * Prueba de carga en proceso: varios hilos envían solicitudes mientras el lobby
+     * empareja en su propio hilo y las partidas se devuelven al terminar.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    @Test
+    void loadTest_sustainsThousandsOfJoinsPerSecond() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 10_000;
+        AtomicLong seated = new AtomicLong();
+        Lobby[] holder = new Lobby[1];
+        Lobby lobby = new Lobby(2, 4, 1024, table -> {
+            seated.addAndGet(table.getTickets().size());
+            holder[0].release(table);
+        });
+        holder[0] = lobby;
+        lobby.setMachineFillTicks(10);
+        lobby.start(5);
+        Difficulty[] difficulties = Difficulty.values();
+        long start = System.nanoTime();
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                Random random = new Random(producer);
+                for (int i = 0; i < perProducer; i++) {
+                    long id = (long) producer * perProducer + i;
+                    lobby.submit(new LobbyTicket(id, "J" + id, difficulties[random.nextInt(difficulties.length)],
+                            1000 + random.nextGaussian() * 200));
+                }
+            });
+            threads[p].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int total = producers * perProducer;
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (seated.get() < total && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        lobby.stop();
+        System.out.printf("Lobby: %.0f solicitudes/s; %s%n", total / seconds, lobby);
+
+        assertEquals(total, seated.get(), "Todas las solicitudes deberían terminar sentadas.");
+        assertEquals(total, lobby.getSeated());
+        assertTrue(lobby.getTablesReused() > lobby.getTablesCreated(), "Las mesas deberían reciclarse.");
+        assertTrue(total / seconds > 2000, "Se esperaban miles de solicitudes por segundo.");
+    }
+
+    /**
+     * Identificadores de los jugadores sentados en una mesa.
+     * @param table la mesa.
+     * @return los identificadores en orden de asiento.
+     */
+    private static List<Long> ids(LobbyTable table) {
+        List<Long> ids = new ArrayList<>();
+        for (LobbyTicket ticket : table.getTickets()) {
+            ids.add(ticket.getId());
+        }
+        return ids;
+    }
+}
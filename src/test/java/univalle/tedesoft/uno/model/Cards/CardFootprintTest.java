@@ -0,0 +1,76 @@
+package univalle.tedesoft.uno.model.Cards;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import univalle.tedesoft.uno.model.Enum.CardEffect;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Players.HumanPlayer;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.State.GameState;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la representación compacta de las cartas y de su huella en memoria,
+ * medida con JOL sobre la JVM que ejecuta las pruebas.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class CardFootprintTest {
+
+    /**
+     * El índice de tipo conserva color, valor y efecto de todas las combinaciones.
+     */
+    @Test
+    void code_roundTripsColorValueAndEffect() {
+        for (Color color : Color.values()) {
+            for (Value value : Value.values()) {
+                Card card = new NumberCard(color, value);
+                assertEquals(color, card.getColor());
+                assertEquals(value, card.getValue());
+                assertEquals(CardEffect.of(value), card.getEffect());
+                assertEquals(color.ordinal() * Card.VALUE_COUNT + value.ordinal(), card.getCode());
+            }
+        }
+        assertEquals(CardEffect.WILD_DRAW_FOUR, new WildDrawFourCard().getEffect());
+        assertEquals(CardEffect.NONE, new NumberCard(Color.RED, Value.SEVEN).getEffect());
+    }
+
+    /**
+     * Cada carta ocupa la cabecera más su byte, redondeado al alineamiento de la JVM,
+     * y una partida recién repartida queda por debajo de un límite fijo.
+     */
+    @Test
+    void footprint_perCardAndPerGame() {
+        long header = VM.current().objectHeaderSize();
+        long alignment = VM.current().objectAlignment();
+        long expectedCard = (header + 1 + alignment - 1) / alignment * alignment;
+        for (Card card : new Card[]{new NumberCard(Color.RED, Value.FIVE), new SkipCard(Color.BLUE),
+                new WildCard(), new WildDrawFourCard()}) {
+            assertEquals(expectedCard, ClassLayout.parseInstance(card).instanceSize(),
+                    ClassLayout.parseInstance(card).toPrintable());
+        }
+
+        GameState gameState = new GameState(new HumanPlayer("A"), new MachinePlayer());
+        gameState.onGameStart();
+        GraphLayout layout = GraphLayout.parseInstance(gameState);
+        long cardBytes = 0;
+        long cards = 0;
+        for (Class<?> type : layout.getClasses()) {
+            if (Card.class.isAssignableFrom(type)) {
+                cardBytes += layout.getClassSizes().count(type);
+                cards += layout.getClassCounts().count(type);
+            }
+        }
+        String sizes = String.format("carta: %d bytes; partida: %d bytes en %d objetos (%d cartas, %d bytes)",
+                expectedCard, layout.totalSize(), layout.totalCount(), cards, cardBytes);
+        assertEquals(64, cards, "La partida debería contener el mazo completo; " + sizes);
+        assertEquals(64 * expectedCard, cardBytes, sizes);
+        assertTrue(layout.totalSize() < 8 * 1024, () -> sizes + "\n" + layout.toFootprint());
+    }
+}
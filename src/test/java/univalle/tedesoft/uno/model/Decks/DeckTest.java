@@ -23,12 +23,12 @@ class DeckTest {
     /** Mazo de cartas utilizado en las pruebas. */
     private Deck deck;
     // Segun la implementacion actual de Deck.intializeDeck():
-    // 4 colores * (10 NumberCards (0-9) + 2 DrawTwo + 1 Skip) = 4 * 13 = 52
+    // 4 colores * (10 NumberCards (0-9) + 2 DrawTwo + 1 Skip + 1 Reverse) = 4 * 14 = 56
     // 4 Wild Cards
     // 4 WildDrawFour Cards
-    // Total = 52 + 4 + 4 = 60 cartas
+    // Total = 56 + 4 + 4 = 64 cartas
     /** Número esperado de cartas en un mazo recién inicializado. */
-    private static final int EXPECTED_DECK_SIZE = 60;
+    private static final int EXPECTED_DECK_SIZE = 64;
 
     /**
      * Metodo de configuracion que se ejecuta antes de cada prueba.
@@ -59,6 +59,7 @@ class DeckTest {
         long numberCardsCount = cards.stream().filter(c -> c instanceof NumberCard).count();
         long drawTwoCount = cards.stream().filter(c -> c instanceof DrawTwoCard).count();
         long skipCount = cards.stream().filter(c -> c instanceof SkipCard).count();
+        long reverseCount = cards.stream().filter(c -> c instanceof ReverseCard).count();
         long wildCount = cards.stream().filter(c -> c instanceof WildCard).count();
         long wildDrawFourCount = cards.stream().filter(c -> c instanceof WildDrawFourCard).count();
 
@@ -69,6 +70,8 @@ class DeckTest {
         assertEquals(8, drawTwoCount, "Deberia haber 8 cartas +2.");
         // 4 colores * 1 carta Skip = 4
         assertEquals(4, skipCount, "Deberia haber 4 cartas Skip.");
+        // 4 colores * 1 carta Reverse = 4
+        assertEquals(4, reverseCount, "Deberia haber 4 cartas Reverse.");
         // 4 cartas Wild
         assertEquals(4, wildCount, "Deberia haber 4 cartas Wild.");
         // 4 cartas Wild +4
@@ -92,6 +95,11 @@ class DeckTest {
                     .filter(c -> c instanceof SkipCard && c.getColor() == color)
                     .count();
             assertEquals(1, skipThisColor, "Deberia haber 1 carta Skip de color " + color);
+
+            long reverseThisColor = cards.stream()
+                    .filter(c -> c instanceof ReverseCard && c.getColor() == color)
+                    .count();
+            assertEquals(1, reverseThisColor, "Deberia haber 1 carta Reverse de color " + color);
         }
     }
 
@@ -133,23 +141,23 @@ class DeckTest {
             fail("El mazo esta vacio al inicio de la prueba, no se puede probar takeCard().");
         }
 
-        // Tomamos una copia de la lista original para saber cuál es la primera
+        // Tomamos una copia de la lista original para saber cuál es la superior (la última)
         List<Card> originalCards = new ArrayList<>(this.deck.getCards());
-        Card expectedTopCard = originalCards.get(0);
+        Card expectedTopCard = originalCards.get(originalCards.size() - 1);
         int initialSize = this.deck.getNumeroCartas();
 
         Card takenCard = this.deck.takeCard(); // Esto puede lanzar EmptyDeckException
 
         assertNotNull(takenCard, "La carta tomada no deberia ser nula.");
-        assertEquals(expectedTopCard, takenCard, "La carta tomada deberia ser la que estaba al tope del mazo (primera en la lista interna original).");
+        assertEquals(expectedTopCard, takenCard, "La carta tomada deberia ser la que estaba al tope del mazo (ultima en la lista interna original).");
         assertEquals(initialSize - 1, this.deck.getNumeroCartas(), "El numero de cartas en el mazo deberia disminuir en 1.");
 
         // Verificar que la carta tomada ya no está en el mazo
         assertFalse(this.deck.getCards().contains(takenCard), "La carta tomada no deberia estar mas en el mazo.");
 
         if (this.deck.getNumeroCartas() > 0) {
-            // La nueva primera carta en el mazo (si aún quedan) no debería ser la que se tomó.
-            assertNotEquals(takenCard, this.deck.getCards().get(0), "La nueva carta superior deberia ser diferente a la tomada.");
+            // La nueva carta superior (si aún quedan) no debería ser la que se tomó.
+            assertNotEquals(takenCard, this.deck.getCards().get(this.deck.getNumeroCartas() - 1), "La nueva carta superior deberia ser diferente a la tomada.");
         }
     }
 
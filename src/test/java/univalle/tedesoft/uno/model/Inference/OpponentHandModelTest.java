@@ -0,0 +1,191 @@
+package univalle.tedesoft.uno.model.Inference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import univalle.tedesoft.uno.exceptions.EmptyDeckException;
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Cards.NumberCard;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Players.HumanPlayer;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.State.GameState;
+
+import java.util.List;
+
+/**
+ * Pruebas unitarias para la clase OpponentHandModel.
+ * Verifican el conteo de cartas no vistas y los indicios de colores ausentes
+ * a partir de los eventos emitidos por GameState.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class OpponentHandModelTest {
+    /** Jugador humano (oponente observado). */
+    private HumanPlayer human;
+    /** Jugador máquina, dueño del modelo. */
+    private MachinePlayer machine;
+    /** Estado del juego que emite los eventos. */
+    private GameState gameState;
+    /** Modelo bajo prueba. */
+    private OpponentHandModel model;
+    /** Tamaño del mazo estándar. */
+    private static final int DECK_SIZE = 64;
+
+    /**
+     * Crea una partida nueva antes de cada prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        human = new HumanPlayer("Tester");
+        machine = new MachinePlayer();
+        gameState = new GameState(human, machine);
+        gameState.onGameStart();
+        model = machine.getOpponentModel();
+    }
+
+    /**
+     * Al inicio, solo la mano de la máquina y la carta inicial son conocidas.
+     */
+    @Test
+    void onGameStart_unseenExcludesOwnHandAndStarterCard() {
+        int expected = DECK_SIZE - machine.getNumeroCartas() - 1;
+        assertEquals(expected, model.getTotalUnseen(), "Las cartas no vistas deberian excluir la mano propia y la carta inicial.");
+        assertEquals(human.getNumeroCartas(), model.getOpponentHandSize(), "El tamaño de la mano del oponente deberia coincidir.");
+    }
+
+    /**
+     * La suma de los conteos por tipo debe coincidir con el total no visto.
+     */
+    @Test
+    void unseenCounts_areConsistentWithTotal() {
+        int sum = 0;
+        for (Color color : Color.values()) {
+            int perColor = 0;
+            for (Value value : Value.values()) {
+                perColor += model.getUnseenCount(color, value);
+            }
+            assertEquals(perColor, model.getUnseenCount(color), "El conteo por color deberia ser la suma de sus tipos.");
+            sum += perColor;
+        }
+        assertEquals(model.getTotalUnseen(), sum);
+    }
+
+    /**
+     * Cuando el humano roba voluntariamente, se pondera que no tenía el color activo
+     * ni comodines, y la probabilidad para ese color disminuye sin volverse una certeza.
+     * @throws EmptyDeckException si el mazo estuviera vacío (no ocurre al inicio).
+     */
+    @Test
+    void turnDraw_weighsActiveColorAndWildAsLikelyVoid() throws EmptyDeckException {
+        Color active = gameState.getCurrentValidColor();
+        double before = model.probabilityOfColor(active);
+        gameState.drawTurnCard(human);
+
+        assertEquals(OpponentHandModel.DRAW_EVIDENCE, model.getVoidWeight(active), 1e-9, "El color activo deberia pesar como probablemente ausente.");
+        assertEquals(OpponentHandModel.DRAW_EVIDENCE, model.getVoidWeight(Color.WILD), 1e-9, "Los comodines deberian pesar como probablemente ausentes.");
+        assertTrue(model.probabilityOfColor(active) < before, "La probabilidad del color activo deberia disminuir.");
+        assertEquals(human.getNumeroCartas(), model.getOpponentHandSize());
+    }
+
+    /**
+     * Robar teniendo una carta jugable está permitido: el robo no descarta el color activo,
+     * el indicio decae en los turnos siguientes y se anula si el oponente demuestra tener el color.
+     */
+    @Test
+    void turnDraw_whileHoldingPlayableCard_isNotProofOfVoid() {
+        model.onColorChosen(Color.RED);
+        model.onCardDrawn(human, new NumberCard(Color.RED, Value.NINE), true);
+        double missRate = 1.0 - (double) model.getUnseenCount(Color.RED) / model.getTotalUnseen();
+        double onlyDrawnCard = 1.0 - missRate;
+        assertTrue(model.getVoidWeight(Color.RED) < 1.0, "Un robo voluntario no deberia ser una certeza.");
+        assertTrue(model.probabilityOfColor(Color.RED) > onlyDrawnCard,
+                "La probabilidad del color activo no deberia reducirse a la de la carta robada.");
+
+        // Juega la carta roja que pudo haber robado: el indicio se mantiene, pero más débil
+        model.onCardPlayed(human, new NumberCard(Color.RED, Value.THREE));
+        double decayed = model.getVoidWeight(Color.RED);
+        assertEquals(OpponentHandModel.DRAW_EVIDENCE * OpponentHandModel.EVIDENCE_DECAY, decayed, 1e-9);
+
+        // Una segunda carta roja no pudo venir del robo: ya tenía el color al robar
+        model.onCardPlayed(human, new NumberCard(Color.RED, Value.FOUR));
+        assertEquals(0.0, model.getVoidWeight(Color.RED), "El indicio refutado deberia descartarse.");
+        assertEquals(model.getOpponentHandSize(), model.getEligibleCards(Color.RED));
+    }
+
+    /**
+     * Una carta jugada por el oponente deja de estar en el conjunto no visto.
+     */
+    @Test
+    void opponentPlay_removesCardFromUnseen() {
+        Card card = new NumberCard(Color.RED, Value.FIVE);
+        int unseenBefore = model.getUnseenCount(Color.RED, Value.FIVE);
+        int totalBefore = model.getTotalUnseen();
+        model.onCardPlayed(human, card);
+
+        if (unseenBefore > 0) {
+            assertEquals(unseenBefore - 1, model.getUnseenCount(Color.RED, Value.FIVE));
+            assertEquals(totalBefore - 1, model.getTotalUnseen());
+        }
+        assertEquals(Color.RED, model.getCurrentColor());
+    }
+
+    /**
+     * Al reciclar, las cartas de la pila de descarte vuelven a ser no vistas.
+     */
+    @Test
+    void recycling_returnsDiscardedCardsToUnseen() {
+        Card card = new NumberCard(Color.BLUE, Value.TWO);
+        model.onCardPlayed(human, card);
+        int totalAfterPlay = model.getTotalUnseen();
+        model.onDeckRecycled(List.of(card));
+        assertEquals(totalAfterPlay + 1, model.getTotalUnseen());
+    }
+
+    /**
+     * El reciclaje devuelve al conjunto no visto toda la pila salvo la carta superior,
+     * usando los conteos por tipo del modelo, y una copia evoluciona sin tocar al original.
+     */
+    @Test
+    void recycling_usesDiscardCountsAndCopiesAreIndependent() {
+        // Cartas que el modelo aún no ha visto, para que la jugada del humano las descuente
+        Card[] played = new Card[3];
+        int found = 0;
+        for (Value value : Value.values()) {
+            if (found < played.length && value.ordinal() <= Value.NINE.ordinal()
+                    && model.getUnseenCount(Color.GREEN, value) > 0) {
+                played[found++] = new NumberCard(Color.GREEN, value);
+            }
+        }
+        assertEquals(played.length, found, "Deberian quedar tres numeros verdes sin ver.");
+        Card first = played[0];
+        Card second = played[1];
+        Card top = played[2];
+        model.onCardPlayed(human, first);
+        model.onCardPlayed(machine, second);
+        model.onCardPlayed(human, top);
+        int firstUnseen = model.getUnseenCount(first.getColor(), first.getValue());
+        int topUnseen = model.getUnseenCount(top.getColor(), top.getValue());
+        int total = model.getTotalUnseen();
+
+        OpponentHandModel copy = new OpponentHandModel(machine);
+        copy.copyFrom(model);
+        assertEquals(total, copy.getTotalUnseen());
+        assertEquals(model.getOpponentHandSize(), copy.getOpponentHandSize());
+        assertEquals(model.getCurrentColor(), copy.getCurrentColor());
+
+        // La pila tiene la carta inicial y las tres jugadas; vuelven todas menos la superior
+        copy.onDeckRecycled(List.of(gameState.getTopDiscardCard(), first, second));
+        assertEquals(total + 3, copy.getTotalUnseen());
+        assertEquals(firstUnseen + 1, copy.getUnseenCount(first.getColor(), first.getValue()));
+        assertEquals(topUnseen, copy.getUnseenCount(top.getColor(), top.getValue()), "La carta superior sigue a la vista.");
+        assertEquals(total, model.getTotalUnseen(), "La copia no deberia modificar el original.");
+
+        // Tras reciclar, la pila solo tiene la superior: un segundo reciclaje no devuelve nada más
+        copy.onDeckRecycled(List.of());
+        assertEquals(total + 3, copy.getTotalUnseen());
+    }
+}
@@ -0,0 +1,48 @@
+package univalle.tedesoft.uno.model.Learning;
+
+import univalle.tedesoft.uno.model.Players.HumanPlayer;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.State.GameState;
+import univalle.tedesoft.uno.model.Strategies.LearnedPolicyStrategy;
+
+/**
+ * Micro-benchmark del costo de una decisión con política aprendida
+ * (extracción de características + evaluación + selección de carta).
+ * No es una prueba unitaria; se ejecuta manualmente con su método main.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class PolicyInferenceBenchmark {
+    /** Decisiones por medición. */
+    private static final int ITERATIONS = 2_000_000;
+
+    /**
+     * Mide el tiempo medio por decisión para una red lineal y una con capa oculta.
+     * @param args no se usan.
+     */
+    public static void main(String[] args) {
+        HumanPlayer human = new HumanPlayer("Bench");
+        MachinePlayer machine = new MachinePlayer();
+        GameState gameState = new GameState(human, machine);
+        gameState.onGameStart();
+
+        for (int hidden : new int[]{0, 32, 64}) {
+            LearnedPolicyStrategy strategy = new LearnedPolicyStrategy(PolicyNetwork.random(hidden, 1));
+            long sink = 0;
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    if (strategy.chooseCardToPlay(gameState, machine, machine.getOpponentModel(), 0) != null) {
+                        sink++;
+                    }
+                }
+                double nanosPerDecision = (double) (System.nanoTime() - start) / ITERATIONS;
+                System.out.printf("ocultas=%d ronda=%d: %.0f ns por decisión%n", hidden, round, nanosPerDecision);
+            }
+            if (sink == 42) {
+                System.out.println();
+            }
+        }
+    }
+}
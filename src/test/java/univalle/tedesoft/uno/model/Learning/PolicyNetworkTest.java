@@ -0,0 +1,73 @@
+package univalle.tedesoft.uno.model.Learning;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Players.HumanPlayer;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.State.GameState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Pruebas unitarias para la red de política y su uso desde MachinePlayer.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class PolicyNetworkTest {
+    /** Directorio temporal para los archivos de pesos. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Una red guardada y vuelta a cargar produce los mismos puntajes.
+     * @throws IOException si falla la escritura o lectura.
+     */
+    @Test
+    void saveAndLoad_preservesOutputs() throws IOException {
+        for (int hidden : new int[]{0, 16}) {
+            PolicyNetwork original = PolicyNetwork.random(hidden, 42);
+            Path path = tempDir.resolve("policy-" + hidden + ".bin");
+            original.save(path);
+            PolicyNetwork loaded = PolicyNetwork.load(path);
+
+            byte[] features = new byte[PolicyFeatures.FEATURE_COUNT];
+            for (int i = 0; i < features.length; i += 3) {
+                features[i] = (byte) (i % 5);
+            }
+            float[] hiddenScratch = new float[hidden];
+            float[] expectedActions = new float[PolicyFeatures.ACTION_COUNT];
+            float[] expectedColors = new float[PolicyNetwork.CHOOSABLE_COLORS];
+            float[] actions = new float[PolicyFeatures.ACTION_COUNT];
+            float[] colors = new float[PolicyNetwork.CHOOSABLE_COLORS];
+            original.evaluate(features, hiddenScratch, expectedActions, expectedColors);
+            loaded.evaluate(features, hiddenScratch, actions, colors);
+            assertArrayEquals(expectedActions, actions);
+            assertArrayEquals(expectedColors, colors);
+        }
+    }
+
+    /**
+     * Con una política cargada, la máquina siempre elige una carta válida de su mano.
+     */
+    @Test
+    void machineWithPolicy_choosesValidCard() {
+        HumanPlayer human = new HumanPlayer("Tester");
+        MachinePlayer machine = new MachinePlayer();
+        machine.usePolicy(PolicyNetwork.random(8, 7));
+        GameState gameState = new GameState(human, machine);
+        gameState.onGameStart();
+
+        Card card = machine.chooseCardToPlay(gameState);
+        if (card != null) {
+            assertTrue(machine.getCards().contains(card), "La carta deberia estar en la mano.");
+            assertTrue(gameState.isValidPlay(card), "La carta deberia ser jugable.");
+        }
+        assertNotEquals(Color.WILD, machine.chooseColor());
+    }
+}
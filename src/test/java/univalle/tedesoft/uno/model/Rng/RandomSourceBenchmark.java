@@ -0,0 +1,194 @@
+package univalle.tedesoft.uno.model.Rng;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Decks.Deck;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Micro-benchmark de las fuentes aleatorias, con 1, 2 y 4 hilos a la vez:
+ * <ul>
+ *     <li>Barajado del mazo: Collections.shuffle sobre una LinkedList con el Random
+ *     compartido (como barajaba antes el mazo) frente a {@link Deck#shuffle()} con una
+ *     {@link Xoshiro256Random} por mazo.</li>
+ *     <li>nextInt(bound): un Random compartido por todos los hilos (como el de
+ *     Collections.shuffle), un Random por hilo (como el de cada estrategia), ThreadLocalRandom,
+ *     SplittableRandom y Xoshiro256Random por hilo.</li>
+ * </ul>
+ * No es una prueba unitaria; se ejecuta manualmente con su método main.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class RandomSourceBenchmark {
+    /** Barajados por hilo y medición. */
+    private static final int SHUFFLES = 200_000;
+    /** Números por hilo y medición. */
+    private static final int DRAWS = 20_000_000;
+    /** Random compartido por todos los hilos. */
+    private static final Random SHARED = new Random();
+
+    /**
+     * Ejecuta las mediciones.
+     * @param args opcional: hilos máximos (por defecto 4).
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        System.out.println("CPUs disponibles: " + Runtime.getRuntime().availableProcessors());
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            for (int round = 0; round < 3; round++) {
+                System.out.printf("hilos=%d ronda=%d%n", threads, round);
+                report("  barajar LinkedList + Random compartido", SHUFFLES, measure(threads, t -> shuffleLinkedList()));
+                report("  barajar Deck + Xoshiro256Random       ", SHUFFLES, measure(threads, t -> shuffleDeck()));
+                report("  nextInt Random compartido             ", DRAWS, measure(threads, t -> drawShared()));
+                report("  nextInt Random por hilo               ", DRAWS, measure(threads, t -> drawRandom(new Random())));
+                report("  nextInt ThreadLocalRandom             ", DRAWS, measure(threads, t -> drawThreadLocal()));
+                report("  nextInt SplittableRandom              ", DRAWS, measure(threads, t -> drawSplittable(new SplittableRandom())));
+                report("  nextInt Xoshiro256Random              ", DRAWS, measure(threads, t -> drawXoshiro(new Xoshiro256Random())));
+            }
+        }
+    }
+
+    /**
+     * Ejecuta un trabajo en varios hilos a la vez.
+     * @param threads cantidad de hilos.
+     * @param work trabajo de cada hilo; recibe su índice y devuelve un valor para que no se elimine.
+     * @return el tiempo total, en nanosegundos.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    private static long measure(int threads, IntToLongFunction work) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] sinks = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                sinks[index] = work.applyAsLong(index);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (sinks[0] == 42) {
+            System.out.println();
+        }
+        return elapsed;
+    }
+
+    /**
+     * Muestra el tiempo por operación de una medición.
+     * @param label nombre de la medición.
+     * @param operations operaciones por hilo.
+     * @param nanos tiempo total.
+     */
+    private static void report(String label, int operations, long nanos) {
+        System.out.printf("%s: %8.1f ns por operación y hilo%n", label, (double) nanos / operations);
+    }
+
+    /**
+     * Baraja como antes: Collections.shuffle sobre una LinkedList, con el Random compartido.
+     * @return un valor para que el trabajo no se elimine.
+     */
+    private static long shuffleLinkedList() {
+        LinkedList<Card> cards = new LinkedList<>(new Deck().getCards());
+        long sink = 0;
+        for (int i = 0; i < SHUFFLES; i++) {
+            Collections.shuffle(cards);
+            sink += cards.getFirst().getCode();
+        }
+        return sink;
+    }
+
+    /**
+     * Baraja con el mazo actual y su propia fuente.
+     * @return un valor para que el trabajo no se elimine.
+     */
+    private static long shuffleDeck() {
+        Deck deck = new Deck(new Xoshiro256Random());
+        long sink = 0;
+        for (int i = 0; i < SHUFFLES; i++) {
+            deck.shuffle();
+            sink += deck.getCards().get(0).getCode();
+        }
+        return sink;
+    }
+
+    /**
+     * Saca números del Random compartido.
+     * @return la suma, para que el trabajo no se elimine.
+     */
+    private static long drawShared() {
+        long sink = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            sink += SHARED.nextInt(64);
+        }
+        return sink;
+    }
+
+    /**
+     * Saca números de un Random propio.
+     * @param random el generador.
+     * @return la suma, para que el trabajo no se elimine.
+     */
+    private static long drawRandom(Random random) {
+        long sink = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            sink += random.nextInt(64);
+        }
+        return sink;
+    }
+
+    /**
+     * Saca números de ThreadLocalRandom.
+     * @return la suma, para que el trabajo no se elimine.
+     */
+    private static long drawThreadLocal() {
+        long sink = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            sink += ThreadLocalRandom.current().nextInt(64);
+        }
+        return sink;
+    }
+
+    /**
+     * Saca números de un SplittableRandom propio.
+     * @param random el generador.
+     * @return la suma, para que el trabajo no se elimine.
+     */
+    private static long drawSplittable(SplittableRandom random) {
+        long sink = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            sink += random.nextInt(64);
+        }
+        return sink;
+    }
+
+    /**
+     * Saca números de una Xoshiro256Random propia.
+     * @param random el generador.
+     * @return la suma, para que el trabajo no se elimine.
+     */
+    private static long drawXoshiro(Xoshiro256Random random) {
+        long sink = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            sink += random.nextInt(64);
+        }
+        return sink;
+    }
+}
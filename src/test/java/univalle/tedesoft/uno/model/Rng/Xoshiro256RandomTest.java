@@ -0,0 +1,100 @@
+package univalle.tedesoft.uno.model.Rng;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Decks.Deck;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.simulation.HeadlessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruebas unitarias para la fuente aleatoria sembrada y la reproducibilidad de las partidas.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class Xoshiro256RandomTest {
+
+    /**
+     * La misma semilla repite la secuencia, también tras reiniciar en su lugar, y una
+     * fuente dividida no repite la de su origen.
+     */
+    @Test
+    void sameSeed_repeatsSequence() {
+        Xoshiro256Random first = new Xoshiro256Random(42);
+        Xoshiro256Random second = new Xoshiro256Random(42);
+        long[] values = new long[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = first.nextLong();
+            assertEquals(values[i], second.nextLong());
+        }
+        first.setSeed(42);
+        for (long value : values) {
+            assertEquals(value, first.nextLong());
+        }
+        Xoshiro256Random child = first.split();
+        assertNotEquals(first.nextLong(), child.nextLong());
+        assertNotEquals(Xoshiro256Random.derive(7, 0), Xoshiro256Random.derive(7, 1));
+    }
+
+    /**
+     * nextInt queda en rango y reparte de forma pareja; nextDouble queda entre 0 y 1.
+     */
+    @Test
+    void nextInt_isInRangeAndUniform() {
+        Xoshiro256Random random = new Xoshiro256Random(1);
+        int[] counts = new int[7];
+        int draws = 700_000;
+        for (int i = 0; i < draws; i++) {
+            counts[random.nextInt(counts.length)]++;
+        }
+        for (int count : counts) {
+            assertEquals(draws / counts.length, count, draws / counts.length * 0.02);
+        }
+        for (int i = 0; i < 1000; i++) {
+            double value = random.nextDouble();
+            assertTrue(value >= 0 && value < 1);
+        }
+        assertThrows(IllegalArgumentException.class, () -> random.nextInt(0));
+    }
+
+    /**
+     * Un mazo barajado con la misma semilla queda en el mismo orden, y una partida
+     * simulada con la misma semilla termina igual.
+     */
+    @Test
+    void seededDeckAndGame_areReproducible() {
+        assertEquals(order(new Deck(new Xoshiro256Random(5))), order(new Deck(new Xoshiro256Random(5))));
+        assertNotEquals(order(new Deck(new Xoshiro256Random(5))), order(new Deck(new Xoshiro256Random(6))));
+
+        HeadlessGame game = new HeadlessGame();
+        game.configure(Difficulty.RANDOM.createStrategy(), 0, Difficulty.GREEDY.createStrategy(), 0);
+        List<String> traces = new ArrayList<>();
+        for (int round = 0; round < 2; round++) {
+            StringBuilder trace = new StringBuilder();
+            for (int g = 0; g < 50; g++) {
+                game.setSeed(Xoshiro256Random.derive(99, g));
+                trace.append(game.play(g % 2 == 0)).append(game.getLastTurnCount()).append(',');
+            }
+            traces.add(trace.toString());
+        }
+        assertEquals(traces.get(0), traces.get(1), "La misma semilla deberia repetir las partidas.");
+    }
+
+    /**
+     * Describe el orden de un mazo.
+     * @param deck el mazo.
+     * @return los códigos de sus cartas, de la superior a la del fondo.
+     */
+    private static List<Integer> order(Deck deck) {
+        List<Integer> codes = new ArrayList<>();
+        for (Card card : deck.getCards()) {
+            codes.add(card.getCode());
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,234 @@
+package univalle.tedesoft.uno.model.State;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import univalle.tedesoft.uno.exceptions.EmptyDeckException;
+import univalle.tedesoft.uno.exceptions.InvalidPlayException;
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Cards.DrawTwoCard;
+import univalle.tedesoft.uno.model.Cards.NumberCard;
+import univalle.tedesoft.uno.model.Cards.ReverseCard;
+import univalle.tedesoft.uno.model.Cards.SkipCard;
+import univalle.tedesoft.uno.model.Decks.Deck;
+import univalle.tedesoft.uno.model.Decks.DeckPool;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Value;
+import univalle.tedesoft.uno.model.Players.HumanPlayer;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.Players.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pruebas unitarias para el anillo de turnos de GameState con varios jugadores.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class GameStateTest {
+    /** Jugadores de la mesa de cuatro. */
+    private List<Player> players;
+    /** Estado del juego bajo prueba. */
+    private GameState gameState;
+
+    /**
+     * Crea una mesa de cuatro jugadores (un humano y tres máquinas) antes de cada prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        players = new ArrayList<>();
+        players.add(new HumanPlayer("Tester"));
+        for (int i = 1; i < 4; i++) {
+            players.add(new MachinePlayer());
+        }
+        gameState = new GameState(players);
+        gameState.onGameStart();
+        // Color rojo activo sin valor, para poder jugar cualquier carta roja
+        gameState.onColorChosen(Color.RED);
+    }
+
+    /**
+     * Todos los jugadores reciben la mano inicial y empieza el humano.
+     */
+    @Test
+    void onGameStart_dealsEverySeat() {
+        for (Player player : players) {
+            assertEquals(5, player.getNumeroCartas(), "Cada asiento deberia recibir 5 cartas.");
+        }
+        assertSame(players.get(0), gameState.getCurrentPlayer());
+        assertEquals(4, gameState.getPlayerCount());
+    }
+
+    /**
+     * El turno recorre los asientos en orden y vuelve al primero.
+     */
+    @Test
+    void advanceTurn_walksTheRing() {
+        for (int turn = 1; turn <= 8; turn++) {
+            gameState.advanceTurn();
+            assertSame(players.get(turn % 4), gameState.getCurrentPlayer());
+        }
+    }
+
+    /**
+     * Un salto hace perder el turno solo al jugador siguiente.
+     * @throws InvalidPlayException si la carta no fuese jugable (no ocurre).
+     */
+    @Test
+    void skip_skipsOnlyTheNextSeat() throws InvalidPlayException {
+        Player current = gameState.getCurrentPlayer();
+        SkipCard skip = new SkipCard(Color.RED);
+        current.addCard(skip);
+        gameState.playCard(current, skip);
+        gameState.advanceTurn();
+        assertSame(players.get(2), gameState.getCurrentPlayer());
+    }
+
+    /**
+     * Un +2 lo roba el jugador siguiente, no el humano ni los demás.
+     * @throws InvalidPlayException si la carta no fuese jugable (no ocurre).
+     */
+    @Test
+    void drawTwo_hitsTheNextSeat() throws InvalidPlayException {
+        gameState.advanceTurn();
+        Player current = gameState.getCurrentPlayer();
+        current.addCard(new NumberCard(Color.BLUE, Value.ONE));
+        current.addCard(new NumberCard(Color.BLUE, Value.TWO));
+        DrawTwoCard drawTwo = new DrawTwoCard(Color.RED);
+        current.addCard(drawTwo);
+        gameState.playCard(current, drawTwo);
+        gameState.applyPendingDraws();
+
+        assertEquals(5, players.get(0).getNumeroCartas(), "El humano no deberia robar.");
+        assertEquals(7, players.get(2).getNumeroCartas(), "El siguiente asiento deberia robar 2.");
+        assertEquals(5, players.get(3).getNumeroCartas());
+    }
+
+    /**
+     * En una mesa de dos, saltar devuelve el turno al mismo jugador, como antes.
+     * @throws InvalidPlayException si la carta no fuese jugable (no ocurre).
+     */
+    @Test
+    void skip_inTwoPlayerGameKeepsTurn() throws InvalidPlayException {
+        HumanPlayer human = new HumanPlayer("Tester");
+        GameState twoPlayers = new GameState(human, new MachinePlayer());
+        twoPlayers.onGameStart();
+        twoPlayers.onColorChosen(Color.RED);
+        SkipCard skip = new SkipCard(Color.RED);
+        human.addCard(skip);
+        twoPlayers.playCard(human, skip);
+        twoPlayers.advanceTurn();
+        assertSame(human, twoPlayers.getCurrentPlayer());
+    }
+
+    /**
+     * Una reversa invierte el sentido: el turno vuelve hacia los asientos anteriores.
+     * @throws InvalidPlayException si la carta no fuese jugable (no ocurre).
+     */
+    @Test
+    void reverse_flipsDirection() throws InvalidPlayException {
+        gameState.advanceTurn();
+        gameState.advanceTurn();
+        Player current = gameState.getCurrentPlayer();
+        ReverseCard reverse = new ReverseCard(Color.RED);
+        current.addCard(reverse);
+        gameState.playCard(current, reverse);
+        assertEquals(-1, gameState.getDirection());
+        gameState.advanceTurn();
+        assertSame(players.get(1), gameState.getCurrentPlayer());
+        gameState.advanceTurn();
+        gameState.advanceTurn();
+        assertSame(players.get(3), gameState.getCurrentPlayer(), "El anillo deberia dar la vuelta en sentido inverso.");
+    }
+
+    /**
+     * En una mesa de dos, la reversa actúa como un salto.
+     * @throws InvalidPlayException si la carta no fuese jugable (no ocurre).
+     */
+    @Test
+    void reverse_inTwoPlayerGameActsAsSkip() throws InvalidPlayException {
+        HumanPlayer human = new HumanPlayer("Tester");
+        GameState twoPlayers = new GameState(human, new MachinePlayer());
+        twoPlayers.onGameStart();
+        twoPlayers.onColorChosen(Color.RED);
+        ReverseCard reverse = new ReverseCard(Color.RED);
+        human.addCard(reverse);
+        twoPlayers.playCard(human, reverse);
+        twoPlayers.advanceTurn();
+        assertSame(human, twoPlayers.getCurrentPlayer());
+        assertEquals(1, twoPlayers.getDirection());
+    }
+
+    /**
+     * Las mesas fuera del rango de 2 a 10 jugadores se rechazan.
+     */
+    @Test
+    void constructor_rejectsInvalidTableSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new GameState(List.of(new HumanPlayer("Solo"))));
+        List<Player> crowded = new ArrayList<>();
+        for (int i = 0; i < GameState.MAX_PLAYERS + 1; i++) {
+            crowded.add(new MachinePlayer());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new GameState(crowded));
+    }
+
+    /**
+     * Reiniciar el estado en su lugar recoge las cartas de las manos y de la pila: la
+     * partida nueva usa el mismo mazo y las mismas 64 cartas.
+     * @throws EmptyDeckException si el mazo se agotase (no ocurre).
+     */
+    @Test
+    void onGameStart_reusesTheSameCards() throws EmptyDeckException {
+        Deck deck = gameState.getDeck();
+        Set<Card> original = this.allCards();
+        assertEquals(Deck.SIZE, original.size());
+        for (int game = 0; game < 20; game++) {
+            // Ensuciar la partida: robos y una carta más en la pila
+            for (Player player : players) {
+                gameState.drawTurnCard(player);
+            }
+            gameState.getDiscardPile().discard(gameState.getDeck().takeCard());
+            gameState.onGameStart();
+            assertEquals(original, this.allCards(), "Deberian seguir siendo las mismas cartas.");
+        }
+        assertSame(deck, gameState.getDeck(), "El mazo deberia ser el mismo objeto.");
+    }
+
+    /**
+     * La reserva de mazos entrega mazos completos y solo acepta de vuelta mazos completos.
+     */
+    @Test
+    void deckPool_reusesCompleteDecks() {
+        DeckPool pool = new DeckPool(1);
+        Deck deck = pool.acquire();
+        GameState pooled = new GameState(List.of(new HumanPlayer("A"), new MachinePlayer()), deck);
+        pooled.onGameStart();
+        assertFalse(pool.release(deck), "Un mazo con cartas repartidas no deberia aceptarse.");
+        pooled.reclaimCards();
+        assertEquals(Deck.SIZE, deck.getNumeroCartas());
+        assertTrue(pool.release(deck));
+        assertFalse(pool.release(new Deck()), "La reserva esta llena.");
+        assertSame(deck, pool.acquire());
+        assertEquals(0, pool.size());
+    }
+
+    /**
+     * Reúne todas las cartas del estado, por identidad.
+     * @return las cartas de las manos, el mazo y la pila de descarte.
+     */
+    private Set<Card> allCards() {
+        Set<Card> cards = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Player player : players) {
+            cards.addAll(player.getCards());
+        }
+        cards.addAll(gameState.getDeck().getCards());
+        cards.addAll(gameState.getDiscardPile().getCards());
+        return cards;
+    }
+}
@@ -0,0 +1,72 @@
+package univalle.tedesoft.uno.model.Strategies;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Enum.Color;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.model.Players.HumanPlayer;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.State.GameState;
+
+/**
+ * Pruebas unitarias para las estrategias de la máquina.
+ * Verifican que cada nivel de dificultad elige jugadas válidas y respeta su presupuesto.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class MachineStrategyTest {
+    /** Jugador humano de la partida. */
+    private HumanPlayer human;
+    /** Jugador máquina cuya estrategia se prueba. */
+    private MachinePlayer machine;
+    /** Estado del juego. */
+    private GameState gameState;
+
+    /**
+     * Crea una partida nueva antes de cada prueba.
+     */
+    @BeforeEach
+    void setUp() {
+        human = new HumanPlayer("Tester");
+        machine = new MachinePlayer();
+        gameState = new GameState(human, machine);
+        gameState.onGameStart();
+    }
+
+    /**
+     * Cada dificultad debe devolver una carta válida de su mano, o null solo si no hay jugadas.
+     */
+    @Test
+    void everyDifficulty_choosesValidCardFromHand() {
+        boolean hasLegalPlay = machine.getCards().stream().anyMatch(gameState::isValidPlay);
+        for (Difficulty difficulty : Difficulty.values()) {
+            machine.setDifficulty(difficulty);
+            Card chosen = machine.chooseCardToPlay(gameState);
+            if (hasLegalPlay) {
+                assertNotNull(chosen, "La dificultad " + difficulty.name() + " deberia elegir una carta.");
+                assertTrue(machine.getCards().contains(chosen), "La carta elegida deberia estar en la mano.");
+                assertTrue(gameState.isValidPlay(chosen), "La carta elegida deberia ser valida.");
+            } else {
+                assertNull(chosen, "Sin jugadas validas la estrategia deberia devolver null.");
+            }
+            assertNotEquals(Color.WILD, machine.chooseColor(), "El color elegido no puede ser WILD.");
+        }
+    }
+
+    /**
+     * La búsqueda debe terminar cerca de su presupuesto por jugada.
+     */
+    @Test
+    void searchDifficulty_respectsBudget() {
+        machine.setDifficulty(Difficulty.SEARCH);
+        long start = System.nanoTime();
+        machine.chooseCardToPlay(gameState);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        assertTrue(elapsedMs < Difficulty.SEARCH.getBudgetMillis() + 200,
+                "La busqueda tardo " + elapsedMs + " ms, mas que su presupuesto.");
+    }
+}
@@ -0,0 +1,293 @@
+package univalle.tedesoft.uno.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import univalle.tedesoft.uno.exceptions.EmptyDeckException;
+import univalle.tedesoft.uno.exceptions.InvalidPlayException;
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Players.MachinePlayer;
+import univalle.tedesoft.uno.model.Players.Player;
+import univalle.tedesoft.uno.model.State.GameState;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del registro de escritura anticipada y de la recuperación de partidas.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class GameRecoveryTest {
+    /** Directorio temporal del registro. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Los registros de varios hilos llegan todos al disco, en menos escrituras que registros.
+     * @throws Exception si falla el registro.
+     */
+    @Test
+    void append_groupCommitsConcurrentWriters() throws Exception {
+        int threads = 4;
+        int perThread = 2000;
+        try (WriteAheadLog log = new WriteAheadLog(this.tempDir)) {
+            List<Thread> writers = new ArrayList<>();
+            long[] last = new long[threads];
+            for (int t = 0; t < threads; t++) {
+                int tableId = t;
+                Thread writer = new Thread(() -> {
+                    ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES);
+                    for (int i = 0; i < perThread; i++) {
+                        payload.clear();
+                        payload.putInt(i).flip();
+                        last[tableId] = log.append(tableId, WriteAheadLog.COMMAND, payload);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            assertTrue(log.awaitDurable(Arrays.stream(last).max().getAsLong(), 10_000));
+            assertEquals(threads * perThread, log.getRecords());
+            assertTrue(log.getBatches() < log.getRecords(), "Se esperaban escrituras agrupadas: " + log);
+        }
+
+        int[] next = new int[threads];
+        long read = WalReader.read(this.tempDir, (tableId, type, payload) -> {
+            assertEquals(WriteAheadLog.COMMAND, type);
+            assertEquals(next[tableId]++, payload.getInt(), "Los registros de una mesa deberían leerse en orden.");
+        });
+        assertEquals(threads * perThread, read);
+    }
+
+    /**
+     * Las acciones que esperan durabilidad se ejecutan en orden, solo cuando su posición ya
+     * está en el disco, y al cerrar el registro no queda ninguna pendiente.
+     * @throws Exception si falla el registro.
+     */
+    @Test
+    void whenDurable_runsActionsInOrderAfterTheirBatch() throws Exception {
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+        int actions = 500;
+        try (WriteAheadLog log = new WriteAheadLog(this.tempDir)) {
+            for (int i = 0; i < actions; i++) {
+                long position = log.append(1, WriteAheadLog.COMMAND, ByteBuffer.allocate(8).putLong(0, i));
+                int index = i;
+                log.whenDurable(position, () -> {
+                    assertTrue(log.getDurablePosition() >= position, "La acción no debería adelantarse al disco.");
+                    ran.add(index);
+                });
+            }
+        }
+        assertEquals(actions, ran.size());
+        for (int i = 0; i < actions; i++) {
+            assertEquals(i, ran.get(i), "Las acciones deberían ejecutarse en el orden en que se dejaron.");
+        }
+    }
+
+    /**
+     * Un registro cortado o corrupto al final del segmento se descarta sin afectar a los anteriores.
+     * @throws Exception si falla el registro.
+     */
+    @Test
+    void read_ignoresTornTail() throws Exception {
+        try (WriteAheadLog log = new WriteAheadLog(this.tempDir)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(1, WriteAheadLog.COMMAND, ByteBuffer.allocate(8).putLong(0, i));
+            }
+            assertTrue(log.awaitDurable(log.append(1, WriteAheadLog.COMMAND, ByteBuffer.allocate(8)), 10_000));
+        }
+        Path segment = WriteAheadLog.listSegments(this.tempDir).get(0);
+        long size = Files.size(segment);
+        // Corromper un byte del último registro y agregar medio registro
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), size - 1);
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2}), size);
+        }
+        assertEquals(10, WalReader.read(this.tempDir, (tableId, type, payload) -> { }));
+    }
+
+    /**
+     * Varias partidas jugadas con el diario se recuperan idénticas al último commit, aunque
+     * el proceso se detenga a mitad de un comando y aunque la pila se haya reciclado.
+     * @throws Exception si falla el registro.
+     */
+    @Test
+    void recover_rebuildsGamesAsOfLastCommit() throws Exception {
+        int tables = 6;
+        Map<Integer, byte[]> expected = new HashMap<>();
+        long recycles = 0;
+        try (WriteAheadLog log = new WriteAheadLog(this.tempDir)) {
+            long last = 0;
+            for (int tableId = 1; tableId <= tables; tableId++) {
+                GameState state = newGame(2 + tableId);
+                GameJournal journal = new GameJournal(log, tableId, 8);
+                journal.attach(state);
+                state.onGameStart();
+                long[] tags = new long[state.getPlayerCount()];
+                for (int seat = 0; seat < tags.length; seat++) {
+                    tags[seat] = 1000L * tableId + seat;
+                    journal.setSeatTag(seat, tags[seat]);
+                }
+                last = journal.commit();
+                // Muchos turnos por mesa para cruzar varias instantáneas y reciclajes
+                for (int turn = 0; turn < 40 * tableId && !state.isGameOver(); turn++) {
+                    // Robar en la mayoría de los turnos alarga la partida hasta agotar el mazo
+                    recycles += playTurn(state, turn % 4 == 0);
+                    last = journal.commit();
+                }
+                expected.put(tableId, snapshot(state, tags));
+                // Un turno sin commit: lo pierde el "corte" del proceso
+                if (!state.isGameOver()) {
+                    playTurn(state, true);
+                }
+            }
+            // La mesa 2 se retiró: no debe recuperarse
+            new GameJournal(log, 2, 8).end();
+            expected.remove(2);
+            assertTrue(log.awaitDurable(last, 10_000));
+        }
+        assertTrue(recycles > 0, "La prueba debería reciclar la pila al menos una vez.");
+
+        List<RecoveredGame> recovered = GameRecovery.recover(this.tempDir);
+        assertEquals(expected.size(), recovered.size());
+        for (RecoveredGame game : recovered) {
+            assertArrayEquals(expected.get(game.getTableId()), snapshot(game.getGameState(), game.getSeatTags()),
+                    "La mesa " + game.getTableId() + " no se recuperó igual.");
+        }
+    }
+
+    /**
+     * Los segmentos rotan al llenarse y, tras una instantánea de cada mesa viva en el
+     * registro nuevo, la recuperación borra los anteriores.
+     * @throws Exception si falla el registro.
+     */
+    @Test
+    void completeRecovery_deletesPreviousSegments() throws Exception {
+        try (WriteAheadLog log = new WriteAheadLog(this.tempDir, 512)) {
+            GameState state = newGame(4);
+            GameJournal journal = new GameJournal(log, 1, 1000);
+            journal.attach(state);
+            state.onGameStart();
+            assertTrue(log.awaitDurable(journal.commit(), 10_000));
+            // Esperar cada commit, como un servidor con confirmaciones estrictas, para que
+            // cada lote sea pequeño y el registro rote varias veces
+            for (int turn = 0; turn < 300 && !state.isGameOver(); turn++) {
+                playTurn(state, true);
+                assertTrue(log.awaitDurable(journal.commit(), 10_000));
+            }
+        }
+        int before = WriteAheadLog.listSegments(this.tempDir).size();
+        assertTrue(before > 1, "El registro debería haber rotado.");
+
+        try (WriteAheadLog log = new WriteAheadLog(this.tempDir, 512)) {
+            assertEquals(before, log.getPreviousSegments().size());
+            List<RecoveredGame> recovered = GameRecovery.recover(log.getPreviousSegments());
+            long last = 0;
+            for (RecoveredGame game : recovered) {
+                GameJournal journal = new GameJournal(log, game.getTableId(), 1000);
+                journal.attach(game.getGameState());
+                last = journal.commit();
+            }
+            assertTrue(log.awaitDurable(last, 10_000));
+            log.completeRecovery();
+            for (Path segment : WriteAheadLog.listSegments(this.tempDir)) {
+                assertFalse(log.getPreviousSegments().contains(segment) && Files.exists(segment));
+            }
+        }
+        assertEquals(1, GameRecovery.recover(this.tempDir).size());
+    }
+
+    /**
+     * Crea una partida de máquinas.
+     * @param players cantidad de asientos.
+     * @return la partida, sin empezar.
+     */
+    private static GameState newGame(int players) {
+        List<Player> seats = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            seats.add(new MachinePlayer());
+        }
+        return new GameState(seats);
+    }
+
+    /**
+     * Juega el turno actual como lo haría una mesa del servidor.
+     * @param state la partida.
+     * @param mayPlay false para que el jugador robe aunque tenga una carta jugable.
+     * @return 1 si hubo que reciclar la pila, 0 si no.
+     */
+    private static int playTurn(GameState state, boolean mayPlay) {
+        Player current = state.getCurrentPlayer();
+        Card card = mayPlay ? ((MachinePlayer) current).chooseCardToPlay(state) : null;
+        if (card != null) {
+            try {
+                if (state.playCard(current, card)) {
+                    return 0;
+                }
+                state.playerDeclaresUno(current);
+                state.applyPendingDraws();
+                passTurn(state, current);
+                return 0;
+            } catch (InvalidPlayException ignored) {
+                // Roba en su lugar
+            }
+        }
+        int recycled = 0;
+        try {
+            state.drawTurnCard(current);
+        } catch (EmptyDeckException e) {
+            state.recyclingDeck();
+            recycled = 1;
+            try {
+                state.drawTurnCard(current);
+            } catch (EmptyDeckException ignored) {
+                // Sin cartas para reciclar: pasa
+            }
+        }
+        passTurn(state, current);
+        return recycled;
+    }
+
+    /**
+     * Avanza el turno y reinicia el UNO del siguiente jugador.
+     * @param state la partida.
+     * @param previous el jugador que acaba de jugar.
+     */
+    private static void passTurn(GameState state, Player previous) {
+        state.advanceTurn();
+        if (state.getCurrentPlayer() != previous) {
+            state.getCurrentPlayer().resetUnoStatus();
+        }
+    }
+
+    /**
+     * Serializa una partida completa para compararla.
+     * @param state la partida.
+     * @param seatTags etiquetas de los asientos.
+     * @return los bytes de la instantánea.
+     */
+    private static byte[] snapshot(GameState state, long[] seatTags) {
+        ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+        GameCheckpoint.write(state, seatTags, buffer);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
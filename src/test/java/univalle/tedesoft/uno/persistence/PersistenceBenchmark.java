@@ -0,0 +1,70 @@
+package univalle.tedesoft.uno.persistence;
+
+import univalle.tedesoft.uno.server.GameServer;
+import univalle.tedesoft.uno.server.LoadGenerator;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Benchmark del costo del registro de partidas: corre la misma carga contra un servidor sin
+ * persistencia y contra otro con el registro activo, y compara jugadas por segundo y
+ * percentiles de latencia. Luego mide cuánto tarda en recuperar las mesas que quedaron.
+ * No es una prueba unitaria; se ejecuta manualmente con su método main.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class PersistenceBenchmark {
+
+    /**
+     * Ejecuta el benchmark.
+     * Argumentos opcionales: mesas (2.000), conexiones (50), segundos de medición (10) y
+     * directorio del registro (uno temporal).
+     * @param args argumentos de la línea de comandos.
+     * @throws Exception si falla la red o el registro.
+     */
+    public static void main(String[] args) throws Exception {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        Path directory = args.length > 3 ? Path.of(args[3]) : Files.createTempDirectory("uno-wal");
+
+        System.out.println("Sin registro:  " + run(null, tables, connections, seconds));
+        System.out.println("Con registro:  " + run(directory, tables, connections, seconds));
+
+        long start = System.nanoTime();
+        List<RecoveredGame> recovered = GameRecovery.recover(directory);
+        long replayed = 0;
+        for (RecoveredGame game : recovered) {
+            replayed += game.getCommandsReplayed();
+        }
+        System.out.printf("Recuperación: %d mesas, %d comandos reaplicados en %d ms%n",
+                recovered.size(), replayed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Corre la carga contra un servidor nuevo.
+     * @param directory directorio del registro, o null para no persistir.
+     * @param tables mesas a abrir.
+     * @param connections conexiones a repartir.
+     * @param seconds segundos de medición.
+     * @return el resumen de la corrida.
+     * @throws Exception si falla la red o el registro.
+     */
+    private static String run(Path directory, int tables, int connections, int seconds) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        GameServer server = new GameServer(Math.max(1, cores / 2));
+        if (directory != null) {
+            server.enablePersistence(directory, GameJournal.DEFAULT_CHECKPOINT_INTERVAL);
+        }
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.start(0));
+        LoadGenerator generator = new LoadGenerator(address, tables, connections, Math.max(1, cores / 2));
+        LoadGenerator.Result result = generator.run(3_000, seconds * 1000L);
+        String log = directory == null ? "" : "; registro: " + server.getWriteAheadLog();
+        server.stop();
+        return result + log;
+    }
+}
@@ -0,0 +1,118 @@
+package univalle.tedesoft.uno.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Micro-benchmark del codificador de cambios: mensajes codificados y decodificados por
+ * segundo en un núcleo, con jugadas típicas sobre buffers directos del grupo.
+ * No es una prueba unitaria; se ejecuta manualmente con su método main.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class CodecBenchmark {
+    /** Jugadas pregeneradas que se recorren en ciclo. */
+    private static final int MOVES = 4096;
+    /** Mensajes por medición. */
+    private static final int ITERATIONS = 20_000_000;
+
+    /**
+     * Mide codificación y decodificación por separado.
+     * @param args no se usan.
+     */
+    public static void main(String[] args) {
+        Random random = new Random(7);
+        TableView[] states = new TableView[MOVES + 1];
+        states[0] = new TableView();
+        states[0].reset(0, 2);
+        for (int i = 0; i < 7; i++) {
+            states[0].addCard(random.nextInt(40));
+        }
+        for (int i = 1; i <= MOVES; i++) {
+            states[i] = nextMove(states[i - 1], random);
+        }
+
+        BufferPool pool = new BufferPool(DeltaCodec.MAX_MESSAGE_BYTES, 16);
+        ByteBuffer[] encoded = new ByteBuffer[MOVES];
+        long totalBytes = 0;
+        for (int i = 0; i < MOVES; i++) {
+            encoded[i] = ByteBuffer.allocateDirect(DeltaCodec.MAX_MESSAGE_BYTES);
+            totalBytes += DeltaCodec.encode(states[i], states[i + 1], encoded[i]);
+            encoded[i].flip();
+        }
+        System.out.printf("Tamaño medio de un cambio: %.1f bytes%n", (double) totalBytes / MOVES);
+
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                int move = i & (MOVES - 1);
+                ByteBuffer out = pool.acquire();
+                sink += DeltaCodec.encode(states[move], states[move + 1], out);
+                pool.release(out);
+            }
+            report("codificación", start, sink);
+
+            TableView client = new TableView();
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                int move = i & (MOVES - 1);
+                if (move == 0) {
+                    client.copyFrom(states[0]);
+                }
+                ByteBuffer in = encoded[move];
+                DeltaCodec.decode(in, client);
+                in.rewind();
+                sink += client.getOwnHandSize();
+            }
+            report("decodificación", start, sink);
+        }
+        System.out.println("Buffers creados por el grupo: " + pool.getAllocations());
+    }
+
+    /**
+     * Imprime mensajes por segundo de una medición.
+     * @param phase nombre de la fase.
+     * @param start instante de inicio.
+     * @param sink resultado acumulado, para que el JIT no elimine el trabajo.
+     */
+    private static void report(String phase, long start, long sink) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %.1f M mensajes/s por núcleo (%d)%n", phase, ITERATIONS / seconds / 1e6, sink & 1);
+    }
+
+    /**
+     * Genera el estado siguiente a una jugada: el asiento en turno juega o roba.
+     * @param previous estado anterior.
+     * @param random generador.
+     * @return el estado siguiente, con el evento de la jugada.
+     */
+    private static TableView nextMove(TableView previous, Random random) {
+        TableView next = new TableView();
+        next.copyFrom(previous);
+        int seat = previous.getCurrentSeat();
+        if (seat == previous.getSeat() && previous.getOwnHandSize() > 1 && random.nextInt(4) != 0) {
+            int index = random.nextInt(previous.getOwnHandSize());
+            int card = previous.getCard(index);
+            next.clearHand();
+            for (int i = 0; i < previous.getOwnHandSize(); i++) {
+                if (i != index) {
+                    next.addCard(previous.getCard(i));
+                }
+            }
+            next.setTop(card, card / 15);
+            next.addEvent(TableView.EVENT_PLAYED, seat, card);
+        } else if (seat == previous.getSeat()) {
+            next.addCard(random.nextInt(40));
+            next.addEvent(TableView.EVENT_DREW, seat, 1);
+        } else {
+            int card = random.nextInt(40);
+            next.setTop(card, card / 15);
+            next.addEvent(TableView.EVENT_PLAYED, seat, card);
+        }
+        next.setHandSize(0, next.getOwnHandSize());
+        next.setTurn(1 - seat, 1);
+        return next;
+    }
+}
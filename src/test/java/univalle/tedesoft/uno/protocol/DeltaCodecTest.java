@@ -0,0 +1,171 @@
+package univalle.tedesoft.uno.protocol;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Decks.Deck;
+import univalle.tedesoft.uno.model.Inference.OpponentHandModel;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del codificador de cartas y de cambios de estado.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class DeltaCodecTest {
+
+    /**
+     * Toda carta del mazo sobrevive la ida y vuelta por su byte.
+     */
+    @Test
+    void cardCodec_roundTripsEveryDeckCard() {
+        for (Card card : new Deck().getCards()) {
+            int code = CardCodec.encode(card);
+            assertTrue(CardCodec.isValid(code));
+            Card decoded = CardCodec.decode(code);
+            assertEquals(card.getClass(), decoded.getClass());
+            assertEquals(card.getColor(), decoded.getColor());
+            assertEquals(card.getValue(), decoded.getValue());
+        }
+        assertNull(CardCodec.decode(CardCodec.NO_CARD));
+        assertThrows(IllegalArgumentException.class, () -> CardCodec.decode(OpponentHandModel.TYPE_COUNT));
+    }
+
+    /**
+     * Una jugada típica ocupa pocos bytes y no enviar nada cuesta cero.
+     */
+    @Test
+    void encode_typicalMoveIsSmall() {
+        TableView before = new TableView();
+        before.reset(0, 2);
+        for (int i = 0; i < 5; i++) {
+            before.addCard(i);
+        }
+        before.setHandSize(0, 5);
+        before.setHandSize(1, 5);
+        before.setTop(7, 0);
+        TableView after = new TableView();
+        after.copyFrom(before);
+        ByteBuffer out = ByteBuffer.allocate(DeltaCodec.MAX_MESSAGE_BYTES);
+        assertEquals(0, DeltaCodec.encode(before, after, out), "Sin cambios no se escribe nada");
+
+        // El asiento 0 juega su tercera carta y pasa el turno
+        after.clearHand();
+        for (int card : new int[]{0, 1, 3, 4}) {
+            after.addCard(card);
+        }
+        after.setHandSize(0, 4);
+        after.setTop(2, 0);
+        after.setTurn(1, 1);
+        after.addEvent(TableView.EVENT_PLAYED, 0, 2);
+        int bytes = DeltaCodec.encode(before, after, out);
+        assertTrue(bytes <= 16, "Una jugada debería ocupar pocos bytes, ocupó " + bytes);
+
+        TableView client = new TableView();
+        ByteBuffer snapshot = ByteBuffer.allocate(DeltaCodec.MAX_MESSAGE_BYTES);
+        DeltaCodec.encodeSnapshot(before, snapshot);
+        DeltaCodec.decode(snapshot.flip(), client);
+        DeltaCodec.decode(out.flip(), client);
+        assertTrue(client.sameStateAs(after));
+        assertEquals(1, client.getEventCount());
+        assertEquals(TableView.EVENT_PLAYED, client.getEventKind(0));
+    }
+
+    /**
+     * Secuencias aleatorias de cambios, aplicadas como deltas sobre una instantánea,
+     * reconstruyen siempre el estado y los eventos del servidor.
+     */
+    @Test
+    void fuzz_randomDeltasRoundTrip() {
+        Random random = new Random(20240611L);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(DeltaCodec.MAX_MESSAGE_BYTES);
+        for (int table = 0; table < 200; table++) {
+            int seatCount = 2 + random.nextInt(TableView.MAX_SEATS - 1);
+            TableView sent = new TableView();
+            TableView server = new TableView();
+            TableView client = new TableView();
+            server.reset(random.nextInt(seatCount), seatCount);
+            for (int step = 0; step < 200; step++) {
+                mutate(server, random);
+                buffer.clear();
+                int written = DeltaCodec.encode(sent, server, buffer);
+                buffer.flip();
+                assertEquals(written, buffer.remaining());
+                if (written > 0) {
+                    DeltaCodec.decode(buffer, client);
+                    assertFalse(buffer.hasRemaining(), "El decodificador debe consumir el mensaje completo");
+                    assertEquals(server.getEventCount(), client.getEventCount());
+                    for (int e = 0; e < server.getEventCount(); e++) {
+                        assertEquals(server.getEventKind(e), client.getEventKind(e));
+                        assertEquals(server.getEventSeat(e), client.getEventSeat(e));
+                        assertEquals(server.getEventArgument(e), client.getEventArgument(e));
+                    }
+                }
+                assertTrue(client.sameStateAs(server), "Estado distinto en la mesa " + table + ", paso " + step);
+                sent.copyFrom(server);
+                server.clearEvents();
+            }
+        }
+    }
+
+    /**
+     * Aplica cambios aleatorios a una vista: cada campo cambia con cierta probabilidad y
+     * la mano pierde cartas en posiciones arbitrarias, gana cartas o se reemplaza.
+     * @param view la vista.
+     * @param random generador.
+     */
+    private static void mutate(TableView view, Random random) {
+        int seatCount = view.getSeatCount();
+        if (random.nextInt(4) == 0) {
+            view.setTop(randomCard(random), random.nextInt(5));
+        }
+        if (random.nextInt(3) == 0) {
+            view.setTurn(random.nextInt(seatCount), random.nextBoolean() ? 1 : -1);
+        }
+        for (int seat = 0; seat < seatCount; seat++) {
+            if (random.nextInt(3) == 0) {
+                view.setHandSize(seat, random.nextInt(TableView.MAX_HAND + 1));
+            }
+        }
+        int[] hand = new int[view.getOwnHandSize()];
+        for (int i = 0; i < hand.length; i++) {
+            hand[i] = view.getCard(i);
+        }
+        view.clearHand();
+        int mode = random.nextInt(4);
+        for (int card : hand) {
+            // Modos 0 y 3: se conserva todo; 1: quitar algunas; 2: reemplazar la mano completa
+            if (mode == 0 || (mode == 1 && random.nextInt(3) != 0) || mode == 3) {
+                view.addCard(card);
+            }
+        }
+        int added = mode == 2 ? random.nextInt(30) : random.nextInt(4);
+        for (int i = 0; i < added; i++) {
+            view.addCard(randomCard(random));
+        }
+        if (random.nextInt(20) == 0) {
+            view.setResult(!view.isGameOver(), random.nextInt(seatCount));
+        }
+        int events = random.nextInt(4) == 0 ? random.nextInt(TableView.MAX_EVENTS + 1) : random.nextInt(3);
+        for (int i = 0; i < events; i++) {
+            view.addEvent(1 + random.nextInt(5), random.nextInt(seatCount), random.nextInt(256));
+        }
+    }
+
+    /**
+     * Devuelve el código de una carta válida al azar.
+     * @param random generador.
+     * @return el código.
+     */
+    private static int randomCard(Random random) {
+        int code;
+        do {
+            code = random.nextInt(OpponentHandModel.TYPE_COUNT);
+        } while (!CardCodec.isValid(code));
+        return code;
+    }
+}
@@ -0,0 +1,280 @@
+package univalle.tedesoft.uno.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import univalle.tedesoft.uno.protocol.DeltaCodec;
+import univalle.tedesoft.uno.protocol.TableView;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del servidor de partidas sobre localhost.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class GameServerTest {
+    /** Servidor bajo prueba. */
+    private GameServer server;
+    /** Puerto en el que escucha. */
+    private int port;
+
+    /**
+     * Arranca un servidor con dos bucles en un puerto libre.
+     * @throws Exception si no se puede abrir el puerto.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        this.server = new GameServer(2);
+        this.port = this.server.start(0);
+    }
+
+    /**
+     * Detiene el servidor.
+     * @throws Exception si se interrumpe la espera.
+     */
+    @AfterEach
+    void tearDown() throws Exception {
+        this.server.stop();
+    }
+
+    /**
+     * Unirse a una mesa que no existe responde con un error.
+     * @throws Exception si falla la red.
+     */
+    @Test
+    void joinMissingTable_repliesNoTable() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", this.port)) {
+            socket.setSoTimeout(5000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeShort(WireProtocol.HEADER_BYTES);
+            out.writeByte(WireProtocol.JOIN_TABLE);
+            out.writeInt(42);
+            out.flush();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertEquals(WireProtocol.HEADER_BYTES + 1, in.readUnsignedShort());
+            assertEquals(WireProtocol.ERROR, in.readByte());
+            assertEquals(42, in.readInt());
+            assertEquals(WireProtocol.ERROR_NO_TABLE, in.readUnsignedByte());
+        }
+    }
+
+    /**
+     * Muchas mesas sobre pocas conexiones avanzan en paralelo y terminan partidas.
+     * @throws Exception si falla la red.
+     */
+    @Test
+    void loadGenerator_playsManyTablesConcurrently() throws Exception {
+        LoadGenerator generator = new LoadGenerator(new InetSocketAddress("127.0.0.1", this.port), 50, 4, 2);
+        LoadGenerator.Result result = generator.run(200, 1000);
+        assertTrue(result.getLatencies().getCount() > 100, "Se esperaban jugadas medidas: " + result);
+        assertTrue(result.getGamesFinished() > 0, "Se esperaban partidas terminadas: " + result);
+        assertTrue(result.getLatencies().getPercentile(50) > 0);
+    }
+
+    /**
+     * Un espectador recibe una instantánea sin mano propia y luego los cambios de cada jugada.
+     * @throws Exception si falla la red.
+     */
+    @Test
+    void spectator_receivesSnapshotThenDeltas() throws Exception {
+        try (Socket player = new Socket("127.0.0.1", this.port);
+             Socket spectator = new Socket("127.0.0.1", this.port)) {
+            player.setSoTimeout(5000);
+            spectator.setSoTimeout(5000);
+            DataOutputStream playerOut = new DataOutputStream(player.getOutputStream());
+            DataInputStream playerIn = new DataInputStream(player.getInputStream());
+            writeFrame(playerOut, WireProtocol.CREATE_TABLE, 7, 2, 1);
+            assertEquals(0, readFrame(playerIn, WireProtocol.JOINED).get());
+            TableView playerView = new TableView();
+            DeltaCodec.decode(readFrame(playerIn, WireProtocol.STATE), playerView);
+
+            DataOutputStream spectatorOut = new DataOutputStream(spectator.getOutputStream());
+            DataInputStream spectatorIn = new DataInputStream(spectator.getInputStream());
+            writeFrame(spectatorOut, WireProtocol.SPECTATE, 7);
+            TableView spectatorView = new TableView();
+            DeltaCodec.decode(readFrame(spectatorIn, WireProtocol.STATE), spectatorView);
+            assertEquals(TableView.NO_SEAT, spectatorView.getSeat());
+            assertEquals(0, spectatorView.getOwnHandSize());
+            assertEquals(playerView.getTopCard(), spectatorView.getTopCard());
+
+            // El humano empieza: roba y pasa; el espectador ve el robo como evento
+            writeFrame(playerOut, WireProtocol.DRAW, 7);
+            DeltaCodec.decode(readFrame(spectatorIn, WireProtocol.STATE), spectatorView);
+            assertTrue(spectatorView.getEventCount() > 0);
+            assertEquals(TableView.EVENT_DREW, spectatorView.getEventKind(0));
+            assertEquals(0, spectatorView.getEventSeat(0));
+            DeltaCodec.decode(readFrame(playerIn, WireProtocol.STATE), playerView);
+            assertEquals(playerView.getHandSize(0), spectatorView.getHandSize(0));
+            assertEquals(playerView.getTopCard(), spectatorView.getTopCard());
+        }
+    }
+
+    /**
+     * Un jugador que se desconecta recupera su asiento con la ficha de JOINED y recibe
+     * una instantánea con los eventos que se perdió, sin repetir la partida.
+     * @throws Exception si falla la red.
+     */
+    @Test
+    void resume_restoresSeatWithMissedEvents() throws Exception {
+        long token;
+        int eventsReceived;
+        try (Socket player = new Socket("127.0.0.1", this.port)) {
+            player.setSoTimeout(5000);
+            DataOutputStream out = new DataOutputStream(player.getOutputStream());
+            DataInputStream in = new DataInputStream(player.getInputStream());
+            writeFrame(out, WireProtocol.CREATE_TABLE, 9, 2, 1);
+            ByteBuffer joined = readFrame(in, WireProtocol.JOINED);
+            assertEquals(0, joined.get());
+            token = joined.getLong();
+            TableView view = new TableView();
+            DeltaCodec.decode(readFrame(in, WireProtocol.STATE), view);
+            eventsReceived = view.getEventCount();
+            writeFrame(out, WireProtocol.DRAW, 9);
+            DeltaCodec.decode(readFrame(in, WireProtocol.STATE), view);
+            eventsReceived += view.getEventCount();
+            // Segunda jugada cuya respuesta el cliente nunca lee
+            writeFrame(out, WireProtocol.DRAW, 9);
+        }
+        try (Socket player = new Socket("127.0.0.1", this.port)) {
+            player.setSoTimeout(5000);
+            DataOutputStream out = new DataOutputStream(player.getOutputStream());
+            DataInputStream in = new DataInputStream(player.getInputStream());
+            writeFrame(out, WireProtocol.RESUME, 9, resumePayload(0, token ^ 1, eventsReceived));
+            assertEquals(WireProtocol.ERROR_RESUME_REJECTED, readFrame(in, WireProtocol.ERROR).get());
+
+            long start = System.nanoTime();
+            writeFrame(out, WireProtocol.RESUME, 9, resumePayload(0, token, eventsReceived));
+            ByteBuffer joined = readFrame(in, WireProtocol.JOINED);
+            TableView view = new TableView();
+            DeltaCodec.decode(readFrame(in, WireProtocol.STATE), view);
+            System.out.printf("Reanudación en %d us%n", (System.nanoTime() - start) / 1000);
+            assertEquals(0, joined.get());
+            assertEquals(token, joined.getLong());
+            assertEquals(0, view.getSeat());
+            assertEquals(view.getHandSize(0), view.getOwnHandSize());
+            assertTrue(view.getEventCount() > 0, "Debería recibir los eventos perdidos.");
+            assertEquals(TableView.EVENT_DREW, view.getEventKind(0));
+            assertEquals(0, view.getEventSeat(0));
+
+            // La mesa sigue en juego con la conexión nueva
+            writeFrame(out, WireProtocol.DRAW, 9);
+            DeltaCodec.decode(readFrame(in, WireProtocol.STATE), view);
+            assertEquals(TableView.EVENT_DREW, view.getEventKind(0));
+        }
+    }
+
+    /**
+     * Con persistencia activa, una mesa sobrevive al reinicio del servidor y el jugador
+     * la reanuda con la misma ficha y la misma mano.
+     * @param dir directorio temporal del registro.
+     * @throws Exception si falla la red o el registro.
+     */
+    @Test
+    void persistence_tableSurvivesRestart(@TempDir Path dir) throws Exception {
+        long token;
+        TableView before = new TableView();
+        GameServer first = new GameServer(1);
+        assertEquals(0, first.enablePersistence(dir, 4));
+        int firstPort = first.start(0);
+        try (Socket player = new Socket("127.0.0.1", firstPort)) {
+            player.setSoTimeout(5000);
+            DataOutputStream out = new DataOutputStream(player.getOutputStream());
+            DataInputStream in = new DataInputStream(player.getInputStream());
+            writeFrame(out, WireProtocol.CREATE_TABLE, 11, 3, 1);
+            ByteBuffer joined = readFrame(in, WireProtocol.JOINED);
+            joined.get();
+            token = joined.getLong();
+            DeltaCodec.decode(readFrame(in, WireProtocol.STATE), before);
+            for (int i = 0; i < 6 && !before.isGameOver(); i++) {
+                writeFrame(out, WireProtocol.DRAW, 11);
+                DeltaCodec.decode(readFrame(in, WireProtocol.STATE), before);
+            }
+        }
+        first.stop();
+
+        GameServer second = new GameServer(1);
+        try {
+            assertEquals(1, second.enablePersistence(dir, 4));
+            int secondPort = second.start(0);
+            try (Socket player = new Socket("127.0.0.1", secondPort)) {
+                player.setSoTimeout(5000);
+                DataOutputStream out = new DataOutputStream(player.getOutputStream());
+                DataInputStream in = new DataInputStream(player.getInputStream());
+                writeFrame(out, WireProtocol.RESUME, 11, resumePayload(0, token, 0));
+                ByteBuffer joined = readFrame(in, WireProtocol.JOINED);
+                assertEquals(0, joined.get());
+                TableView after = new TableView();
+                DeltaCodec.decode(readFrame(in, WireProtocol.STATE), after);
+                assertEquals(before.getOwnHandSize(), after.getOwnHandSize());
+                assertEquals(before.getTopCard(), after.getTopCard());
+                for (int seat = 0; seat < 3; seat++) {
+                    assertEquals(before.getHandSize(seat), after.getHandSize(seat));
+                }
+            }
+        } finally {
+            second.stop();
+        }
+    }
+
+    /**
+     * Arma la carga útil de RESUME.
+     * @param seat asiento a reanudar.
+     * @param token ficha de reanudación.
+     * @param eventsReceived eventos recibidos desde JOINED.
+     * @return los bytes de la carga útil.
+     */
+    private static int[] resumePayload(int seat, long token, int eventsReceived) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES);
+        buffer.put((byte) seat).putLong(token).putInt(eventsReceived);
+        int[] payload = new int[buffer.capacity()];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = buffer.get(i) & 0xFF;
+        }
+        return payload;
+    }
+
+    /**
+     * Escribe una trama con carga útil de bytes.
+     * @param out flujo de salida.
+     * @param type tipo de la trama.
+     * @param tableId id de la mesa.
+     * @param payload bytes de la carga útil.
+     * @throws Exception si falla la red.
+     */
+    private static void writeFrame(DataOutputStream out, byte type, int tableId, int... payload) throws Exception {
+        out.writeShort(WireProtocol.HEADER_BYTES + payload.length);
+        out.writeByte(type);
+        out.writeInt(tableId);
+        for (int b : payload) {
+            out.writeByte(b);
+        }
+        out.flush();
+    }
+
+    /**
+     * Lee una trama completa y verifica su tipo.
+     * @param in flujo de entrada.
+     * @param expectedType tipo esperado.
+     * @return la carga útil de la trama.
+     * @throws Exception si falla la red.
+     */
+    private static ByteBuffer readFrame(DataInputStream in, byte expectedType) throws Exception {
+        byte[] frame = new byte[in.readUnsignedShort()];
+        in.readFully(frame);
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        assertEquals(expectedType, buffer.get());
+        buffer.getInt();
+        return buffer;
+    }
+}
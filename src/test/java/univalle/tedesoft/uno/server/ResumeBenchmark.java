@@ -0,0 +1,149 @@
+package univalle.tedesoft.uno.server;
+
+import univalle.tedesoft.uno.protocol.DeltaCodec;
+import univalle.tedesoft.uno.protocol.TableView;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+/**
+ * Benchmark de reanudación: un cliente abre muchas mesas, juega unas jugadas en cada una
+ * y se desconecta sin leer las últimas respuestas; otro cliente reanuda todos los asientos
+ * y mide cuánto tarda cada uno en recibir su instantánea con los eventos perdidos.
+ * También estima la memoria por mesa con el montículo antes y después de crearlas.
+ * No es una prueba unitaria; se ejecuta manualmente con su método main.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class ResumeBenchmark {
+    /** Id de la primera mesa. */
+    private static final int BASE_TABLE_ID = 2_000_000;
+
+    /**
+     * Ejecuta el benchmark.
+     * Argumentos opcionales: mesas (2.000) y jugadas por mesa antes de desconectarse (3).
+     * @param args argumentos de la línea de comandos.
+     * @throws Exception si falla la red.
+     */
+    public static void main(String[] args) throws Exception {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        GameServer server = new GameServer(1);
+        int port = server.start(0);
+        long heapBefore = usedHeap();
+        long[] tokens = new long[tables];
+        int[] received = new int[tables];
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            TableView view = new TableView();
+            for (int t = 0; t < tables; t++) {
+                int tableId = BASE_TABLE_ID + t;
+                writeFrame(out, WireProtocol.CREATE_TABLE, tableId, ByteBuffer.allocate(2).put((byte) 2).put((byte) 1));
+                ByteBuffer joined = readFrame(in, WireProtocol.JOINED);
+                joined.get();
+                tokens[t] = joined.getLong();
+                view.reset(0, 0);
+                DeltaCodec.decode(readFrame(in, WireProtocol.STATE), view);
+                received[t] = view.getEventCount();
+                for (int m = 0; m < moves; m++) {
+                    writeFrame(out, WireProtocol.DRAW, tableId, ByteBuffer.allocate(0));
+                    ByteBuffer frame = readFrame(in, (byte) 0);
+                    if (frame != null) {
+                        DeltaCodec.decode(frame, view);
+                        received[t] += view.getEventCount();
+                    }
+                }
+            }
+            // Una jugada más por mesa cuya respuesta se pierde con la desconexión
+            for (int t = 0; t < tables; t++) {
+                writeFrame(out, WireProtocol.DRAW, BASE_TABLE_ID + t, ByteBuffer.allocate(0));
+            }
+        }
+        Thread.sleep(500);
+        long heapAfter = usedHeap();
+        System.out.printf("%d mesas abiertas, %.0f bytes de montículo por mesa (cola de eventos: %d bytes)%n",
+                server.getTableCount(), (double) (heapAfter - heapBefore) / tables, EventTail.CAPACITY * 3);
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        long missedEvents = 0;
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            TableView view = new TableView();
+            for (int t = 0; t < tables; t++) {
+                ByteBuffer payload = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES)
+                        .put((byte) 0).putLong(tokens[t]).putInt(received[t]);
+                long start = System.nanoTime();
+                writeFrame(out, WireProtocol.RESUME, BASE_TABLE_ID + t, payload);
+                readFrame(in, WireProtocol.JOINED);
+                view.reset(0, 0);
+                DeltaCodec.decode(readFrame(in, WireProtocol.STATE), view);
+                latencies.record(System.nanoTime() - start);
+                missedEvents += view.getEventCount();
+            }
+        }
+        System.out.printf("%d reanudaciones: p50=%d us p99=%d us max=%d us; %.1f eventos perdidos por mesa%n",
+                latencies.getCount(), latencies.getPercentile(50) / 1000, latencies.getPercentile(99) / 1000,
+                latencies.getMax() / 1000, (double) missedEvents / tables);
+        server.stop();
+    }
+
+    /**
+     * Mide el montículo en uso después de pedir una recolección.
+     * @return bytes en uso.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Escribe una trama y la envía.
+     * @param out flujo de salida.
+     * @param type tipo de la trama.
+     * @param tableId id de la mesa.
+     * @param payload carga útil, en modo escritura.
+     * @throws Exception si falla la red.
+     */
+    private static void writeFrame(DataOutputStream out, byte type, int tableId, ByteBuffer payload) throws Exception {
+        out.writeShort(WireProtocol.HEADER_BYTES + payload.position());
+        out.writeByte(type);
+        out.writeInt(tableId);
+        out.write(payload.array(), 0, payload.position());
+        out.flush();
+    }
+
+    /**
+     * Lee una trama completa.
+     * @param in flujo de entrada.
+     * @param expectedType tipo esperado, o 0 para aceptar STATE o ERROR.
+     * @return la carga útil, o null si era un error aceptado.
+     * @throws Exception si falla la red o el tipo no es el esperado.
+     */
+    private static ByteBuffer readFrame(DataInputStream in, byte expectedType) throws Exception {
+        byte[] frame = new byte[in.readUnsignedShort()];
+        in.readFully(frame);
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        byte type = buffer.get();
+        buffer.getInt();
+        if (expectedType == 0 && type == WireProtocol.ERROR) {
+            return null;
+        }
+        if (type != expectedType && !(expectedType == 0 && type == WireProtocol.STATE)) {
+            throw new IllegalStateException("Trama inesperada: " + type);
+        }
+        return buffer;
+    }
+}
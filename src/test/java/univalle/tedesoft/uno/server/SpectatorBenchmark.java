@@ -0,0 +1,302 @@
+package univalle.tedesoft.uno.server;
+
+import univalle.tedesoft.uno.protocol.DeltaCodec;
+import univalle.tedesoft.uno.protocol.TableView;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark de difusión a espectadores: una mesa observada por miles de conexiones locales.
+ * Un jugador hace una jugada, espera a que todos los espectadores rápidos reciban el cambio
+ * y mide ese tiempo de difusión; una fracción de espectadores lee solo de vez en cuando
+ * para provocar resincronizaciones. Todos los espectadores decodifican lo que reciben,
+ * así que un error de resincronización aparece como estado inconsistente.
+ * No es una prueba unitaria; se ejecuta manualmente con su método main.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class SpectatorBenchmark {
+    /** Id de la mesa observada. */
+    private static final int TABLE_ID = 1;
+    /** Uno de cada tantos espectadores es lento. */
+    private static final int SLOW_EVERY = 100;
+    /** Intervalo entre lecturas de un espectador lento, en nanosegundos. */
+    private static final long SLOW_READ_INTERVAL_NANOS = 500_000_000L;
+
+    /** Tramas recibidas por los espectadores rápidos. */
+    private static final AtomicLong fastFrames = new AtomicLong();
+    /** Tramas recibidas por todos los espectadores. */
+    private static final AtomicLong allFrames = new AtomicLong();
+    /** Mensajes que no se pudieron decodificar. */
+    private static final AtomicLong decodeErrors = new AtomicLong();
+
+    /**
+     * Ejecuta el benchmark.
+     * Argumentos opcionales: espectadores (10.000), segundos (10), host y puerto de un
+     * servidor externo. Sin host se arranca un servidor en el mismo proceso, que necesita
+     * el doble de descriptores de archivo.
+     * @param args argumentos de la línea de comandos.
+     * @throws Exception si falla la red.
+     */
+    public static void main(String[] args) throws Exception {
+        int spectators = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        GameServer server = null;
+        InetSocketAddress address;
+        if (args.length > 3) {
+            address = new InetSocketAddress(args[2], Integer.parseInt(args[3]));
+        } else {
+            server = new GameServer(Runtime.getRuntime().availableProcessors());
+            address = new InetSocketAddress("127.0.0.1", server.start(0));
+        }
+
+        Socket player = new Socket(address.getAddress(), address.getPort());
+        player.setTcpNoDelay(true);
+        DataOutputStream out = new DataOutputStream(player.getOutputStream());
+        DataInputStream in = new DataInputStream(player.getInputStream());
+        writeFrame(out, WireProtocol.CREATE_TABLE, 2, 1);
+        TableView view = new TableView();
+        readState(in, view);
+
+        int readers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        Reader[] readerThreads = new Reader[readers];
+        for (int r = 0; r < readers; r++) {
+            readerThreads[r] = new Reader();
+        }
+        int fast = 0;
+        for (int i = 0; i < spectators; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.configureBlocking(false);
+            boolean slow = i % SLOW_EVERY == SLOW_EVERY - 1;
+            if (!slow) {
+                fast++;
+            }
+            readerThreads[i % readers].add(channel, slow);
+            ByteBuffer request = ByteBuffer.allocate(WireProtocol.LENGTH_BYTES + WireProtocol.HEADER_BYTES);
+            request.putShort((short) WireProtocol.HEADER_BYTES).put(WireProtocol.SPECTATE).putInt(TABLE_ID).flip();
+            while (request.hasRemaining()) {
+                channel.write(request);
+            }
+        }
+        for (Reader reader : readerThreads) {
+            reader.start();
+        }
+        // Esperar las instantáneas iniciales
+        waitFor(fast, 10_000_000_000L);
+        System.out.println(spectators + " espectadores conectados (" + fast + " rápidos)");
+
+        LatencyHistogram fanOut = new LatencyHistogram();
+        long expected = fastFrames.get();
+        long startFrames = allFrames.get();
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long moves = 0;
+        long timeouts = 0;
+        while (System.nanoTime() < end) {
+            byte command = view.isGameOver() ? WireProtocol.NEW_GAME : WireProtocol.DRAW;
+            long sent = System.nanoTime();
+            writeFrame(out, command);
+            readState(in, view);
+            expected += fast;
+            if (waitFor(expected, 1_000_000_000L)) {
+                fanOut.record(System.nanoTime() - sent);
+            } else {
+                timeouts++;
+                expected = fastFrames.get();
+            }
+            moves++;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d jugadas en %.1f s; %.0f tramas entregadas/s; difusión p50=%d us p99=%d us max=%d us; "
+                        + "%d esperas vencidas%n",
+                moves, elapsed, (allFrames.get() - startFrames) / elapsed,
+                fanOut.getPercentile(50) / 1000, fanOut.getPercentile(99) / 1000, fanOut.getMax() / 1000, timeouts);
+        System.out.println("Errores de decodificación: " + decodeErrors.get());
+        if (server != null) {
+            System.out.println("Resincronizaciones de espectadores lentos: " + server.getSpectatorResyncs());
+            server.stop();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Espera a que los espectadores rápidos acumulen cierta cantidad de tramas.
+     * @param target cantidad esperada.
+     * @param timeoutNanos plazo máximo.
+     * @return true si se alcanzó antes del plazo.
+     */
+    private static boolean waitFor(long target, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (fastFrames.get() < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    /**
+     * Escribe una trama con carga útil de bytes.
+     * @param out flujo de salida.
+     * @param type tipo de la trama.
+     * @param payload bytes de la carga útil.
+     * @throws IOException si falla la red.
+     */
+    private static void writeFrame(DataOutputStream out, byte type, int... payload) throws IOException {
+        out.writeShort(WireProtocol.HEADER_BYTES + payload.length);
+        out.writeByte(type);
+        out.writeInt(TABLE_ID);
+        for (int b : payload) {
+            out.writeByte(b);
+        }
+        out.flush();
+    }
+
+    /**
+     * Lee tramas del jugador hasta recibir un estado y lo aplica.
+     * @param in flujo de entrada.
+     * @param view la vista del jugador.
+     * @throws IOException si falla la red.
+     */
+    private static void readState(DataInputStream in, TableView view) throws IOException {
+        while (true) {
+            byte[] frame = new byte[in.readUnsignedShort()];
+            in.readFully(frame);
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            byte type = buffer.get();
+            buffer.getInt();
+            if (type == WireProtocol.STATE) {
+                DeltaCodec.decode(buffer, view);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hilo que lee y decodifica las tramas de un grupo de espectadores.
+     */
+    private static final class Reader extends Thread {
+        /** Selector de los espectadores rápidos. */
+        private final Selector selector;
+        /** Espectadores lentos, leídos por sondeo. */
+        private final List<Spectator> slow = new ArrayList<>();
+        /** Instante de la próxima lectura de los lentos. */
+        private long nextSlowRead;
+
+        /**
+         * Constructor del lector.
+         * @throws IOException si no se puede abrir el selector.
+         */
+        private Reader() throws IOException {
+            this.selector = Selector.open();
+            this.setDaemon(true);
+        }
+
+        /**
+         * Agrega un espectador, antes de arrancar el hilo.
+         * @param channel su canal.
+         * @param isSlow true si lee solo de vez en cuando.
+         * @throws IOException si no se puede registrar.
+         */
+        private void add(SocketChannel channel, boolean isSlow) throws IOException {
+            Spectator spectator = new Spectator(channel, !isSlow);
+            if (isSlow) {
+                this.slow.add(spectator);
+            } else {
+                channel.register(this.selector, SelectionKey.OP_READ, spectator);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    this.selector.select(10);
+                    Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        ((Spectator) key.attachment()).read();
+                    }
+                    if (System.nanoTime() >= this.nextSlowRead) {
+                        for (Spectator spectator : this.slow) {
+                            spectator.read();
+                        }
+                        this.nextSlowRead = System.nanoTime() + SLOW_READ_INTERVAL_NANOS;
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Lector detenido: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Conexión de un espectador con su vista decodificada.
+     */
+    private static final class Spectator {
+        /** Canal del espectador. */
+        private final SocketChannel channel;
+        /** true si cuenta para la latencia de difusión. */
+        private final boolean fast;
+        /** Bytes recibidos sin procesar. */
+        private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        /** Estado de la mesa reconstruido. */
+        private final TableView view = new TableView();
+
+        /**
+         * Constructor del espectador.
+         * @param channel su canal.
+         * @param fast true si lee en cuanto llegan datos.
+         */
+        private Spectator(SocketChannel channel, boolean fast) {
+            this.channel = channel;
+            this.fast = fast;
+        }
+
+        /**
+         * Lee lo disponible y decodifica cada trama completa.
+         * @throws IOException si falla la lectura.
+         */
+        private void read() throws IOException {
+            while (this.channel.read(this.buffer) > 0) {
+                this.buffer.flip();
+                int frames = 0;
+                while (this.buffer.remaining() >= WireProtocol.LENGTH_BYTES) {
+                    int start = this.buffer.position();
+                    int length = this.buffer.getShort(start) & 0xFFFF;
+                    if (this.buffer.remaining() < WireProtocol.LENGTH_BYTES + length) {
+                        break;
+                    }
+                    this.buffer.position(start + WireProtocol.LENGTH_BYTES + WireProtocol.HEADER_BYTES);
+                    try {
+                        DeltaCodec.decode(this.buffer, this.view);
+                    } catch (RuntimeException e) {
+                        decodeErrors.incrementAndGet();
+                    }
+                    this.buffer.position(start + WireProtocol.LENGTH_BYTES + length);
+                    frames++;
+                }
+                this.buffer.compact();
+                allFrames.addAndGet(frames);
+                if (this.fast) {
+                    fastFrames.addAndGet(frames);
+                }
+            }
+        }
+    }
+}
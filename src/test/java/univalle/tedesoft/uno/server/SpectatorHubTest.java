@@ -0,0 +1,93 @@
+package univalle.tedesoft.uno.server;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.uno.protocol.DeltaCodec;
+import univalle.tedesoft.uno.protocol.TableView;
+
+import java.io.DataInputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la difusión a espectadores.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class SpectatorHubTest {
+
+    /**
+     * Un espectador que no lee no acumula cambios sin límite: se resincroniza con una
+     * instantánea y, cuando vuelve a leer, termina con el último estado publicado.
+     * @throws Exception si falla la red.
+     */
+    @Test
+    void slowSpectator_resyncsWithSnapshotInsteadOfBuffering() throws Exception {
+        GameServer server = new GameServer(1);
+        EventLoop loop = new EventLoop(server);
+        Thread loopThread = new Thread(loop, "SpectatorHubTestLoop");
+        loopThread.setDaemon(true);
+        loopThread.start();
+        try (ServerSocketChannel acceptor = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+             Socket client = new Socket()) {
+            client.setReceiveBufferSize(4096);
+            client.connect(acceptor.getLocalAddress());
+            SocketChannel accepted = acceptor.accept();
+            accepted.socket().setSendBufferSize(8192);
+            CompletableFuture<Connection> registered = new CompletableFuture<>();
+            loop.execute(() -> {
+                try {
+                    registered.complete(loop.register(accepted));
+                } catch (Exception e) {
+                    registered.completeExceptionally(e);
+                }
+            });
+            Connection connection = registered.get(5, TimeUnit.SECONDS);
+
+            SpectatorHub hub = new SpectatorHub(9);
+            hub.add(connection);
+            TableView view = new TableView();
+            view.reset(TableView.NO_SEAT, 2);
+            // Unos 4 MB de cambios contra un cliente que no lee
+            for (int i = 0; i < 100_000; i++) {
+                view.setTop(i % 40, (i % 40) / 15);
+                view.setTurn(i & 1, 1);
+                view.setHandSize(i & 1, i % 20);
+                for (int e = 0; e < 8; e++) {
+                    view.addEvent(TableView.EVENT_PLAYED, i & 1, i % 40);
+                }
+                hub.publish(view);
+                view.clearEvents();
+            }
+            CompletableFuture<Void> drained = new CompletableFuture<>();
+            loop.execute(() -> drained.complete(null));
+            drained.get(30, TimeUnit.SECONDS);
+            assertTrue(server.getSpectatorResyncs() > 0, "El espectador lento debería resincronizarse");
+
+            client.setSoTimeout(10_000);
+            DataInputStream in = new DataInputStream(client.getInputStream());
+            TableView received = new TableView();
+            int frames = 0;
+            while (!received.sameStateAs(view)) {
+                byte[] frame = new byte[in.readUnsignedShort()];
+                in.readFully(frame);
+                ByteBuffer buffer = ByteBuffer.wrap(frame);
+                assertEquals(WireProtocol.STATE, buffer.get());
+                assertEquals(9, buffer.getInt());
+                DeltaCodec.decode(buffer, received);
+                frames++;
+            }
+            assertTrue(frames < 100_000, "Los cambios pendientes deberían descartarse, llegaron " + frames);
+        } finally {
+            loop.shutdown();
+            loopThread.join(5000);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package univalle.tedesoft.uno.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del ejecutor de mesas con buzones.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class TableExecutorTest {
+    /** Ejecutor bajo prueba. */
+    private final TableExecutor executor = new TableExecutor(4);
+
+    /**
+     * Detiene el ejecutor.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        this.executor.shutdown(1000);
+    }
+
+    /**
+     * Los comandos de una mesa se ejecutan uno a la vez y en orden de envío,
+     * aunque lleguen desde varios hilos y se repartan entre varios trabajadores.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    @Test
+    void commandsOfATableRunSequentiallyInOrder() throws InterruptedException {
+        int tables = 100;
+        int producers = 4;
+        int commandsPerProducer = 500;
+        TableExecutor.Mailbox[] mailboxes = new TableExecutor.Mailbox[tables];
+        // Estado sin sincronizar, como un GameState: solo lo tocan los comandos de su mesa
+        int[][] lastSeen = new int[tables][producers];
+        int[] counters = new int[tables];
+        boolean[] busy = new boolean[tables];
+        AtomicBoolean overlapOrDisorder = new AtomicBoolean();
+        for (int t = 0; t < tables; t++) {
+            mailboxes[t] = this.executor.newMailbox();
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 1; i <= commandsPerProducer; i++) {
+                    for (int t = 0; t < tables; t++) {
+                        final int table = t;
+                        final int sequence = i;
+                        mailboxes[t].submit(() -> {
+                            if (busy[table] || lastSeen[table][producer] != sequence - 1) {
+                                overlapOrDisorder.set(true);
+                            }
+                            busy[table] = true;
+                            lastSeen[table][producer] = sequence;
+                            counters[table]++;
+                            busy[table] = false;
+                        });
+                    }
+                }
+            });
+            threads[p].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(this.executor.awaitQuiescence(10_000), "El ejecutor debería quedar inactivo");
+
+        long total = (long) tables * producers * commandsPerProducer;
+        assertFalse(overlapOrDisorder.get(), "Los comandos de una mesa no deben solaparse ni desordenarse");
+        for (int t = 0; t < tables; t++) {
+            assertEquals(producers * commandsPerProducer, counters[t]);
+            assertEquals(0, mailboxes[t].getDepth());
+        }
+        assertEquals(total, this.executor.getExecutedCommands());
+        assertEquals(0, this.executor.getQueuedCommands());
+        assertEquals(total, this.executor.latencySnapshot(false).getCount());
+        assertTrue(this.executor.getMaxMailboxDepth() >= 1);
+    }
+
+    /**
+     * Un comando que falla se cuenta y no detiene el buzón.
+     */
+    @Test
+    void failingCommandDoesNotStallMailbox() {
+        TableExecutor.Mailbox mailbox = this.executor.newMailbox();
+        int[] ran = new int[1];
+        mailbox.submit(() -> {
+            throw new IllegalStateException("prueba");
+        });
+        mailbox.submit(() -> ran[0]++);
+        assertTrue(this.executor.awaitQuiescence(5_000));
+        assertEquals(1, ran[0]);
+        assertEquals(1, this.executor.getFailedCommands());
+        assertEquals(2, this.executor.getExecutedCommands());
+    }
+}
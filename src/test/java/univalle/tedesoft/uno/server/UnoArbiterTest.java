@@ -0,0 +1,102 @@
+package univalle.tedesoft.uno.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del árbitro de las carreras de UNO.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class UnoArbiterTest {
+    /** Fallos registrados, como "tipo:actor:objetivo:aceptada". */
+    private final List<String> rulings = new ArrayList<>();
+    /** Receptor que registra los fallos. */
+    private final UnoArbiter.IRuling recorder = (kind, actor, target, accepted, receivedAt) ->
+            this.rulings.add((kind == UnoArbiter.DECLARE ? "uno" : "catch") + ":" + actor + ":" + target + ":" + accepted);
+
+    /**
+     * Gana la acción recibida primero aunque se entregue al árbitro después.
+     */
+    @Test
+    void resolve_ordersByReceiveTimeNotBySubmission() {
+        UnoArbiter arbiter = new UnoArbiter(3);
+        arbiter.open(0, 100);
+        assertTrue(arbiter.submit(UnoArbiter.DECLARE, 0, 0, 250));
+        assertFalse(arbiter.submit(UnoArbiter.CATCH, 1, 0, 200));
+        assertFalse(arbiter.submit(UnoArbiter.CATCH, 2, 0, 220));
+
+        assertEquals(3, arbiter.resolve(this.recorder));
+        assertEquals(List.of("catch:1:0:true", "catch:2:0:false", "uno:0:0:false"), this.rulings);
+        assertFalse(arbiter.isOpen(0));
+        assertFalse(arbiter.hasPending());
+    }
+
+    /**
+     * Con el mismo instante gana quien canta y, entre capturas, el asiento menor.
+     */
+    @Test
+    void resolve_breaksTiesDeterministically() {
+        UnoArbiter arbiter = new UnoArbiter(4);
+        arbiter.open(1, 100);
+        arbiter.open(2, 100);
+        arbiter.submit(UnoArbiter.CATCH, 3, 1, 300);
+        arbiter.submit(UnoArbiter.CATCH, 0, 1, 300);
+        arbiter.submit(UnoArbiter.DECLARE, 1, 1, 300);
+        arbiter.submit(UnoArbiter.CATCH, 3, 2, 300);
+        arbiter.submit(UnoArbiter.CATCH, 0, 2, 300);
+
+        arbiter.resolve(this.recorder);
+        assertEquals(List.of("uno:1:1:true", "catch:0:1:false", "catch:0:2:true",
+                "catch:3:1:false", "catch:3:2:false"), this.rulings);
+    }
+
+    /**
+     * Una acción recibida antes de que se abriera la ventana, o después de cerrarse, se rechaza.
+     */
+    @Test
+    void resolve_rejectsActionsOutsideTheWindow() {
+        UnoArbiter arbiter = new UnoArbiter(2);
+        arbiter.open(0, 500);
+        arbiter.submit(UnoArbiter.CATCH, 1, 0, 400);
+        arbiter.resolve(this.recorder);
+        assertTrue(arbiter.isOpen(0), "Una captura vieja no cierra la ventana nueva.");
+
+        arbiter.close(0);
+        arbiter.submit(UnoArbiter.DECLARE, 0, 0, 600);
+        arbiter.resolve(this.recorder);
+        assertEquals(List.of("catch:1:0:false", "uno:0:0:false"), this.rulings);
+    }
+
+    /**
+     * Resolver una ventana muy disputada toma mucho menos de un milisegundo.
+     */
+    @Test
+    void resolve_isSubMillisecondUnderLoad() {
+        UnoArbiter arbiter = new UnoArbiter(10);
+        UnoArbiter.IRuling ignore = (kind, actor, target, accepted, receivedAt) -> { };
+        int windows = 100_000;
+        LatencyHistogram steps = new LatencyHistogram();
+        for (int w = 0; w < windows; w++) {
+            long base = w * 1_000L;
+            int target = w % 10;
+            arbiter.open(target, base);
+            // Nueve rivales y el propio jugador compiten, recibidos en desorden
+            for (int actor = 0; actor < 10; actor++) {
+                int kind = actor == target ? UnoArbiter.DECLARE : UnoArbiter.CATCH;
+                arbiter.submit(kind, actor, target, base + 1 + (actor * 7919L + w) % 97);
+            }
+            long start = System.nanoTime();
+            arbiter.resolve(ignore);
+            steps.record(System.nanoTime() - start);
+            assertFalse(arbiter.isOpen(target));
+        }
+        assertTrue(steps.getPercentile(99) < 1_000_000,
+                "p99 de la resolución: " + steps.getPercentile(99) + " ns");
+    }
+}
@@ -0,0 +1,113 @@
+package univalle.tedesoft.uno.simulation;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import univalle.tedesoft.uno.model.Cards.Card;
+import univalle.tedesoft.uno.model.Decks.Deck;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pruebas unitarias para los mazos barajados de antemano.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class DeckOrderQueueTest {
+
+    /**
+     * El consumidor recibe, mientras el generador produce en otro hilo, órdenes completos
+     * y distintos; el mazo los adopta con sus mismas cartas.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    @Test
+    void generatedOrders_areCompletePermutations() throws InterruptedException {
+        DeckOrderGenerator generator = new DeckOrderGenerator(3);
+        DeckOrderQueue queue = generator.register(8);
+        Deck deck = new Deck();
+        Set<Card> cards = Collections.newSetFromMap(new IdentityHashMap<>());
+        cards.addAll(deck.getCards());
+        byte[] canonical = codes(sorted(new Deck()));
+        byte[] order = new byte[Deck.SIZE];
+        byte[] previous = new byte[Deck.SIZE];
+        generator.start();
+        try {
+            for (int received = 0; received < 2000; ) {
+                if (!queue.poll(order)) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                received++;
+                byte[] sortedOrder = order.clone();
+                Arrays.sort(sortedOrder);
+                assertArrayEquals(canonical, sortedOrder, "Cada orden deberia tener las 64 cartas.");
+                assertFalse(Arrays.equals(previous, order), "Dos órdenes seguidos no deberian repetirse.");
+                System.arraycopy(order, 0, previous, 0, order.length);
+
+                deck.arrange(order);
+                assertArrayEquals(order, codes(deck));
+                assertEquals(cards, identitySet(deck), "El mazo deberia conservar sus cartas.");
+            }
+        } finally {
+            generator.stop();
+        }
+        assertTrue(queue.size() <= 8);
+        assertThrows(IllegalArgumentException.class, () -> deck.arrange(new byte[Deck.SIZE]));
+        assertEquals(cards, identitySet(deck), "Un orden inválido no deberia perder cartas.");
+    }
+
+    /**
+     * Un torneo con mazos generados de antemano juega todas sus partidas.
+     * @throws InterruptedException si el torneo es interrumpido.
+     */
+    @Test
+    void tournament_withPregeneratedDecks() throws InterruptedException {
+        Tournament tournament = new Tournament(List.of(
+                StrategyEntrant.of(Difficulty.RANDOM, 0),
+                StrategyEntrant.of(Difficulty.GREEDY, 0)), 2);
+        tournament.pregenerateDecks(16);
+        tournament.collectStatistics(0);
+        tournament.run(2000, null);
+        assertEquals(2000, tournament.getStatistics().getGameCount());
+    }
+
+    /**
+     * Ordena un mazo por código.
+     * @param deck el mazo.
+     * @return el mismo mazo.
+     */
+    private static Deck sorted(Deck deck) {
+        deck.sortByCode();
+        return deck;
+    }
+
+    /**
+     * Copia los códigos de un mazo.
+     * @param deck el mazo.
+     * @return los códigos, de la carta superior a la del fondo.
+     */
+    private static byte[] codes(Deck deck) {
+        byte[] codes = new byte[deck.getNumeroCartas()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = (byte) deck.getCards().get(i).getCode();
+        }
+        return codes;
+    }
+
+    /**
+     * Reúne las cartas de un mazo por identidad.
+     * @param deck el mazo.
+     * @return las cartas.
+     */
+    private static Set<Card> identitySet(Deck deck) {
+        Set<Card> cards = Collections.newSetFromMap(new IdentityHashMap<>());
+        cards.addAll(deck.getCards());
+        return cards;
+    }
+}
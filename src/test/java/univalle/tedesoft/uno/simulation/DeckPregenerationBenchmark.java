@@ -0,0 +1,139 @@
+package univalle.tedesoft.uno.simulation;
+
+import univalle.tedesoft.uno.model.Decks.Deck;
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.model.Rng.Xoshiro256Random;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Micro-benchmark de barajar en cada partida frente a tomar mazos barajados por el
+ * {@link DeckOrderGenerator}, con distintas cantidades de hilos de simulación:
+ * <ul>
+ *     <li>Preparar el mazo: ordenar y barajar en el hilo frente a copiar un orden listo
+ *     del anillo y acomodar las cartas.</li>
+ *     <li>Torneo completo (aleatoria contra voraz): partidas por segundo con y sin generador.</li>
+ * </ul>
+ * El generador ocupa un hilo más: solo compensa si queda un núcleo libre y barajar pesa
+ * frente al resto de la partida.
+ * No es una prueba unitaria; se ejecuta manualmente con su método main.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class DeckPregenerationBenchmark {
+    /** Mazos preparados por hilo y medición. */
+    private static final int DECKS = 500_000;
+    /** Partidas del torneo por medición. */
+    private static final int GAMES = 100_000;
+    /** Órdenes listos por hilo. */
+    private static final int QUEUE_CAPACITY = 256;
+
+    /**
+     * Ejecuta las mediciones con 1, 2, 4... hilos de simulación.
+     * @param args opcional: hilos máximos (por defecto los núcleos disponibles, al menos 2).
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(2, cores);
+        System.out.println("CPUs disponibles: " + cores);
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            for (int round = 0; round < 3; round++) {
+                System.out.printf("hilos=%d ronda=%d%n", threads, round);
+                long[] misses = new long[1];
+                long inline = prepareDecks(threads, false, misses);
+                long pregenerated = prepareDecks(threads, true, misses);
+                System.out.printf("  preparar mazo, barajando en el hilo: %7.1f ns por mazo y hilo%n", (double) inline / DECKS);
+                System.out.printf("  preparar mazo, orden del generador : %7.1f ns por mazo y hilo (%.1f%% sin orden listo)%n",
+                        (double) pregenerated / DECKS, 100.0 * misses[0] / ((long) DECKS * threads));
+                System.out.printf("  torneo barajando en el hilo        : %7.0f partidas/s%n", tournament(threads, 0));
+                System.out.printf("  torneo con generador               : %7.0f partidas/s%n", tournament(threads, QUEUE_CAPACITY));
+            }
+        }
+    }
+
+    /**
+     * Prepara mazos en varios hilos a la vez, barajando en cada hilo o tomando los
+     * órdenes del generador (barajando en el hilo si el anillo está vacío).
+     * @param threads cantidad de hilos.
+     * @param pregenerated true para usar el generador.
+     * @param misses recibe la cantidad de veces que un hilo no encontró un orden listo.
+     * @return el tiempo total, en nanosegundos.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    private static long prepareDecks(int threads, boolean pregenerated, long[] misses) throws InterruptedException {
+        DeckOrderGenerator generator = pregenerated ? new DeckOrderGenerator(Xoshiro256Random.newSeed()) : null;
+        DeckOrderQueue[] queues = new DeckOrderQueue[threads];
+        for (int t = 0; t < threads; t++) {
+            queues[t] = generator != null ? generator.register(QUEUE_CAPACITY) : null;
+        }
+        if (generator != null) {
+            generator.start();
+            // Empezar con los anillos llenos, como en un torneo ya en marcha
+            Thread.sleep(50);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] sinks = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            DeckOrderQueue queue = queues[t];
+            final int index = t;
+            workers[t] = new Thread(() -> {
+                Deck deck = new Deck(new Xoshiro256Random());
+                byte[] order = new byte[Deck.SIZE];
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long sink = 0;
+                for (int i = 0; i < DECKS; i++) {
+                    if (queue != null && queue.poll(order)) {
+                        deck.arrange(order);
+                    } else {
+                        deck.sortByCode();
+                        deck.shuffle();
+                    }
+                    sink += deck.getCards().get(0).getCode();
+                }
+                sinks[index] = sink;
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (generator != null) {
+            generator.stop();
+            for (DeckOrderQueue queue : queues) {
+                misses[0] += queue.getMisses();
+            }
+        }
+        if (sinks[0] == 42) {
+            System.out.println();
+        }
+        return elapsed;
+    }
+
+    /**
+     * Juega un torneo de aleatoria contra voraz.
+     * @param threads hilos de simulación.
+     * @param pregenerated órdenes listos por hilo, o 0 para barajar en cada partida.
+     * @return partidas por segundo.
+     * @throws InterruptedException si se interrumpe el torneo.
+     */
+    private static double tournament(int threads, int pregenerated) throws InterruptedException {
+        Tournament tournament = new Tournament(List.of(
+                StrategyEntrant.of(Difficulty.RANDOM, 0),
+                StrategyEntrant.of(Difficulty.GREEDY, 0)), threads);
+        tournament.pregenerateDecks(pregenerated);
+        long begin = System.nanoTime();
+        tournament.run(GAMES, null);
+        return GAMES * 1e9 / (System.nanoTime() - begin);
+    }
+}
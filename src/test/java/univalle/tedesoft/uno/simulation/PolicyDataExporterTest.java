@@ -0,0 +1,77 @@
+package univalle.tedesoft.uno.simulation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.model.Learning.PolicyFeatures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Pruebas unitarias para el exportador de datos de entrenamiento.
+ * Leen el archivo generado y verifican que cada fila sea coherente con el formato.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class PolicyDataExporterTest {
+    /** Directorio temporal para el archivo exportado. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Cada acción exportada es robar o una carta de la mano marcada como jugable,
+     * y cada fila tiene un resultado 0 o 1.
+     * @throws IOException si falla la escritura o lectura del archivo.
+     */
+    @Test
+    void export_rowsAreConsistentWithFeatures() throws IOException {
+        Path path = tempDir.resolve("policy.bin");
+        HeadlessGame game = new HeadlessGame();
+        game.configure(Difficulty.GREEDY.createStrategy(), 0, Difficulty.RANDOM.createStrategy(), 0);
+        long written;
+        try (PolicyDataExporter exporter = new PolicyDataExporter(path)) {
+            game.setExporter(exporter);
+            for (int g = 0; g < 300; g++) {
+                game.play((g & 1) == 0);
+            }
+            exporter.flush();
+            written = exporter.getRowsWritten();
+        }
+        assertTrue(written > 0, "Deberian exportarse filas.");
+
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(PolicyDataExporter.MAGIC, data.getInt());
+        assertEquals(PolicyDataExporter.VERSION, data.getShort());
+        assertEquals(PolicyFeatures.FEATURE_COUNT, data.getShort());
+        int columns = data.getShort();
+        assertEquals(PolicyDataExporter.COLUMN_COUNT, columns);
+        assertEquals(PolicyFeatures.TYPE_COUNT, data.getShort());
+
+        long rowsRead = 0;
+        while (data.hasRemaining()) {
+            int rows = data.getInt();
+            int base = data.position();
+            for (int row = 0; row < rows; row++) {
+                int action = data.get(base + PolicyDataExporter.ACTION_COLUMN * rows + row);
+                int outcome = data.get(base + PolicyDataExporter.OUTCOME_COLUMN * rows + row);
+                assertTrue(outcome == 0 || outcome == 1, "El resultado deberia ser 0 o 1.");
+                if (action != PolicyFeatures.ACTION_DRAW) {
+                    assertTrue(data.get(base + (PolicyFeatures.HAND_OFFSET + action) * rows + row) > 0,
+                            "La carta jugada deberia estar en la mano.");
+                    assertEquals(1, data.get(base + (PolicyFeatures.LEGAL_OFFSET + action) * rows + row),
+                            "La carta jugada deberia estar marcada como jugable.");
+                }
+            }
+            data.position(base + columns * rows);
+            rowsRead += rows;
+        }
+        assertEquals(written, rowsRead);
+    }
+}
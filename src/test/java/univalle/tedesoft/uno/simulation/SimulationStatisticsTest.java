@@ -0,0 +1,108 @@
+package univalle.tedesoft.uno.simulation;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+import univalle.tedesoft.uno.server.LatencyHistogram;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Pruebas unitarias para las estadísticas de autojuego.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class SimulationStatisticsTest {
+
+    /**
+     * Combinar las estadísticas de dos hilos da lo mismo que registrarlo todo en una sola,
+     * y el formato binario conserva las distribuciones y los resultados.
+     * @throws IOException si falla la serialización.
+     */
+    @Test
+    void merge_andBinaryRoundTrip_matchSingleStatistics() throws IOException {
+        SimulationStatistics single = new SimulationStatistics();
+        SimulationStatistics first = new SimulationStatistics();
+        SimulationStatistics second = new SimulationStatistics();
+        for (int g = 0; g < 500; g++) {
+            SimulationStatistics worker = g % 3 == 0 ? first : second;
+            for (SimulationStatistics stats : List.of(single, worker)) {
+                stats.beginGame();
+                for (int d = 0; d < g % 17; d++) {
+                    stats.onCardDrawn(null, null, true);
+                }
+                if (g % 5 == 0) {
+                    stats.onDeckRecycled(List.of());
+                    stats.recordUnoPenalty();
+                }
+                stats.recordTurn(1_000L + g * 37L);
+                stats.endGame(10 + g % 40);
+                stats.recordOutcome("voraz", g % 4 != 0, false);
+            }
+        }
+        SimulationStatistics merged = new SimulationStatistics();
+        merged.merge(first);
+        merged.merge(second);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        merged.write(bytes);
+        SimulationStatistics read = SimulationStatistics.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+        for (SimulationStatistics stats : List.of(merged, read)) {
+            assertEquals(500, stats.getGameCount());
+            assertEquals(0.75, stats.getWinRate("voraz"), 1e-9);
+            for (String metric : SimulationStatistics.METRICS) {
+                LatencyHistogram expected = single.getHistogram(metric);
+                LatencyHistogram actual = stats.getHistogram(metric);
+                assertEquals(expected.getCount(), actual.getCount(), metric);
+                assertEquals(expected.getMax(), actual.getMax(), metric);
+                assertEquals(expected.getPercentile(50), actual.getPercentile(50), metric);
+                assertEquals(expected.getPercentile(99), actual.getPercentile(99), metric);
+                assertEquals(single.getMean(metric), stats.getMean(metric), 1e-9, metric);
+            }
+        }
+        assertEquals(0.2, read.getMean("game.unoPenalties"), 1e-9);
+    }
+
+    /**
+     * Un torneo con registro de estadísticas cuenta todas sus partidas, los robos y
+     * reciclajes reales y las penalizaciones configuradas; el tamaño exportado no
+     * crece con la cantidad de partidas.
+     * @throws Exception si el torneo es interrumpido o falla la exportación.
+     */
+    @Test
+    void tournament_collectsStatisticsInConstantSpace() throws Exception {
+        List<StrategyEntrant> entrants = List.of(
+                StrategyEntrant.of(Difficulty.RANDOM, 0),
+                StrategyEntrant.of(Difficulty.GREEDY, 0));
+        int[] sizes = new int[2];
+        SimulationStatistics statistics = null;
+        for (int run = 0; run < 2; run++) {
+            Tournament tournament = new Tournament(entrants, 2);
+            tournament.collectStatistics(0.5);
+            tournament.run(run == 0 ? 500 : 5000, null);
+            statistics = tournament.getStatistics();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            statistics.write(bytes);
+            sizes[run] = bytes.size();
+        }
+
+        assertEquals(5000, statistics.getGameCount());
+        assertEquals(5000, statistics.getGames(entrants.get(0).getName()));
+        assertTrue(statistics.getWinRate(entrants.get(1).getName()) > statistics.getWinRate(entrants.get(0).getName()));
+        assertTrue(statistics.getMean("game.cardsDrawn") > 0);
+        assertTrue(statistics.getMean("game.recycles") > 0);
+        assertTrue(statistics.getMean("game.unoPenalties") > 0);
+        assertTrue(statistics.getHistogram("turn.nanos").getCount() >= statistics.getHistogram("game.turns").getCount());
+        assertTrue(sizes[1] < sizes[0] * 2, "El tamaño no debería crecer con las partidas: " + sizes[0] + " → " + sizes[1]);
+
+        StringBuilder csv = new StringBuilder();
+        statistics.writeCsv(csv);
+        assertTrue(csv.toString().startsWith(SimulationStatistics.CSV_HEADER + "\ngame.turns,5000,"), csv.toString());
+    }
+}
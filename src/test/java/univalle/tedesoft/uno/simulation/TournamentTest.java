@@ -0,0 +1,44 @@
+package univalle.tedesoft.uno.simulation;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import univalle.tedesoft.uno.model.Enum.Difficulty;
+
+import java.util.List;
+
+/**
+ * Pruebas unitarias para el torneo sin interfaz y el ajuste de calificaciones Elo.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class TournamentTest {
+
+    /**
+     * Un 75% de victorias corresponde a unos 191 puntos Elo de diferencia.
+     */
+    @Test
+    void fit_threeToOneRecordGivesExpectedEloGap() {
+        long[][] wins = {{0, 7500}, {2500, 0}};
+        EloRatings ratings = EloRatings.fit(new String[]{"a", "b"}, wins, new long[2][2]);
+        double gap = ratings.getRating(0) - ratings.getRating(1);
+        assertEquals(190.8, gap, 1.0, "La diferencia Elo deberia reflejar el 75% de victorias.");
+        assertEquals(2 * EloRatings.MEAN_RATING, ratings.getRating(0) + ratings.getRating(1), 1e-6);
+        assertTrue(ratings.getConfidence(0) > 0 && ratings.getConfidence(0) < 20);
+    }
+
+    /**
+     * Un torneo corto juega todas las partidas y la estrategia voraz supera a la aleatoria.
+     * @throws InterruptedException si el torneo es interrumpido.
+     */
+    @Test
+    void run_playsAllGamesAndRanksGreedyAboveRandom() throws InterruptedException {
+        List<StrategyEntrant> entrants = List.of(
+                StrategyEntrant.of(Difficulty.RANDOM, 0),
+                StrategyEntrant.of(Difficulty.GREEDY, 0));
+        EloRatings ratings = new Tournament(entrants, 2).run(4000, null);
+        assertEquals(4000, ratings.getTotalGames());
+        assertTrue(ratings.getRating(1) > ratings.getRating(0), "La estrategia voraz deberia superar a la aleatoria.");
+    }
+}
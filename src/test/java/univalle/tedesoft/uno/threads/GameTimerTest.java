@@ -0,0 +1,136 @@
+package univalle.tedesoft.uno.threads;
+
+import org.junit.jupiter.api.Test;
+
+import univalle.tedesoft.uno.server.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de precisión de los temporizadores del juego. Se programan muchos plazos cortos
+ * desde varios hilos y se mide cuánto después de cada plazo despierta el hilo; como
+ * referencia se mide lo mismo con Thread.sleep(delay) tras un trabajo previo, que es como
+ * esperaban antes los hilos de la máquina.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class GameTimerTest {
+    /** Hilos que programan temporizadores a la vez. */
+    private static final int THREADS = 4;
+    /** Temporizadores por hilo. */
+    private static final int TIMERS_PER_THREAD = 150;
+
+    /**
+     * Ningún temporizador vence antes de su plazo y el retraso queda acotado, también con
+     * trabajo previo al sueño y con varios hilos compitiendo por la CPU.
+     * @throws Exception si se interrumpe la espera.
+     */
+    @Test
+    void sleepUntil_neverFiresEarlyAndStaysClose() throws Exception {
+        LatencyHistogram timer = measure(true);
+        LatencyHistogram sleep = measure(false);
+        System.out.printf("GameTimer   : %s%nThread.sleep: %s%n", describe(timer), describe(sleep));
+
+        assertEquals((long) THREADS * TIMERS_PER_THREAD, timer.getCount());
+        assertTrue(timer.getPercentile(50) < TimeUnit.MILLISECONDS.toNanos(2), describe(timer));
+        // Margen amplio: el entorno de pruebas puede tener una sola CPU compartida
+        assertTrue(timer.getPercentile(99) < TimeUnit.MILLISECONDS.toNanos(50), describe(timer));
+        assertTrue(timer.getPercentile(50) <= sleep.getPercentile(50),
+                "Esperar al plazo no debería retrasarse más que encadenar el retraso.");
+    }
+
+    /**
+     * Un plazo ya vencido no duerme, y un hilo interrumpido sale con InterruptedException.
+     */
+    @Test
+    void sleepUntil_pastDeadlineAndInterrupt() throws Exception {
+        long deadline = System.nanoTime() - 1_000_000L;
+        assertTrue(GameTimer.hasExpired(deadline));
+        assertFalse(GameTimer.hasExpired(0), "0 significa que no hay temporizador.");
+        assertTrue(GameTimer.sleepUntil(deadline) >= 1_000_000L);
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> GameTimer.sleepUntil(GameTimer.deadlineAfter(1000)));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    /**
+     * Programa temporizadores de 1 a 5 ms desde varios hilos, con un trabajo previo
+     * aleatorio de hasta 1 ms entre el plazo y el sueño.
+     * @param useDeadline true para {@link GameTimer#sleepUntil}, false para Thread.sleep(delay).
+     * @return el retraso de cada despertar respecto a su plazo, en nanosegundos.
+     * @throws Exception si se interrumpe la espera.
+     */
+    private static LatencyHistogram measure(boolean useDeadline) throws Exception {
+        LatencyHistogram result = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        List<LatencyHistogram> perThread = new ArrayList<>();
+        AtomicInteger early = new AtomicInteger();
+        for (int t = 0; t < THREADS; t++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            perThread.add(histogram);
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TIMERS_PER_THREAD; i++) {
+                    long delay = 1 + random.nextInt(5);
+                    long deadline = GameTimer.deadlineAfter(delay);
+                    busyWork(random.nextLong(1_000_000L));
+                    try {
+                        if (useDeadline) {
+                            GameTimer.sleepUntil(deadline);
+                        } else {
+                            Thread.sleep(delay);
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    long lateness = System.nanoTime() - deadline;
+                    if (useDeadline && lateness < 0) {
+                        early.incrementAndGet();
+                    }
+                    histogram.record(Math.max(0, lateness));
+                }
+            }, "GameTimerTest-" + t));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (LatencyHistogram histogram : perThread) {
+            result.add(histogram);
+        }
+        assertEquals(0, early.get(), "Ningún temporizador debería vencer antes del plazo.");
+        return result;
+    }
+
+    /**
+     * Ocupa la CPU durante el tiempo indicado.
+     * @param nanos duración del trabajo.
+     */
+    private static void busyWork(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Describe los percentiles del retraso en microsegundos.
+     * @param histogram el histograma.
+     * @return el texto.
+     */
+    private static String describe(LatencyHistogram histogram) {
+        return String.format("p50 %d us, p90 %d us, p99 %d us, máx %d us",
+                histogram.getPercentile(50) / 1000, histogram.getPercentile(90) / 1000,
+                histogram.getPercentile(99) / 1000, histogram.getMax() / 1000);
+    }
+}